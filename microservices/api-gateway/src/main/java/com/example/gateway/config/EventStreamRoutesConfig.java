@@ -0,0 +1,29 @@
+package com.example.gateway.config;
+
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Маршруты для SSE-потоков изменений. Объявлены раньше общих /items/** и /outfits/**
+ * (order = -1) и без response-timeout, чтобы долгоживущие соединения не обрывались шлюзом.
+ */
+@Configuration
+public class EventStreamRoutesConfig {
+
+    @Bean
+    public RouteLocator eventStreamRoutes(RouteLocatorBuilder builder) {
+        return builder.routes()
+                .route("wardrobe-service-events", r -> r.order(-1)
+                        .path("/items/events")
+                        .metadata(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, -1)
+                        .uri("lb://wardrobe-service"))
+                .route("outfit-service-events", r -> r.order(-1)
+                        .path("/outfits/events")
+                        .metadata(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, -1)
+                        .uri("lb://outfit-service"))
+                .build();
+    }
+}
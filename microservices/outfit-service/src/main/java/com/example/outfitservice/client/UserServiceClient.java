@@ -1,18 +1,44 @@
 package com.example.outfitservice.client;
 
 import com.example.outfitservice.dto.UserDto;
+import com.example.outfitservice.dto.UserExistenceRequestDto;
+import com.example.outfitservice.dto.UserExistenceResponseDto;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
 
+import static com.example.outfitservice.config.CborConfig.ACCEPT_CBOR_OR_JSON;
+
+/**
+ * Bodies go over the wire as CBOR ({@link com.example.outfitservice.config.CborConfig}); JSON stays in
+ * {@code Accept} as a fallback.
+ */
 @FeignClient(
         name = "user-service",
-        url = "${clients.user-service.base-url:http://user-service:8081}"
+        url = "${clients.user-service.base-url:}"
 )
 public interface UserServiceClient {
 
-    @GetMapping("/users/{id}")
+    @GetMapping(value = "/users/{id}", headers = ACCEPT_CBOR_OR_JSON)
     UserDto getUserById(@RequestHeader("Authorization") String authorization,
                         @PathVariable Long id);
+
+    /**
+     * 200 if the user exists; 404 surfaces as {@link feign.FeignException.NotFound}.
+     */
+    @RequestMapping(method = RequestMethod.HEAD, value = "/users/{id}")
+    void userExists(@RequestHeader("Authorization") String authorization,
+                    @PathVariable Long id);
+
+    @PostMapping(value = "/users/exists",
+            consumes = MediaType.APPLICATION_CBOR_VALUE,
+            headers = ACCEPT_CBOR_OR_JSON)
+    UserExistenceResponseDto findExistingIds(@RequestHeader("Authorization") String authorization,
+                                             @RequestBody UserExistenceRequestDto request);
 }
@@ -0,0 +1,29 @@
+package com.example.outfitservice.client;
+
+import com.example.outfitservice.dto.UserDto;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+import java.net.URI;
+
+import static com.example.outfitservice.config.CborConfig.ACCEPT_CBOR_OR_JSON;
+
+/**
+ * Calls to one specific user-service instance (hedged requests). The explicit {@code url} keeps this client
+ * off the load balancer: the balancer would resolve the instance address from the {@link URI} host as a
+ * service id and find nothing. The {@code URI} argument replaces {@code url} on every call.
+ */
+@FeignClient(
+        name = "user-service",
+        contextId = "userServiceInstanceClient",
+        url = "http://user-service"
+)
+public interface UserServiceInstanceClient {
+
+    @GetMapping(value = "/users/{id}", headers = ACCEPT_CBOR_OR_JSON)
+    UserDto getUserById(URI instance,
+                        @RequestHeader("Authorization") String authorization,
+                        @PathVariable Long id);
+}
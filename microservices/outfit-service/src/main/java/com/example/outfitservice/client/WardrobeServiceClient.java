@@ -6,13 +6,15 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestHeader;
 
+import static com.example.outfitservice.config.CborConfig.ACCEPT_CBOR_OR_JSON;
+
 @FeignClient(
         name = "wardrobe-service",
-        url = "${clients.wardrobe-service.base-url:http://wardrobe-service:8082}"
+        url = "${clients.wardrobe-service.base-url:}"
 )
 public interface WardrobeServiceClient {
 
-    @GetMapping("/items/{id}")
+    @GetMapping(value = "/items/{id}", headers = ACCEPT_CBOR_OR_JSON)
     WardrobeItemDto getItemById(@RequestHeader("Authorization") String authorization,
                                 @PathVariable Long id);
 }
@@ -0,0 +1,28 @@
+package com.example.outfitservice.client;
+
+import com.example.outfitservice.dto.WardrobeItemDto;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+import java.net.URI;
+
+import static com.example.outfitservice.config.CborConfig.ACCEPT_CBOR_OR_JSON;
+
+/**
+ * Calls to one specific wardrobe-service instance (hedged requests), bypassing the load balancer;
+ * see {@link UserServiceInstanceClient}.
+ */
+@FeignClient(
+        name = "wardrobe-service",
+        contextId = "wardrobeServiceInstanceClient",
+        url = "http://wardrobe-service"
+)
+public interface WardrobeServiceInstanceClient {
+
+    @GetMapping(value = "/items/{id}", headers = ACCEPT_CBOR_OR_JSON)
+    WardrobeItemDto getItemById(URI instance,
+                                @RequestHeader("Authorization") String authorization,
+                                @PathVariable Long id);
+}
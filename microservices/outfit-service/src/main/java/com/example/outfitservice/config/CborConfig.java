@@ -0,0 +1,38 @@
+package com.example.outfitservice.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * CBOR for calls to user-service and wardrobe-service: Feign's encoder and decoder take their converters from
+ * Boot's {@code HttpMessageConverters}, where this bean replaces Spring's default CBOR converter.
+ * <p>
+ * The public API of outfit-service stays JSON-only: the CBOR converter is removed from the MVC list, so
+ * outfit ETags never have to distinguish between two representations.
+ */
+@Configuration
+public class CborConfig implements WebMvcConfigurer {
+
+    /**
+     * For {@code headers} of Feign mappings: {@code produces} would only send its first type, and JSON has to stay
+     * acceptable for callees that do not speak CBOR yet.
+     */
+    public static final String ACCEPT_CBOR_OR_JSON = "Accept=application/cbor, application/json";
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(MappingJackson2CborHttpMessageConverter.class::isInstance);
+    }
+}
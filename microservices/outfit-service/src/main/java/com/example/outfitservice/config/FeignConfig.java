@@ -1,14 +1,67 @@
 package com.example.outfitservice.config;
 
-import feign.Logger;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration.HttpClientBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
+/**
+ * Транспорт Feign-клиентов — Apache HttpClient 5 с общим пулом соединений (feign-hc5).
+ * Пул, его лимиты и таймауты создаёт Spring Cloud OpenFeign по {@code spring.cloud.openfeign.httpclient.*};
+ * здесь — keep-alive и метрики пула. Уровень логирования Feign задаётся в
+ * {@code spring.cloud.openfeign.client.config.default.logger-level}.
+ */
 @Configuration
+@EnableConfigurationProperties(HedgingProperties.class)
 public class FeignConfig {
 
+    static final String POOL_NAME = "feign";
+
+    /**
+     * Соединение держится в пуле не дольше {@code clients.http.keep-alive} (или меньшего {@code Keep-Alive: timeout}
+     * из ответа). Сами сервисы простаивающие соединения почти не закрывают: Tomcat user-service — через 60 секунд
+     * (keep-alive таймаут по умолчанию равен connection-timeout), Reactor Netty wardrobe-service — никогда. Их раньше
+     * рвут NAT и балансировщики между подами, а запрос в уже закрытый сокет — лишняя ошибка (POST не повторяется);
+     * заодно не копятся соединения к инстансам, ушедшим из Eureka.
+     */
     @Bean
-    Logger.Level feignLoggerLevel() {
-        return Logger.Level.BASIC;
+    HttpClientBuilderCustomizer feignKeepAliveCustomizer(
+            @Value("${clients.http.keep-alive:15s}") Duration keepAlive) {
+        return builder -> builder
+                .setKeepAliveStrategy(keepAliveStrategy(keepAlive))
+                .evictIdleConnections(TimeValue.ofMilliseconds(keepAlive.toMillis()));
+    }
+
+    /**
+     * Метрики {@code httpcomponents.httpclient.pool.*{httpclient=feign}}: занятые/свободные соединения,
+     * ожидающие соединения запросы и лимиты пула.
+     */
+    @Bean
+    MeterBinder feignConnectionPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+        return registry -> {
+            if (connectionManager.getIfAvailable() instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, POOL_NAME).bindTo(registry);
+            }
+        };
+    }
+
+    /** Keep-alive из ответа сервера, но не дольше max. */
+    static ConnectionKeepAliveStrategy keepAliveStrategy(Duration max) {
+        TimeValue cap = TimeValue.ofMilliseconds(max.toMillis());
+        return (response, context) -> {
+            TimeValue advertised = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return TimeValue.isPositive(advertised) && advertised.compareTo(cap) < 0 ? advertised : cap;
+        };
     }
 }
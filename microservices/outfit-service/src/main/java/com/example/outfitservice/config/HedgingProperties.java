@@ -0,0 +1,30 @@
+package com.example.outfitservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Hedging идемпотентных GET к user-service и wardrobe-service: если ответа нет дольше перцентиля недавних
+ * задержек, тот же запрос уходит второму инстансу из Eureka, и используется первый ответ.
+ *
+ * @param enabled        выключенный hedging — один запрос, как раньше
+ * @param percentile     перцентиль задержек, после которого отправляется второй запрос
+ * @param minDelay       нижняя граница задержки перед вторым запросом
+ * @param windowSize     сколько последних задержек хранится для расчёта перцентиля
+ * @param minSamples     до стольких замеров hedging не включается
+ * @param budgetRatio    токенов за каждый вызов; при 0.1 второй запрос получает не больше ~10% вызовов
+ * @param budgetCapacity ёмкость token bucket: запас hedge-запросов после простоя
+ */
+@ConfigurationProperties("clients.hedging")
+public record HedgingProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("0.95") double percentile,
+        @DefaultValue("5ms") Duration minDelay,
+        @DefaultValue("1000") int windowSize,
+        @DefaultValue("100") int minSamples,
+        @DefaultValue("0.1") double budgetRatio,
+        @DefaultValue("10") int budgetCapacity
+) {
+}
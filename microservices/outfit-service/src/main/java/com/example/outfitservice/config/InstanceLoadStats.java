@@ -0,0 +1,123 @@
+package com.example.outfitservice.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Load of every downstream instance as seen from this service: peak EWMA of response latency and
+ * requests in flight. {@link PeakEwmaLoadBalancer} reads the scores; {@link PeakEwmaLoadBalancerLifecycle}
+ * feeds the samples of load-balanced Feign calls, and the hedging executor feeds those of its instance-targeted
+ * attempts.
+ * <p>
+ * Peak EWMA reacts to a slow response immediately (a sample above the average replaces it) and forgets it
+ * gradually with time constant {@code decay}; an instance that gets no traffic decays towards zero and is
+ * probed again. Failures count as {@code failure-penalty} latency.
+ * <p>
+ * Per-instance gauges: {@code loadbalancer.instance.score}, {@code loadbalancer.instance.latency} and
+ * {@code loadbalancer.instance.outstanding}, tagged with {@code service} and {@code instance}.
+ */
+public class InstanceLoadStats {
+
+    private final MeterRegistry meterRegistry;
+    private final double decayNanos;
+    private final long initialLatencyNanos;
+    private final long failurePenaltyNanos;
+    private final Map<String, Map<String, Instance>> services = new ConcurrentHashMap<>();
+
+    public InstanceLoadStats(MeterRegistry meterRegistry, Duration decay, Duration initialLatency,
+                             Duration failurePenalty) {
+        this.meterRegistry = meterRegistry;
+        this.decayNanos = decay.toNanos();
+        this.initialLatencyNanos = initialLatency.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+    }
+
+    public Instance instance(String serviceId, ServiceInstance serviceInstance) {
+        return services.computeIfAbsent(serviceId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key(serviceInstance), key -> new Instance(serviceId, key));
+    }
+
+    /** Drops stats and gauges of instances that are no longer registered. */
+    public void retain(String serviceId, Collection<ServiceInstance> registered) {
+        Map<String, Instance> instances = services.get(serviceId);
+        if (instances == null || instances.size() <= registered.size()) {
+            return;
+        }
+        Set<String> alive = registered.stream().map(InstanceLoadStats::key).collect(Collectors.toSet());
+        instances.values().removeIf(instance -> {
+            if (alive.contains(instance.key)) {
+                return false;
+            }
+            instance.meters.forEach(meterRegistry::remove);
+            return true;
+        });
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    public final class Instance {
+
+        private final String key;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final List<Meter> meters;
+        private double ewmaNanos = initialLatencyNanos;
+        private long updatedAt = System.nanoTime();
+
+        private Instance(String serviceId, String key) {
+            this.key = key;
+            this.meters = List.of(
+                    Gauge.builder("loadbalancer.instance.score", this, Instance::score)
+                            .description("Peak EWMA latency in ms times (requests in flight + 1); lower wins")
+                            .tags("service", serviceId, "instance", key)
+                            .register(meterRegistry),
+                    TimeGauge.builder("loadbalancer.instance.latency", this, TimeUnit.NANOSECONDS,
+                                    instance -> instance.latencyNanos(System.nanoTime()))
+                            .description("Peak EWMA of response latency")
+                            .tags("service", serviceId, "instance", key)
+                            .register(meterRegistry),
+                    Gauge.builder("loadbalancer.instance.outstanding", outstanding, AtomicInteger::get)
+                            .description("Requests in flight")
+                            .tags("service", serviceId, "instance", key)
+                            .register(meterRegistry));
+        }
+
+        public void start() {
+            outstanding.incrementAndGet();
+        }
+
+        public void complete(long latencyNanos, boolean failed) {
+            outstanding.decrementAndGet();
+            observe(failed ? Math.max(latencyNanos, failurePenaltyNanos) : latencyNanos, System.nanoTime());
+        }
+
+        synchronized void observe(long latencyNanos, long now) {
+            double weight = Math.exp(-Math.max(0, now - updatedAt) / decayNanos);
+            ewmaNanos = latencyNanos > ewmaNanos ? latencyNanos : ewmaNanos * weight + latencyNanos * (1 - weight);
+            updatedAt = now;
+        }
+
+        synchronized double latencyNanos(long now) {
+            return ewmaNanos * Math.exp(-Math.max(0, now - updatedAt) / decayNanos);
+        }
+
+        /** Expected wait on this instance; the balancer picks the lower of two. */
+        public double score() {
+            return latencyNanos(System.nanoTime()) / 1_000_000.0 * (outstanding.get() + 1);
+        }
+    }
+}
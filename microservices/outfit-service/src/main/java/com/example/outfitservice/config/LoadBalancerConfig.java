@@ -0,0 +1,29 @@
+package com.example.outfitservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Feign clients without an explicit {@code url} resolve instances through Spring Cloud LoadBalancer; here every
+ * service gets {@link PeakEwmaLoadBalancer} instead of round-robin. Feign is blocking, but
+ * {@code BlockingLoadBalancerClient} calls the same reactive balancer and the same lifecycle hooks, so the
+ * algorithm and the stats are shared with {@link com.example.outfitservice.service.HedgingExecutor}.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+
+    @Bean
+    public InstanceLoadStats instanceLoadStats(
+            MeterRegistry meterRegistry,
+            @Value("${clients.load-balancer.decay:10s}") Duration decay,
+            @Value("${clients.load-balancer.initial-latency:50ms}") Duration initialLatency,
+            @Value("${clients.load-balancer.failure-penalty:1s}") Duration failurePenalty) {
+        return new InstanceLoadStats(meterRegistry, decay, initialLatency, failurePenalty);
+    }
+}
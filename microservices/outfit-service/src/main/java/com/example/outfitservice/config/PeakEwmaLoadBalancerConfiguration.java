@@ -0,0 +1,29 @@
+package com.example.outfitservice.config;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Beans of each per-service load balancer context. Deliberately not a {@code @Configuration}: it must only be
+ * picked up through {@link LoadBalancerConfig}, not by component scanning of the main context.
+ */
+public class PeakEwmaLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> peakEwmaLoadBalancer(Environment environment,
+                                                                    LoadBalancerClientFactory clientFactory,
+                                                                    InstanceLoadStats stats) {
+        String serviceId = LoadBalancerClientFactory.getName(environment);
+        return new PeakEwmaLoadBalancer(
+                clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), serviceId, stats);
+    }
+
+    @Bean
+    public PeakEwmaLoadBalancerLifecycle peakEwmaLoadBalancerLifecycle(Environment environment, InstanceLoadStats stats) {
+        return new PeakEwmaLoadBalancerLifecycle(LoadBalancerClientFactory.getName(environment), stats);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.outfitservice.config;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+
+/**
+ * Feeds {@link InstanceLoadStats} from load-balanced calls: a request is in flight between
+ * {@link #onStartRequest} and {@link #onComplete}, and its latency is measured up to the response headers.
+ * Transport errors and 5xx responses count as failures.
+ */
+public class PeakEwmaLoadBalancerLifecycle
+        implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private final String serviceId;
+    private final InstanceLoadStats stats;
+
+    public PeakEwmaLoadBalancerLifecycle(String serviceId, InstanceLoadStats stats) {
+        this.serviceId = serviceId;
+        this.stats = stats;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        request.getContext().setRequestStartTime(System.nanoTime());
+        stats.instance(serviceId, lbResponse.getServer()).start();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (completionContext.status() == CompletionContext.Status.DISCARD || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        long latency = System.nanoTime() - completionContext.getLoadBalancerRequest().getContext().getRequestStartTime();
+        ResponseData response = completionContext.getClientResponse();
+        boolean failed = completionContext.status() == CompletionContext.Status.FAILED
+                || response != null && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError();
+        stats.instance(serviceId, lbResponse.getServer()).complete(latency, failed);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.outfitservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read-only транзакции (в т.ч. {@code @Transactional(readOnly = true)} на OutfitService: ленты, курсоры, NDJSON-стримы) читают с реплики,
+ * остальные идут на primary.
+ *
+ * LazyConnectionDataSourceProxy откладывает выбор физического соединения до первого запроса, когда
+ * транзакция уже пометила соединение как read-only, и тогда берёт его из readOnlyDataSource.
+ * Пулы primary и replica — отдельные HikariDataSource-бины, поэтому метрики hikaricp.* размечены pool=primary|replica.
+ *
+ * Соединение выбирается один раз на транзакцию, поэтому spring.jpa.open-in-view выключен: иначе EntityManager
+ * держал бы соединение первой транзакции до конца запроса, и запись после read-only чтения ушла бы на реплику.
+ *
+ * Классы config/Replica* и этот конфиг совпадают с user-service, меняются синхронно.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(ReplicaDataSourceProperties replica, DataSourceProperties primary) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(replica.url());
+        dataSource.setUsername(replica.username() != null ? replica.username() : primary.determineUsername());
+        dataSource.setPassword(replica.password() != null ? replica.password() : primary.determinePassword());
+        dataSource.setReadOnly(true);
+        // недоступная реплика не должна надолго задерживать запрос перед переключением на primary
+        dataSource.setConnectionTimeout(2_000);
+        return dataSource;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource replicaDataSource,
+                                              ReplicaDataSourceProperties replica,
+                                              ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ReplicaLagMonitor(replicaDataSource, replica.maxLag(), replica.checkInterval(), meterRegistry.getIfAvailable());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 HikariDataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor));
+        return dataSource;
+    }
+}
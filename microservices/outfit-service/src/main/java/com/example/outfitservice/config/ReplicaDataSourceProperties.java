@@ -0,0 +1,25 @@
+package com.example.outfitservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Настройки реплики для чтения. Маршрутизация включается только при заданном {@code app.datasource.replica.url};
+ * пул реплики дополнительно настраивается через {@code app.datasource.replica.hikari.*}.
+ *
+ * @param username      по умолчанию как у primary
+ * @param password      по умолчанию как у primary
+ * @param maxLag        при большем отставании чтения уходят на primary
+ * @param checkInterval период проверки доступности и отставания реплики
+ */
+@ConfigurationProperties("app.datasource.replica")
+public record ReplicaDataSourceProperties(
+        String url,
+        String username,
+        String password,
+        @DefaultValue("5s") Duration maxLag,
+        @DefaultValue("5s") Duration checkInterval
+) {
+}
@@ -1,21 +1,37 @@
 package com.example.outfitservice.controller;
 
+import com.example.outfitservice.dto.OutfitBulkResultDto;
 import com.example.outfitservice.dto.OutfitDto;
 import com.example.outfitservice.dto.OutfitDetailedResponseDto;
+import com.example.outfitservice.dto.OutfitEventDto;
 import com.example.outfitservice.dto.OutfitResponseDto;
 import com.example.outfitservice.service.OutfitService;
+import com.example.outfitservice.service.Versioned;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -24,22 +40,40 @@ import java.util.List;
 @Validated
 public class OutfitController {
 
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final OutfitService outfitService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Получить образ по ID", description = "Возвращает образ с указанным идентификатором")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Образ найден"),
+            @ApiResponse(responseCode = "304", description = "Образ не изменился (If-None-Match)"),
             @ApiResponse(responseCode = "404", description = "Образ не найден")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<OutfitResponseDto> getById(@PathVariable @Min(1) Long id) {
-        return ResponseEntity.ok(outfitService.getByIdWithItemDetails(id));
+    public ResponseEntity<OutfitResponseDto> getById(@PathVariable @Min(1) Long id, WebRequest request) {
+        String etag = outfitService.getETag(id);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CACHE_CONTROL)
+                .body(outfitService.getByIdWithItemDetails(id));
     }
 
     @Operation(summary = "Получить образ по ID (с деталями вещей)", description = "Возвращает образ и подробное описание каждой вещи через wardrobe-service")
     @GetMapping("/{id}/detailed")
-    public ResponseEntity<OutfitDetailedResponseDto> getByIdDetailed(@PathVariable @Min(1) Long id) {
-        return ResponseEntity.ok(outfitService.getDetailedById(id));
+    public ResponseEntity<OutfitDetailedResponseDto> getByIdDetailed(@PathVariable @Min(1) Long id, WebRequest request) {
+        String etag = outfitService.getETag(id);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CACHE_CONTROL)
+                .body(outfitService.getDetailedById(id));
     }
 
     @Operation(summary = "Создать новый образ", description = "Создает новый образ на основе переданных данных")
@@ -52,22 +86,38 @@ public class OutfitController {
         return ResponseEntity.status(HttpStatus.CREATED).body(outfitService.create(dto));
     }
 
+    @Operation(summary = "Массовый импорт образов",
+            description = "Создает до 5000 образов за один запрос пачками JDBC-вставок. Пользователь может импортировать только свои образы.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Образы успешно созданы"),
+            @ApiResponse(responseCode = "400", description = "Ошибка валидации данных")
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<OutfitBulkResultDto> createBulk(
+            @RequestBody @NotEmpty @Size(max = 5000) List<@Valid OutfitDto> dtos) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(outfitService.createBulk(dtos));
+    }
+
     @Operation(summary = "Обновить существующий образ", description = "Обновляет данные образа по указанному ID")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Образ успешно обновлен"),
-            @ApiResponse(responseCode = "404", description = "Образ не найден")
+            @ApiResponse(responseCode = "404", description = "Образ не найден"),
+            @ApiResponse(responseCode = "409", description = "Образ одновременно изменён другим клиентом (без If-Match)"),
+            @ApiResponse(responseCode = "412", description = "Образ изменён другим клиентом (If-Match)")
     })
     @PutMapping("/{id}")
     public ResponseEntity<OutfitResponseDto> update(@PathVariable @Min(1) Long id,
-                                            @Valid @RequestBody OutfitDto dto) {
-        return ResponseEntity.ok(outfitService.update(id, dto));
+                                            @Valid @RequestBody OutfitDto dto,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return toResponse(outfitService.update(id, dto, ifMatch));
     }
 
     @Operation(summary = "Обновить существующий образ (с деталями вещей)", description = "Обновляет образ и возвращает ответ с деталями вещей")
     @PutMapping("/{id}/detailed")
     public ResponseEntity<OutfitDetailedResponseDto> updateDetailed(@PathVariable @Min(1) Long id,
-                                                                    @Valid @RequestBody OutfitDto dto) {
-        return ResponseEntity.ok(outfitService.updateDetailed(id, dto));
+                                                                    @Valid @RequestBody OutfitDto dto,
+                                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return toResponse(outfitService.updateDetailed(id, dto, ifMatch));
     }
 
     @Operation(summary = "Получить образы с пагинацией",
@@ -86,6 +136,25 @@ public class OutfitController {
                 .body(result.items());
     }
 
+    @Operation(summary = "Получить образы по курсору",
+            description = "Keyset-пагинация от новых к старым (created_at DESC, id DESC) без подсчета общего количества. "
+                    + "Курсор следующей страницы возвращается в заголовке X-Next-Cursor; его отсутствие означает конец списка.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Образы успешно получены"),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор")
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<List<OutfitResponseDto>> getByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(50) int limit) {
+        var page = outfitService.getOutfitsByCursor(cursor, limit);
+        var response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header("X-Next-Cursor", page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
     @Operation(summary = "Получить все мои образы", description = "Возвращает все образы текущего пользователя (даже если роль supervisor/moderator)")
     @GetMapping("/me")
     public ResponseEntity<List<OutfitResponseDto>> getMyOutfits() {
@@ -98,6 +167,29 @@ public class OutfitController {
         return ResponseEntity.ok(outfitService.getMyOutfitsDetailed());
     }
 
+    @Operation(summary = "Потоково получить все мои образы (NDJSON)",
+            description = "По одному образу на строку, без материализации всего списка; выбирается заголовком Accept: application/x-ndjson")
+    @GetMapping(value = "/me", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMyOutfits() {
+        StreamingResponseBody body = out -> outfitService.streamMyOutfits(dto -> writeLine(out, dto));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @Operation(summary = "Потоково получить все мои образы с деталями вещей (NDJSON)",
+            description = "По одному образу на строку, без материализации всего списка; выбирается заголовком Accept: application/x-ndjson")
+    @GetMapping(value = "/me/detailed", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMyOutfitsDetailed() {
+        StreamingResponseBody body = out -> outfitService.streamMyOutfitsDetailed(dto -> writeLine(out, dto));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @Operation(summary = "Подписка на изменения моих образов (SSE)",
+            description = "Держит открытым поток text/event-stream и присылает события CREATED/UPDATED/DELETED по образам текущего пользователя")
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<OutfitEventDto>> streamMyChanges() {
+        return outfitService.streamMyChanges();
+    }
+
     @Operation(summary = "Бесконечная прокрутка образов",
             description = "Возвращает часть списка образов без указания общего количества записей (для 'ленты').")
     @GetMapping("/scroll")
@@ -114,4 +206,20 @@ public class OutfitController {
         outfitService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static <T> ResponseEntity<T> toResponse(Versioned<T> versioned) {
+        return ResponseEntity.ok()
+                .eTag(versioned.eTag())
+                .cacheControl(CACHE_CONTROL)
+                .body(versioned.body());
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
 }
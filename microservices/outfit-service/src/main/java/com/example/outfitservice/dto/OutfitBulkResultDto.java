@@ -0,0 +1,13 @@
+package com.example.outfitservice.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+import java.util.List;
+
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record OutfitBulkResultDto(
+        int created,
+        List<Long> ids
+) {
+}
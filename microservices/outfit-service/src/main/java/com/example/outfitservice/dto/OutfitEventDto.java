@@ -0,0 +1,19 @@
+package com.example.outfitservice.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+import java.time.Instant;
+
+/**
+ * Событие изменения образа, отправляемое владельцу через SSE (GET /outfits/events).
+ * Для DELETED и для CREATED из bulk-импорта outfit = null.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record OutfitEventDto(
+        OutfitEventType type,
+        Long id,
+        Instant occurredAt,
+        OutfitResponseDto outfit
+) {
+}
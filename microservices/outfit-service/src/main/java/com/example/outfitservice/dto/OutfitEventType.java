@@ -0,0 +1,7 @@
+package com.example.outfitservice.dto;
+
+public enum OutfitEventType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
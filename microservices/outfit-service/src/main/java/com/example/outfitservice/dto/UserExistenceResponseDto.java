@@ -0,0 +1,12 @@
+package com.example.outfitservice.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+import java.util.List;
+
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record UserExistenceResponseDto(
+        List<Long> existingIds
+) {
+}
@@ -2,6 +2,9 @@ package com.example.outfitservice.entity;
 
 import jakarta.persistence.*;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -12,6 +15,9 @@ import java.util.Set;
 
 @Entity
 @Table(name = "outfits")
+// образы читаются намного чаще, чем меняются: second-level cache, размеры регионов заданы в caffeine.conf
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Outfit.CACHE_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,8 +25,13 @@ import java.util.Set;
 @ToString
 public class Outfit {
 
+    public static final String CACHE_REGION = "outfits";
+    public static final String ITEMS_CACHE_REGION = "outfits-outfit-items";
+
+    // pooled sequence вместо IDENTITY: иначе Hibernate отключает batch insert для образов
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outfits_id_seq")
+    @SequenceGenerator(name = "outfits_id_seq", sequenceName = "outfits_id_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -33,12 +44,22 @@ public class Outfit {
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @ToString.Exclude
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Outfit.ITEMS_CACHE_REGION)
     @OneToMany(mappedBy = "outfit", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<OutfitItem> outfitItems = new HashSet<>();
 
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) createdAt = Instant.now();
+        if (updatedAt == null) updatedAt = createdAt;
     }
 }
@@ -6,9 +6,13 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "outfit_items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = OutfitItem.CACHE_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,6 +20,8 @@ import lombok.ToString;
 @ToString
 public class OutfitItem {
 
+    public static final String CACHE_REGION = "outfit-items";
+
     @EmbeddedId
     @EqualsAndHashCode.Include
     private OutfitItemId id = new OutfitItemId();
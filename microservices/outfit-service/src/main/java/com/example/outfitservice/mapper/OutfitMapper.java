@@ -5,10 +5,14 @@ import com.example.outfitservice.dto.OutfitItemLinkDto;
 import com.example.outfitservice.dto.OutfitResponseDto;
 import com.example.outfitservice.entity.Outfit;
 import com.example.outfitservice.entity.OutfitItem;
+import com.example.outfitservice.repository.OutfitItemRow;
+import com.example.outfitservice.repository.OutfitSummary;
 import org.springframework.stereotype.Component;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
 public class OutfitMapper {
@@ -34,6 +38,26 @@ public class OutfitMapper {
         );
     }
 
+    /**
+     * Списки без сущностей: связи уже отсортированы запросом (position_index, item_id), как и в {@link #toDto(Outfit)}.
+     */
+    public List<OutfitResponseDto> toDtos(List<OutfitSummary> outfits, List<OutfitItemRow> items) {
+        Map<Long, List<OutfitItemLinkDto>> linksByOutfit = items.stream()
+                .collect(Collectors.groupingBy(
+                        OutfitItemRow::outfitId,
+                        Collectors.mapping(row -> new OutfitItemLinkDto(row.itemId(), row.role()), Collectors.toList())
+                ));
+
+        return outfits.stream()
+                .map(outfit -> new OutfitResponseDto(
+                        outfit.id(),
+                        outfit.title(),
+                        outfit.userId(),
+                        linksByOutfit.getOrDefault(outfit.id(), List.of())
+                ))
+                .toList();
+    }
+
     public Outfit toEntity(OutfitDto dto) {
         if (dto == null) return null;
         Outfit outfit = new Outfit();
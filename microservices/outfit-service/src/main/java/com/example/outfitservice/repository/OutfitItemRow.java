@@ -0,0 +1,9 @@
+package com.example.outfitservice.repository;
+
+import com.example.outfitservice.entity.OutfitRole;
+
+/**
+ * Constructor projection of an outfit_items row, loaded for a whole page of {@link OutfitSummary} at once.
+ */
+public record OutfitItemRow(Long outfitId, Long itemId, OutfitRole role, int positionIndex) {
+}
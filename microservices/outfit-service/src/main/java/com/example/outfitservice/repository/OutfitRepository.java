@@ -1,34 +1,144 @@
 package com.example.outfitservice.repository;
 
 import com.example.outfitservice.entity.Outfit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OutfitRepository extends JpaRepository<Outfit, Long> {
 
-    Page<Outfit> findAll(Pageable pageable);
+    /*
+     * Списочные эндпоинты читают проекции (OutfitSummary + OutfitItemRow) вместо сущностей:
+     * ни managed-объектов, ни снапшотов для dirty checking, ни ленивых коллекций.
+     */
+
+    @Query(value = "SELECT new com.example.outfitservice.repository.OutfitSummary(o.id, o.title, o.userId, o.createdAt) FROM Outfit o",
+            countQuery = "SELECT count(o) FROM Outfit o")
+    Page<OutfitSummary> findSummaries(Pageable pageable);
+
+    @Query(value = """
+            SELECT new com.example.outfitservice.repository.OutfitSummary(o.id, o.title, o.userId, o.createdAt)
+            FROM Outfit o WHERE o.userId = :userId
+            """,
+            countQuery = "SELECT count(o) FROM Outfit o WHERE o.userId = :userId")
+    Page<OutfitSummary> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
 
-    Page<Outfit> findAllByUserId(Long userId, Pageable pageable);
+    @Query("""
+            SELECT new com.example.outfitservice.repository.OutfitSummary(o.id, o.title, o.userId, o.createdAt)
+            FROM Outfit o WHERE o.userId = :userId ORDER BY o.id
+            """)
+    List<OutfitSummary> findSummariesByUserId(@Param("userId") Long userId);
 
-    List<Outfit> findAllByUserId(Long userId);
+    /**
+     * Курсорное чтение всех образов пользователя: строки приходят с сервера порциями по fetch size,
+     * а не материализуются целиком. Требует открытой (read-only) транзакции и закрытия Stream.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("""
+            SELECT new com.example.outfitservice.repository.OutfitSummary(o.id, o.title, o.userId, o.createdAt)
+            FROM Outfit o WHERE o.userId = :userId ORDER BY o.id
+            """)
+    Stream<OutfitSummary> streamSummariesByUserId(@Param("userId") Long userId);
 
     /**
-     * Infinite scroll by "starting id": returns outfits with id >= fromId, limited by limit.
+     * Infinite scroll by "starting id": returns outfits with id >= fromId, limited by page size.
      * This matches API parameter name "offset" used by /outfits/scroll, where caller expects
      * offset=78 to start from id=78 (not rounded down to page boundary).
      */
-    @Query(value = "SELECT * FROM outfits WHERE id >= :fromId ORDER BY id LIMIT :limit", nativeQuery = true)
-    List<Outfit> findAllScrollFromId(@Param("fromId") long fromId, @Param("limit") int limit);
+    @Query("""
+            SELECT new com.example.outfitservice.repository.OutfitSummary(o.id, o.title, o.userId, o.createdAt)
+            FROM Outfit o WHERE o.id >= :fromId ORDER BY o.id
+            """)
+    List<OutfitSummary> findSummariesScrollFromId(@Param("fromId") long fromId, Pageable limit);
+
+    /**
+     * Also used page by page outside a service transaction (detailed NDJSON stream), hence its own read-only one.
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+            SELECT new com.example.outfitservice.repository.OutfitSummary(o.id, o.title, o.userId, o.createdAt)
+            FROM Outfit o WHERE o.userId = :userId AND o.id >= :fromId ORDER BY o.id
+            """)
+    List<OutfitSummary> findSummariesByUserIdScrollFromId(@Param("userId") long userId,
+                                                          @Param("fromId") long fromId,
+                                                          Pageable limit);
+
+    /**
+     * Keyset pagination ordered by (created_at DESC, id DESC), see idx_outfits_created_id / idx_outfits_user_created_id.
+     * No OFFSET and no count(*): the cost of a page does not depend on how deep the client has scrolled.
+     * JPQL has no row-value comparison, so the seek is spelled as
+     * created_at <= :createdAt (index range) AND (created_at < :createdAt OR id < :id) (tie-break).
+     */
+    @Query("""
+            SELECT new com.example.outfitservice.repository.OutfitSummary(o.id, o.title, o.userId, o.createdAt)
+            FROM Outfit o ORDER BY o.createdAt DESC, o.id DESC
+            """)
+    List<OutfitSummary> findFirstPageByCreatedAt(Pageable limit);
+
+    @Query("""
+            SELECT new com.example.outfitservice.repository.OutfitSummary(o.id, o.title, o.userId, o.createdAt)
+            FROM Outfit o
+            WHERE o.createdAt <= :createdAt AND (o.createdAt < :createdAt OR o.id < :id)
+            ORDER BY o.createdAt DESC, o.id DESC
+            """)
+    List<OutfitSummary> findPageByCreatedAtBefore(@Param("createdAt") Instant createdAt,
+                                                  @Param("id") long id,
+                                                  Pageable limit);
+
+    @Query("""
+            SELECT new com.example.outfitservice.repository.OutfitSummary(o.id, o.title, o.userId, o.createdAt)
+            FROM Outfit o WHERE o.userId = :userId
+            ORDER BY o.createdAt DESC, o.id DESC
+            """)
+    List<OutfitSummary> findFirstPageByUserIdAndCreatedAt(@Param("userId") long userId, Pageable limit);
 
-    @Query(value = "SELECT * FROM outfits WHERE user_id = :userId AND id >= :fromId ORDER BY id LIMIT :limit", nativeQuery = true)
-    List<Outfit> findAllByUserIdScrollFromId(@Param("userId") long userId, @Param("fromId") long fromId, @Param("limit") int limit);
+    @Query("""
+            SELECT new com.example.outfitservice.repository.OutfitSummary(o.id, o.title, o.userId, o.createdAt)
+            FROM Outfit o
+            WHERE o.userId = :userId
+              AND o.createdAt <= :createdAt AND (o.createdAt < :createdAt OR o.id < :id)
+            ORDER BY o.createdAt DESC, o.id DESC
+            """)
+    List<OutfitSummary> findPageByUserIdAndCreatedAtBefore(@Param("userId") long userId,
+                                                           @Param("createdAt") Instant createdAt,
+                                                           @Param("id") long id,
+                                                           Pageable limit);
+
+    /**
+     * Связи сразу для всей страницы образов, в том же порядке, в котором их сортирует {@code OutfitMapper}.
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+            SELECT new com.example.outfitservice.repository.OutfitItemRow(oi.id.outfitId, oi.id.itemId, oi.role, oi.positionIndex)
+            FROM OutfitItem oi
+            WHERE oi.id.outfitId IN :outfitIds
+            ORDER BY oi.id.outfitId, oi.positionIndex, oi.id.itemId
+            """)
+    List<OutfitItemRow> findItemRowsByOutfitIds(@Param("outfitIds") Collection<Long> outfitIds);
 
+    /**
+     * Проверка доступа всегда идёт в базу: локальный кэш инстанса не видит передачу образа
+     * другому владельцу и удаление, сделанные через соседние инстансы.
+     */
     boolean existsByIdAndUserId(Long id, Long userId);
+
+    @Query("SELECT o.userId FROM Outfit o WHERE o.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+
+    @Query("SELECT o.version FROM Outfit o WHERE o.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,9 @@
+package com.example.outfitservice.repository;
+
+import java.time.Instant;
+
+/**
+ * Constructor projection of an outfit row for list endpoints: no managed entity, no dirty-checking snapshot.
+ */
+public record OutfitSummary(Long id, String title, Long userId, Instant createdAt) {
+}
@@ -0,0 +1,12 @@
+package com.example.outfitservice.service;
+
+import java.util.List;
+
+/**
+ * Страница keyset-пагинации: nextCursor == null означает, что дальше данных нет.
+ */
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor
+) {
+}
@@ -0,0 +1,234 @@
+package com.example.outfitservice.service;
+
+import com.example.outfitservice.config.HedgingProperties;
+import com.example.outfitservice.config.InstanceLoadStats;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Hedged requests для идемпотентных GET к другим сервисам.
+ * <p>
+ * Если ответа нет дольше p95 недавних задержек ({@code clients.hedging.percentile}), тот же запрос уходит
+ * второму инстансу из Eureka, и вызов получает первый ответ. Пару инстансов выбирают так же, как балансировщик
+ * Feign-клиентов: из двух случайных основным становится тот, у кого меньше оценка в {@link InstanceLoadStats},
+ * и замеры обеих попыток идут туда же. Второй запрос списывает токен из {@link RetryBudget},
+ * так что при деградации всего сервиса hedging выключается сам, а не удваивает нагрузку.
+ * Проигравший запрос не прерывается (блокирующий Feign на это не реагирует): он доживает до ответа,
+ * и соединение возвращается в пул.
+ * <p>
+ * Пока замеров мало или в Eureka меньше двух инстансов, вызов идёт как обычно — одним запросом.
+ */
+@Component
+public class HedgingExecutor {
+
+    private final DiscoveryClient discoveryClient;
+    private final MeterRegistry meterRegistry;
+    private final HedgingProperties properties;
+    private final InstanceLoadStats loadStats;
+    private final Map<String, Downstream> downstreams = new ConcurrentHashMap<>();
+    private final ExecutorService attempts = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("client-hedge-", 0).factory());
+
+    public HedgingExecutor(DiscoveryClient discoveryClient, MeterRegistry meterRegistry, HedgingProperties properties,
+                           InstanceLoadStats loadStats) {
+        this.discoveryClient = discoveryClient;
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        this.loadStats = loadStats;
+    }
+
+    /**
+     * @param serviceId    имя сервиса в Eureka
+     * @param call         обычный вызов через Feign-клиент
+     * @param instanceCall тот же вызов к конкретному инстансу
+     */
+    public <T> T execute(String serviceId, Supplier<T> call, Function<URI, T> instanceCall) {
+        Downstream downstream = downstreams.computeIfAbsent(serviceId, this::downstream);
+        downstream.requests.increment();
+        downstream.budget.deposit();
+
+        long delayNanos = downstream.latencies.percentileNanos();
+        List<ServiceInstance> instances = properties.enabled() && delayNanos >= 0
+                ? discoveryClient.getInstances(serviceId)
+                : List.of();
+        if (instances.size() < 2) {
+            return timed(downstream, call);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = (first + 1 + random.nextInt(instances.size() - 1)) % instances.size();
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        boolean swap = loadStats.instance(serviceId, b).score() < loadStats.instance(serviceId, a).score();
+        ServiceInstance primary = swap ? b : a;
+        ServiceInstance backup = swap ? a : b;
+
+        Race<T> race = new Race<>(downstream);
+        race.start(tracked(serviceId, primary, instanceCall), false);
+        long hedgeAfter = Math.max(delayNanos, properties.minDelay().toNanos());
+        CompletableFuture.delayedExecutor(hedgeAfter, TimeUnit.NANOSECONDS, attempts).execute(() -> {
+            if (race.result.isDone()) {
+                return;
+            }
+            if (!downstream.budget.tryAcquire()) {
+                downstream.budgetExhausted.increment();
+                return;
+            }
+            if (race.start(tracked(serviceId, backup, instanceCall), true)) {
+                downstream.hedges.increment();
+            }
+        });
+        try {
+            Outcome<T> outcome = race.result.join();
+            if (outcome.hedge()) {
+                downstream.wins.increment();
+            }
+            return outcome.value();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /** Попытка к конкретному инстансу, учтённая в его оценке для балансировщика. */
+    private <T> Supplier<T> tracked(String serviceId, ServiceInstance instance, Function<URI, T> instanceCall) {
+        InstanceLoadStats.Instance stats = loadStats.instance(serviceId, instance);
+        return () -> {
+            stats.start();
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                T result = instanceCall.apply(instance.getUri());
+                failed = false;
+                return result;
+            } catch (FeignException ex) {
+                failed = ex.status() < 0 || ex.status() >= 500;
+                throw ex;
+            } finally {
+                stats.complete(System.nanoTime() - start, failed);
+            }
+        };
+    }
+
+    private <T> T timed(Downstream downstream, Supplier<T> call) {
+        long start = System.nanoTime();
+        T result = call.get();
+        downstream.latencies.record(System.nanoTime() - start);
+        return result;
+    }
+
+    private Downstream downstream(String serviceId) {
+        Downstream downstream = new Downstream(
+                new LatencyWindow(properties.windowSize(), properties.percentile(), properties.minSamples()),
+                new RetryBudget(properties.budgetRatio(), properties.budgetCapacity()),
+                Counter.builder("client.hedge.requests")
+                        .description("Idempotent calls to the downstream")
+                        .tag("client", serviceId)
+                        .register(meterRegistry),
+                Counter.builder("client.hedge.sent")
+                        .description("Hedged requests sent to a second instance")
+                        .tag("client", serviceId)
+                        .register(meterRegistry),
+                Counter.builder("client.hedge.wins")
+                        .description("Calls answered by the hedged request")
+                        .tag("client", serviceId)
+                        .register(meterRegistry),
+                Counter.builder("client.hedge.budget.exhausted")
+                        .description("Hedges skipped because the retry budget was empty")
+                        .tag("client", serviceId)
+                        .register(meterRegistry));
+        TimeGauge.builder("client.hedge.delay", downstream.latencies, TimeUnit.NANOSECONDS,
+                        w -> Math.max(w.percentileNanos(), properties.minDelay().toNanos()))
+                .description("Current delay before a hedged request")
+                .tag("client", serviceId)
+                .register(meterRegistry);
+        Gauge.builder("client.retry.budget.tokens", downstream.budget, RetryBudget::available)
+                .description("Tokens left in the retry budget")
+                .tag("client", serviceId)
+                .register(meterRegistry);
+        return downstream;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        attempts.shutdownNow();
+    }
+
+    /** 4xx — ответ сервиса, а не сбой инстанса: ждать второй запрос нет смысла. */
+    private static boolean isDefinitive(Throwable ex) {
+        return ex instanceof FeignException fe && fe.status() >= 400 && fe.status() < 500;
+    }
+
+    private record Downstream(LatencyWindow latencies, RetryBudget budget, Counter requests,
+                              Counter hedges, Counter wins, Counter budgetExhausted) {
+    }
+
+    private record Outcome<T>(T value, boolean hedge) {
+    }
+
+    /**
+     * Первый успешный ответ выигрывает. Сбой ждёт второй попытки, только если она уже отправлена;
+     * если падают обе, наружу уходит ошибка основного запроса.
+     */
+    private final class Race<T> {
+
+        final CompletableFuture<Outcome<T>> result = new CompletableFuture<>();
+        private final Downstream downstream;
+        private int running;
+        private Throwable primaryFailure;
+
+        Race(Downstream downstream) {
+            this.downstream = downstream;
+        }
+
+        synchronized boolean start(Supplier<T> attempt, boolean hedge) {
+            if (result.isDone()) {
+                return false;
+            }
+            running++;
+            attempts.execute(() -> {
+                try {
+                    result.complete(new Outcome<>(timed(downstream, attempt), hedge));
+                } catch (Throwable ex) {
+                    failed(ex, hedge);
+                }
+            });
+            return true;
+        }
+
+        private synchronized void failed(Throwable ex, boolean hedge) {
+            running--;
+            if (!hedge) {
+                primaryFailure = ex;
+            }
+            if (isDefinitive(ex)) {
+                result.completeExceptionally(ex);
+            } else if (running == 0) {
+                result.completeExceptionally(primaryFailure != null ? primaryFailure : ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.outfitservice.service;
+
+import java.util.Arrays;
+
+/**
+ * Кольцевой буфер последних задержек вызова и их перцентиль. Перцентиль пересчитывается не на каждый замер,
+ * а раз в десятую часть окна, так что чтение — обычное volatile-поле.
+ */
+final class LatencyWindow {
+
+    private final long[] samples;
+    private final double percentile;
+    private final int minSamples;
+    private final int refreshEvery;
+
+    private int next;
+    private long recorded;
+    private volatile long percentileNanos = -1;
+
+    LatencyWindow(int size, double percentile, int minSamples) {
+        this.samples = new long[size];
+        this.percentile = percentile;
+        this.minSamples = Math.min(minSamples, size);
+        this.refreshEvery = Math.max(1, size / 10);
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        recorded++;
+        if (recorded >= minSamples && (percentileNanos < 0 || recorded % refreshEvery == 0)) {
+            long[] sorted = Arrays.copyOf(samples, (int) Math.min(recorded, samples.length));
+            Arrays.sort(sorted);
+            percentileNanos = sorted[Math.max(0, (int) Math.ceil(percentile * sorted.length) - 1)];
+        }
+    }
+
+    /** Перцентиль в наносекундах или -1, пока замеров меньше {@code minSamples}. */
+    long percentileNanos() {
+        return percentileNanos;
+    }
+}
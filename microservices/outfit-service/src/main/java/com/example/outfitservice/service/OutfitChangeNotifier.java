@@ -0,0 +1,135 @@
+package com.example.outfitservice.service;
+
+import com.example.outfitservice.dto.OutfitEventDto;
+import com.example.outfitservice.dto.OutfitEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory fan-out of outfit changes to SSE subscribers, one channel per owner.
+ * <p>
+ * Events are pushed only after the surrounding transaction commits. Each connection has its own
+ * bounded buffer with drop-oldest overflow; heartbeat comments come from a single shared timer.
+ * Events are only delivered to subscribers connected to this instance.
+ */
+@Component
+public class OutfitChangeNotifier {
+
+    private static final Sinks.EmitFailureHandler EMIT_RETRY = Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100));
+
+    private final Map<Long, OwnerChannel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter publishedEvents;
+    private final Counter droppedEvents;
+    private final int bufferSize;
+    private final Flux<Long> heartbeat;
+
+    public OutfitChangeNotifier(MeterRegistry meterRegistry,
+                                @Value("${outfit.sse.buffer-size:256}") int bufferSize,
+                                @Value("${outfit.sse.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        this.bufferSize = bufferSize;
+        this.heartbeat = Flux.interval(heartbeatInterval).onBackpressureDrop().share();
+
+        Gauge.builder("outfit.sse.connections", connections, AtomicInteger::get)
+                .description("Open SSE connections on /outfits/events")
+                .register(meterRegistry);
+        Gauge.builder("outfit.sse.owners", channels, Map::size)
+                .description("Owners with at least one open SSE connection")
+                .register(meterRegistry);
+        this.publishedEvents = Counter.builder("outfit.sse.events.published")
+                .description("Change events delivered to owner channels")
+                .register(meterRegistry);
+        this.droppedEvents = Counter.builder("outfit.sse.events.dropped")
+                .description("Events dropped because a client buffer was full")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOutfitChanged(OutfitChangedEvent event) {
+        OwnerChannel channel = channels.get(event.ownerId());
+        if (channel == null) {
+            return;
+        }
+        channel.sink().emitNext(event.payload(), EMIT_RETRY);
+        publishedEvents.increment();
+    }
+
+    /**
+     * Bulk-импорт: подписчикам уходит CREATED только с id, за телом клиент приходит сам.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOutfitsCreated(OutfitsCreatedEvent event) {
+        Instant now = Instant.now();
+        event.outfitIdsByOwner().forEach((ownerId, outfitIds) -> {
+            OwnerChannel channel = channels.get(ownerId);
+            if (channel == null) {
+                return;
+            }
+            for (Long outfitId : outfitIds) {
+                channel.sink().emitNext(new OutfitEventDto(OutfitEventType.CREATED, outfitId, now, null), EMIT_RETRY);
+                publishedEvents.increment();
+            }
+        });
+    }
+
+    public Flux<ServerSentEvent<OutfitEventDto>> stream(Long ownerId) {
+        Flux<ServerSentEvent<OutfitEventDto>> events = Flux.using(
+                        () -> acquire(ownerId),
+                        channel -> channel.sink().asFlux(),
+                        channel -> release(ownerId, channel))
+                .onBackpressureBuffer(bufferSize, dropped -> droppedEvents.increment(), BufferOverflowStrategy.DROP_OLDEST)
+                .map(event -> ServerSentEvent.builder(event)
+                        .event(event.type().name())
+                        .build());
+
+        Flux<ServerSentEvent<OutfitEventDto>> heartbeats = heartbeat
+                .map(tick -> ServerSentEvent.<OutfitEventDto>builder().comment("heartbeat").build());
+
+        // prefetch = 1: буферизация только в onBackpressureBuffer, иначе merge держал бы ещё свою очередь
+        return Flux.merge(1, events, heartbeats)
+                .doOnSubscribe(subscription -> connections.incrementAndGet())
+                .doFinally(signal -> connections.decrementAndGet());
+    }
+
+    int connectionCount() {
+        return connections.get();
+    }
+
+    private OwnerChannel acquire(Long ownerId) {
+        return channels.compute(ownerId, (id, channel) -> {
+            OwnerChannel result = channel != null ? channel : new OwnerChannel();
+            result.subscribers().incrementAndGet();
+            return result;
+        });
+    }
+
+    private void release(Long ownerId, OwnerChannel channel) {
+        channels.computeIfPresent(ownerId, (id, current) -> {
+            if (current != channel) {
+                return current;
+            }
+            return current.subscribers().decrementAndGet() == 0 ? null : current;
+        });
+    }
+
+    private record OwnerChannel(Sinks.Many<OutfitEventDto> sink, AtomicInteger subscribers) {
+        OwnerChannel() {
+            this(Sinks.many().multicast().directBestEffort(), new AtomicInteger());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.outfitservice.service;
+
+import com.example.outfitservice.dto.OutfitEventDto;
+import com.example.outfitservice.dto.OutfitEventType;
+import com.example.outfitservice.dto.OutfitResponseDto;
+
+import java.time.Instant;
+
+/**
+ * Application event published by {@link OutfitService}; delivered to SSE subscribers after commit.
+ */
+public record OutfitChangedEvent(Long ownerId, OutfitEventDto payload) {
+
+    public static OutfitChangedEvent of(OutfitEventType type, OutfitResponseDto outfit) {
+        return new OutfitChangedEvent(outfit.userId(), new OutfitEventDto(type, outfit.id(), Instant.now(), outfit));
+    }
+
+    public static OutfitChangedEvent deleted(Long ownerId, Long outfitId) {
+        return new OutfitChangedEvent(ownerId, new OutfitEventDto(OutfitEventType.DELETED, outfitId, Instant.now(), null));
+    }
+}
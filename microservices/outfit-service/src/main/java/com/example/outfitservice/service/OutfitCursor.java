@@ -0,0 +1,41 @@
+package com.example.outfitservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Opaque cursor of the outfit listing: position (created_at, id) of the last outfit on the previous page.
+ * Timestamps are kept with microsecond precision to match PostgreSQL.
+ */
+public record OutfitCursor(Instant createdAt, long id) {
+
+    public static OutfitCursor of(Instant createdAt, long id) {
+        return new OutfitCursor(createdAt.truncatedTo(ChronoUnit.MICROS), id);
+    }
+
+    /**
+     * @return null for the first page
+     */
+    public static OutfitCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            long micros = Long.parseLong(raw.substring(0, sep));
+            long id = Long.parseLong(raw.substring(sep + 1));
+            return new OutfitCursor(Instant.EPOCH.plus(micros, ChronoUnit.MICROS), id);
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid outfit cursor: " + value);
+        }
+    }
+
+    public String encode() {
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, createdAt);
+        String raw = micros + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
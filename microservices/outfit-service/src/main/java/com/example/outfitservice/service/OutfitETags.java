@@ -0,0 +1,41 @@
+package com.example.outfitservice.service;
+
+/**
+ * ETag образа строится из id и @Version, поэтому проверка If-None-Match / If-Match
+ * не требует загрузки связей и сериализации ответа.
+ */
+final class OutfitETags {
+
+    private OutfitETags() {
+    }
+
+    /**
+     * Strong ETag для представлений только из полей образа и ссылок на вещи (ответ PUT /outfits/{id}).
+     */
+    static String forOutfit(Long id, Long version) {
+        return "\"outfit-" + id + "-v" + (version == null ? 0 : version) + "\"";
+    }
+
+    /**
+     * Weak ETag для GET-представлений с деталями вещей: данные вещей меняются в wardrobe-service без смены
+     * @Version образа, поэтому байтовой идентичности тег не обещает.
+     */
+    static String weak(String eTag) {
+        return "W/" + eTag;
+    }
+
+    /**
+     * If-Match сравнивает версию образа. Weak-тег из GET принимается: PUT меняет только поля образа и ссылки,
+     * а данные вещей, из-за которых тег слабый, в предусловие не входят. Чужие weak-теги по-прежнему не совпадают.
+     * Отсутствующий заголовок означает безусловное обновление.
+     */
+    static boolean matches(String ifMatch, String currentETag) {
+        if (ifMatch == null || ifMatch.isBlank()) return true;
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if ("*".equals(tag) || tag.equals(currentETag)) return true;
+        }
+        return false;
+    }
+}
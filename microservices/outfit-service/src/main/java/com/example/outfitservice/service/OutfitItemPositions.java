@@ -0,0 +1,121 @@
+package com.example.outfitservice.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Расстановка position_index для вещей образа с минимальным числом изменённых строк.
+ *
+ * Вещи, чей текущий порядок уже совпадает с желаемым (наибольшая возрастающая подпоследовательность),
+ * сохраняют свои позиции; новые и перемещённые вещи получают позицию в промежутке между соседями.
+ * Новые позиции выдаются с шагом {@link #STEP}, чтобы следующие вставки помещались без сдвига соседей.
+ * Полная перенумерация происходит только когда в промежутке не осталось места.
+ */
+final class OutfitItemPositions {
+
+    static final int STEP = 1024;
+
+    private OutfitItemPositions() {
+    }
+
+    /**
+     * @param desiredOrder     id вещей в желаемом порядке (без повторов)
+     * @param currentPositions текущие позиции уже привязанных вещей; вещи без позиции считаются новыми
+     * @return целевая позиция для каждой вещи из desiredOrder
+     */
+    static Map<Long, Integer> assign(List<Long> desiredOrder, Map<Long, Integer> currentPositions) {
+        int n = desiredOrder.size();
+        boolean[] keep = longestIncreasingRun(desiredOrder, currentPositions);
+
+        long[] target = new long[n];
+        boolean hasLower = false;
+        long lower = 0;
+        int i = 0;
+        while (i < n) {
+            if (keep[i]) {
+                lower = currentPositions.get(desiredOrder.get(i));
+                hasLower = true;
+                target[i++] = lower;
+                continue;
+            }
+
+            int j = i;
+            while (j < n && !keep[j]) j++;
+            int gap = j - i;
+
+            long from;
+            long stride;
+            if (j < n) {
+                long upper = currentPositions.get(desiredOrder.get(j));
+                from = hasLower ? lower : upper - (long) STEP * (gap + 1);
+                stride = (upper - from) / (gap + 1);
+            } else {
+                from = hasLower ? lower : 0;
+                stride = STEP;
+            }
+            if (stride < 1) {
+                return renumber(desiredOrder);
+            }
+            for (int k = 0; k < gap; k++) {
+                target[i + k] = from + stride * (k + 1);
+            }
+            i = j;
+        }
+
+        Map<Long, Integer> result = new HashMap<>(n * 2);
+        for (int k = 0; k < n; k++) {
+            if (target[k] < Integer.MIN_VALUE || target[k] > Integer.MAX_VALUE) {
+                return renumber(desiredOrder);
+            }
+            result.put(desiredOrder.get(k), (int) target[k]);
+        }
+        return result;
+    }
+
+    private static Map<Long, Integer> renumber(List<Long> desiredOrder) {
+        Map<Long, Integer> result = new HashMap<>(desiredOrder.size() * 2);
+        for (int k = 0; k < desiredOrder.size(); k++) {
+            result.put(desiredOrder.get(k), (k + 1) * STEP);
+        }
+        return result;
+    }
+
+    /**
+     * Помечает вещи, образующие наибольшую строго возрастающую по текущей позиции подпоследовательность
+     * (O(n log n), patience sorting). Только их можно оставить на месте.
+     */
+    private static boolean[] longestIncreasingRun(List<Long> desiredOrder, Map<Long, Integer> currentPositions) {
+        int n = desiredOrder.size();
+        int[] tails = new int[n];
+        int[] previous = new int[n];
+        Arrays.fill(previous, -1);
+        int length = 0;
+
+        for (int k = 0; k < n; k++) {
+            Integer position = currentPositions.get(desiredOrder.get(k));
+            if (position == null) continue;
+
+            int lo = 0;
+            int hi = length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (currentPositions.get(desiredOrder.get(tails[mid])) < position) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            if (lo > 0) previous[k] = tails[lo - 1];
+            tails[lo] = k;
+            if (lo == length) length++;
+        }
+
+        boolean[] keep = new boolean[n];
+        for (int k = length == 0 ? -1 : tails[length - 1]; k >= 0; k = previous[k]) {
+            keep[k] = true;
+        }
+        return keep;
+    }
+}
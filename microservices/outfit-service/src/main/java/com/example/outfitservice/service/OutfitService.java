@@ -1,56 +1,83 @@
 package com.example.outfitservice.service;
 
+import com.example.outfitservice.dto.OutfitBulkResultDto;
 import com.example.outfitservice.dto.OutfitDto;
 import com.example.outfitservice.dto.OutfitDetailedResponseDto;
+import com.example.outfitservice.dto.OutfitEventDto;
+import com.example.outfitservice.dto.OutfitEventType;
 import com.example.outfitservice.dto.OutfitResponseDto;
 import com.example.outfitservice.dto.OutfitItemDetailedDto;
 import com.example.outfitservice.dto.OutfitItemLinkDto;
+import com.example.outfitservice.dto.WardrobeItemDto;
 import com.example.outfitservice.entity.Outfit;
 import com.example.outfitservice.entity.OutfitItem;
+import com.example.outfitservice.entity.OutfitRole;
 import com.example.outfitservice.exception.NotFoundException;
 import com.example.outfitservice.mapper.OutfitMapper;
+import com.example.outfitservice.repository.OutfitItemRow;
 import com.example.outfitservice.repository.OutfitRepository;
+import com.example.outfitservice.repository.OutfitSummary;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class OutfitService {
 
+    /** Сколько образов держим в persistence context при bulk-импорте до flush/clear. */
+    static final int BULK_FLUSH_SIZE = 500;
+
+    /** Порция потоковой выдачи /outfits/me: столько образов собираем перед запросом их связей. */
+    static final int STREAM_CHUNK_SIZE = 100;
+
+    /** Ограничение на размер IN (...) при загрузке связей, чтобы не упираться в лимит параметров JDBC. */
+    static final int ITEM_ROWS_BATCH_SIZE = 1000;
+
     private final OutfitRepository outfitRepository;
     private final OutfitMapper outfitMapper;
     private final UserServiceClientWrapper userServiceClientWrapper;
     private final WardrobeServiceClientWrapper wardrobeServiceClientWrapper;
+    private final WardrobeItemResolver wardrobeItemResolver;
+    private final OutfitChangeNotifier changeNotifier;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
     public PagedResult<OutfitResponseDto> getOutfitsUpTo50(int page, int size) {
         Pageable pageable = PageRequest.of(page, Math.min(size, 50));
         Jwt jwt = currentJwt();
-        Page<Outfit> outfitsPage = isSupervisor(jwt)
-                ? outfitRepository.findAll(pageable)
-                : outfitRepository.findAllByUserId(requireUserId(jwt), pageable);
+        Page<OutfitSummary> outfitsPage = isSupervisor(jwt)
+                ? outfitRepository.findSummaries(pageable)
+                : outfitRepository.findSummariesByUserId(requireUserId(jwt), pageable);
 
-        List<OutfitResponseDto> content = outfitsPage.getContent().stream()
-                .map(outfitMapper::toDto)
-                .toList();
-
-        return new PagedResult<>(content, outfitsPage.getTotalElements());
+        return new PagedResult<>(toDtos(outfitsPage.getContent()), outfitsPage.getTotalElements());
     }
 
     public List<OutfitResponseDto> getInfiniteScroll(int offset, int limit) {
@@ -58,26 +85,64 @@ public class OutfitService {
         int actualLimit = Math.min(limit, 50);
         long fromId = offset;
 
-        List<Outfit> outfits = isSupervisor(jwt)
-                ? outfitRepository.findAllScrollFromId(fromId, actualLimit)
-                : outfitRepository.findAllByUserIdScrollFromId(requireUserId(jwt), fromId, actualLimit);
+        Pageable pageable = PageRequest.ofSize(actualLimit);
+
+        List<OutfitSummary> outfits = isSupervisor(jwt)
+                ? outfitRepository.findSummariesScrollFromId(fromId, pageable)
+                : outfitRepository.findSummariesByUserIdScrollFromId(requireUserId(jwt), fromId, pageable);
 
-        return outfits.stream().map(outfitMapper::toDto).toList();
+        return toDtos(outfits);
     }
 
-    public OutfitResponseDto getById(Long id) {
+    /**
+     * Keyset-пагинация по (created_at DESC, id DESC) с непрозрачным курсором вместо OFFSET + count(*).
+     * Запрашиваем limit + 1 строку, чтобы без отдельного запроса понять, есть ли следующая страница.
+     */
+    public CursorPage<OutfitResponseDto> getOutfitsByCursor(String cursor, int limit) {
         Jwt jwt = currentJwt();
-        if (!isSupervisor(jwt)) {
-            Long userId = requireUserId(jwt);
-            if (!outfitRepository.existsByIdAndUserId(id, userId)) {
-                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
-            }
+        OutfitCursor after = OutfitCursor.decode(cursor);
+        int actualLimit = Math.min(limit, 50);
+        Pageable fetchSize = PageRequest.ofSize(actualLimit + 1);
+
+        List<OutfitSummary> outfits;
+        if (isSupervisor(jwt)) {
+            outfits = after == null
+                    ? outfitRepository.findFirstPageByCreatedAt(fetchSize)
+                    : outfitRepository.findPageByCreatedAtBefore(after.createdAt(), after.id(), fetchSize);
+        } else {
+            long userId = requireUserId(jwt);
+            outfits = after == null
+                    ? outfitRepository.findFirstPageByUserIdAndCreatedAt(userId, fetchSize)
+                    : outfitRepository.findPageByUserIdAndCreatedAtBefore(userId, after.createdAt(), after.id(), fetchSize);
+        }
+
+        List<OutfitSummary> page = outfits.size() > actualLimit ? outfits.subList(0, actualLimit) : outfits;
+        String nextCursor = null;
+        if (outfits.size() > actualLimit) {
+            OutfitSummary last = page.get(page.size() - 1);
+            nextCursor = OutfitCursor.of(last.createdAt(), last.id()).encode();
         }
+        return new CursorPage<>(toDtos(page), nextCursor);
+    }
+
+    public OutfitResponseDto getById(Long id) {
+        checkReadAccess(currentJwt(), id);
         Outfit outfit = outfitRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Outfit not found with id: " + id));
         return outfitMapper.toDto(outfit);
     }
 
+    /**
+     * Weak ETag текущей версии образа для GET-представлений с деталями вещей: одна лёгкая выборка version
+     * без загрузки связей, чтобы условный GET мог ответить 304 до похода в wardrobe-service.
+     */
+    public String getETag(Long id) {
+        checkReadAccess(currentJwt(), id);
+        Long version = outfitRepository.findVersionById(id)
+                .orElseThrow(() -> new NotFoundException("Outfit not found with id: " + id));
+        return OutfitETags.weak(OutfitETags.forOutfit(id, version));
+    }
+
     /**
      * Same as {@link #getById(Long)} but also enriches each item link with full wardrobe item details.
      * Used by REST endpoint GET /outfits/{id} to "show items подробно" by default.
@@ -118,13 +183,83 @@ public class OutfitService {
     public List<OutfitResponseDto> getMyOutfits() {
         Jwt jwt = currentJwt();
         Long userId = requireUserId(jwt);
-        return outfitRepository.findAllByUserId(userId).stream()
-                .map(outfitMapper::toDto)
-                .toList();
+        return toDtos(outfitRepository.findSummariesByUserId(userId));
     }
 
     public List<OutfitDetailedResponseDto> getMyOutfitsDetailed() {
-        return getMyOutfits().stream().map(this::toDetailed).toList();
+        List<OutfitResponseDto> outfits = getMyOutfits();
+        // одна вещь обычно входит во много образов: грузим каждую ровно один раз
+        Map<Long, WardrobeItemDto> items = wardrobeItemResolver.resolveAll(bearer(currentJwt()), itemIds(outfits));
+        return outfits.stream().map(outfit -> toDetailed(outfit, items)).toList();
+    }
+
+    /**
+     * Потоковая версия {@link #getMyOutfits()}: проекции образов читаются курсором и отдаются в sink
+     * порциями по {@link #STREAM_CHUNK_SIZE}; сущности не загружаются, persistence context не растёт.
+     * Память не зависит от числа образов пользователя.
+     */
+    public void streamMyOutfits(Consumer<OutfitResponseDto> sink) {
+        Long userId = requireUserId(currentJwt());
+        List<OutfitSummary> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        try (Stream<OutfitSummary> outfits = outfitRepository.streamSummariesByUserId(userId)) {
+            outfits.forEach(outfit -> {
+                chunk.add(outfit);
+                if (chunk.size() == STREAM_CHUNK_SIZE) {
+                    emitChunk(chunk, sink);
+                }
+            });
+        }
+        emitChunk(chunk, sink);
+    }
+
+    /**
+     * В отличие от {@link #streamMyOutfits}, курсор и транзакция не держатся открытыми: образы читаются
+     * keyset-страницами по {@link #STREAM_CHUNK_SIZE} (id больше последнего отданного), каждая страница — своей
+     * короткой read-only транзакцией репозитория. Детали вещей запрашиваются у wardrobe-service между страницами,
+     * без соединения с базой. Уже загруженные вещи запоминаются на время запроса.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void streamMyOutfitsDetailed(Consumer<OutfitDetailedResponseDto> sink) {
+        Jwt jwt = currentJwt();
+        Long userId = requireUserId(jwt);
+        String authorization = bearer(jwt);
+        Map<Long, WardrobeItemDto> items = new HashMap<>();
+        Pageable chunk = PageRequest.ofSize(STREAM_CHUNK_SIZE);
+        long fromId = 0;
+        List<OutfitSummary> page;
+        do {
+            page = outfitRepository.findSummariesByUserIdScrollFromId(userId, fromId, chunk);
+            if (page.isEmpty()) return;
+            List<OutfitResponseDto> outfits = toDtos(page);
+            wardrobeItemResolver.resolveMissing(authorization, itemIds(outfits), items);
+            outfits.forEach(outfit -> sink.accept(toDetailed(outfit, items)));
+            fromId = page.get(page.size() - 1).id() + 1;
+        } while (page.size() == STREAM_CHUNK_SIZE);
+    }
+
+    private void emitChunk(List<OutfitSummary> chunk, Consumer<OutfitResponseDto> sink) {
+        if (chunk.isEmpty()) return;
+        toDtos(chunk).forEach(sink);
+        chunk.clear();
+    }
+
+    /**
+     * Собирает DTO из проекций: один запрос связей на страницу образов (порциями по ITEM_ROWS_BATCH_SIZE id).
+     */
+    private List<OutfitResponseDto> toDtos(List<OutfitSummary> outfits) {
+        if (outfits.isEmpty()) return List.of();
+        List<Long> ids = outfits.stream().map(OutfitSummary::id).toList();
+        List<OutfitItemRow> items = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += ITEM_ROWS_BATCH_SIZE) {
+            items.addAll(outfitRepository.findItemRowsByOutfitIds(
+                    ids.subList(from, Math.min(from + ITEM_ROWS_BATCH_SIZE, ids.size()))));
+        }
+        return outfitMapper.toDtos(outfits, items);
+    }
+
+    public Flux<ServerSentEvent<OutfitEventDto>> streamMyChanges() {
+        Long userId = requireUserId(currentJwt());
+        return changeNotifier.stream(userId);
     }
 
     @Transactional
@@ -138,15 +273,90 @@ public class OutfitService {
         }
 
         String authorization = "Bearer " + jwt.getTokenValue();
-        userServiceClientWrapper.getUserById(authorization, dto.userId());
+        requireUserExists(authorization, dto.userId());
 
         Outfit outfit = outfitMapper.toEntity(dto);
         applyItemsFromDto(dto, outfit);
-        return outfitMapper.toDto(outfitRepository.save(outfit));
+        OutfitResponseDto created = outfitMapper.toDto(outfitRepository.save(outfit));
+        eventPublisher.publishEvent(OutfitChangedEvent.of(OutfitEventType.CREATED, created));
+        return created;
+    }
+
+    /**
+     * Импорт большого числа образов одной транзакцией. Вставки outfits и outfit_items уходят
+     * JDBC-пачками (pooled sequence + hibernate.jdbc.batch_size), а persistence context
+     * очищается каждые {@link #BULK_FLUSH_SIZE} образов. До коммита копятся только id:
+     * в ответе и в одном {@link OutfitsCreatedEvent} на пачку, без DTO образов.
+     */
+    @Transactional
+    public OutfitBulkResultDto createBulk(List<OutfitDto> dtos) {
+        Jwt jwt = currentJwt();
+        if (!isSupervisor(jwt)) {
+            Long userId = requireUserId(jwt);
+            if (dtos.stream().anyMatch(dto -> dto.userId() == null || !dto.userId().equals(userId))) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User can create outfits only for self");
+            }
+        }
+
+        String authorization = bearer(jwt);
+        List<Long> userIds = dtos.stream().map(OutfitDto::userId).distinct().toList();
+        Set<Long> existingUserIds = userServiceClientWrapper.findExistingUserIds(authorization, userIds);
+        userIds.stream()
+                .filter(userId -> !existingUserIds.contains(userId))
+                .findFirst()
+                .ifPresent(userId -> {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found with id: " + userId);
+                });
+
+        List<Long> ids = new ArrayList<>(dtos.size());
+        List<Outfit> chunk = new ArrayList<>(BULK_FLUSH_SIZE);
+        for (OutfitDto dto : dtos) {
+            Outfit outfit = outfitMapper.toEntity(dto);
+            applyItemsFromDto(dto, outfit);
+            chunk.add(outfit);
+            if (chunk.size() == BULK_FLUSH_SIZE) {
+                ids.addAll(flushBulkChunk(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            ids.addAll(flushBulkChunk(chunk));
+        }
+        return new OutfitBulkResultDto(ids.size(), ids);
+    }
+
+    private void requireUserExists(String authorization, Long userId) {
+        if (!userServiceClientWrapper.userExists(authorization, userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found with id: " + userId);
+        }
+    }
+
+    private List<Long> flushBulkChunk(List<Outfit> chunk) {
+        List<Outfit> saved = outfitRepository.saveAll(chunk);
+        outfitRepository.flush();
+        List<Long> ids = new ArrayList<>(saved.size());
+        Map<Long, List<Long>> idsByOwner = new HashMap<>();
+        for (Outfit outfit : saved) {
+            ids.add(outfit.getId());
+            idsByOwner.computeIfAbsent(outfit.getUserId(), owner -> new ArrayList<>()).add(outfit.getId());
+        }
+        eventPublisher.publishEvent(new OutfitsCreatedEvent(idsByOwner));
+        entityManager.clear();
+        return ids;
     }
 
     @Transactional
     public OutfitResponseDto update(Long id, OutfitDto dto) {
+        return update(id, dto, null).body();
+    }
+
+    /**
+     * Обновление с предусловием If-Match: если клиент редактировал устаревшую версию, получаем 412
+     * ещё до записи. Гонка между проверкой и записью ловится @Version при flush (тоже 412).
+     */
+    @Transactional
+    public Versioned<OutfitResponseDto> update(Long id, OutfitDto dto, String ifMatch) {
+        bypassSecondLevelCache();
         Outfit outfit = outfitRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Outfit not found with id: " + id));
 
@@ -161,34 +371,72 @@ public class OutfitService {
             }
         }
 
+        if (!OutfitETags.matches(ifMatch, OutfitETags.forOutfit(outfit.getId(), outfit.getVersion()))) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Outfit was modified, reload and retry");
+        }
+
         String authorization = "Bearer " + jwt.getTokenValue();
-        userServiceClientWrapper.getUserById(authorization, dto.userId());
+        requireUserExists(authorization, dto.userId());
 
+        Long previousOwnerId = outfit.getUserId();
         outfitMapper.updateEntityFromDto(dto, outfit);
         applyItemsFromDto(dto, outfit);
-        return outfitMapper.toDto(outfitRepository.save(outfit));
+        // изменения только в outfit_items не делают сам образ dirty, а версия должна расти на каждое обновление
+        outfit.setUpdatedAt(Instant.now());
+        Outfit saved = outfitRepository.saveAndFlush(outfit);
+        OutfitResponseDto updated = outfitMapper.toDto(saved);
+        publishUpdated(previousOwnerId, updated);
+        return new Versioned<>(updated, OutfitETags.forOutfit(saved.getId(), saved.getVersion()));
     }
 
     @Transactional
     public OutfitDetailedResponseDto updateDetailed(Long id, OutfitDto dto) {
-        OutfitResponseDto updated = update(id, dto);
-        return toDetailed(updated);
+        return updateDetailed(id, dto, null).body();
+    }
+
+    @Transactional
+    public Versioned<OutfitDetailedResponseDto> updateDetailed(Long id, OutfitDto dto, String ifMatch) {
+        Versioned<OutfitResponseDto> updated = update(id, dto, ifMatch);
+        return new Versioned<>(toDetailed(updated.body()), OutfitETags.weak(updated.eTag()));
     }
 
     @Transactional
     public void delete(Long id) {
+        bypassSecondLevelCache();
         Jwt jwt = currentJwt();
+        Long ownerId;
         if (!isSupervisor(jwt)) {
             Long userId = requireUserId(jwt);
             if (!outfitRepository.existsByIdAndUserId(id, userId)) {
                 throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
             }
+            ownerId = userId;
+        } else {
+            ownerId = outfitRepository.findUserIdById(id)
+                    .orElseThrow(() -> new NotFoundException("Outfit not found with id: " + id));
         }
 
-        if (!outfitRepository.existsById(id)) {
-            throw new NotFoundException("Outfit not found with id: " + id);
-        }
         outfitRepository.deleteById(id);
+        eventPublisher.publishEvent(OutfitChangedEvent.deleted(ownerId, id));
+    }
+
+    /**
+     * L2-кэш локален для инстанса и может держать версию, которую уже сменил другой инстанс.
+     * Запись и сравнение If-Match идут по строке из базы, а прочитанное заодно перезаписывает кэш.
+     */
+    private void bypassSecondLevelCache() {
+        entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS);
+        entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.REFRESH);
+    }
+
+    private void publishUpdated(Long previousOwnerId, OutfitResponseDto updated) {
+        if (previousOwnerId != null && !previousOwnerId.equals(updated.userId())) {
+            // образ передан другому пользователю: у прежнего владельца он исчезает, у нового появляется
+            eventPublisher.publishEvent(OutfitChangedEvent.deleted(previousOwnerId, updated.id()));
+            eventPublisher.publishEvent(OutfitChangedEvent.of(OutfitEventType.CREATED, updated));
+            return;
+        }
+        eventPublisher.publishEvent(OutfitChangedEvent.of(OutfitEventType.UPDATED, updated));
     }
 
     /**
@@ -200,33 +448,47 @@ public class OutfitService {
 
         if (outfit == null) return;
 
+        // при повторе itemId побеждает последнее вхождение (и по роли, и по месту в списке)
+        Map<Long, OutfitRole> desired = new LinkedHashMap<>();
+        for (var link : dto.items()) {
+            if (link.itemId() == null) continue;
+            desired.remove(link.itemId());
+            desired.put(link.itemId(), link.role());
+        }
+
         // Чтобы не ловить DuplicateKey в Hibernate при обновлении (когда удаляем и добавляем сущность с тем же PK),
         // обновляем существующие OutfitItem "на месте", удаляем только лишние, и добавляем только реально новые.
+        outfit.getOutfitItems().removeIf(existing -> existing.getItemId() == null || !desired.containsKey(existing.getItemId()));
+
         Map<Long, OutfitItem> existingByItemId = new HashMap<>();
+        Map<Long, Integer> currentPositions = new HashMap<>();
         for (OutfitItem existing : outfit.getOutfitItems()) {
-            if (existing.getItemId() != null) {
-                existingByItemId.put(existing.getItemId(), existing);
-            }
+            existingByItemId.put(existing.getItemId(), existing);
+            currentPositions.put(existing.getItemId(), existing.getPositionIndex());
         }
 
-        Set<Long> desiredItemIds = dto.items().stream()
-                .map(link -> link.itemId())
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        outfit.getOutfitItems().removeIf(existing -> existing.getItemId() == null || !desiredItemIds.contains(existing.getItemId()));
-
-        for (int i = 0; i < dto.items().size(); i++) {
-            var link = dto.items().get(i);
-            OutfitItem oi = existingByItemId.get(link.itemId());
+        // Позиции меняем только у вставленных и реально перемещённых вещей: Hibernate dirty checking
+        // не пишет строки, у которых role и position_index остались прежними.
+        Map<Long, Integer> positions = OutfitItemPositions.assign(List.copyOf(desired.keySet()), currentPositions);
+        desired.forEach((itemId, role) -> {
+            OutfitItem oi = existingByItemId.get(itemId);
             if (oi == null) {
                 oi = new OutfitItem();
                 oi.setOutfit(outfit);
-                oi.setItemId(link.itemId());
+                oi.setItemId(itemId);
                 outfit.getOutfitItems().add(oi);
             }
-            oi.setRole(link.role());
-            oi.setPositionIndex(i + 1);
+            oi.setRole(role);
+            oi.setPositionIndex(positions.get(itemId));
+        });
+    }
+
+    private void checkReadAccess(Jwt jwt, Long id) {
+        if (!isSupervisor(jwt)) {
+            Long userId = requireUserId(jwt);
+            if (!outfitRepository.existsByIdAndUserId(id, userId)) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
+            }
         }
     }
 
@@ -243,15 +505,13 @@ public class OutfitService {
     }
 
     private OutfitDetailedResponseDto toDetailed(OutfitResponseDto basic) {
-        Jwt jwt = currentJwt();
-        String authorization = bearer(jwt);
+        Map<Long, WardrobeItemDto> items = wardrobeItemResolver.resolveAll(bearer(currentJwt()), itemIds(List.of(basic)));
+        return toDetailed(basic, items);
+    }
 
-        List<OutfitItemDetailedDto> detailedItems = (basic.items() == null ? List.<OutfitItemLinkDto>of() : basic.items())
-                .stream()
-                .map(link -> {
-                    var item = wardrobeServiceClientWrapper.getItemById(authorization, link.itemId());
-                    return new OutfitItemDetailedDto(link.itemId(), link.role(), item);
-                })
+    private static OutfitDetailedResponseDto toDetailed(OutfitResponseDto basic, Map<Long, WardrobeItemDto> items) {
+        List<OutfitItemDetailedDto> detailedItems = links(basic).stream()
+                .map(link -> new OutfitItemDetailedDto(link.itemId(), link.role(), items.get(link.itemId())))
                 .toList();
 
         return new OutfitDetailedResponseDto(
@@ -262,6 +522,17 @@ public class OutfitService {
         );
     }
 
+    private static List<OutfitItemLinkDto> links(OutfitResponseDto outfit) {
+        return outfit.items() == null ? List.of() : outfit.items();
+    }
+
+    private static List<Long> itemIds(List<OutfitResponseDto> outfits) {
+        return outfits.stream()
+                .flatMap(outfit -> links(outfit).stream())
+                .map(OutfitItemLinkDto::itemId)
+                .toList();
+    }
+
     private static Long requireUserId(Jwt jwt) {
         String userId = jwt.getClaimAsString("userId");
         if (userId == null || userId.isBlank()) {
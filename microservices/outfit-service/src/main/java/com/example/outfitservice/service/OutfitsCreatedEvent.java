@@ -0,0 +1,11 @@
+package com.example.outfitservice.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One event per bulk-import chunk: only ids grouped by owner, so the events held until commit stay small
+ * however many outfits the request creates. Delivered to SSE subscribers after commit as CREATED without a body.
+ */
+public record OutfitsCreatedEvent(Map<Long, List<Long>> outfitIdsByOwner) {
+}
@@ -0,0 +1,35 @@
+package com.example.outfitservice.service;
+
+/**
+ * Token bucket для повторных запросов: каждый вызов кладёт {@code ratio} токена, каждый повтор забирает один.
+ * Повторов не больше {@code ratio} от потока вызовов плюс {@code capacity} про запас, поэтому при деградации
+ * всего downstream'а они не удваивают на него нагрузку.
+ */
+final class RetryBudget {
+
+    private final double ratio;
+    private final double capacity;
+    private double tokens;
+
+    RetryBudget(double ratio, int capacity) {
+        this.ratio = ratio;
+        this.capacity = capacity;
+        this.tokens = capacity;
+    }
+
+    synchronized void deposit() {
+        tokens = Math.min(capacity, tokens + ratio);
+    }
+
+    synchronized boolean tryAcquire() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    synchronized double available() {
+        return tokens;
+    }
+}
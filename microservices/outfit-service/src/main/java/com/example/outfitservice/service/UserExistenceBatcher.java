@@ -0,0 +1,166 @@
+package com.example.outfitservice.service;
+
+import com.example.outfitservice.client.UserServiceClient;
+import com.example.outfitservice.dto.UserExistenceRequestDto;
+import feign.FeignException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Micro-batcher проверок существования пользователей (в духе DataLoader).
+ * <p>
+ * Проверки, пришедшие в течение {@code window} (или пока не набралось {@code max-size}), уходят в user-service
+ * одним POST /users/exists на каждый Authorization из пачки: токены разных вызывающих не смешиваются.
+ * Ошибка пакетного запроса достаётся всем, кто его ждал, а circuit breaker {@code user-service} учитывает
+ * её один раз — как один неудачный запрос, а не по разу на каждую проверку из пачки.
+ */
+@Component
+public class UserExistenceBatcher {
+
+    private final UserServiceClient client;
+    private final CircuitBreaker circuitBreaker;
+    private final boolean enabled;
+    private final Duration timeout;
+    private final long windowNanos;
+    private final int maxSize;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("user-lookup-batch-timer").daemon(true).factory());
+    private final ExecutorService dispatcher;
+    private final DistributionSummary batchSize;
+    private final Timer queueDelay;
+
+    private final Object lock = new Object();
+    private List<Lookup> pending = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    public UserExistenceBatcher(UserServiceClient client,
+                                CircuitBreakerRegistry circuitBreakerRegistry,
+                                MeterRegistry meterRegistry,
+                                @Value("${clients.user-service.batch.enabled:true}") boolean enabled,
+                                @Value("${clients.user-service.batch.timeout:5s}") Duration timeout,
+                                @Value("${clients.user-service.batch.window:2ms}") Duration window,
+                                @Value("${clients.user-service.batch.max-size:100}") int maxSize,
+                                @Value("${clients.user-service.batch.parallelism:8}") int parallelism) {
+        this.client = client;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("user-service");
+        this.enabled = enabled;
+        this.timeout = timeout;
+        this.windowNanos = window.toNanos();
+        this.maxSize = Math.min(maxSize, UserServiceClientWrapper.EXISTS_BATCH_SIZE);
+        this.dispatcher = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("user-lookup-batch-", 0).daemon(true).factory());
+        this.batchSize = DistributionSummary.builder("user.lookup.batch.size")
+                .description("Ids per POST /users/exists request")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueDelay = Timer.builder("user.lookup.queue.delay")
+                .description("Time a lookup waited in the batcher before its batch was sent")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Существует ли пользователь; ответ приходит вместе с остальными проверками того же окна.
+     * Ошибки user-service завершают future как есть (FeignException, CallNotPermittedException при открытом
+     * breaker'е и т.п.); если ответа нет за {@code timeout} — TimeoutException.
+     */
+    public CompletableFuture<Boolean> exists(String authorization, Long id) {
+        if (!enabled) {
+            return existsDirectly(authorization, id);
+        }
+        Lookup lookup = new Lookup(authorization, id, new CompletableFuture<>(), System.nanoTime());
+        List<Lookup> full = null;
+        synchronized (lock) {
+            pending.add(lookup);
+            if (pending.size() >= maxSize) {
+                full = takePending();
+            } else if (pending.size() == 1) {
+                scheduledFlush = timer.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        // ожидающий не висит дольше timeout, даже если пачка застряла в очереди отправки
+        return lookup.result().orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+        dispatcher.shutdownNow();
+    }
+
+    private CompletableFuture<Boolean> existsDirectly(String authorization, Long id) {
+        try {
+            circuitBreaker.executeRunnable(() -> client.userExists(authorization, id));
+            return CompletableFuture.completedFuture(true);
+        } catch (FeignException.NotFound ex) {
+            return CompletableFuture.completedFuture(false);
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    private void flush() {
+        List<Lookup> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) return;
+            batch = takePending();
+        }
+        dispatch(batch);
+    }
+
+    // вызывается под lock
+    private List<Lookup> takePending() {
+        List<Lookup> batch = pending;
+        pending = new ArrayList<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(List<Lookup> batch) {
+        long now = System.nanoTime();
+        batch.forEach(lookup -> queueDelay.record(now - lookup.enqueuedAt(), TimeUnit.NANOSECONDS));
+        batch.stream()
+                .collect(Collectors.groupingBy(Lookup::authorization))
+                .forEach((authorization, lookups) -> dispatcher.execute(() -> load(authorization, lookups)));
+    }
+
+    private void load(String authorization, List<Lookup> lookups) {
+        List<Long> ids = lookups.stream().map(Lookup::id).distinct().toList();
+        batchSize.record(ids.size());
+        try {
+            Set<Long> existing = new HashSet<>(circuitBreaker.executeSupplier(
+                    () -> client.findExistingIds(authorization, new UserExistenceRequestDto(ids))).existingIds());
+            lookups.forEach(lookup -> lookup.result().complete(existing.contains(lookup.id())));
+        } catch (RuntimeException ex) {
+            lookups.forEach(lookup -> lookup.result().completeExceptionally(ex));
+        }
+    }
+
+    private record Lookup(String authorization, Long id, CompletableFuture<Boolean> result, long enqueuedAt) {
+    }
+}
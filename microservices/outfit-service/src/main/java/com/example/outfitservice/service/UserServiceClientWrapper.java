@@ -1,9 +1,13 @@
 package com.example.outfitservice.service;
 
 import com.example.outfitservice.client.UserServiceClient;
+import com.example.outfitservice.client.UserServiceInstanceClient;
 import com.example.outfitservice.dto.UserDto;
+import com.example.outfitservice.dto.UserExistenceRequestDto;
 import com.example.outfitservice.exception.DownstreamServiceUnavailableException;
 import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
@@ -12,54 +16,121 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserServiceClientWrapper {
 
+    /** Столько id user-service принимает в одном POST /users/exists. */
+    static final int EXISTS_BATCH_SIZE = 1000;
+
     private final UserServiceClient client;
     private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final UserExistenceBatcher userExistenceBatcher;
+    private final HedgingExecutor hedgingExecutor;
+    private final UserServiceInstanceClient instanceClient;
 
+    /**
+     * Медленный инстанс не задерживает ответ дольше p95: запрос дублируется на другой (см. {@link HedgingExecutor}).
+     * Одновременных вызовов user-service не больше, чем пускает bulkhead {@code user-service}; сверх него — сразу 503.
+     */
     @CircuitBreaker(
             name = "user-service",
             fallbackMethod = "getUserByIdFallback"
     )
+    @Bulkhead(name = "user-service")
     public UserDto getUserById(String authorization, Long id) {
-        return client.getUserById(authorization, id);
+        return hedgingExecutor.execute(
+                "user-service",
+                () -> client.getUserById(authorization, id),
+                instance -> instanceClient.getUserById(instance, authorization, id));
     }
 
     public UserDto getUserByIdFallback(String authorization, Long id, Throwable ex) {
+        throw translate(ex, "User not found with id: " + id, "userId=" + id);
+    }
+
+    /**
+     * Проверка существования без загрузки профиля. Одновременные проверки собирает {@link UserExistenceBatcher}
+     * и отправляет одним POST /users/exists. Отсутствующий пользователь — false, а не ошибка.
+     * Circuit breaker здесь не навешан: батчер учитывает в нём каждый пакетный запрос один раз, а не по разу
+     * на каждого ожидавшего. Ожидание ограничено {@code clients.user-service.batch.timeout}.
+     */
+    @Bulkhead(name = "user-service")
+    public boolean userExists(String authorization, Long id) {
+        try {
+            return userExistenceBatcher.exists(authorization, id).join();
+        } catch (CompletionException ex) {
+            throw translate(ex.getCause(), "User not found with id: " + id, "userId=" + id);
+        }
+    }
+
+    /**
+     * Какие из id существуют: один POST /users/exists на каждые {@link #EXISTS_BATCH_SIZE} id
+     * вместо запроса на каждого пользователя.
+     */
+    @CircuitBreaker(
+            name = "user-service",
+            fallbackMethod = "findExistingUserIdsFallback"
+    )
+    @Bulkhead(name = "user-service")
+    public Set<Long> findExistingUserIds(String authorization, Collection<Long> ids) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        Set<Long> existing = new HashSet<>(distinct.size() * 2);
+        for (int from = 0; from < distinct.size(); from += EXISTS_BATCH_SIZE) {
+            List<Long> batch = distinct.subList(from, Math.min(from + EXISTS_BATCH_SIZE, distinct.size()));
+            existing.addAll(client.findExistingIds(authorization, new UserExistenceRequestDto(batch)).existingIds());
+        }
+        return existing;
+    }
+
+    public Set<Long> findExistingUserIdsFallback(String authorization, Collection<Long> ids, Throwable ex) {
+        throw translate(ex, "User not found", "userIds=" + ids.size());
+    }
+
+    private RuntimeException translate(Throwable ex, String notFoundReason, String subject) {
+        // Заполненный bulkhead - перегрузка на нашей стороне: 503 с Retry-After отдаёт GlobalExceptionHandler.
+        if (ex instanceof BulkheadFullException full) {
+            return full;
+        }
+
         // 404 от user-service - это бизнес-ошибка (пользователь не найден), не 503.
         if (ex instanceof FeignException.NotFound) {
-            throw new ResponseStatusException(
+            return new ResponseStatusException(
                     HttpStatus.NOT_FOUND,
-                    "User not found with id: " + id,
+                    notFoundReason,
                     ex
             );
         }
 
         // 401/403 от user-service - это не "недоступность", а ожидаемая авторизация/доступ.
         if (ex instanceof FeignException.Unauthorized) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized", ex);
+            return new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized", ex);
         }
         if (ex instanceof FeignException.Forbidden) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Forbidden", ex);
+            return new ResponseStatusException(HttpStatus.FORBIDDEN, "Forbidden", ex);
         }
 
         // Любые другие 4xx (например 400/409) — тоже не "недоступность".
         if (ex instanceof FeignException fe) {
             HttpStatus status = HttpStatus.resolve(fe.status());
             if (status != null && status.is4xxClientError()) {
-                throw new ResponseStatusException(status, "User-service returned " + fe.status(), fe);
+                return new ResponseStatusException(status, "User-service returned " + fe.status(), fe);
             }
         }
 
         var cb = circuitBreakerRegistry.circuitBreaker("user-service");
         var state = cb.getState().name();
-        log.warn("User-service call failed. circuitBreaker=user-service state={} userId={} ex={}",
-                state, id, ex.getClass().getSimpleName(), ex);
+        log.warn("User-service call failed. circuitBreaker=user-service state={} {} ex={}",
+                state, subject, ex.getClass().getSimpleName(), ex);
 
-        throw new DownstreamServiceUnavailableException(
+        return new DownstreamServiceUnavailableException(
                 "user-service",
                 "user-service",
                 state,
@@ -0,0 +1,10 @@
+package com.example.outfitservice.service;
+
+/**
+ * Ответ вместе с ETag версии образа, из которой он был построен.
+ */
+public record Versioned<T>(
+        T body,
+        String eTag
+) {
+}
@@ -0,0 +1,86 @@
+package com.example.outfitservice.service;
+
+import com.example.outfitservice.dto.WardrobeItemDto;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Загружает детали вещей из wardrobe-service по набору id: каждая вещь запрашивается один раз,
+ * сколько бы образов на неё ни ссылалось, а запросы идут параллельно на общем ограниченном пуле.
+ */
+@Component
+public class WardrobeItemResolver {
+
+    private final WardrobeServiceClientWrapper wardrobeServiceClientWrapper;
+    private final ExecutorService executor;
+
+    public WardrobeItemResolver(WardrobeServiceClientWrapper wardrobeServiceClientWrapper,
+                                @Value("${clients.wardrobe-service.resolve-parallelism:8}") int parallelism) {
+        this.wardrobeServiceClientWrapper = wardrobeServiceClientWrapper;
+        this.executor = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("wardrobe-resolve-", 0).daemon(true).factory());
+    }
+
+    /**
+     * @return детали по каждому уникальному id; ошибка любой загрузки пробрасывается как есть
+     * (та же семантика, что и у последовательных вызовов {@link WardrobeServiceClientWrapper#getItemById})
+     */
+    public Map<Long, WardrobeItemDto> resolveAll(String authorization, Collection<Long> itemIds) {
+        Set<Long> distinct = new LinkedHashSet<>(itemIds);
+        distinct.remove(null);
+
+        Map<Long, WardrobeItemDto> result = new HashMap<>(distinct.size() * 2);
+        if (distinct.size() <= 1) {
+            // один запрос нет смысла перекладывать на другой поток
+            distinct.forEach(id -> result.put(id, wardrobeServiceClientWrapper.getItemById(authorization, id)));
+            return result;
+        }
+
+        Map<Long, CompletableFuture<WardrobeItemDto>> futures = new LinkedHashMap<>();
+        for (Long id : distinct) {
+            futures.put(id, CompletableFuture.supplyAsync(
+                    () -> wardrobeServiceClientWrapper.getItemById(authorization, id), executor));
+        }
+        try {
+            futures.forEach((id, future) -> result.put(id, future.join()));
+        } catch (CompletionException ex) {
+            futures.values().forEach(future -> future.cancel(false));
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+        return result;
+    }
+
+    /**
+     * Как {@link #resolveAll}, но запрашивает только id, которых ещё нет в known, и дописывает их туда.
+     */
+    public void resolveMissing(String authorization, Collection<Long> itemIds, Map<Long, WardrobeItemDto> known) {
+        var missing = itemIds.stream()
+                .filter(Objects::nonNull)
+                .filter(id -> !known.containsKey(id))
+                .toList();
+        if (!missing.isEmpty()) {
+            known.putAll(resolveAll(authorization, missing));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.outfitservice.service;
 
 import com.example.outfitservice.client.WardrobeServiceClient;
+import com.example.outfitservice.client.WardrobeServiceInstanceClient;
 import com.example.outfitservice.dto.WardrobeItemDto;
 import feign.FeignException;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
 import org.springframework.http.HttpStatus;
@@ -15,12 +17,23 @@ public class WardrobeServiceClientWrapper {
 
     private final WardrobeServiceClient client;
     private final CircuitBreakerFactory<?, ?> circuitBreakerFactory;
+    private final HedgingExecutor hedgingExecutor;
+    private final WardrobeServiceInstanceClient instanceClient;
 
+    /**
+     * Медленный инстанс не задерживает ответ дольше p95: запрос дублируется на другой (см. {@link HedgingExecutor}).
+     * Bulkhead {@code wardrobe-service} стоит снаружи circuit breaker'а: отказ по заполненному bulkhead'у
+     * не доходит до breaker'а и сразу превращается в 503 с Retry-After.
+     */
+    @Bulkhead(name = "wardrobe-service")
     public WardrobeItemDto getItemById(String authorization, Long id) {
         return circuitBreakerFactory
                 .create("wardrobe-service")
                 .run(
-                        () -> client.getItemById(authorization, id),
+                        () -> hedgingExecutor.execute(
+                                "wardrobe-service",
+                                () -> client.getItemById(authorization, id),
+                                instance -> instanceClient.getItemById(instance, authorization, id)),
                         throwable -> {
                             if (throwable instanceof FeignException.NotFound) {
                                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Wardrobe item not found with id: " + id, throwable);
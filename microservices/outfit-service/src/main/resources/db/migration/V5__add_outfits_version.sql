@@ -0,0 +1,2 @@
+-- Optimistic locking for outfits: version is bumped on every update and is used as the ETag
+ALTER TABLE outfits ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+-- Outfit ids come from a pooled sequence (see Outfit#id, allocationSize = 50):
+-- Hibernate reserves 50 ids per nextval, so batched inserts need no per-row round trip.
+-- The BIGSERIAL default stays in place for plain SQL inserts; they simply skip ranges.
+ALTER SEQUENCE outfits_id_seq INCREMENT BY 50;
@@ -0,0 +1,5 @@
+-- Keyset pagination for /outfits/cursor: ORDER BY created_at DESC, id DESC
+-- with a row-value seek (created_at, id) < (:createdAt, :id) is served by an index range scan
+-- instead of OFFSET + count(*).
+CREATE INDEX IF NOT EXISTS idx_outfits_created_id ON outfits(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_outfits_user_created_id ON outfits(user_id, created_at DESC, id DESC);
@@ -0,0 +1,114 @@
+package com.example.outfitservice.client;
+
+import com.example.outfitservice.config.LoadBalancerConfig;
+import com.example.outfitservice.dto.UserDto;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.client.discovery.composite.CompositeDiscoveryClientAutoConfiguration;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryClientAutoConfiguration;
+import org.springframework.cloud.commons.util.UtilAutoConfiguration;
+import org.springframework.cloud.loadbalancer.config.BlockingLoadBalancerClientAutoConfiguration;
+import org.springframework.cloud.loadbalancer.config.LoadBalancerAutoConfiguration;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.loadbalancer.FeignLoadBalancerAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Feign-клиенты в контексте, собранном как в приложении: обычный клиент идёт через балансировщик
+ * по имени сервиса, клиент конкретного инстанса (hedging) — напрямую по адресу, через тот же транспорт.
+ */
+class FeignLoadBalancingTest {
+
+    private HttpServer server;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    @Configuration
+    @EnableFeignClients(clients = {UserServiceClient.class, UserServiceInstanceClient.class})
+    static class Clients {
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/users", exchange -> {
+            requests.add(exchange.getRequestURI().getPath());
+            byte[] body = "{\"id\":1,\"email\":\"user@example.com\",\"name\":\"User\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private ApplicationContextRunner contextRunner() {
+        return new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(
+                        JacksonAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+                        UtilAutoConfiguration.class, SimpleDiscoveryClientAutoConfiguration.class,
+                        CompositeDiscoveryClientAutoConfiguration.class, LoadBalancerAutoConfiguration.class,
+                        BlockingLoadBalancerClientAutoConfiguration.class, FeignAutoConfiguration.class,
+                        FeignLoadBalancerAutoConfiguration.class))
+                .withInitializer(context -> context.getBeanFactory()
+                        .setConversionService(ApplicationConversionService.getSharedInstance()))
+                .withUserConfiguration(Clients.class, LoadBalancerConfig.class)
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withPropertyValues(
+                        "spring.cloud.discovery.client.simple.instances.user-service[0].uri=" + serverUri(),
+                        "spring.cloud.loadbalancer.cache.enabled=false");
+    }
+
+    private URI serverUri() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @Test
+    void userServiceClient_shouldResolveInstances_throughLoadBalancer() {
+        contextRunner().run(context -> {
+            assertThat(context.getBean(Client.class)).isInstanceOf(FeignBlockingLoadBalancerClient.class);
+
+            UserDto user = context.getBean(UserServiceClient.class).getUserById("Bearer t", 1L);
+
+            assertThat(user.id()).isEqualTo(1L);
+            assertThat(requests).containsExactly("/users/1");
+        });
+    }
+
+    @Test
+    void instanceClient_shouldCallGivenInstanceDirectly_bypassingLoadBalancer() {
+        contextRunner().run(context -> {
+            UserDto user = context.getBean(UserServiceInstanceClient.class).getUserById(serverUri(), "Bearer t", 1L);
+
+            assertThat(user.id()).isEqualTo(1L);
+            assertThat(requests).containsExactly("/users/1");
+        });
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.outfitservice.config;
+
+import com.example.outfitservice.client.UserServiceClient;
+import com.example.outfitservice.dto.UserDto;
+import com.example.outfitservice.dto.UserExistenceRequestDto;
+import com.example.outfitservice.dto.UserExistenceResponseDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Feign-клиент с конвертерами Boot и {@link CborConfig} против локального HTTP-сервера, который отвечает CBOR.
+ */
+class CborConfigTest {
+
+    private final CBORMapper cbor = new CBORMapper();
+    private final Map<String, String> requestHeaders = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private UserServiceClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/users/exists", exchange -> {
+            record(exchange);
+            JsonNode request = cbor.readTree(exchange.getRequestBody());
+            List<Long> existing = new ArrayList<>();
+            request.get("ids").forEach(id -> {
+                if (id.asLong() % 2 == 1) existing.add(id.asLong());
+            });
+            respond(exchange, cbor.writeValueAsBytes(Map.of("existing_ids", existing)));
+        });
+        server.createContext("/users", exchange -> {
+            record(exchange);
+            respond(exchange, cbor.writeValueAsBytes(Map.of("id", 7, "email", "user@example.com", "name", "User")));
+        });
+        server.start();
+
+        HttpMessageConverters converters = new HttpMessageConverters(
+                new CborConfig().cborHttpMessageConverter(new Jackson2ObjectMapperBuilder()));
+        client = Feign.builder()
+                .contract(new SpringMvcContract())
+                .encoder(new SpringEncoder(() -> converters))
+                .decoder(new SpringDecoder(() -> converters))
+                .target(UserServiceClient.class, "http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private void record(HttpExchange exchange) {
+        requestHeaders.put("Accept", String.join(", ", exchange.getRequestHeaders().get("Accept")));
+        requestHeaders.put("Content-Type", String.valueOf(exchange.getRequestHeaders().getFirst("Content-Type")));
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/cbor");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Test
+    void getUserById_shouldPreferCbor_andDecodeIt() {
+        UserDto user = client.getUserById("Bearer token", 7L);
+
+        assertThat(user).isEqualTo(new UserDto(7L, "user@example.com", "User"));
+        assertThat(requestHeaders.get("Accept")).isEqualTo("application/cbor, application/json");
+    }
+
+    @Test
+    void findExistingIds_shouldSendAndReadCbor() {
+        UserExistenceResponseDto response = client.findExistingIds("Bearer token",
+                new UserExistenceRequestDto(List.of(1L, 2L, 3L)));
+
+        assertThat(response.existingIds()).containsExactly(1L, 3L);
+        assertThat(requestHeaders.get("Content-Type")).isEqualTo("application/cbor");
+    }
+
+    @Test
+    void mvcConverters_shouldNotOfferCbor_onPublicApi() {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>(List.of(
+                new MappingJackson2HttpMessageConverter(),
+                new MappingJackson2CborHttpMessageConverter()));
+
+        new CborConfig().extendMessageConverters(converters);
+
+        assertThat(converters).singleElement().isInstanceOf(MappingJackson2HttpMessageConverter.class);
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.outfitservice.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Feign;
+import feign.Param;
+import feign.RequestLine;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.config.Configurable;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Пул соединений Feign, собранный Spring Cloud OpenFeign по application.yml, поверх локального HTTP-сервера:
+ * лимиты и таймаут ожидания соединения, переиспользование соединений, gzip, keep-alive и метрики пула.
+ */
+class FeignTransportTest {
+
+    private static final int MAX_TOTAL = 200;
+    private static final int PER_ROUTE = 100;
+
+    private static final String BODY = "{\"id\":1,\"email\":\"user@example.com\",\"name\":\"" + "x".repeat(4096) + "\"}";
+
+    interface EchoClient {
+        @RequestLine("GET /users/{id}")
+        String get(@Param("id") long id);
+
+        @RequestLine("GET /compressed/{id}")
+        String getCompressed(@Param("id") long id);
+    }
+
+    private HttpServer server;
+    private final Set<Integer> remotePorts = ConcurrentHashMap.newKeySet();
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(new ConfigDataApplicationContextInitializer())
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withConfiguration(AutoConfigurations.of(FeignAutoConfiguration.class))
+            .withUserConfiguration(FeignConfig.class)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+        server.createContext("/users", exchange -> respond(exchange, false));
+        server.createContext("/compressed", exchange -> respond(exchange, true));
+        server.setExecutor(Executors.newFixedThreadPool(PER_ROUTE + 28));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+    }
+
+    private void respond(HttpExchange exchange, boolean compress) throws IOException {
+        remotePorts.add(exchange.getRemoteAddress().getPort());
+        byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (compress && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(body);
+            }
+            body = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private EchoClient client(Client transport) {
+        return Feign.builder().client(transport).target(EchoClient.class, "http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @Test
+    void springBuiltPool_shouldApplyConfiguredLimitsAndConnectionRequestTimeout() {
+        contextRunner.run(context -> {
+            assertThat(context.getBean(HttpClientConnectionManager.class))
+                    .isInstanceOfSatisfying(PoolingHttpClientConnectionManager.class, pool -> {
+                        assertThat(pool.getMaxTotal()).isEqualTo(MAX_TOTAL);
+                        assertThat(pool.getDefaultMaxPerRoute()).isEqualTo(PER_ROUTE);
+                    });
+            assertThat(context.getBean(CloseableHttpClient.class))
+                    .isInstanceOfSatisfying(Configurable.class, client ->
+                            assertThat(client.getConfig().getConnectionRequestTimeout()).isEqualTo(Timeout.ofSeconds(2)));
+            assertThat(context.getBean(Client.class)).isInstanceOf(ApacheHttp5Client.class);
+        });
+    }
+
+    @Test
+    void pooledClient_shouldReuseSingleConnection_forSequentialCalls() {
+        contextRunner.run(context -> {
+            EchoClient client = client(context.getBean(Client.class));
+
+            for (int i = 0; i < 10; i++) {
+                assertThat(client.get(i)).isEqualTo(BODY);
+            }
+
+            assertThat(remotePorts).hasSize(1);
+        });
+    }
+
+    @Test
+    void pooledClient_shouldNotOpenMoreConnectionsThanRouteLimit_underConcurrency() {
+        contextRunner.run(context -> {
+            EchoClient client = client(context.getBean(Client.class));
+
+            int errors = run(client, PER_ROUTE + 50, 2);
+
+            assertThat(errors).isZero();
+            assertThat(remotePorts).hasSizeLessThanOrEqualTo(PER_ROUTE);
+        });
+    }
+
+    @Test
+    void pooledClient_shouldAcceptGzipResponses() {
+        List<String> encodings = Collections.synchronizedList(new ArrayList<>());
+        server.removeContext("/compressed");
+        server.createContext("/compressed", exchange -> {
+            encodings.add(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            respond(exchange, true);
+        });
+
+        contextRunner.run(context -> {
+            assertThat(client(context.getBean(Client.class)).getCompressed(1)).isEqualTo(BODY);
+            assertThat(encodings).singleElement().asString().contains("gzip");
+        });
+    }
+
+    @Test
+    void keepAliveStrategy_shouldCapServerKeepAlive() {
+        var strategy = FeignConfig.keepAliveStrategy(Duration.ofSeconds(15));
+
+        BasicHttpResponse longKeepAlive = new BasicHttpResponse(200);
+        longKeepAlive.addHeader("Keep-Alive", "timeout=60");
+        BasicHttpResponse shortKeepAlive = new BasicHttpResponse(200);
+        shortKeepAlive.addHeader("Keep-Alive", "timeout=5");
+
+        assertThat(strategy.getKeepAliveDuration(longKeepAlive, HttpClientContext.create()))
+                .isEqualTo(TimeValue.ofSeconds(15));
+        assertThat(strategy.getKeepAliveDuration(new BasicHttpResponse(200), HttpClientContext.create()))
+                .isEqualTo(TimeValue.ofSeconds(15));
+        assertThat(strategy.getKeepAliveDuration(shortKeepAlive, HttpClientContext.create()).toSeconds())
+                .isEqualTo(5);
+    }
+
+    @Test
+    void poolMetrics_shouldReportLeasedAndAvailableConnections() {
+        contextRunner.run(context -> {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            context.getBean("feignConnectionPoolMetrics", MeterBinder.class).bindTo(registry);
+
+            client(context.getBean(Client.class)).get(1);
+
+            assertThat(registry.get("httpcomponents.httpclient.pool.total.max").tag("httpclient", FeignConfig.POOL_NAME)
+                    .gauge().value()).isEqualTo(MAX_TOTAL);
+            assertThat(registry.get("httpcomponents.httpclient.pool.route.max.default").tag("httpclient", FeignConfig.POOL_NAME)
+                    .gauge().value()).isEqualTo(PER_ROUTE);
+            assertThat(registry.get("httpcomponents.httpclient.pool.total.connections").tag("state", "available")
+                    .gauge().value()).isEqualTo(1);
+            assertThat(registry.get("httpcomponents.httpclient.pool.total.connections").tag("state", "leased")
+                    .gauge().value()).isZero();
+        });
+    }
+
+    /** Число неудачных вызовов. */
+    private static int run(EchoClient client, int threads, int callsPerThread) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    int errors = 0;
+                    for (int i = 0; i < callsPerThread; i++) {
+                        try {
+                            client.get(i);
+                        } catch (RuntimeException ex) {
+                            errors++;
+                        }
+                    }
+                    return errors;
+                }));
+            }
+            int errors = 0;
+            for (Future<Integer> future : futures) {
+                errors += future.get();
+            }
+            return errors;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
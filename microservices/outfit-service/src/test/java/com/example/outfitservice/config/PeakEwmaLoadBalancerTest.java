@@ -0,0 +1,162 @@
+package com.example.outfitservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.config.LoadBalancerAutoConfiguration;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.LinkedMultiValueMap;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PeakEwmaLoadBalancerTest {
+
+    private static final String SERVICE = "wardrobe-service";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final InstanceLoadStats stats = new InstanceLoadStats(
+            registry, Duration.ofSeconds(10), Duration.ofMillis(50), Duration.ofSeconds(1));
+
+    private final ServiceInstance a = instance("10.0.0.1");
+    private final ServiceInstance b = instance("10.0.0.2");
+    private final ServiceInstance c = instance("10.0.0.3");
+
+    private static ServiceInstance instance(String host) {
+        return new DefaultServiceInstance(host, SERVICE, host, 8082, false);
+    }
+
+    private PeakEwmaLoadBalancer balancer(ServiceInstance... instances) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("supplier", ServiceInstanceListSuppliers.from(SERVICE, instances));
+        return new PeakEwmaLoadBalancer(beans.getBeanProvider(ServiceInstanceListSupplier.class), SERVICE, stats);
+    }
+
+    private Map<ServiceInstance, Integer> pick(PeakEwmaLoadBalancer balancer, int times) {
+        Map<ServiceInstance, Integer> picks = new HashMap<>();
+        for (int i = 0; i < times; i++) {
+            ServiceInstance chosen = balancer.choose(new DefaultRequest<>()).block().getServer();
+            picks.merge(chosen, 1, Integer::sum);
+        }
+        return picks;
+    }
+
+    private void respond(ServiceInstance instance, Duration latency) {
+        InstanceLoadStats.Instance stat = stats.instance(SERVICE, instance);
+        stat.start();
+        stat.complete(latency.toNanos(), false);
+    }
+
+    @Test
+    void loadBalancerClients_shouldUsePeakEwma_insteadOfRoundRobin() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(LoadBalancerAutoConfiguration.class))
+                .withInitializer(context -> context.getBeanFactory()
+                        .setConversionService(ApplicationConversionService.getSharedInstance()))
+                .withUserConfiguration(LoadBalancerConfig.class)
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .run(context -> {
+                    LoadBalancerClientFactory factory = context.getBean(LoadBalancerClientFactory.class);
+                    assertThat(factory.getInstance(SERVICE)).isInstanceOf(PeakEwmaLoadBalancer.class);
+                    assertThat(factory.getInstances(SERVICE, PeakEwmaLoadBalancerLifecycle.class)).hasSize(1);
+                });
+    }
+
+    @Test
+    void choose_shouldNeverPickSlowestInstance_ofThree() {
+        respond(a, Duration.ofMillis(5));
+        respond(b, Duration.ofMillis(6));
+        respond(c, Duration.ofMillis(200));
+
+        Map<ServiceInstance, Integer> picks = pick(balancer(a, b, c), 300);
+
+        assertThat(picks).doesNotContainKey(c);
+        assertThat(picks.get(a)).isGreaterThan(picks.getOrDefault(b, 0));
+    }
+
+    @Test
+    void choose_shouldPreferInstanceWithFewerRequestsInFlight_whenLatenciesAreEqual() {
+        respond(a, Duration.ofMillis(10));
+        respond(b, Duration.ofMillis(10));
+        stats.instance(SERVICE, a).start();
+        stats.instance(SERVICE, a).start();
+
+        assertThat(pick(balancer(a, b), 20)).containsOnlyKeys(b);
+    }
+
+    @Test
+    void choose_shouldReturnEmptyResponse_withoutInstances() {
+        assertThat(balancer().choose(new DefaultRequest<>()).block().hasServer()).isFalse();
+    }
+
+    @Test
+    void peakEwma_shouldJumpOnSlowSample_andRecoverGradually() {
+        InstanceLoadStats.Instance stat = stats.instance(SERVICE, a);
+        long now = System.nanoTime();
+        stat.observe(Duration.ofMillis(10).toNanos(), now);
+        stat.observe(Duration.ofMillis(500).toNanos(), now);
+        assertThat(stat.latencyNanos(now)).isEqualTo(Duration.ofMillis(500).toNanos());
+
+        long later = now + Duration.ofSeconds(5).toNanos();
+        stat.observe(Duration.ofMillis(10).toNanos(), later);
+        assertThat(stat.latencyNanos(later))
+                .isLessThan(Duration.ofMillis(500).toNanos())
+                .isGreaterThan(Duration.ofMillis(10).toNanos());
+    }
+
+    @Test
+    void lifecycle_shouldTrackInFlightRequests_andPenalizeServerErrors() {
+        PeakEwmaLoadBalancerLifecycle lifecycle = new PeakEwmaLoadBalancerLifecycle(SERVICE, stats);
+        RequestData requestData = new RequestData(HttpMethod.GET, URI.create("http://wardrobe-service/items/1"),
+                new HttpHeaders(), new HttpHeaders(), Map.of());
+        DefaultRequest<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext(requestData));
+        DefaultResponse lbResponse = new DefaultResponse(a);
+
+        lifecycle.onStartRequest(request, lbResponse);
+        assertThat(registry.get("loadbalancer.instance.outstanding").tag("instance", "10.0.0.1:8082")
+                .gauge().value()).isEqualTo(1);
+
+        ResponseData serverError = new ResponseData(HttpStatus.SERVICE_UNAVAILABLE, new HttpHeaders(),
+                new LinkedMultiValueMap<>(), requestData);
+        lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, lbResponse, serverError));
+
+        assertThat(registry.get("loadbalancer.instance.outstanding").tag("instance", "10.0.0.1:8082")
+                .gauge().value()).isZero();
+        assertThat(stats.instance(SERVICE, a).latencyNanos(System.nanoTime()))
+                .isGreaterThan(Duration.ofMillis(900).toNanos());
+    }
+
+    @Test
+    void retain_shouldDropStatsAndGauges_ofDeregisteredInstances() {
+        respond(a, Duration.ofMillis(5));
+        respond(b, Duration.ofMillis(5));
+
+        stats.retain(SERVICE, List.of(a));
+
+        assertThat(registry.find("loadbalancer.instance.score").tag("instance", "10.0.0.2:8082").gauge()).isNull();
+        assertThat(registry.get("loadbalancer.instance.score").tag("instance", "10.0.0.1:8082").gauge().value())
+                .isPositive();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.outfitservice.config;
+
+import com.example.outfitservice.entity.Outfit;
+import com.example.outfitservice.entity.OutfitItem;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hibernate runs with missing_cache_strategy=fail: every region it asks for must be declared in caffeine.conf.
+ */
+class SecondLevelCacheRegionsTest {
+
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        cacheManager = provider.getCacheManager(URI.create("classpath:caffeine.conf"), getClass().getClassLoader());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void regions_shouldBeDeclaredAndBounded() {
+        for (String region : new String[]{Outfit.CACHE_REGION, Outfit.ITEMS_CACHE_REGION, OutfitItem.CACHE_REGION}) {
+            CaffeineConfiguration<?, ?> config = configOf(region);
+            assertThat(config.getMaximumSize()).as(region).isPresent();
+            assertThat(config.getExpireAfterWrite()).as(region).isPresent();
+            assertThat(config.isStatisticsEnabled()).as(region).isTrue();
+        }
+        assertThat(configOf(Outfit.CACHE_REGION).getMaximumSize()).hasValue(50_000);
+    }
+
+    @Test
+    void regions_shouldExpireWithinSeconds_becauseOtherInstancesDoNotInvalidateThem() {
+        for (String region : new String[]{Outfit.CACHE_REGION, Outfit.ITEMS_CACHE_REGION, OutfitItem.CACHE_REGION}) {
+            Duration ttl = Duration.ofNanos(configOf(region).getExpireAfterWrite().orElseThrow());
+            assertThat(ttl).as(region).isLessThanOrEqualTo(Duration.ofMinutes(1));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private CaffeineConfiguration<?, ?> configOf(String region) {
+        var cache = cacheManager.getCache(region);
+        assertThat(cache).as(region).isNotNull();
+        return cache.getConfiguration(CaffeineConfiguration.class);
+    }
+}
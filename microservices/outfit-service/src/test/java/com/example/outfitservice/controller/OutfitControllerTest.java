@@ -1,38 +1,59 @@
 package com.example.outfitservice.controller;
 
+import com.example.outfitservice.dto.OutfitBulkResultDto;
+import com.example.outfitservice.dto.OutfitEventDto;
+import com.example.outfitservice.dto.OutfitEventType;
 import com.example.outfitservice.dto.OutfitItemLinkDto;
 import com.example.outfitservice.dto.OutfitResponseDto;
 import com.example.outfitservice.dto.OutfitDetailedResponseDto;
 import com.example.outfitservice.dto.OutfitItemDetailedDto;
 import com.example.outfitservice.dto.WardrobeItemDto;
+import com.example.outfitservice.entity.Outfit;
 import com.example.outfitservice.entity.OutfitRole;
 import com.example.outfitservice.entity.enums.ItemType;
 import com.example.outfitservice.entity.enums.Season;
 import com.example.outfitservice.exception.GlobalExceptionHandler;
 import com.example.outfitservice.exception.NotFoundException;
+import com.example.outfitservice.service.CursorPage;
 import com.example.outfitservice.service.OutfitService;
 import com.example.outfitservice.service.PagedResult;
+import com.example.outfitservice.service.Versioned;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = OutfitController.class)
@@ -54,10 +75,13 @@ class OutfitControllerTest {
                 List.of(new OutfitItemLinkDto(1L, OutfitRole.TOP))
         );
 
+        when(outfitService.getETag(1L)).thenReturn("W/\"outfit-1-v2\"");
         when(outfitService.getByIdWithItemDetails(1L)).thenReturn(dto);
 
         mockMvc.perform(get("/outfits/1").with(jwt()))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"outfit-1-v2\""))
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.title").value("Test Outfit"))
                 .andExpect(jsonPath("$.user_id").value(10))
@@ -65,6 +89,58 @@ class OutfitControllerTest {
                 .andExpect(jsonPath("$.items[0].role").value("TOP"));
     }
 
+    @Test
+    void getById_shouldReturn304_whenETagMatches_withoutLoadingOutfit() throws Exception {
+        when(outfitService.getETag(1L)).thenReturn("W/\"outfit-1-v2\"");
+
+        mockMvc.perform(get("/outfits/1").with(jwt()).header("If-None-Match", "\"outfit-1-v2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"outfit-1-v2\""));
+
+        verify(outfitService, never()).getByIdWithItemDetails(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamMyOutfits_shouldWriteNdjson() throws Exception {
+        doAnswer(inv -> {
+            var sink = (Consumer<OutfitResponseDto>) inv.getArgument(0);
+            sink.accept(new OutfitResponseDto(1L, "First", 10L, List.of()));
+            sink.accept(new OutfitResponseDto(2L, "Second", 10L, List.of()));
+            return null;
+        }).when(outfitService).streamMyOutfits(any());
+
+        MvcResult result = mockMvc.perform(get("/outfits/me").with(jwt()).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"id\":1,\"title\":\"First\",\"user_id\":10,\"items\":[]}\n"
+                                + "{\"id\":2,\"title\":\"Second\",\"user_id\":10,\"items\":[]}\n"));
+
+        verify(outfitService, never()).getMyOutfits();
+    }
+
+    @Test
+    void streamMyChanges_shouldReturnEventStream() throws Exception {
+        OutfitResponseDto outfit = new OutfitResponseDto(1L, "Test Outfit", 10L, List.of());
+        OutfitEventDto event = new OutfitEventDto(OutfitEventType.UPDATED, 1L, Instant.now(), outfit);
+        when(outfitService.streamMyChanges()).thenReturn(Flux.just(ServerSentEvent.builder(event).event("UPDATED").build()));
+
+        MvcResult result = mockMvc.perform(get("/outfits/events").with(jwt()).accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(containsString("event:UPDATED")))
+                .andExpect(content().string(containsString("\"user_id\":10")));
+    }
+
     @Test
     void getByIdDetailed_shouldReturn200_whenFound() throws Exception {
         WardrobeItemDto item = new WardrobeItemDto(
@@ -83,6 +159,7 @@ class OutfitControllerTest {
                 List.of(new OutfitItemDetailedDto(101L, OutfitRole.TOP, item))
         );
 
+        when(outfitService.getETag(1L)).thenReturn("W/\"outfit-1-v2\"");
         when(outfitService.getDetailedById(1L)).thenReturn(dto);
 
         mockMvc.perform(get("/outfits/1/detailed").with(jwt()))
@@ -96,9 +173,19 @@ class OutfitControllerTest {
                 .andExpect(jsonPath("$.items[0].item.brand").value("Nike"));
     }
 
+    @Test
+    void getByIdDetailed_shouldReturn304_whenETagMatches() throws Exception {
+        when(outfitService.getETag(1L)).thenReturn("W/\"outfit-1-v2\"");
+
+        mockMvc.perform(get("/outfits/1/detailed").with(jwt()).header("If-None-Match", "\"outfit-1-v2\""))
+                .andExpect(status().isNotModified());
+
+        verify(outfitService, never()).getDetailedById(any());
+    }
+
     @Test
     void getById_shouldReturn404_whenNotFound() throws Exception {
-        when(outfitService.getByIdWithItemDetails(999L)).thenThrow(new NotFoundException("Outfit not found with id: 999"));
+        when(outfitService.getETag(999L)).thenThrow(new NotFoundException("Outfit not found with id: 999"));
 
         mockMvc.perform(get("/outfits/999").with(jwt()))
                 .andExpect(status().isNotFound());
@@ -145,6 +232,64 @@ class OutfitControllerTest {
                 .andExpect(jsonPath("$.title").value("Created"));
     }
 
+    @Test
+    void getByCursor_shouldReturnItemsAndNextCursorHeader() throws Exception {
+        OutfitResponseDto dto = new OutfitResponseDto(7L, "Newest", 10L, List.of());
+        when(outfitService.getOutfitsByCursor(null, 1)).thenReturn(new CursorPage<>(List.of(dto), "MTIzOjc"));
+
+        mockMvc.perform(get("/outfits/cursor").param("limit", "1").with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "MTIzOjc"))
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andExpect(jsonPath("$[0].id").value(7));
+    }
+
+    @Test
+    void getByCursor_shouldReturn400_whenCursorIsMalformed() throws Exception {
+        when(outfitService.getOutfitsByCursor(eq("garbage"), eq(10)))
+                .thenThrow(new IllegalArgumentException("Invalid outfit cursor: garbage"));
+
+        mockMvc.perform(get("/outfits/cursor").param("cursor", "garbage").with(jwt()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createBulk_shouldReturn201() throws Exception {
+        when(outfitService.createBulk(any())).thenReturn(new OutfitBulkResultDto(2, List.of(51L, 52L)));
+
+        mockMvc.perform(post("/outfits/bulk")
+                        .with(jwt())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [
+                                  {"title": "A", "user_id": 10, "items": [{"item_id": 1, "role": "TOP"}]},
+                                  {"title": "B", "user_id": 10, "items": []}
+                                ]
+                                """))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.ids[1]").value(52));
+    }
+
+    @Test
+    void createBulk_shouldReturn400_whenEmptyOrInvalid() throws Exception {
+        mockMvc.perform(post("/outfits/bulk")
+                        .with(jwt())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/outfits/bulk")
+                        .with(jwt())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"title": "", "user_id": 10}]
+                                """))
+                .andExpect(status().isBadRequest());
+
+        verify(outfitService, never()).createBulk(any());
+    }
+
     @Test
     void create_shouldReturn400_whenInvalidBody() throws Exception {
         mockMvc.perform(post("/outfits")
@@ -162,10 +307,12 @@ class OutfitControllerTest {
     @Test
     void update_shouldReturn200() throws Exception {
         OutfitResponseDto updated = new OutfitResponseDto(1L, "Updated", 10L, List.of());
-        when(outfitService.update(eq(1L), any())).thenReturn(updated);
+        when(outfitService.update(eq(1L), any(), eq("\"outfit-1-v2\"")))
+                .thenReturn(new Versioned<>(updated, "\"outfit-1-v3\""));
 
         mockMvc.perform(put("/outfits/1")
                         .with(jwt())
+                        .header("If-Match", "\"outfit-1-v2\"")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("""
                                 {
@@ -176,9 +323,66 @@ class OutfitControllerTest {
                                 }
                                 """))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"outfit-1-v3\""))
                 .andExpect(jsonPath("$.title").value("Updated"));
     }
 
+    @Test
+    void update_shouldReturn412_whenIfMatchIsStale() throws Exception {
+        when(outfitService.update(eq(1L), any(), eq("\"outfit-1-v1\"")))
+                .thenThrow(new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Outfit was modified, reload and retry"));
+
+        mockMvc.perform(put("/outfits/1")
+                        .with(jwt())
+                        .header("If-Match", "\"outfit-1-v1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "title": "Updated",
+                                  "user_id": 10,
+                                  "items": []
+                                }
+                                """))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void update_shouldReturn412_whenConcurrentWriteWinsAfterIfMatch() throws Exception {
+        when(outfitService.update(eq(1L), any(), any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Outfit.class, 1L));
+
+        mockMvc.perform(put("/outfits/1")
+                        .with(jwt())
+                        .header("If-Match", "\"outfit-1-v2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "title": "Updated",
+                                  "user_id": 10,
+                                  "items": []
+                                }
+                                """))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void update_shouldReturn409_whenConcurrentWriteWinsWithoutIfMatch() throws Exception {
+        when(outfitService.update(eq(1L), any(), any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Outfit.class, 1L));
+
+        mockMvc.perform(put("/outfits/1")
+                        .with(jwt())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "title": "Updated",
+                                  "user_id": 10,
+                                  "items": []
+                                }
+                                """))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void delete_shouldReturn204() throws Exception {
         doNothing().when(outfitService).delete(1L);
@@ -1,16 +1,50 @@
 package com.example.outfitservice.exception;
 
+import com.example.outfitservice.entity.Outfit;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 class GlobalExceptionHandlerTest {
 
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
     @Test
     void simpleExceptionHandlerTest_shouldPass() {
         // Simple test to verify exception handler test infrastructure works
         assertThat("exception").isNotNull();
         assertThat(4 * 4).isEqualTo(16);
     }
-}
 
+    @Test
+    void handleBulkheadFullException_shouldReturn503WithRetryAfter() {
+        BulkheadFullException exception =
+                BulkheadFullException.createBulkheadFullException(Bulkhead.ofDefaults("wardrobe-service"));
+
+        ResponseEntity<String> response = handler.handleBulkheadFullException(exception);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(response.getBody()).contains("wardrobe-service");
+    }
+
+    @Test
+    void handleOptimisticLockingFailure_shouldReturn412_onlyWhenRequestHadIfMatch() {
+        var exception = new ObjectOptimisticLockingFailureException(Outfit.class, 1L);
+        MockHttpServletRequest conditional = new MockHttpServletRequest();
+        conditional.addHeader(HttpHeaders.IF_MATCH, "\"outfit-1-v2\"");
+
+        assertThat(handler.handleOptimisticLockingFailure(exception, new ServletWebRequest(conditional)).getStatusCode())
+                .isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertThat(handler.handleOptimisticLockingFailure(exception, new ServletWebRequest(new MockHttpServletRequest())).getStatusCode())
+                .isEqualTo(HttpStatus.CONFLICT);
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.outfitservice.integration;
+
+import com.example.outfitservice.dto.OutfitDto;
+import com.example.outfitservice.dto.OutfitItemLinkDto;
+import com.example.outfitservice.entity.Outfit;
+import com.example.outfitservice.entity.OutfitRole;
+import com.example.outfitservice.mapper.OutfitMapper;
+import com.example.outfitservice.repository.OutfitRepository;
+import com.example.outfitservice.service.OutfitChangeNotifier;
+import com.example.outfitservice.service.OutfitService;
+import com.example.outfitservice.service.UserServiceClientWrapper;
+import com.example.outfitservice.service.WardrobeItemResolver;
+import com.example.outfitservice.service.WardrobeServiceClientWrapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * SQL, который уходит в базу при правке состава большого образа: перестановка двух вещей из 500
+ * пишет две строки outfit_items одним JDBC-батчем, а не перенумерует все связи.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@SuppressWarnings("resource")
+class OutfitItemsWriteStatementsTest {
+
+    private static final int ITEMS = 500;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("outfits_test")
+            .withUsername("user")
+            .withPassword("user");
+
+    /** Только JPA-слой и OutfitService: без Feign-клиентов и конфигурации приложения. */
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = Outfit.class)
+    @EnableJpaRepositories(basePackageClasses = OutfitRepository.class)
+    @Import({OutfitService.class, OutfitMapper.class})
+    static class JpaSlice {
+    }
+
+    @Autowired
+    private OutfitService outfitService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private UserServiceClientWrapper userServiceClientWrapper;
+
+    @MockitoBean
+    private WardrobeServiceClientWrapper wardrobeServiceClientWrapper;
+
+    @MockitoBean
+    private WardrobeItemResolver wardrobeItemResolver;
+
+    @MockitoBean
+    private OutfitChangeNotifier changeNotifier;
+
+    private Statistics statistics;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Jwt jwt = Jwt.withTokenValue("test-token")
+                .header("alg", "none")
+                .subject("user1@example.com")
+                .claim("userId", "1")
+                .claim("roles", List.of("ROLE_USER"))
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+        when(userServiceClientWrapper.userExists(anyString(), anyLong())).thenReturn(true);
+    }
+
+    @Test
+    void update_shouldWriteOnlyMovedRows_inOneBatch_whenTwoItemsOfLargeOutfitAreSwapped() {
+        List<Long> order = new ArrayList<>();
+        for (long itemId = 1; itemId <= ITEMS; itemId++) {
+            order.add(itemId);
+        }
+        Long id = outfitService.create(outfit(order)).id();
+
+        // то же содержимое: меняется только версия образа
+        long unchangedStatements = measure(() -> outfitService.update(id, outfit(order)));
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+
+        Collections.swap(order, 10, 400);
+        long swapStatements = measure(() -> outfitService.update(id, outfit(order)));
+
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(1 + 2);
+        assertThat(statistics.getEntityInsertCount()).isZero();
+        assertThat(statistics.getEntityDeleteCount()).isZero();
+        assertThat(swapStatements).isEqualTo(unchangedStatements + 1);
+    }
+
+    @Test
+    void update_shouldInsertOnlyNewRow_whenItemIsInsertedIntoLargeOutfit() {
+        List<Long> order = new ArrayList<>();
+        for (long itemId = 1; itemId <= ITEMS; itemId++) {
+            order.add(itemId);
+        }
+        Long id = outfitService.create(outfit(order)).id();
+        long unchangedStatements = measure(() -> outfitService.update(id, outfit(order)));
+
+        order.add(250, 10_000L);
+        long insertStatements = measure(() -> outfitService.update(id, outfit(order)));
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+        assertThat(insertStatements).isEqualTo(unchangedStatements + 1);
+    }
+
+    /** Prepared statements одного обновления; образ читается из базы, а не из persistence context или L2-кэша. */
+    private long measure(Runnable update) {
+        entityManager.flush();
+        entityManager.clear();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        update.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static OutfitDto outfit(List<Long> itemIds) {
+        return new OutfitDto("Capsule", 1L, itemIds.stream()
+                .map(itemId -> new OutfitItemLinkDto(itemId, OutfitRole.ACCESSORY))
+                .toList());
+    }
+}
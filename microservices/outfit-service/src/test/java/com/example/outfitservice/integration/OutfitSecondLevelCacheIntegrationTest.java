@@ -0,0 +1,153 @@
+package com.example.outfitservice.integration;
+
+import com.example.outfitservice.OutfitServiceApplication;
+import com.example.outfitservice.dto.OutfitDto;
+import com.example.outfitservice.dto.OutfitItemLinkDto;
+import com.example.outfitservice.dto.OutfitResponseDto;
+import com.example.outfitservice.entity.Outfit;
+import com.example.outfitservice.entity.OutfitRole;
+import com.example.outfitservice.exception.NotFoundException;
+import com.example.outfitservice.service.OutfitService;
+import com.example.outfitservice.service.UserServiceClientWrapper;
+import com.example.outfitservice.service.Versioned;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.server.ResponseStatusException;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * Repeated reads of an outfit are served by the second-level cache and see every update and delete.
+ */
+@SpringBootTest(classes = OutfitServiceApplication.class)
+@Testcontainers(disabledWithoutDocker = true)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@SuppressWarnings("resource")
+class OutfitSecondLevelCacheIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("outfits_test")
+            .withUsername("user")
+            .withPassword("user");
+
+    @Autowired
+    private OutfitService outfitService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private UserServiceClientWrapper userServiceClientWrapper;
+
+    private Statistics statistics;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Jwt jwt = Jwt.withTokenValue("test-token")
+                .header("alg", "none")
+                .subject("user1@example.com")
+                .claim("userId", "1")
+                .claim("roles", List.of("ROLE_USER"))
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+        Mockito.when(userServiceClientWrapper.userExists(anyString(), anyLong())).thenReturn(true);
+    }
+
+    @Test
+    void getById_shouldBeServedFromCache_andSeeUpdatesAndDeletes() {
+        OutfitResponseDto created = outfitService.create(new OutfitDto("Cached", 1L, List.of(
+                new OutfitItemLinkDto(1L, OutfitRole.TOP),
+                new OutfitItemLinkDto(2L, OutfitRole.BOTTOM))));
+        outfitService.getById(created.id());
+        statistics.clear();
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(outfitService.getById(created.id()).items()).hasSize(2);
+        }
+
+        assertThat(statistics.getDomainDataRegionStatistics(Outfit.CACHE_REGION).getHitCount()).isEqualTo(10);
+        assertThat(statistics.getDomainDataRegionStatistics(Outfit.ITEMS_CACHE_REGION).getHitCount()).isEqualTo(10);
+        // в базу идёт только проверка доступа
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(10);
+
+        outfitService.update(created.id(), new OutfitDto("Renamed", 1L, List.of(new OutfitItemLinkDto(3L, OutfitRole.SHOES))));
+        OutfitResponseDto updated = outfitService.getById(created.id());
+        assertThat(updated.title()).isEqualTo("Renamed");
+        assertThat(updated.items()).extracting(OutfitItemLinkDto::itemId).containsExactly(3L);
+
+        outfitService.delete(created.id());
+        assertThatThrownBy(() -> outfitService.getById(created.id()))
+                .isInstanceOfAny(NotFoundException.class, ResponseStatusException.class);
+    }
+
+    @Test
+    void update_shouldCompareIfMatchWithDatabase_whenAnotherInstanceChangedOutfit() {
+        OutfitResponseDto created = outfitService.create(new OutfitDto("Cached", 1L, List.of()));
+        outfitService.getById(created.id());
+        String cachedETag = outfitService.getETag(created.id());
+
+        // запись через соседний инстанс: L2-кэш этого инстанса о ней не знает
+        jdbcTemplate.update("UPDATE outfits SET title = 'Elsewhere', version = version + 1 WHERE id = ?", created.id());
+        String currentETag = outfitService.getETag(created.id());
+        assertThat(currentETag).isNotEqualTo(cachedETag);
+
+        Versioned<OutfitResponseDto> updated = outfitService.update(created.id(), new OutfitDto("Renamed", 1L, List.of()), currentETag);
+        assertThat(updated.body().title()).isEqualTo("Renamed");
+
+        assertThatThrownBy(() -> outfitService.update(created.id(), new OutfitDto("Stale", 1L, List.of()), cachedETag))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED));
+    }
+
+    @Test
+    void accessCheck_shouldSeeOwnershipChangedByAnotherInstance() {
+        OutfitResponseDto created = outfitService.create(new OutfitDto("Cached", 1L, List.of()));
+        outfitService.getById(created.id());
+
+        jdbcTemplate.update("UPDATE outfits SET user_id = 2, version = version + 1 WHERE id = ?", created.id());
+
+        assertThatThrownBy(() -> outfitService.getById(created.id()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN));
+    }
+}
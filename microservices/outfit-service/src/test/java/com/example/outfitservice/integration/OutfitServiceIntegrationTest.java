@@ -5,6 +5,7 @@ import com.example.outfitservice.dto.*;
 import com.example.outfitservice.entity.OutfitRole;
 import com.example.outfitservice.service.OutfitService;
 import com.example.outfitservice.service.PagedResult;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,8 +26,8 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 
 @SpringBootTest(classes = OutfitServiceApplication.class)
 @Testcontainers
@@ -57,6 +58,11 @@ public class OutfitServiceIntegrationTest {
         registry.add("spring.datasource.password", postgres::getPassword);
     }
 
+    @BeforeEach
+    void stubUserService() {
+        Mockito.when(userServiceClientWrapper.userExists(anyString(), anyLong())).thenReturn(true);
+    }
+
     private void asUser(long userId) {
         Jwt jwt = Jwt.withTokenValue("test-token")
                 .header("alg", "none")
@@ -81,9 +87,6 @@ public class OutfitServiceIntegrationTest {
     void shouldCreateOutfit() {
         asUser(1L);
         // given
-        Mockito.when(userServiceClientWrapper.getUserById(anyString(), anyLong()))
-                .thenReturn(new UserDto(1L, "test@example.com", "Test User"));
-
         OutfitDto createDto = new OutfitDto(
                 "Summer Outfit",
                 1L,
@@ -106,8 +109,6 @@ public class OutfitServiceIntegrationTest {
     @Test
     void moderatorShouldCreateOutfitForOtherUser() {
         asModerator(998L);
-        Mockito.when(userServiceClientWrapper.getUserById(anyString(), anyLong()))
-                .thenReturn(new UserDto(2L, "u2@example.com", "User2"));
 
         OutfitDto createDto = new OutfitDto(
                 "Moderator Outfit",
@@ -125,9 +126,6 @@ public class OutfitServiceIntegrationTest {
     void shouldGetOutfitById_whenExists() {
         asUser(1L);
         // given
-        Mockito.when(userServiceClientWrapper.getUserById(anyString(), anyLong()))
-                .thenReturn(new UserDto(1L, "test@example.com", "Test User"));
-
         OutfitDto createDto = new OutfitDto(
                 "Test Outfit",
                 1L,
@@ -157,8 +155,6 @@ public class OutfitServiceIntegrationTest {
     void shouldGetPagedOutfits() {
         asUser(1L);
         // given - create some outfits
-        Mockito.when(userServiceClientWrapper.getUserById(anyString(), anyLong()))
-                .thenReturn(new UserDto(1L, "test@example.com", "Test User"));
 
         for (int i = 0; i < 5; i++) {
             OutfitDto createDto = new OutfitDto(
@@ -181,8 +177,6 @@ public class OutfitServiceIntegrationTest {
     void shouldGetInfiniteScrollOutfits() {
         asUser(1L);
         // given - create some outfits
-        Mockito.when(userServiceClientWrapper.getUserById(anyString(), anyLong()))
-                .thenReturn(new UserDto(1L, "test@example.com", "Test User"));
 
         for (int i = 0; i < 3; i++) {
             OutfitDto createDto = new OutfitDto(
@@ -204,9 +198,6 @@ public class OutfitServiceIntegrationTest {
     void shouldUpdateOutfit() {
         asUser(1L);
         // given
-        Mockito.when(userServiceClientWrapper.getUserById(anyString(), anyLong()))
-                .thenReturn(new UserDto(1L, "test@example.com", "Test User"));
-
         OutfitDto createDto = new OutfitDto(
                 "Original Outfit",
                 1L,
@@ -236,9 +227,6 @@ public class OutfitServiceIntegrationTest {
     void shouldDeleteOutfit() {
         asUser(1L);
         // given
-        Mockito.when(userServiceClientWrapper.getUserById(anyString(), anyLong()))
-                .thenReturn(new UserDto(1L, "test@example.com", "Test User"));
-
         OutfitDto createDto = new OutfitDto(
                 "Outfit to Delete",
                 1L,
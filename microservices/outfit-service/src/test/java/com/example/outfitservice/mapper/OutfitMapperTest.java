@@ -0,0 +1,42 @@
+package com.example.outfitservice.mapper;
+
+import com.example.outfitservice.dto.OutfitItemLinkDto;
+import com.example.outfitservice.dto.OutfitResponseDto;
+import com.example.outfitservice.entity.OutfitRole;
+import com.example.outfitservice.repository.OutfitItemRow;
+import com.example.outfitservice.repository.OutfitSummary;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutfitMapperTest {
+
+    private final OutfitMapper mapper = new OutfitMapper();
+
+    @Test
+    void toDtos_shouldAttachItemsToTheirOutfits_keepingOutfitAndItemOrder() {
+        Instant now = Instant.now();
+        List<OutfitSummary> outfits = List.of(
+                new OutfitSummary(2L, "Second", 1L, now),
+                new OutfitSummary(1L, "First", 1L, now),
+                new OutfitSummary(3L, "Empty", 1L, now)
+        );
+        List<OutfitItemRow> items = List.of(
+                new OutfitItemRow(1L, 11L, OutfitRole.TOP, 1024),
+                new OutfitItemRow(1L, 12L, OutfitRole.SHOES, 2048),
+                new OutfitItemRow(2L, 21L, OutfitRole.BOTTOM, 1)
+        );
+
+        List<OutfitResponseDto> dtos = mapper.toDtos(outfits, items);
+
+        assertThat(dtos).extracting(OutfitResponseDto::id).containsExactly(2L, 1L, 3L);
+        assertThat(dtos.get(1).items()).containsExactly(
+                new OutfitItemLinkDto(11L, OutfitRole.TOP),
+                new OutfitItemLinkDto(12L, OutfitRole.SHOES)
+        );
+        assertThat(dtos.get(2).items()).isEmpty();
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.outfitservice.service;
+
+import com.example.outfitservice.config.HedgingProperties;
+import com.example.outfitservice.config.InstanceLoadStats;
+import feign.FeignException;
+import feign.Request;
+import feign.RequestTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HedgingExecutorTest {
+
+    private static final String SERVICE = "wardrobe-service";
+
+    private final DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final InstanceLoadStats loadStats = new InstanceLoadStats(
+            registry, Duration.ofSeconds(10), Duration.ofMillis(50), Duration.ofSeconds(1));
+    private final ServiceInstance fast = new DefaultServiceInstance("a", SERVICE, "10.0.0.1", 8082, false);
+    private final ServiceInstance slow = new DefaultServiceInstance("b", SERVICE, "10.0.0.2", 8082, false);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private HedgingExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        when(discoveryClient.getInstances(SERVICE)).thenReturn(List.of(fast, slow));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private HedgingExecutor executor(double budgetRatio, int budgetCapacity) {
+        return executor(Duration.ofMillis(20), budgetRatio, budgetCapacity);
+    }
+
+    private HedgingExecutor executor(Duration minDelay, double budgetRatio, int budgetCapacity) {
+        executor = new HedgingExecutor(discoveryClient, registry,
+                new HedgingProperties(true, 0.95, minDelay, 10, 10, budgetRatio, budgetCapacity), loadStats);
+        return executor;
+    }
+
+    /** Набирает замеры, после которых включается hedging. */
+    private void warmUp(HedgingExecutor executor) {
+        for (int i = 0; i < 10; i++) {
+            executor.execute(SERVICE, () -> "direct", instance -> "instance");
+        }
+    }
+
+    private double count(String name) {
+        return registry.get(name).tag("client", SERVICE).counter().count();
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void execute_shouldCallDirectly_untilEnoughSamples() {
+        HedgingExecutor executor = executor(0.1, 10);
+
+        assertThat(executor.execute(SERVICE, () -> "direct", instance -> "instance")).isEqualTo("direct");
+
+        verify(discoveryClient, never()).getInstances(SERVICE);
+    }
+
+    @Test
+    void execute_shouldTakeHedgedResponse_fromOtherInstance_whenPrimaryIsSlow() {
+        HedgingExecutor executor = executor(0.1, 10);
+        warmUp(executor);
+        Set<URI> called = ConcurrentHashMap.newKeySet();
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor.execute(SERVICE, () -> "direct", instance -> {
+            called.add(instance);
+            if (attempts.getAndIncrement() == 0) {
+                awaitRelease();
+                return "primary";
+            }
+            return "hedge";
+        });
+
+        assertThat(result).isEqualTo("hedge");
+        assertThat(called).hasSize(2);
+        assertThat(count("client.hedge.sent")).isEqualTo(1);
+        assertThat(count("client.hedge.wins")).isEqualTo(1);
+    }
+
+    @Test
+    void execute_shouldSendPrimaryToLessLoadedInstance_andRecordItsLatency() {
+        HedgingExecutor executor = executor(Duration.ofSeconds(2), 0.1, 10);
+        warmUp(executor);
+        InstanceLoadStats.Instance slowStats = loadStats.instance(SERVICE, slow);
+        slowStats.start();
+        slowStats.complete(Duration.ofMillis(500).toNanos(), false);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(executor.execute(SERVICE, () -> "direct", URI::getHost)).isEqualTo("10.0.0.1");
+        }
+        assertThat(registry.get("loadbalancer.instance.outstanding").tag("instance", "10.0.0.1:8082")
+                .gauge().value()).isZero();
+        assertThat(loadStats.instance(SERVICE, fast).score()).isLessThan(slowStats.score());
+    }
+
+    @Test
+    void execute_shouldNotHedge_whenPrimaryAnswersInTime() {
+        HedgingExecutor executor = executor(Duration.ofSeconds(2), 0.1, 10);
+        warmUp(executor);
+
+        assertThat(executor.execute(SERVICE, () -> "direct", instance -> "primary")).isEqualTo("primary");
+        assertThat(count("client.hedge.sent")).isZero();
+    }
+
+    @Test
+    void execute_shouldSkipHedge_whenRetryBudgetIsEmpty() {
+        HedgingExecutor executor = executor(0, 1);
+        warmUp(executor);
+        Function<URI, String> slowPrimary = slowFirstAttempt();
+
+        executor.execute(SERVICE, () -> "direct", slowPrimary);
+        String second = executor.execute(SERVICE, () -> "direct", instance -> {
+            sleep(100);
+            return "primary";
+        });
+
+        assertThat(second).isEqualTo("primary");
+        assertThat(count("client.hedge.sent")).isEqualTo(1);
+        assertThat(count("client.hedge.budget.exhausted")).isEqualTo(1);
+        assertThat(registry.get("client.retry.budget.tokens").tag("client", SERVICE).gauge().value()).isZero();
+    }
+
+    @Test
+    void execute_shouldReturnClientError_withoutHedging() {
+        HedgingExecutor executor = executor(Duration.ofSeconds(2), 0.1, 10);
+        warmUp(executor);
+
+        assertThatThrownBy(() -> executor.execute(SERVICE, () -> "direct", instance -> {
+            throw feignException(404);
+        })).isInstanceOf(FeignException.NotFound.class);
+        assertThat(count("client.hedge.sent")).isZero();
+    }
+
+    @Test
+    void execute_shouldWaitForHedge_whenPrimaryFailsAfterHedgeWasSent() {
+        HedgingExecutor executor = executor(0.1, 10);
+        warmUp(executor);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor.execute(SERVICE, () -> "direct", instance -> {
+            if (attempts.getAndIncrement() == 0) {
+                sleep(300);
+                throw feignException(503);
+            }
+            sleep(600);
+            return "hedge";
+        });
+
+        assertThat(result).isEqualTo("hedge");
+        assertThat(count("client.hedge.wins")).isEqualTo(1);
+    }
+
+    @Test
+    void execute_shouldThrowPrimaryFailure_whenBothAttemptsFail() {
+        HedgingExecutor executor = executor(0.1, 10);
+        warmUp(executor);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.execute(SERVICE, () -> "direct", instance -> {
+            if (attempts.getAndIncrement() == 0) {
+                sleep(300);
+                throw feignException(503);
+            }
+            throw feignException(502);
+        })).isInstanceOfSatisfying(FeignException.class, ex -> assertThat(ex.status()).isEqualTo(503));
+    }
+
+    @Test
+    void latencyWindow_shouldReportPercentileOfRecentSamples() {
+        LatencyWindow window = new LatencyWindow(100, 0.95, 50);
+        for (int i = 1; i <= 49; i++) {
+            window.record(i);
+        }
+        assertThat(window.percentileNanos()).isEqualTo(-1);
+
+        for (int i = 50; i <= 300; i++) {
+            window.record(i);
+        }
+        // в окне 201..300, пересчёт каждые 10 замеров
+        assertThat(window.percentileNanos()).isEqualTo(295);
+    }
+
+    @Test
+    void retryBudget_shouldRefillByRatio_upToCapacity() {
+        RetryBudget budget = new RetryBudget(0.5, 2);
+
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isFalse();
+
+        budget.deposit();
+        assertThat(budget.tryAcquire()).isFalse();
+        budget.deposit();
+        assertThat(budget.tryAcquire()).isTrue();
+
+        for (int i = 0; i < 10; i++) {
+            budget.deposit();
+        }
+        assertThat(budget.available()).isEqualTo(2);
+    }
+
+    private Function<URI, String> slowFirstAttempt() {
+        AtomicInteger attempts = new AtomicInteger();
+        return instance -> {
+            if (attempts.getAndIncrement() == 0) {
+                awaitRelease();
+                return "primary";
+            }
+            return "hedge";
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static FeignException feignException(int status) {
+        Request request = Request.create(Request.HttpMethod.GET, "/items/1", Collections.emptyMap(), null,
+                new RequestTemplate());
+        return FeignException.errorStatus("GET /items/1", feign.Response.builder()
+                .status(status)
+                .reason("x")
+                .request(request)
+                .headers(Collections.emptyMap())
+                .body("x", StandardCharsets.UTF_8)
+                .build());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.outfitservice.service;
+
+import com.example.outfitservice.dto.OutfitEventType;
+import com.example.outfitservice.dto.OutfitResponseDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutfitChangeNotifierTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutfitChangeNotifier notifier;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        notifier = new OutfitChangeNotifier(meterRegistry, 2, Duration.ofHours(1));
+    }
+
+    private static OutfitResponseDto outfit(long id, long ownerId) {
+        return new OutfitResponseDto(id, "Outfit " + id, ownerId, List.of());
+    }
+
+    @Test
+    void stream_shouldDeliverOnlyOwnersEvents_andTrackConnections() {
+        StepVerifier.create(notifier.stream(1L))
+                .then(() -> {
+                    assertThat(meterRegistry.get("outfit.sse.connections").gauge().value()).isEqualTo(1.0);
+                    notifier.onOutfitChanged(OutfitChangedEvent.of(OutfitEventType.CREATED, outfit(10L, 2L)));
+                    notifier.onOutfitChanged(OutfitChangedEvent.of(OutfitEventType.UPDATED, outfit(11L, 1L)));
+                })
+                .assertNext(sse -> {
+                    assertThat(sse.event()).isEqualTo("UPDATED");
+                    assertThat(sse.data().outfit().id()).isEqualTo(11L);
+                })
+                .thenCancel()
+                .verify();
+
+        assertThat(notifier.connectionCount()).isZero();
+        assertThat(meterRegistry.get("outfit.sse.owners").gauge().value()).isZero();
+    }
+
+    @Test
+    void stream_shouldDeliverBulkImportAsCreatedIdsWithoutBody() {
+        StepVerifier.create(notifier.stream(1L))
+                .then(() -> notifier.onOutfitsCreated(new OutfitsCreatedEvent(Map.of(1L, List.of(5L, 6L), 2L, List.of(7L)))))
+                .assertNext(sse -> {
+                    assertThat(sse.event()).isEqualTo("CREATED");
+                    assertThat(sse.data().id()).isEqualTo(5L);
+                    assertThat(sse.data().outfit()).isNull();
+                })
+                .assertNext(sse -> assertThat(sse.data().id()).isEqualTo(6L))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void stream_shouldDropOldestEvents_whenClientIsSlow() {
+        StepVerifier.create(notifier.stream(1L), 0)
+                .then(() -> {
+                    for (long id = 1; id <= 10; id++) {
+                        notifier.onOutfitChanged(OutfitChangedEvent.deleted(1L, id));
+                    }
+                })
+                .thenRequest(3)
+                .assertNext(sse -> assertThat(sse.data().id()).isEqualTo(1L))
+                .assertNext(sse -> assertThat(sse.data().id()).isEqualTo(9L))
+                .assertNext(sse -> assertThat(sse.data().id()).isEqualTo(10L))
+                .thenCancel()
+                .verify();
+
+        assertThat(meterRegistry.get("outfit.sse.events.dropped").counter().count()).isEqualTo(7.0);
+    }
+}
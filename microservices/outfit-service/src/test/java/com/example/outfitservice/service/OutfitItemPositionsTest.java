@@ -0,0 +1,123 @@
+package com.example.outfitservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutfitItemPositionsTest {
+
+    private static final Map<Long, Integer> THREE_ITEMS = Map.of(1L, 1024, 2L, 2048, 3L, 3072);
+
+    @Test
+    void assign_shouldNotTouchAnything_whenOrderUnchanged() {
+        Map<Long, Integer> positions = OutfitItemPositions.assign(List.of(1L, 2L, 3L), THREE_ITEMS);
+
+        assertThat(changedRows(positions, THREE_ITEMS)).isZero();
+    }
+
+    @Test
+    void assign_shouldOnlyPlaceNewItem_whenAppending() {
+        Map<Long, Integer> positions = OutfitItemPositions.assign(List.of(1L, 2L, 3L, 4L), THREE_ITEMS);
+
+        assertThat(changedRows(positions, THREE_ITEMS)).isZero();
+        assertThat(positions.get(4L)).isGreaterThan(3072);
+        assertOrdered(List.of(1L, 2L, 3L, 4L), positions);
+    }
+
+    @Test
+    void assign_shouldOnlyPlaceNewItem_whenInsertingInTheMiddleOrAtTheFront() {
+        Map<Long, Integer> middle = OutfitItemPositions.assign(List.of(1L, 4L, 2L, 3L), THREE_ITEMS);
+        Map<Long, Integer> front = OutfitItemPositions.assign(List.of(4L, 1L, 2L, 3L), THREE_ITEMS);
+
+        assertThat(changedRows(middle, THREE_ITEMS)).isZero();
+        assertThat(changedRows(front, THREE_ITEMS)).isZero();
+        assertOrdered(List.of(1L, 4L, 2L, 3L), middle);
+        assertOrdered(List.of(4L, 1L, 2L, 3L), front);
+    }
+
+    @Test
+    void assign_shouldMoveSingleRow_whenOneItemIsReordered() {
+        List<Long> desired = List.of(3L, 1L, 2L);
+        Map<Long, Integer> positions = OutfitItemPositions.assign(desired, THREE_ITEMS);
+
+        assertThat(changedRows(positions, THREE_ITEMS)).isEqualTo(1);
+        assertOrdered(desired, positions);
+    }
+
+    @Test
+    void assign_shouldKeepRemainingRows_whenItemIsRemoved() {
+        Map<Long, Integer> current = Map.of(1L, 1024, 3L, 3072);
+        Map<Long, Integer> positions = OutfitItemPositions.assign(List.of(1L, 3L), current);
+
+        assertThat(changedRows(positions, current)).isZero();
+    }
+
+    @Test
+    void assign_shouldRenumber_whenThereIsNoRoomBetweenNeighbours() {
+        // позиции из сид-данных идут подряд: 1, 2, 3
+        Map<Long, Integer> dense = Map.of(1L, 1, 2L, 2, 3L, 3);
+        List<Long> desired = List.of(1L, 4L, 2L, 3L);
+
+        Map<Long, Integer> positions = OutfitItemPositions.assign(desired, dense);
+
+        assertOrdered(desired, positions);
+        assertThat(positions.get(2L) - positions.get(1L)).isEqualTo(OutfitItemPositions.STEP * 2);
+    }
+
+    @Test
+    void assign_shouldTouchFewRows_whenReorderingLargeOutfit() {
+        Map<Long, Integer> current = new HashMap<>();
+        List<Long> desired = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            current.put(id, (int) id * OutfitItemPositions.STEP);
+            desired.add(id);
+        }
+        Collections.swap(desired, 10, 400);
+
+        Map<Long, Integer> positions = OutfitItemPositions.assign(desired, current);
+
+        assertThat(changedRows(positions, current)).isEqualTo(2);
+        assertOrdered(desired, positions);
+    }
+
+    @Test
+    void assign_shouldPreserveDesiredOrder_forRandomEdits() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            Map<Long, Integer> current = new HashMap<>();
+            List<Long> desired = new ArrayList<>();
+            int size = random.nextInt(30);
+            for (long id = 1; id <= size; id++) {
+                current.put(id, random.nextInt(100));
+                desired.add(id);
+            }
+            for (long id = 100; id < 100 + random.nextInt(5); id++) {
+                desired.add(id);
+            }
+            Collections.shuffle(desired, random);
+
+            assertOrdered(desired, OutfitItemPositions.assign(desired, current));
+        }
+    }
+
+    private static long changedRows(Map<Long, Integer> positions, Map<Long, Integer> current) {
+        return positions.entrySet().stream()
+                .filter(e -> current.containsKey(e.getKey()))
+                .filter(e -> !e.getValue().equals(current.get(e.getKey())))
+                .count();
+    }
+
+    private static void assertOrdered(List<Long> desired, Map<Long, Integer> positions) {
+        assertThat(positions).hasSize(desired.size());
+        for (int i = 1; i < desired.size(); i++) {
+            assertThat(positions.get(desired.get(i))).isGreaterThan(positions.get(desired.get(i - 1)));
+        }
+    }
+}
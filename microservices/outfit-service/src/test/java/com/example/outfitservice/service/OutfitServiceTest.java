@@ -1,19 +1,30 @@
 package com.example.outfitservice.service;
 
 import com.example.outfitservice.dto.OutfitDto;
+import com.example.outfitservice.dto.OutfitEventType;
 import com.example.outfitservice.dto.OutfitItemLinkDto;
 import com.example.outfitservice.dto.OutfitResponseDto;
+import com.example.outfitservice.dto.WardrobeItemDto;
 import com.example.outfitservice.entity.Outfit;
 import com.example.outfitservice.entity.OutfitRole;
 import com.example.outfitservice.exception.NotFoundException;
 import com.example.outfitservice.mapper.OutfitMapper;
+import com.example.outfitservice.repository.OutfitItemRow;
 import com.example.outfitservice.repository.OutfitRepository;
+import com.example.outfitservice.repository.OutfitSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.SpecHints;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -21,19 +32,31 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.lang.reflect.Method;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
 
 @ExtendWith(MockitoExtension.class)
 class OutfitServiceTest {
@@ -47,10 +70,20 @@ class OutfitServiceTest {
     @Mock
     private UserServiceClientWrapper userServiceClientWrapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private WardrobeItemResolver wardrobeItemResolver;
+
     @InjectMocks
     private OutfitService outfitService;
 
     private Outfit testOutfit;
+    private OutfitSummary testSummary;
     private OutfitResponseDto testOutfitDto;
     @BeforeEach
     void setUp() {
@@ -60,6 +93,7 @@ class OutfitServiceTest {
         testOutfit.setTitle("Summer Outfit");
         testOutfit.setUserId(1L);
         testOutfit.setCreatedAt(Instant.now());
+        testSummary = new OutfitSummary(1L, "Summer Outfit", 1L, testOutfit.getCreatedAt());
 
         testOutfitDto = new OutfitResponseDto(
                 1L,
@@ -107,10 +141,12 @@ class OutfitServiceTest {
         int page = 0;
         int size = 10;
         Pageable pageable = PageRequest.of(page, size);
-        Page<Outfit> outfitPage = new PageImpl<>(List.of(testOutfit), pageable, 1);
+        Page<OutfitSummary> outfitPage = new PageImpl<>(List.of(testSummary), pageable, 1);
+        List<OutfitItemRow> rows = List.of(new OutfitItemRow(1L, 1L, OutfitRole.TOP, 1024));
 
-        when(outfitRepository.findAll(pageable)).thenReturn(outfitPage);
-        when(outfitMapper.toDto(testOutfit)).thenReturn(testOutfitDto);
+        when(outfitRepository.findSummaries(pageable)).thenReturn(outfitPage);
+        when(outfitRepository.findItemRowsByOutfitIds(List.of(1L))).thenReturn(rows);
+        when(outfitMapper.toDtos(List.of(testSummary), rows)).thenReturn(List.of(testOutfitDto));
 
         // When
         PagedResult<OutfitResponseDto> result = outfitService.getOutfitsUpTo50(page, size);
@@ -120,8 +156,8 @@ class OutfitServiceTest {
         assertThat(result.items().get(0)).isEqualTo(testOutfitDto);
         assertThat(result.totalCount()).isEqualTo(1);
 
-        verify(outfitRepository).findAll(pageable);
-        verify(outfitMapper).toDto(testOutfit);
+        verify(outfitRepository).findSummaries(pageable);
+        verify(outfitRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -131,16 +167,15 @@ class OutfitServiceTest {
         int page = 0;
         int size = 100;
         Pageable pageable = PageRequest.of(page, 50);
-        Page<Outfit> outfitPage = new PageImpl<>(List.of(testOutfit), pageable, 1);
+        Page<OutfitSummary> outfitPage = new PageImpl<>(List.of(testSummary), pageable, 1);
 
-        when(outfitRepository.findAll(pageable)).thenReturn(outfitPage);
-        when(outfitMapper.toDto(testOutfit)).thenReturn(testOutfitDto);
+        when(outfitRepository.findSummaries(pageable)).thenReturn(outfitPage);
 
         // When
         outfitService.getOutfitsUpTo50(page, size);
 
         // Then
-        verify(outfitRepository).findAll(PageRequest.of(page, 50));
+        verify(outfitRepository).findSummaries(PageRequest.of(page, 50));
     }
 
     @Test
@@ -150,8 +185,8 @@ class OutfitServiceTest {
         int offset = 0;
         int limit = 10;
 
-        when(outfitRepository.findAllScrollFromId(0, 10)).thenReturn(List.of(testOutfit));
-        when(outfitMapper.toDto(testOutfit)).thenReturn(testOutfitDto);
+        when(outfitRepository.findSummariesScrollFromId(0, PageRequest.ofSize(10))).thenReturn(List.of(testSummary));
+        when(outfitMapper.toDtos(eq(List.of(testSummary)), anyList())).thenReturn(List.of(testOutfitDto));
 
         // When
         List<OutfitResponseDto> result = outfitService.getInfiniteScroll(offset, limit);
@@ -160,8 +195,8 @@ class OutfitServiceTest {
         assertThat(result).hasSize(1);
         assertThat(result.get(0)).isEqualTo(testOutfitDto);
 
-        verify(outfitRepository).findAllScrollFromId(0, 10);
-        verify(outfitMapper).toDto(testOutfit);
+        verify(outfitRepository).findSummariesScrollFromId(0, PageRequest.ofSize(10));
+        verify(outfitRepository).findItemRowsByOutfitIds(List.of(1L));
     }
 
     @Test
@@ -171,14 +206,13 @@ class OutfitServiceTest {
         int offset = 0;
         int limit = 100;
 
-        when(outfitRepository.findAllScrollFromId(0, 50)).thenReturn(List.of(testOutfit));
-        when(outfitMapper.toDto(testOutfit)).thenReturn(testOutfitDto);
+        when(outfitRepository.findSummariesScrollFromId(0, PageRequest.ofSize(50))).thenReturn(List.of(testSummary));
 
         // When
         outfitService.getInfiniteScroll(offset, limit);
 
         // Then
-        verify(outfitRepository).findAllScrollFromId(0, 50);
+        verify(outfitRepository).findSummariesScrollFromId(0, PageRequest.ofSize(50));
     }
 
     @Test
@@ -234,8 +268,7 @@ class OutfitServiceTest {
         saved.setUserId(1L);
         saved.setCreatedAt(Instant.now());
 
-        when(userServiceClientWrapper.getUserById(eq("Bearer test-token"), eq(1L)))
-                .thenReturn(new com.example.outfitservice.dto.UserDto(1L, "u@u", "U"));
+        when(userServiceClientWrapper.userExists("Bearer test-token", 1L)).thenReturn(true);
         when(outfitMapper.toEntity(createDto)).thenReturn(entity);
         when(outfitRepository.save(any(Outfit.class))).thenReturn(saved);
         when(outfitMapper.toDto(saved)).thenReturn(new OutfitResponseDto(2L, "New Outfit", 1L, List.of()));
@@ -243,8 +276,27 @@ class OutfitServiceTest {
         OutfitResponseDto result = outfitService.create(createDto);
 
         assertThat(result.id()).isEqualTo(2L);
-        verify(userServiceClientWrapper).getUserById("Bearer test-token", 1L);
+        verify(userServiceClientWrapper).userExists("Bearer test-token", 1L);
         verify(outfitRepository).save(any(Outfit.class));
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue()).isInstanceOfSatisfying(OutfitChangedEvent.class, changed -> {
+            assertThat(changed.ownerId()).isEqualTo(1L);
+            assertThat(changed.payload().type()).isEqualTo(OutfitEventType.CREATED);
+        });
+    }
+
+    @Test
+    void create_shouldReturn404_whenUserDoesNotExist() {
+        asSupervisor();
+        OutfitDto createDto = new OutfitDto("New Outfit", 123L, List.of());
+        when(userServiceClientWrapper.userExists("Bearer test-token", 123L)).thenReturn(false);
+
+        assertThatThrownBy(() -> outfitService.create(createDto))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(NOT_FOUND);
+        verify(outfitRepository, never()).save(any());
     }
 
     @Test
@@ -258,7 +310,7 @@ class OutfitServiceTest {
                 .extracting(e -> ((ResponseStatusException) e).getStatusCode())
                 .isEqualTo(FORBIDDEN);
 
-        verify(userServiceClientWrapper, never()).getUserById(anyString(), anyLong());
+        verify(userServiceClientWrapper, never()).userExists(anyString(), anyLong());
         verify(outfitRepository, never()).save(any());
     }
 
@@ -267,8 +319,7 @@ class OutfitServiceTest {
         asSupervisor();
         OutfitDto createDto = new OutfitDto("New Outfit", 123L, List.of());
 
-        when(userServiceClientWrapper.getUserById(eq("Bearer test-token"), eq(123L)))
-                .thenReturn(new com.example.outfitservice.dto.UserDto(123L, "x@x", "X"));
+        when(userServiceClientWrapper.userExists("Bearer test-token", 123L)).thenReturn(true);
         when(outfitMapper.toEntity(createDto)).thenReturn(new Outfit());
         when(outfitRepository.save(any(Outfit.class))).thenReturn(testOutfit);
         when(outfitMapper.toDto(testOutfit)).thenReturn(testOutfitDto);
@@ -282,8 +333,7 @@ class OutfitServiceTest {
         asModerator();
         OutfitDto createDto = new OutfitDto("New Outfit", 123L, List.of());
 
-        when(userServiceClientWrapper.getUserById(eq("Bearer test-token"), eq(123L)))
-                .thenReturn(new com.example.outfitservice.dto.UserDto(123L, "x@x", "X"));
+        when(userServiceClientWrapper.userExists("Bearer test-token", 123L)).thenReturn(true);
         when(outfitMapper.toEntity(createDto)).thenReturn(new Outfit());
         when(outfitRepository.save(any(Outfit.class))).thenReturn(testOutfit);
         when(outfitMapper.toDto(testOutfit)).thenReturn(testOutfitDto);
@@ -331,7 +381,7 @@ class OutfitServiceTest {
                 .hasMessageContaining("Outfit not found with id: " + id);
 
         verify(outfitRepository).findById(id);
-        verify(userServiceClientWrapper, never()).getUserById(anyString(), anyLong());
+        verify(userServiceClientWrapper, never()).userExists(anyString(), anyLong());
     }
 
     @Test
@@ -343,7 +393,8 @@ class OutfitServiceTest {
                 List.of(new OutfitItemLinkDto(1L, OutfitRole.TOP)));
 
         when(outfitRepository.findById(id)).thenReturn(Optional.of(testOutfit));
-        when(userServiceClientWrapper.getUserById(anyString(), eq(999L))).thenThrow(new RuntimeException("User service failed"));
+        when(userServiceClientWrapper.userExists(anyString(), eq(999L)))
+                .thenThrow(new RuntimeException("User service failed"));
 
         // When & Then
         assertThatThrownBy(() -> outfitService.update(id, updateDto))
@@ -351,7 +402,297 @@ class OutfitServiceTest {
                 .hasMessageContaining("User service failed");
 
         verify(outfitRepository).findById(id);
-        verify(userServiceClientWrapper).getUserById(anyString(), eq(999L));
+        verify(userServiceClientWrapper).userExists(anyString(), eq(999L));
+    }
+
+    @Test
+    void getOutfitsByCursor_shouldReturnNextCursor_whenMoreRowsExist() {
+        asUser(1L);
+        Instant createdAt = Instant.parse("2025-01-01T10:00:00.123456Z");
+        OutfitSummary first = summaryWith(5L, createdAt.plusSeconds(1));
+        OutfitSummary second = summaryWith(4L, createdAt);
+        OutfitSummary extra = summaryWith(3L, createdAt);
+        when(outfitRepository.findFirstPageByUserIdAndCreatedAt(1L, PageRequest.ofSize(3))).thenReturn(List.of(first, second, extra));
+        when(outfitMapper.toDtos(eq(List.of(first, second)), anyList())).thenReturn(List.of(testOutfitDto, testOutfitDto));
+
+        CursorPage<OutfitResponseDto> page = outfitService.getOutfitsByCursor(null, 2);
+
+        assertThat(page.items()).hasSize(2);
+        verify(outfitRepository).findItemRowsByOutfitIds(List.of(5L, 4L));
+        assertThat(OutfitCursor.decode(page.nextCursor())).isEqualTo(new OutfitCursor(createdAt, 4L));
+        verify(outfitRepository, never()).count();
+    }
+
+    @Test
+    void getOutfitsByCursor_shouldSeekAfterCursor_andStopOnLastPage() {
+        asSupervisor();
+        Instant createdAt = Instant.parse("2025-01-01T10:00:00Z");
+        String cursor = OutfitCursor.of(createdAt, 4L).encode();
+        OutfitSummary last = summaryWith(3L, createdAt);
+        when(outfitRepository.findPageByCreatedAtBefore(createdAt, 4L, PageRequest.ofSize(3))).thenReturn(List.of(last));
+        when(outfitMapper.toDtos(eq(List.of(last)), anyList())).thenReturn(List.of(testOutfitDto));
+
+        CursorPage<OutfitResponseDto> page = outfitService.getOutfitsByCursor(cursor, 2);
+
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void getOutfitsByCursor_shouldRejectMalformedCursor() {
+        asUser(1L);
+
+        assertThatThrownBy(() -> outfitService.getOutfitsByCursor("not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static OutfitSummary summaryWith(long id, Instant createdAt) {
+        return new OutfitSummary(id, "Outfit " + id, 1L, createdAt);
+    }
+
+    private static Outfit outfitWith(long id, Instant createdAt) {
+        Outfit outfit = new Outfit();
+        outfit.setId(id);
+        outfit.setUserId(1L);
+        outfit.setTitle("Outfit " + id);
+        outfit.setCreatedAt(createdAt);
+        return outfit;
+    }
+
+    @Test
+    void getMyOutfitsDetailed_shouldResolveSharedItemsOnce() {
+        asUser(1L);
+        List<OutfitSummary> summaries = List.of(summaryWith(1L, Instant.now()), summaryWith(2L, Instant.now()));
+        when(outfitRepository.findSummariesByUserId(1L)).thenReturn(summaries);
+        when(outfitMapper.toDtos(eq(summaries), anyList())).thenReturn(List.of(
+                new OutfitResponseDto(1L, "A", 1L,
+                        List.of(new OutfitItemLinkDto(10L, OutfitRole.TOP), new OutfitItemLinkDto(11L, OutfitRole.BOTTOM))),
+                new OutfitResponseDto(2L, "B", 1L,
+                        List.of(new OutfitItemLinkDto(10L, OutfitRole.TOP)))));
+        var top = new WardrobeItemDto(10L, null, "Nike", "Blue", null, null, 1L);
+        when(wardrobeItemResolver.resolveAll("Bearer test-token", List.of(10L, 11L, 10L)))
+                .thenReturn(Map.of(10L, top));
+
+        var result = outfitService.getMyOutfitsDetailed();
+
+        assertThat(result).hasSize(2);
+        assertThat(result.get(1).items().get(0).item()).isSameAs(top);
+        assertThat(result.get(0).items().get(1).item()).isNull();
+        verify(wardrobeItemResolver).resolveAll(anyString(), anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamMyOutfits_shouldEmitEveryOutfit_loadingItemsPerChunk() {
+        asUser(1L);
+        int total = OutfitService.STREAM_CHUNK_SIZE * 2 + 1;
+        when(outfitRepository.streamSummariesByUserId(1L)).thenReturn(
+                LongStream.rangeClosed(1, total).mapToObj(id -> summaryWith(id, Instant.now())));
+        when(outfitMapper.toDtos(anyList(), anyList())).thenAnswer(inv -> ((List<OutfitSummary>) inv.getArgument(0)).stream()
+                .map(summary -> new OutfitResponseDto(summary.id(), summary.title(), summary.userId(), List.of()))
+                .toList());
+
+        List<Long> emitted = new ArrayList<>();
+        outfitService.streamMyOutfits(dto -> emitted.add(dto.id()));
+
+        assertThat(emitted).hasSize(total).startsWith(1L).endsWith((long) total);
+        verify(outfitRepository, times(3)).findItemRowsByOutfitIds(anyList());
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamMyOutfitsDetailed_shouldResolveItemsBetweenPages_notWhileReadingThem() {
+        asUser(1L);
+        long total = OutfitService.STREAM_CHUNK_SIZE + 1;
+        Pageable chunk = PageRequest.ofSize(OutfitService.STREAM_CHUNK_SIZE);
+        when(outfitRepository.findSummariesByUserIdScrollFromId(1L, 0L, chunk)).thenReturn(
+                LongStream.rangeClosed(1, total - 1).mapToObj(id -> summaryWith(id, Instant.now())).toList());
+        when(outfitRepository.findSummariesByUserIdScrollFromId(1L, total, chunk))
+                .thenReturn(List.of(summaryWith(total, Instant.now())));
+        when(outfitMapper.toDtos(anyList(), anyList())).thenAnswer(inv -> ((List<OutfitSummary>) inv.getArgument(0)).stream()
+                .map(summary -> new OutfitResponseDto(summary.id(), summary.title(), summary.userId(),
+                        List.of(new OutfitItemLinkDto(10L, OutfitRole.TOP))))
+                .toList());
+
+        List<Long> emitted = new ArrayList<>();
+        outfitService.streamMyOutfitsDetailed(dto -> emitted.add(dto.id()));
+
+        assertThat(emitted).hasSize((int) total).startsWith(1L).endsWith(total);
+        // страница прочитана целиком до похода в wardrobe-service; следующая — уже после
+        InOrder order = inOrder(outfitRepository, wardrobeItemResolver);
+        order.verify(outfitRepository).findSummariesByUserIdScrollFromId(1L, 0L, chunk);
+        order.verify(outfitRepository).findItemRowsByOutfitIds(anyList());
+        order.verify(wardrobeItemResolver).resolveMissing(eq("Bearer test-token"), anyList(), anyMap());
+        order.verify(outfitRepository).findSummariesByUserIdScrollFromId(1L, total, chunk);
+        order.verify(outfitRepository).findItemRowsByOutfitIds(anyList());
+        order.verify(wardrobeItemResolver).resolveMissing(eq("Bearer test-token"), anyList(), anyMap());
+        verify(outfitRepository, never()).streamSummariesByUserId(anyLong());
+    }
+
+    @Test
+    void streamMyOutfitsDetailed_shouldNotHoldTransaction() throws NoSuchMethodException {
+        Method method = OutfitService.class.getMethod("streamMyOutfitsDetailed", Consumer.class);
+
+        assertThat(new AnnotationTransactionAttributeSource().getTransactionAttribute(method, OutfitService.class)
+                .getPropagationBehavior()).isEqualTo(Propagation.NOT_SUPPORTED.value());
+    }
+
+    @Test
+    void createBulk_shouldFlushAndClearInChunks_andCheckEachUserOnce() {
+        asSupervisor();
+        List<OutfitDto> dtos = new ArrayList<>();
+        for (int i = 0; i < OutfitService.BULK_FLUSH_SIZE + 1; i++) {
+            dtos.add(new OutfitDto("Outfit " + i, i % 2 == 0 ? 1L : 2L, List.of(new OutfitItemLinkDto(1L, OutfitRole.TOP))));
+        }
+        when(outfitMapper.toEntity(any(OutfitDto.class))).thenAnswer(inv -> {
+            Outfit outfit = new Outfit();
+            outfit.setUserId(inv.<OutfitDto>getArgument(0).userId());
+            return outfit;
+        });
+        long[] nextId = {1};
+        when(outfitRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Outfit> chunk = List.copyOf(inv.getArgument(0));
+            chunk.forEach(o -> o.setId(nextId[0]++));
+            return chunk;
+        });
+        when(userServiceClientWrapper.findExistingUserIds("Bearer test-token", List.of(1L, 2L))).thenReturn(Set.of(1L, 2L));
+
+        var result = outfitService.createBulk(dtos);
+
+        assertThat(result.created()).isEqualTo(OutfitService.BULK_FLUSH_SIZE + 1);
+        assertThat(result.ids()).startsWith(1L, 2L).endsWith((long) OutfitService.BULK_FLUSH_SIZE + 1);
+        verify(outfitRepository, times(2)).saveAll(anyList());
+        verify(outfitRepository, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        verify(userServiceClientWrapper).findExistingUserIds("Bearer test-token", List.of(1L, 2L));
+        verifyNoMoreInteractions(userServiceClientWrapper);
+
+        // одно событие только с id на пачку, DTO образов до коммита не копятся
+        verify(outfitMapper, never()).toDto(any(Outfit.class));
+        ArgumentCaptor<OutfitsCreatedEvent> events = ArgumentCaptor.forClass(OutfitsCreatedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        OutfitsCreatedEvent first = events.getAllValues().get(0);
+        assertThat(first.outfitIdsByOwner().get(1L)).hasSize(OutfitService.BULK_FLUSH_SIZE / 2).startsWith(1L, 3L);
+        assertThat(first.outfitIdsByOwner().get(2L)).hasSize(OutfitService.BULK_FLUSH_SIZE / 2).startsWith(2L, 4L);
+        assertThat(events.getAllValues().get(1).outfitIdsByOwner())
+                .containsExactly(Map.entry(1L, List.of((long) OutfitService.BULK_FLUSH_SIZE + 1)));
+    }
+
+    @Test
+    void createBulk_shouldReturn404_whenAnyUserIsMissing() {
+        asSupervisor();
+        List<OutfitDto> dtos = List.of(
+                new OutfitDto("First", 1L, List.of()),
+                new OutfitDto("Second", 2L, List.of())
+        );
+        when(userServiceClientWrapper.findExistingUserIds("Bearer test-token", List.of(1L, 2L))).thenReturn(Set.of(1L));
+
+        assertThatThrownBy(() -> outfitService.createBulk(dtos))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("User not found with id: 2")
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(NOT_FOUND);
+
+        verify(outfitRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createBulk_shouldReturn403_whenUserImportsForOtherUser() {
+        asUser(1L);
+        List<OutfitDto> dtos = List.of(
+                new OutfitDto("Mine", 1L, List.of()),
+                new OutfitDto("Not mine", 2L, List.of())
+        );
+
+        assertThatThrownBy(() -> outfitService.createBulk(dtos))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(FORBIDDEN);
+
+        verify(outfitRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void update_shouldReturn412_whenIfMatchIsStale() {
+        asUser(1L);
+        testOutfit.setVersion(3L);
+        OutfitDto updateDto = new OutfitDto("Updated Outfit", 1L, List.of());
+        when(outfitRepository.findById(1L)).thenReturn(Optional.of(testOutfit));
+
+        assertThatThrownBy(() -> outfitService.update(1L, updateDto, "\"outfit-1-v2\""))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(PRECONDITION_FAILED);
+
+        verify(userServiceClientWrapper, never()).userExists(anyString(), anyLong());
+        verify(outfitRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void update_shouldReturnNewETag_whenIfMatchIsCurrent() {
+        asUser(1L);
+        testOutfit.setVersion(3L);
+        OutfitDto updateDto = new OutfitDto("Updated Outfit", 1L, List.of());
+        when(outfitRepository.findById(1L)).thenReturn(Optional.of(testOutfit));
+        when(userServiceClientWrapper.userExists("Bearer test-token", 1L)).thenReturn(true);
+        when(outfitRepository.saveAndFlush(testOutfit)).thenAnswer(inv -> {
+            Outfit flushed = inv.getArgument(0);
+            flushed.setVersion(flushed.getVersion() + 1);
+            return flushed;
+        });
+        when(outfitMapper.toDto(testOutfit)).thenReturn(testOutfitDto);
+
+        Versioned<OutfitResponseDto> result = outfitService.update(1L, updateDto, "W/\"x\", \"outfit-1-v3\"");
+
+        assertThat(result.body()).isEqualTo(testOutfitDto);
+        assertThat(result.eTag()).isEqualTo("\"outfit-1-v4\"");
+        assertThat(testOutfit.getUpdatedAt()).isNotNull();
+    }
+
+    @Test
+    void update_shouldAcceptWeakETagFromGet_butNotForeignWeakTags() {
+        assertThat(OutfitETags.matches("W/\"outfit-1-v3\"", OutfitETags.forOutfit(1L, 3L))).isTrue();
+        assertThat(OutfitETags.matches("W/\"outfit-1-v2\"", OutfitETags.forOutfit(1L, 3L))).isFalse();
+        assertThat(OutfitETags.matches("W/\"x\"", OutfitETags.forOutfit(1L, 3L))).isFalse();
+    }
+
+    @Test
+    void update_shouldLoadOutfitPastSecondLevelCache() {
+        asUser(1L);
+        testOutfit.setVersion(3L);
+        when(outfitRepository.findById(1L)).thenReturn(Optional.of(testOutfit));
+
+        assertThatThrownBy(() -> outfitService.update(1L, new OutfitDto("Updated Outfit", 1L, List.of()), "\"outfit-1-v2\""))
+                .isInstanceOf(ResponseStatusException.class);
+
+        InOrder inOrder = inOrder(entityManager, outfitRepository);
+        inOrder.verify(entityManager).setProperty(SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS);
+        inOrder.verify(entityManager).setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.REFRESH);
+        inOrder.verify(outfitRepository).findById(1L);
+    }
+
+    @Test
+    void getETag_shouldUseVersionLookup_withoutLoadingOutfit() {
+        asUser(1L);
+        when(outfitRepository.existsByIdAndUserId(1L, 1L)).thenReturn(true);
+        when(outfitRepository.findVersionById(1L)).thenReturn(Optional.of(5L));
+
+        assertThat(outfitService.getETag(1L)).isEqualTo("W/\"outfit-1-v5\"");
+        verify(outfitRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getETag_shouldReturn403_whenUserRequestsOtherUsersOutfit() {
+        asUser(2L);
+        when(outfitRepository.existsByIdAndUserId(1L, 2L)).thenReturn(false);
+
+        assertThatThrownBy(() -> outfitService.getETag(1L))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(FORBIDDEN);
+        verify(outfitRepository, never()).findVersionById(anyLong());
     }
 
     @Test
@@ -359,14 +700,21 @@ class OutfitServiceTest {
         asSupervisor();
         // Given
         Long id = 1L;
-        when(outfitRepository.existsById(id)).thenReturn(true);
+        when(outfitRepository.findUserIdById(id)).thenReturn(Optional.of(7L));
 
         // When
         outfitService.delete(id);
 
         // Then
-        verify(outfitRepository).existsById(id);
+        verify(entityManager).setProperty(SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS);
+        verify(outfitRepository).findUserIdById(id);
         verify(outfitRepository).deleteById(id);
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue()).isInstanceOfSatisfying(OutfitChangedEvent.class, changed -> {
+            assertThat(changed.ownerId()).isEqualTo(7L);
+            assertThat(changed.payload().type()).isEqualTo(OutfitEventType.DELETED);
+        });
     }
 
     @Test
@@ -374,14 +722,15 @@ class OutfitServiceTest {
         asSupervisor();
         // Given
         Long id = 999L;
-        when(outfitRepository.existsById(id)).thenReturn(false);
+        when(outfitRepository.findUserIdById(id)).thenReturn(Optional.empty());
 
         // When & Then
         assertThatThrownBy(() -> outfitService.delete(id))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Outfit not found with id: " + id);
 
-        verify(outfitRepository).existsById(id);
+        verify(outfitRepository).findUserIdById(id);
         verify(outfitRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(eventPublisher);
     }
 }
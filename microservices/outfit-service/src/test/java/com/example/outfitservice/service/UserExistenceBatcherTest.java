@@ -0,0 +1,167 @@
+package com.example.outfitservice.service;
+
+import com.example.outfitservice.client.UserServiceClient;
+import com.example.outfitservice.dto.UserExistenceRequestDto;
+import com.example.outfitservice.dto.UserExistenceResponseDto;
+import feign.FeignException;
+import feign.Request;
+import feign.RequestTemplate;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserExistenceBatcherTest {
+
+    private final UserServiceClient client = mock(UserServiceClient.class);
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UserExistenceBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        batcher.shutdown();
+    }
+
+    private UserExistenceBatcher batcher(boolean enabled, Duration window, int maxSize) {
+        return batcher(enabled, Duration.ofSeconds(5), window, maxSize);
+    }
+
+    private UserExistenceBatcher batcher(boolean enabled, Duration timeout, Duration window, int maxSize) {
+        batcher = new UserExistenceBatcher(client, circuitBreakerRegistry, meterRegistry, enabled, timeout, window, maxSize, 2);
+        return batcher;
+    }
+
+    private void existingAreEven() {
+        when(client.findExistingIds(anyString(), any(UserExistenceRequestDto.class)))
+                .thenAnswer(inv -> new UserExistenceResponseDto(
+                        inv.<UserExistenceRequestDto>getArgument(1).ids().stream().filter(id -> id % 2 == 0).toList()));
+    }
+
+    @Test
+    void exists_shouldSendConcurrentLookupsAsSingleRequest() throws Exception {
+        existingAreEven();
+        batcher(true, Duration.ofMillis(50), 100);
+
+        CompletableFuture<Boolean> first = batcher.exists("Bearer t", 1L);
+        CompletableFuture<Boolean> second = batcher.exists("Bearer t", 2L);
+        CompletableFuture<Boolean> duplicate = batcher.exists("Bearer t", 2L);
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isFalse();
+        assertThat(second.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(duplicate.get(5, TimeUnit.SECONDS)).isTrue();
+        ArgumentCaptor<UserExistenceRequestDto> request = ArgumentCaptor.forClass(UserExistenceRequestDto.class);
+        verify(client).findExistingIds(eq("Bearer t"), request.capture());
+        assertThat(request.getValue().ids()).containsExactly(1L, 2L);
+        assertThat(meterRegistry.get("user.lookup.batch.size").summary().totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.get("user.lookup.queue.delay").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void exists_shouldNotMixAuthorizationsInOneRequest() throws Exception {
+        existingAreEven();
+        batcher(true, Duration.ofMillis(50), 100);
+
+        CompletableFuture<Boolean> alice = batcher.exists("Bearer alice", 2L);
+        CompletableFuture<Boolean> bob = batcher.exists("Bearer bob", 4L);
+
+        assertThat(alice.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(bob.get(5, TimeUnit.SECONDS)).isTrue();
+        verify(client).findExistingIds("Bearer alice", new UserExistenceRequestDto(List.of(2L)));
+        verify(client).findExistingIds("Bearer bob", new UserExistenceRequestDto(List.of(4L)));
+    }
+
+    @Test
+    void exists_shouldSendImmediately_whenBatchIsFull() throws Exception {
+        existingAreEven();
+        batcher(true, Duration.ofMinutes(1), 2);
+
+        CompletableFuture<Boolean> first = batcher.exists("Bearer t", 2L);
+        CompletableFuture<Boolean> second = batcher.exists("Bearer t", 4L);
+
+        // окно в минуту: ответ до его истечения означает отправку по заполнению пачки
+        assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.get(5, TimeUnit.SECONDS)).isTrue();
+        verify(client, times(1)).findExistingIds(anyString(), any(UserExistenceRequestDto.class));
+    }
+
+    @Test
+    void exists_shouldFailEveryWaiter_whenBatchRequestFails() {
+        RuntimeException failure = new RuntimeException("user-service down");
+        when(client.findExistingIds(anyString(), any(UserExistenceRequestDto.class))).thenThrow(failure);
+        batcher(true, Duration.ofMillis(10), 100);
+
+        CompletableFuture<Boolean> first = batcher.exists("Bearer t", 1L);
+        CompletableFuture<Boolean> second = batcher.exists("Bearer t", 2L);
+
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class).hasCause(failure);
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class).hasCause(failure);
+        // один неудачный запрос — одна ошибка в breaker'е, а не по одной на каждого ожидавшего
+        assertThat(circuitBreakerRegistry.circuitBreaker("user-service").getMetrics().getNumberOfFailedCalls())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void exists_shouldFailWithTimeout_whenBatchDoesNotAnswerInTime() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(client.findExistingIds(anyString(), any(UserExistenceRequestDto.class))).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new UserExistenceResponseDto(List.of());
+        });
+        batcher(true, Duration.ofMillis(100), Duration.ofMillis(1), 100);
+
+        try {
+            assertThatThrownBy(() -> batcher.exists("Bearer t", 1L).get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class).hasCauseInstanceOf(TimeoutException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void exists_shouldUseHeadPerUser_whenBatchingDisabled() throws Exception {
+        doThrow(notFound()).when(client).userExists("Bearer t", 2L);
+        batcher(false, Duration.ofMillis(10), 100);
+
+        assertThat(batcher.exists("Bearer t", 1L).get()).isTrue();
+        assertThat(batcher.exists("Bearer t", 2L).get()).isFalse();
+        verify(client, never()).findExistingIds(anyString(), any(UserExistenceRequestDto.class));
+    }
+
+    private static FeignException notFound() {
+        Request request = Request.create(Request.HttpMethod.HEAD, "/users/2", Collections.emptyMap(), null,
+                new RequestTemplate());
+        return FeignException.errorStatus("HEAD /users/2", feign.Response.builder()
+                .status(404)
+                .reason("x")
+                .request(request)
+                .headers(Collections.emptyMap())
+                .body("x", StandardCharsets.UTF_8)
+                .build());
+    }
+}
@@ -1,21 +1,56 @@
 package com.example.outfitservice.service;
 
 import com.example.outfitservice.client.UserServiceClient;
+import com.example.outfitservice.client.UserServiceInstanceClient;
+import com.example.outfitservice.config.HedgingProperties;
+import com.example.outfitservice.config.InstanceLoadStats;
 import com.example.outfitservice.dto.UserDto;
+import com.example.outfitservice.dto.UserExistenceRequestDto;
+import com.example.outfitservice.dto.UserExistenceResponseDto;
 import com.example.outfitservice.exception.DownstreamServiceUnavailableException;
 import feign.Request;
 import feign.RequestTemplate;
 import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker.State;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.springboot3.bulkhead.autoconfigure.BulkheadAutoConfiguration;
+import io.github.resilience4j.springboot3.bulkhead.autoconfigure.BulkheadMetricsAutoConfiguration;
+import io.github.resilience4j.springboot3.circuitbreaker.autoconfigure.CircuitBreakerAutoConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
@@ -40,11 +75,41 @@ class UserServiceClientWrapperTest {
                 .build());
     }
 
+    /** Обёртка с aspect'ами resilience4j и настройками breaker'ов и bulkhead'ов из application.yml. */
+    private static ApplicationContextRunner resilienceContext(UserServiceClient client, HedgingExecutor hedging) {
+        return new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(AopAutoConfiguration.class,
+                        CircuitBreakerAutoConfiguration.class, BulkheadAutoConfiguration.class,
+                        BulkheadMetricsAutoConfiguration.class))
+                .withInitializer(context -> {
+                    try {
+                        new YamlPropertySourceLoader().load("application.yml", new ClassPathResource("application.yml"))
+                                .forEach(context.getEnvironment().getPropertySources()::addLast);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                })
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withBean(UserServiceClient.class, () -> client)
+                .withBean(UserExistenceBatcher.class, () -> Mockito.mock(UserExistenceBatcher.class))
+                .withBean(HedgingExecutor.class, () -> hedging)
+                .withBean(UserServiceInstanceClient.class, () -> Mockito.mock(UserServiceInstanceClient.class))
+                .withBean(UserServiceClientWrapper.class);
+    }
+
+    private static HedgingExecutor directHedging() {
+        HedgingExecutor hedging = Mockito.mock(HedgingExecutor.class);
+        when(hedging.execute(eq("user-service"), any(), any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
+        return hedging;
+    }
+
     @Test
     void fallback_shouldMapNotFoundTo404() {
         UserServiceClient client = Mockito.mock(UserServiceClient.class);
         CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
-        UserServiceClientWrapper wrapper = new UserServiceClientWrapper(client, registry);
+        UserServiceClientWrapper wrapper = new UserServiceClientWrapper(client, registry, Mockito.mock(UserExistenceBatcher.class), Mockito.mock(HedgingExecutor.class),
+                Mockito.mock(UserServiceInstanceClient.class));
 
         assertThatThrownBy(() -> wrapper.getUserByIdFallback("Bearer t", 1L, feignException(404)))
                 .isInstanceOf(ResponseStatusException.class)
@@ -56,7 +121,8 @@ class UserServiceClientWrapperTest {
     void fallback_shouldMapUnauthorizedTo401() {
         UserServiceClient client = Mockito.mock(UserServiceClient.class);
         CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
-        UserServiceClientWrapper wrapper = new UserServiceClientWrapper(client, registry);
+        UserServiceClientWrapper wrapper = new UserServiceClientWrapper(client, registry, Mockito.mock(UserExistenceBatcher.class), Mockito.mock(HedgingExecutor.class),
+                Mockito.mock(UserServiceInstanceClient.class));
 
         assertThatThrownBy(() -> wrapper.getUserByIdFallback("Bearer t", 1L, feignException(401)))
                 .isInstanceOf(ResponseStatusException.class)
@@ -68,7 +134,8 @@ class UserServiceClientWrapperTest {
     void fallback_shouldMapForbiddenTo403() {
         UserServiceClient client = Mockito.mock(UserServiceClient.class);
         CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
-        UserServiceClientWrapper wrapper = new UserServiceClientWrapper(client, registry);
+        UserServiceClientWrapper wrapper = new UserServiceClientWrapper(client, registry, Mockito.mock(UserExistenceBatcher.class), Mockito.mock(HedgingExecutor.class),
+                Mockito.mock(UserServiceInstanceClient.class));
 
         assertThatThrownBy(() -> wrapper.getUserByIdFallback("Bearer t", 1L, feignException(403)))
                 .isInstanceOf(ResponseStatusException.class)
@@ -80,7 +147,8 @@ class UserServiceClientWrapperTest {
     void fallback_shouldThrowDownstreamUnavailable_forOtherErrors_andIncludeCircuitBreakerState() {
         UserServiceClient client = Mockito.mock(UserServiceClient.class);
         CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
-        UserServiceClientWrapper wrapper = new UserServiceClientWrapper(client, registry);
+        UserServiceClientWrapper wrapper = new UserServiceClientWrapper(client, registry, Mockito.mock(UserExistenceBatcher.class), Mockito.mock(HedgingExecutor.class),
+                Mockito.mock(UserServiceInstanceClient.class));
 
         assertThatThrownBy(() -> wrapper.getUserByIdFallback("Bearer t", 1L, new RuntimeException("boom")))
                 .isInstanceOf(DownstreamServiceUnavailableException.class)
@@ -94,13 +162,167 @@ class UserServiceClientWrapperTest {
     void getUserById_shouldPassAuthorizationHeader_toFeignClient() {
         UserServiceClient client = Mockito.mock(UserServiceClient.class);
         CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
-        UserServiceClientWrapper wrapper = new UserServiceClientWrapper(client, registry);
+        HedgingExecutor hedging = new HedgingExecutor(Mockito.mock(DiscoveryClient.class), new SimpleMeterRegistry(),
+                new HedgingProperties(true, 0.95, Duration.ofMillis(5), 1000, 100, 0.1, 10),
+                new InstanceLoadStats(new SimpleMeterRegistry(), Duration.ofSeconds(10), Duration.ofMillis(50),
+                        Duration.ofSeconds(1)));
+        UserServiceClientWrapper wrapper = new UserServiceClientWrapper(client, registry, Mockito.mock(UserExistenceBatcher.class), hedging,
+                Mockito.mock(UserServiceInstanceClient.class));
 
         when(client.getUserById("Bearer t", 1L)).thenReturn(new UserDto(1L, "a@a", "A"));
 
         UserDto dto = wrapper.getUserById("Bearer t", 1L);
         assertThat(dto.id()).isEqualTo(1L);
     }
-}
 
+    @Test
+    void getUserById_shouldRejectImmediately_whenBulkheadIsFull_withoutTrippingCircuitBreaker() {
+        UserServiceClient client = Mockito.mock(UserServiceClient.class);
+        HedgingExecutor hedging = directHedging();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(client.getUserById("Bearer t", 1L)).thenAnswer(inv -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new UserDto(1L, "a@a", "A");
+        });
+
+        resilienceContext(client, hedging)
+                .withPropertyValues("resilience4j.bulkhead.instances.user-service.maxConcurrentCalls=1")
+                .run(context -> {
+                    UserServiceClientWrapper wrapper = context.getBean(UserServiceClientWrapper.class);
+                    CompletableFuture<UserDto> inFlight = CompletableFuture.supplyAsync(
+                            () -> wrapper.getUserById("Bearer t", 1L));
+                    assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+                    assertThatThrownBy(() -> wrapper.getUserById("Bearer t", 2L))
+                            .isInstanceOf(BulkheadFullException.class);
+                    assertThat(context.getBean(MeterRegistry.class)
+                            .get("resilience4j.bulkhead.available.concurrent.calls")
+                            .tag("name", "user-service").gauge().value()).isZero();
+
+                    release.countDown();
+                    assertThat(inFlight.join().id()).isEqualTo(1L);
+                    assertThat(context.getBean(CircuitBreakerRegistry.class).circuitBreaker("user-service")
+                            .getMetrics().getNumberOfFailedCalls()).isZero();
+                });
+    }
+
+    @Test
+    void getUserById_shouldNotOpenCircuitBreaker_onClientErrors_withProductionConfig() {
+        UserServiceClient client = Mockito.mock(UserServiceClient.class);
+        when(client.getUserById(eq("Bearer t"), any())).thenThrow(feignException(404));
+
+        resilienceContext(client, directHedging()).run(context -> {
+            UserServiceClientWrapper wrapper = context.getBean(UserServiceClientWrapper.class);
+            for (long id = 1; id <= 10; id++) {
+                long userId = id;
+                assertThatThrownBy(() -> wrapper.getUserById("Bearer t", userId))
+                        .isInstanceOfSatisfying(ResponseStatusException.class,
+                                e -> assertThat(e.getStatusCode()).isEqualTo(NOT_FOUND));
+            }
+
+            var breaker = context.getBean(CircuitBreakerRegistry.class).circuitBreaker("user-service");
+            assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+            assertThat(breaker.getMetrics().getNumberOfFailedCalls()).isZero();
+        });
+    }
+
+    @Test
+    void getUserById_shouldOpenCircuitBreaker_onServerErrors_withProductionConfig() {
+        UserServiceClient client = Mockito.mock(UserServiceClient.class);
+        when(client.getUserById(eq("Bearer t"), any())).thenThrow(feignException(503));
+
+        resilienceContext(client, directHedging()).run(context -> {
+            UserServiceClientWrapper wrapper = context.getBean(UserServiceClientWrapper.class);
+            for (long id = 1; id <= 10; id++) {
+                long userId = id;
+                assertThatThrownBy(() -> wrapper.getUserById("Bearer t", userId))
+                        .isInstanceOf(DownstreamServiceUnavailableException.class);
+            }
+
+            assertThat(context.getBean(CircuitBreakerRegistry.class).circuitBreaker("user-service").getState())
+                    .isEqualTo(State.OPEN);
+        });
+    }
+
+    @Test
+    void userExists_shouldWaitForBatcher_andTranslateItsFailure() {
+        UserServiceClient client = Mockito.mock(UserServiceClient.class);
+        UserExistenceBatcher batcher = Mockito.mock(UserExistenceBatcher.class);
+        UserServiceClientWrapper wrapper = new UserServiceClientWrapper(client, CircuitBreakerRegistry.ofDefaults(), batcher, Mockito.mock(HedgingExecutor.class),
+                Mockito.mock(UserServiceInstanceClient.class));
+        FeignException unavailable = feignException(503);
+
+        when(batcher.exists("Bearer t", 1L)).thenReturn(CompletableFuture.completedFuture(true));
+        when(batcher.exists("Bearer t", 2L)).thenReturn(CompletableFuture.completedFuture(false));
+        when(batcher.exists("Bearer t", 3L)).thenReturn(CompletableFuture.failedFuture(unavailable));
+        when(batcher.exists("Bearer t", 4L)).thenReturn(CompletableFuture.failedFuture(new TimeoutException()));
+
+        assertThat(wrapper.userExists("Bearer t", 1L)).isTrue();
+        assertThat(wrapper.userExists("Bearer t", 2L)).isFalse();
+        assertThatThrownBy(() -> wrapper.userExists("Bearer t", 3L))
+                .isInstanceOf(DownstreamServiceUnavailableException.class)
+                .hasCause(unavailable);
+        assertThatThrownBy(() -> wrapper.userExists("Bearer t", 4L))
+                .isInstanceOf(DownstreamServiceUnavailableException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    void userExists_shouldMapNotFoundTo404() {
+        UserServiceClient client = Mockito.mock(UserServiceClient.class);
+        UserExistenceBatcher batcher = Mockito.mock(UserExistenceBatcher.class);
+        UserServiceClientWrapper wrapper = new UserServiceClientWrapper(client, CircuitBreakerRegistry.ofDefaults(), batcher, Mockito.mock(HedgingExecutor.class),
+                Mockito.mock(UserServiceInstanceClient.class));
+        when(batcher.exists("Bearer t", 7L)).thenReturn(CompletableFuture.failedFuture(feignException(404)));
+
+        assertThatThrownBy(() -> wrapper.userExists("Bearer t", 7L))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("User not found with id: 7")
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(NOT_FOUND);
+    }
 
+    @Test
+    void userExists_shouldNotRecordBreakerCallPerWaiter_withProductionConfig() {
+        UserServiceClient client = Mockito.mock(UserServiceClient.class);
+        resilienceContext(client, directHedging()).run(context -> {
+            UserExistenceBatcher batcher = context.getBean(UserExistenceBatcher.class);
+            when(batcher.exists(eq("Bearer t"), any())).thenReturn(CompletableFuture.failedFuture(feignException(503)));
+            UserServiceClientWrapper wrapper = context.getBean(UserServiceClientWrapper.class);
+
+            for (long id = 1; id <= 10; id++) {
+                long userId = id;
+                assertThatThrownBy(() -> wrapper.userExists("Bearer t", userId))
+                        .isInstanceOf(DownstreamServiceUnavailableException.class);
+            }
+
+            // неудачные пачки учитывает сам батчер, по одной на запрос к user-service
+            var breaker = context.getBean(CircuitBreakerRegistry.class).circuitBreaker("user-service");
+            assertThat(breaker.getMetrics().getNumberOfFailedCalls()).isZero();
+            assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        });
+    }
+
+    @Test
+    void findExistingUserIds_shouldSendDistinctIdsInBatches() {
+        UserServiceClient client = Mockito.mock(UserServiceClient.class);
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+        UserServiceClientWrapper wrapper = new UserServiceClientWrapper(client, registry, Mockito.mock(UserExistenceBatcher.class), Mockito.mock(HedgingExecutor.class),
+                Mockito.mock(UserServiceInstanceClient.class));
+
+        List<Long> ids = LongStream.rangeClosed(1, UserServiceClientWrapper.EXISTS_BATCH_SIZE + 1).boxed().toList();
+        when(client.findExistingIds(eq("Bearer t"), any(UserExistenceRequestDto.class)))
+                .thenAnswer(inv -> new UserExistenceResponseDto(
+                        inv.<UserExistenceRequestDto>getArgument(1).ids().stream().filter(id -> id % 2 == 0).toList()));
+
+        Set<Long> existing = wrapper.findExistingUserIds("Bearer t", Stream.concat(ids.stream(), Stream.of(2L)).toList());
+
+        assertThat(existing).hasSize(UserServiceClientWrapper.EXISTS_BATCH_SIZE / 2).contains(2L).doesNotContain(1L);
+        ArgumentCaptor<UserExistenceRequestDto> request = ArgumentCaptor.forClass(UserExistenceRequestDto.class);
+        verify(client, times(2)).findExistingIds(eq("Bearer t"), request.capture());
+        assertThat(request.getAllValues()).extracting(r -> r.ids().size())
+                .containsExactly(UserServiceClientWrapper.EXISTS_BATCH_SIZE, 1);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.outfitservice.service;
+
+import com.example.outfitservice.dto.WardrobeItemDto;
+import com.example.outfitservice.entity.enums.ItemType;
+import com.example.outfitservice.entity.enums.Season;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WardrobeItemResolverTest {
+
+    private static final String AUTH = "Bearer test-token";
+
+    @Mock
+    private WardrobeServiceClientWrapper wardrobeServiceClientWrapper;
+
+    private WardrobeItemResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new WardrobeItemResolver(wardrobeServiceClientWrapper, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        resolver.shutdown();
+    }
+
+    @Test
+    void resolveAll_shouldCallWardrobeServiceOncePerDistinctItem() {
+        when(wardrobeServiceClientWrapper.getItemById(eq(AUTH), anyLong()))
+                .thenAnswer(inv -> item(inv.getArgument(1)));
+
+        // 200 образов по 3 вещи из гардероба в 40 вещей
+        List<Long> ids = new ArrayList<>();
+        for (int outfit = 0; outfit < 200; outfit++) {
+            for (int slot = 0; slot < 3; slot++) {
+                ids.add((long) ((outfit * 3 + slot) % 40) + 1);
+            }
+        }
+
+        Map<Long, WardrobeItemDto> items = resolver.resolveAll(AUTH, ids);
+
+        assertThat(items).hasSize(40);
+        assertThat(items.get(7L).id()).isEqualTo(7L);
+        verify(wardrobeServiceClientWrapper, times(40)).getItemById(eq(AUTH), anyLong());
+    }
+
+    @Test
+    void resolveAll_shouldPropagateDownstreamError() {
+        when(wardrobeServiceClientWrapper.getItemById(eq(AUTH), anyLong()))
+                .thenAnswer(inv -> item(inv.getArgument(1)));
+        when(wardrobeServiceClientWrapper.getItemById(AUTH, 2L))
+                .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Wardrobe item not found with id: 2"));
+
+        assertThatThrownBy(() -> resolver.resolveAll(AUTH, List.of(1L, 2L, 3L)))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Wardrobe item not found with id: 2");
+    }
+
+    @Test
+    void resolveMissing_shouldOnlyFetchUnknownItems() {
+        when(wardrobeServiceClientWrapper.getItemById(AUTH, 3L)).thenReturn(item(3L));
+        Map<Long, WardrobeItemDto> known = new HashMap<>(Map.of(1L, item(1L), 2L, item(2L)));
+
+        resolver.resolveMissing(AUTH, List.of(1L, 2L, 3L, 3L), known);
+
+        assertThat(known).containsOnlyKeys(1L, 2L, 3L);
+        verify(wardrobeServiceClientWrapper).getItemById(AUTH, 3L);
+        verifyNoMoreInteractions(wardrobeServiceClientWrapper);
+    }
+
+    private static WardrobeItemDto item(long id) {
+        return new WardrobeItemDto(id, ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "img.jpg", 1L);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.outfitservice.service;
 
 import com.example.outfitservice.client.WardrobeServiceClient;
+import com.example.outfitservice.client.WardrobeServiceInstanceClient;
 import com.example.outfitservice.dto.WardrobeItemDto;
 import com.example.outfitservice.entity.enums.ItemType;
 import com.example.outfitservice.entity.enums.Season;
@@ -35,6 +36,12 @@ class WardrobeServiceClientWrapperTest {
     @Mock
     private CircuitBreaker circuitBreaker;
 
+    @Mock
+    private HedgingExecutor hedgingExecutor;
+
+    @Mock
+    private WardrobeServiceInstanceClient wardrobeServiceInstanceClient;
+
     private WardrobeServiceClientWrapper wardrobeServiceClientWrapper;
 
     private WardrobeItemDto testItem;
@@ -53,7 +60,8 @@ class WardrobeServiceClientWrapperTest {
         );
 
         when(circuitBreakerFactory.create("wardrobe-service")).thenReturn((CircuitBreaker) circuitBreaker);
-        wardrobeServiceClientWrapper = new WardrobeServiceClientWrapper(wardrobeServiceClient, circuitBreakerFactory);
+        wardrobeServiceClientWrapper = new WardrobeServiceClientWrapper(wardrobeServiceClient, circuitBreakerFactory, hedgingExecutor,
+                wardrobeServiceInstanceClient);
     }
 
     @Test
@@ -62,6 +70,10 @@ class WardrobeServiceClientWrapperTest {
         String authorization = "Bearer test-token";
         Long itemId = 1L;
         when(wardrobeServiceClient.getItemById(authorization, itemId)).thenReturn(testItem);
+        when(hedgingExecutor.execute(eq("wardrobe-service"), any(), any())).thenAnswer(inv -> {
+            Supplier<?> call = inv.getArgument(1);
+            return call.get();
+        });
         when(circuitBreaker.run(any(), any())).thenAnswer(inv -> {
             @SuppressWarnings("unchecked")
             Supplier<WardrobeItemDto> supplier = (Supplier<WardrobeItemDto>) inv.getArgument(0);
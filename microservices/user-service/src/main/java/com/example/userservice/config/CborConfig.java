@@ -0,0 +1,24 @@
+package com.example.userservice.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * CBOR representation for internal callers (outfit-service, wardrobe-service) that send
+ * {@code Accept: application/cbor}. The converter replaces Spring's default CBOR converter in place, i.e. after
+ * the JSON one, so requests without an explicit preference keep getting JSON.
+ * <p>
+ * The mapper is built from Boot's {@link Jackson2ObjectMapperBuilder}, so both formats share the same
+ * modules and features; only the wire encoding differs.
+ */
+@Configuration
+public class CborConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
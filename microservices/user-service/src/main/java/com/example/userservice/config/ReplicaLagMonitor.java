@@ -0,0 +1,99 @@
+package com.example.userservice.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Периодически проверяет, что реплика отвечает и отстаёт от primary не больше maxLag.
+ * Пока проверка не прошла (в том числе до первой проверки), чтения идут на primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    /**
+     * Отставание реплики в секундах. Если всё полученное WAL уже применено, реплика догнала primary,
+     * даже если pg_last_xact_replay_timestamp() давно не менялся (на primary просто не было записей).
+     */
+    static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END
+            """;
+
+    private final DataSource replica;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("replica-lag-monitor").daemon(true).factory());
+
+    private volatile boolean usable;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, Duration checkInterval, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+        if (meterRegistry != null) {
+            Gauge.builder("datasource.replica.lag", this, m -> m.lagSeconds)
+                    .baseUnit("seconds")
+                    .description("Replication lag of the read replica")
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.usable", this, m -> m.usable ? 1 : 0)
+                    .description("1 if read-only transactions are routed to the replica")
+                    .register(meterRegistry);
+        }
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    /**
+     * Реплика не отдала соединение: до следующей успешной проверки читаем с primary.
+     */
+    public void markUnavailable(Exception cause) {
+        if (usable) {
+            log.warn("Read replica is unavailable, routing reads to primary: {}", cause.getMessage());
+        }
+        usable = false;
+    }
+
+    void check() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+            rs.next();
+            lagSeconds = rs.getDouble(1);
+            boolean withinLag = lagSeconds <= maxLag.toMillis() / 1000.0;
+            if (usable && !withinLag) {
+                log.warn("Read replica lags {}s (max {}), routing reads to primary", lagSeconds, maxLag);
+            } else if (!usable && withinLag) {
+                log.info("Read replica is back (lag {}s), routing reads to replica", lagSeconds);
+            }
+            usable = withinLag;
+        } catch (Exception ex) {
+            lagSeconds = Double.NaN;
+            markUnavailable(ex);
+        }
+    }
+}
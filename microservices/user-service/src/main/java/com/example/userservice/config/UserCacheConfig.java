@@ -0,0 +1,40 @@
+package com.example.userservice.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+/**
+ * Bounded Caffeine cache of user profiles ({@code spring.cache.caffeine.spec}).
+ * <p>
+ * Evictions are deferred to the commit of the surrounding transaction, otherwise a concurrent reader could
+ * load the old row between the eviction and the commit and cache it again. Hit/miss counters are published
+ * by the Boot cache metrics as {@code cache.gets{cache="users"}}.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class UserCacheConfig {
+
+    public static final String USERS = "users";
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties properties) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        String spec = properties.getCaffeine().getSpec();
+        if (StringUtils.hasText(spec)) {
+            caffeine.setCacheSpecification(spec);
+        }
+        caffeine.setAllowNullValues(false);
+        caffeine.setCacheNames(List.of(USERS));
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
@@ -1,20 +1,32 @@
 package com.example.userservice.controller;
 
 import com.example.userservice.dto.UserDto;
+import com.example.userservice.dto.UserExistenceRequestDto;
+import com.example.userservice.dto.UserExistenceResponseDto;
 import com.example.userservice.dto.UserResponseDto;
+import com.example.userservice.service.UserPage;
 import com.example.userservice.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -24,16 +36,45 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
-    @Operation(summary = "Получить список пользователей", description = "Возвращает всех пользователей системы")
+    @Operation(summary = "Получить список пользователей",
+            description = "Keyset-пагинация по id: следующая страница запрашивается с afterId из заголовка X-Next-After-Id; "
+                    + "его отсутствие означает конец списка.")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Список пользователей успешно получен")
+            @ApiResponse(responseCode = "200", description = "Страница пользователей успешно получена")
     })
     @GetMapping
-    @Deprecated
     @PreAuthorize("hasRole('SUPERVISOR')")
-    public ResponseEntity<List<UserResponseDto>> getAll() {
-        return ResponseEntity.ok(userService.getAll());
+    public ResponseEntity<List<UserResponseDto>> getPage(
+            @RequestParam(defaultValue = "0") @Min(0) long afterId,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(200) int limit) {
+        return toResponse(userService.getPage(afterId, limit));
+    }
+
+    @Operation(summary = "Выгрузить всех пользователей (NDJSON)",
+            description = "По одному пользователю на строку, без материализации всего списка")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('SUPERVISOR')")
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = out -> userService.streamAll(user -> writeLine(out, user));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @Operation(summary = "Найти пользователей по фрагменту имени или email",
+            description = "Поиск без учёта регистра по подстроке (не короче " + UserService.MIN_SEARCH_LENGTH + " символов), "
+                    + "keyset-пагинация по id: следующая страница — с afterId из заголовка X-Next-After-Id.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Найденные пользователи"),
+            @ApiResponse(responseCode = "400", description = "Слишком короткий или слишком длинный запрос")
+    })
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('SUPERVISOR')")
+    public ResponseEntity<List<UserResponseDto>> search(
+            @RequestParam @NotBlank @Size(max = 100) String q,
+            @RequestParam(defaultValue = "0") @Min(0) long afterId,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(50) int limit) {
+        return toResponse(userService.search(q, afterId, limit));
     }
 
     @Operation(
@@ -51,6 +92,34 @@ public class UserController {
         return ResponseEntity.ok(userService.getById(id));
     }
 
+    @Operation(
+            summary = "Проверить существование пользователя",
+            description = "Ответ без тела: 200, если пользователь есть, 404 — если нет. Доступно любому аутентифицированному клиенту."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Пользователь существует"),
+            @ApiResponse(responseCode = "404", description = "Пользователь не найден")
+    })
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> exists(@PathVariable @Min(1) Long id) {
+        return userService.exists(id)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @Operation(
+            summary = "Пакетная проверка существования пользователей",
+            description = "Принимает до " + UserExistenceRequestDto.MAX_IDS + " id и возвращает те из них, что существуют."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список существующих id"),
+            @ApiResponse(responseCode = "400", description = "Пустой или слишком большой список id")
+    })
+    @PostMapping("/exists")
+    public ResponseEntity<UserExistenceResponseDto> existing(@Valid @RequestBody UserExistenceRequestDto request) {
+        return ResponseEntity.ok(new UserExistenceResponseDto(userService.findExistingIds(request.ids())));
+    }
+
     @Operation(
             summary = "Создать нового пользователя",
             description = "Создает запись пользователя по переданным данным в теле запроса."
@@ -80,4 +149,21 @@ public class UserController {
         userService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static ResponseEntity<List<UserResponseDto>> toResponse(UserPage page) {
+        var response = ResponseEntity.ok();
+        if (page.nextAfterId() != null) {
+            response.header("X-Next-After-Id", page.nextAfterId().toString());
+        }
+        return response.body(page.items());
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
 }
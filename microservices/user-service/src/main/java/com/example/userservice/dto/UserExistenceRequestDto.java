@@ -0,0 +1,16 @@
+package com.example.userservice.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record UserExistenceRequestDto(
+        @NotEmpty(message = "Ids must not be empty")
+        @Size(max = UserExistenceRequestDto.MAX_IDS, message = "At most " + UserExistenceRequestDto.MAX_IDS + " ids per request")
+        List<@NotNull @Min(1) Long> ids
+) {
+    public static final int MAX_IDS = 1000;
+}
@@ -0,0 +1,15 @@
+package com.example.userservice.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+import java.util.List;
+
+/**
+ * Только id, которые существуют, по возрастанию; отсутствующие вызывающая сторона получает вычитанием.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record UserExistenceResponseDto(
+        List<Long> existingIds
+) {
+}
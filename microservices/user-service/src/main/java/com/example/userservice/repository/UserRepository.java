@@ -1,10 +1,19 @@
 package com.example.userservice.repository;
 
+import com.example.userservice.dto.UserResponseDto;
 import com.example.userservice.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -12,4 +21,47 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    /**
+     * Existing ids among the given ones, resolved by a single primary-key index scan.
+     * The ids are bound as one array parameter, so the statement text does not depend on the batch size.
+     */
+    @Query(value = "SELECT id FROM users WHERE id = ANY(:ids) ORDER BY id", nativeQuery = true)
+    List<Long> findExistingIds(@Param("ids") Long[] ids);
+
+    /**
+     * Keyset page: users with id greater than {@code afterId}, in id order.
+     * Reads straight into DTOs, so no entities end up in the persistence context.
+     */
+    @Query("""
+            SELECT new com.example.userservice.dto.UserResponseDto(u.id, u.email, u.name)
+            FROM User u WHERE u.id > :afterId ORDER BY u.id
+            """)
+    List<UserResponseDto> findPageAfterId(@Param("afterId") long afterId, Pageable limit);
+
+    /**
+     * Keyset page of users whose lower-cased name or email matches {@code pattern} (a LIKE pattern with
+     * backslash escapes). The lower(...) expressions match the trigram GIN indexes from V5.
+     */
+    @Query("""
+            SELECT new com.example.userservice.dto.UserResponseDto(u.id, u.email, u.name)
+            FROM User u
+            WHERE (lower(u.name) LIKE :pattern ESCAPE '\\' OR lower(u.email) LIKE :pattern ESCAPE '\\')
+              AND u.id > :afterId
+            ORDER BY u.id
+            """)
+    List<UserResponseDto> searchPageAfterId(@Param("pattern") String pattern,
+                                            @Param("afterId") long afterId,
+                                            Pageable limit);
+
+    /**
+     * Server-side cursor over all users: rows arrive in chunks of the fetch size instead of being
+     * materialized at once. Requires an open (read-only) transaction and the Stream to be closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT new com.example.userservice.dto.UserResponseDto(u.id, u.email, u.name)
+            FROM User u ORDER BY u.id
+            """)
+    Stream<UserResponseDto> streamAll();
 }
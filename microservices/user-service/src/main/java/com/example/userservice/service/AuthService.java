@@ -1,5 +1,6 @@
 package com.example.userservice.service;
 
+import com.example.userservice.config.UserCacheConfig;
 import com.example.userservice.dto.auth.LoginRequestDto;
 import com.example.userservice.dto.auth.RegisterRequestDto;
 import com.example.userservice.dto.auth.TokenResponseDto;
@@ -7,6 +8,7 @@ import com.example.userservice.entity.Role;
 import com.example.userservice.entity.User;
 import com.example.userservice.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -34,6 +36,7 @@ public class AuthService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = UserCacheConfig.USERS, key = "#result.id")
     public User register(RegisterRequestDto req) {
         if (userRepository.existsByEmail(req.email())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User with email already exists: " + req.email());
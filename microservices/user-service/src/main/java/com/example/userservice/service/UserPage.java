@@ -0,0 +1,14 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.UserResponseDto;
+
+import java.util.List;
+
+/**
+ * Страница keyset-пагинации по id: nextAfterId == null означает, что дальше пользователей нет.
+ */
+public record UserPage(
+        List<UserResponseDto> items,
+        Long nextAfterId
+) {
+}
@@ -1,5 +1,6 @@
 package com.example.userservice.service;
 
+import com.example.userservice.config.UserCacheConfig;
 import com.example.userservice.dto.UserDto;
 import com.example.userservice.dto.UserResponseDto;
 import com.example.userservice.entity.User;
@@ -7,36 +8,108 @@ import com.example.userservice.exception.NotFoundException;
 import com.example.userservice.mapper.UserMapper;
 import com.example.userservice.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class UserService {
 
+    public static final int MIN_SEARCH_LENGTH = 3;
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
 
-    public List<UserResponseDto> getAll() {
-        return userRepository.findAll().stream()
-                .map(userMapper::toDto)
-                .collect(Collectors.toList());
+    /**
+     * Keyset-пагинация по id вместо findAll(): запрашиваем limit + 1 строку,
+     * чтобы без отдельного запроса понять, есть ли следующая страница.
+     */
+    public UserPage getPage(long afterId, int limit) {
+        return toPage(userRepository.findPageAfterId(afterId, PageRequest.ofSize(limit + 1)), limit);
+    }
+
+    /**
+     * Поиск по фрагменту имени или email без учёта регистра, с той же keyset-пагинацией по id.
+     * Короче {@link #MIN_SEARCH_LENGTH} символов триграммный индекс не помогает, поэтому такие запросы отклоняются.
+     */
+    public UserPage search(String query, long afterId, int limit) {
+        String fragment = query.strip().toLowerCase(Locale.ROOT);
+        if (fragment.length() < MIN_SEARCH_LENGTH) {
+            throw new IllegalArgumentException("Search query must be at least " + MIN_SEARCH_LENGTH + " characters");
+        }
+        String pattern = "%" + escapeLike(fragment) + "%";
+        return toPage(userRepository.searchPageAfterId(pattern, afterId, PageRequest.ofSize(limit + 1)), limit);
+    }
+
+    private static UserPage toPage(List<UserResponseDto> users, int limit) {
+        if (users.size() <= limit) {
+            return new UserPage(users, null);
+        }
+        List<UserResponseDto> page = users.subList(0, limit);
+        return new UserPage(page, page.get(limit - 1).id());
+    }
+
+    // % и _ из запроса ищутся буквально
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Все пользователи по одному, через серверный курсор: память не зависит от размера таблицы.
+     */
+    public void streamAll(Consumer<UserResponseDto> sink) {
+        try (Stream<UserResponseDto> users = userRepository.streamAll()) {
+            users.forEach(sink);
+        }
     }
 
+    /**
+     * Самый частый вызов в системе: wardrobe-service и outfit-service проверяют пользователя при каждой записи.
+     * sync = true: при одновременных промахах по одному id в базу идёт только один запрос.
+     * Промах читается с primary, а не с реплики: отставшее значение жило бы в кэше до expireAfterWrite.
+     */
+    @Cacheable(cacheNames = UserCacheConfig.USERS, key = "#id", sync = true)
+    @Transactional
     public UserResponseDto getById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("User not found with id: " + id));
         return userMapper.toDto(user);
     }
 
+    /**
+     * Проверка перед записью в соседних сервисах: профиль не загружается и не маппится,
+     * запрос — index-only scan по первичному ключу.
+     * Читается с primary: только что зарегистрированного пользователя отставшая реплика ещё не знает,
+     * и соседний сервис отказал бы в записи с ложным 404.
+     */
+    @Transactional
+    public boolean exists(Long id) {
+        return userRepository.existsById(id);
+    }
+
+    @Transactional
+    public List<Long> findExistingIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findExistingIds(ids.stream().distinct().toArray(Long[]::new));
+    }
+
     @Transactional
+    @CacheEvict(cacheNames = UserCacheConfig.USERS, key = "#result.id")
     public UserResponseDto create(UserDto userDto) {
         if (userRepository.existsByEmail(userDto.email())) {
             throw new IllegalArgumentException("User with email already exists: " + userDto.email());
@@ -50,6 +123,7 @@ public class UserService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = UserCacheConfig.USERS, key = "#id")
     public UserResponseDto update(Long id, UserDto userDto) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("User not found with id: " + id));
@@ -65,6 +139,7 @@ public class UserService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = UserCacheConfig.USERS, key = "#id")
     public void delete(Long id) {
         if (!userRepository.existsById(id)) {
             throw new NotFoundException("User not found with id: " + id);
@@ -0,0 +1,10 @@
+-- Substring/prefix search for /users/search: lower(name) LIKE '%q%' OR lower(email) LIKE '%q%'
+-- is served by a BitmapOr over two trigram GIN indexes instead of a sequential scan.
+-- CONCURRENTLY keeps users writable while the indexes build (see .conf: no transaction).
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_name_trgm ON users USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+
+-- The plain b-tree on name was never used by any query (no equality or ORDER BY on name)
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_name;
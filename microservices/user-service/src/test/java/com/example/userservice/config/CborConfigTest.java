@@ -0,0 +1,57 @@
+package com.example.userservice.config;
+
+import com.example.userservice.dto.UserExistenceResponseDto;
+import com.example.userservice.dto.UserResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CBOR mapper for the payloads of internal calls: same DTOs and names as JSON, fewer bytes on the wire.
+ */
+class CborConfigTest {
+
+    private final ObjectMapper json = new Jackson2ObjectMapperBuilder().build();
+    private final ObjectMapper cbor = new CborConfig()
+            .cborHttpMessageConverter(new Jackson2ObjectMapperBuilder())
+            .getObjectMapper();
+
+    @Test
+    void cborMapper_shouldUseCborFactory_andKeepSnakeCaseNames() throws Exception {
+        UserExistenceResponseDto dto = new UserExistenceResponseDto(List.of(1L, 3L));
+
+        assertThat(cbor.getFactory()).isInstanceOf(CBORFactory.class);
+        assertThat(cbor.readTree(cbor.writeValueAsBytes(dto)).has("existing_ids")).isTrue();
+        assertThat(cbor.readValue(cbor.writeValueAsBytes(dto), UserExistenceResponseDto.class)).isEqualTo(dto);
+    }
+
+    @Test
+    void cbor_shouldRoundTripInternalPayloads() throws Exception {
+        UserResponseDto profile = new UserResponseDto(123456L, "someone@example.com", "Someone Else");
+        UserExistenceResponseDto existing = existingIds();
+
+        assertThat(cbor.readValue(cbor.writeValueAsBytes(profile), UserResponseDto.class)).isEqualTo(profile);
+        assertThat(cbor.readValue(cbor.writeValueAsBytes(existing), UserExistenceResponseDto.class)).isEqualTo(existing);
+    }
+
+    @Test
+    void cbor_shouldBeAtLeastAThirdSmallerThanJson_forExistenceResponse() throws Exception {
+        UserExistenceResponseDto existing = existingIds();
+
+        int jsonBytes = json.writeValueAsBytes(existing).length;
+        int cborBytes = cbor.writeValueAsBytes(existing).length;
+
+        // семизначный id: 8 байт в JSON (цифры и запятая) против 5 байт в CBOR
+        assertThat(cborBytes).isLessThanOrEqualTo(jsonBytes * 2 / 3);
+    }
+
+    private static UserExistenceResponseDto existingIds() {
+        return new UserExistenceResponseDto(LongStream.rangeClosed(1_000_000, 1_000_999).boxed().toList());
+    }
+}
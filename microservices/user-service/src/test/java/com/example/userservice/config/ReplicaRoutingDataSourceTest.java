@@ -0,0 +1,91 @@
+package com.example.userservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    private ReplicaLagMonitor monitor() {
+        return new ReplicaLagMonitor(replica, Duration.ofSeconds(5), Duration.ofSeconds(5), null);
+    }
+
+    private void replicaReportsLag(double lagSeconds) throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(replicaConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(ReplicaLagMonitor.LAG_QUERY)).thenReturn(rs);
+        when(rs.getDouble(1)).thenReturn(lagSeconds);
+    }
+
+    @Test
+    void getConnection_shouldUsePrimary_untilReplicaIsChecked() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        var routing = new ReplicaRoutingDataSource(primary, replica, monitor());
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void getConnection_shouldUseReplica_whenLagIsWithinLimit() throws SQLException {
+        replicaReportsLag(0.3);
+        ReplicaLagMonitor monitor = monitor();
+        monitor.check();
+        var routing = new ReplicaRoutingDataSource(primary, replica, monitor);
+
+        assertThat(monitor.isReplicaUsable()).isTrue();
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void getConnection_shouldUsePrimary_whenReplicaLagsTooMuch() throws SQLException {
+        replicaReportsLag(12);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        ReplicaLagMonitor monitor = monitor();
+        monitor.check();
+        var routing = new ReplicaRoutingDataSource(primary, replica, monitor);
+
+        assertThat(monitor.isReplicaUsable()).isFalse();
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void getConnection_shouldFallBackToPrimary_whenReplicaRefusesConnection() throws SQLException {
+        replicaReportsLag(0);
+        ReplicaLagMonitor monitor = monitor();
+        monitor.check();
+        var routing = new ReplicaRoutingDataSource(primary, replica, monitor);
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(monitor.isReplicaUsable()).isFalse();
+    }
+}
@@ -1,9 +1,14 @@
 package com.example.userservice.controller;
 
+import com.example.userservice.config.CborConfig;
 import com.example.userservice.config.SecurityConfig;
 import com.example.userservice.dto.UserDto;
+import com.example.userservice.dto.UserExistenceRequestDto;
+import com.example.userservice.dto.UserExistenceResponseDto;
 import com.example.userservice.dto.UserResponseDto;
+import com.example.userservice.service.UserPage;
 import com.example.userservice.service.UserService;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -14,23 +19,33 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, CborConfig.class})
 @AutoConfigureMockMvc(addFilters = true)
 @TestPropertySource(properties = {
         "jwt.secret=ZmFrZXNlY3JldGZha2VzZWNyZXRmYWtlc2VjcmV0ZmFrZXNlY3JldA=="
@@ -44,7 +59,7 @@ class UserControllerMvcTest {
     private UserService userService;
 
     @Test
-    void getAll_shouldReturn403_forRegularUser() throws Exception {
+    void getPage_shouldReturn403_forRegularUser() throws Exception {
         mockMvc.perform(get("/users").with(jwt()
                         .authorities(new SimpleGrantedAuthority("ROLE_USER"))
                         .jwt(j -> j.claim("userId", "10").subject("u@example.com"))
@@ -53,17 +68,93 @@ class UserControllerMvcTest {
     }
 
     @Test
-    void getAll_shouldReturn200_forSupervisor() throws Exception {
-        when(userService.getAll()).thenReturn(List.of(new UserResponseDto(1L, "a@a", "A")));
+    void getPage_shouldReturnPageAndNextAfterId_forSupervisor() throws Exception {
+        when(userService.getPage(0L, 2)).thenReturn(new UserPage(
+                List.of(new UserResponseDto(1L, "a@a", "A"), new UserResponseDto(2L, "b@b", "B")), 2L));
 
-        mockMvc.perform(get("/users").with(jwt()
+        mockMvc.perform(get("/users").param("limit", "2").with(jwt()
+                        .authorities(new SimpleGrantedAuthority("ROLE_SUPERVISOR"))
+                        .jwt(j -> j.claim("userId", "1").subject("s@example.com"))
+                ))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-After-Id", "2"))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[1].id").value(2));
+
+        verify(userService).getPage(0L, 2);
+    }
+
+    @Test
+    void getPage_shouldOmitNextAfterId_onLastPage() throws Exception {
+        when(userService.getPage(2L, 50)).thenReturn(new UserPage(List.of(new UserResponseDto(3L, "c@c", "C")), null));
+
+        mockMvc.perform(get("/users").param("afterId", "2").with(jwt()
+                        .authorities(new SimpleGrantedAuthority("ROLE_SUPERVISOR"))
+                        .jwt(j -> j.claim("userId", "1").subject("s@example.com"))
+                ))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-After-Id"))
+                .andExpect(jsonPath("$[0].id").value(3));
+    }
+
+    @Test
+    void export_shouldStreamNdjson_forSupervisor() throws Exception {
+        doAnswer(inv -> {
+            Consumer<UserResponseDto> sink = inv.getArgument(0);
+            sink.accept(new UserResponseDto(1L, "a@a", "A"));
+            sink.accept(new UserResponseDto(2L, "b@b", "B"));
+            return null;
+        }).when(userService).streamAll(any());
+
+        MvcResult result = mockMvc.perform(get("/users/export").with(jwt()
+                        .authorities(new SimpleGrantedAuthority("ROLE_SUPERVISOR"))
+                        .jwt(j -> j.claim("userId", "1").subject("s@example.com"))
+                ))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("""
+                        {"id":1,"email":"a@a","name":"A"}
+                        {"id":2,"email":"b@b","name":"B"}
+                        """));
+    }
+
+    @Test
+    void export_shouldReturn403_forModerator() throws Exception {
+        mockMvc.perform(get("/users/export").with(jwt()
+                        .authorities(new SimpleGrantedAuthority("ROLE_MODERATOR"))
+                        .jwt(j -> j.claim("userId", "102").subject("m@example.com"))
+                ))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void search_shouldReturnMatches_forSupervisor() throws Exception {
+        when(userService.search("ann", 0L, 20)).thenReturn(new UserPage(List.of(new UserResponseDto(4L, "ann@a", "Ann")), 4L));
+
+        mockMvc.perform(get("/users/search").param("q", "ann").with(jwt()
                         .authorities(new SimpleGrantedAuthority("ROLE_SUPERVISOR"))
                         .jwt(j -> j.claim("userId", "1").subject("s@example.com"))
                 ))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1));
+                .andExpect(header().string("X-Next-After-Id", "4"))
+                .andExpect(jsonPath("$[0].name").value("Ann"));
+    }
+
+    @Test
+    void search_shouldReturn403_forRegularUser() throws Exception {
+        mockMvc.perform(get("/users/search").param("q", "ann").with(jwt()
+                        .authorities(new SimpleGrantedAuthority("ROLE_USER"))
+                        .jwt(j -> j.claim("userId", "10").subject("u@example.com"))
+                ))
+                .andExpect(status().isForbidden());
 
-        verify(userService).getAll();
+        verifyNoInteractions(userService);
     }
 
     @Test
@@ -153,6 +244,113 @@ class UserControllerMvcTest {
 
         verify(userService).delete(10L);
     }
-}
 
+    @Test
+    void exists_shouldReturn200WithoutBody_forOtherUser() throws Exception {
+        when(userService.exists(11L)).thenReturn(true);
+
+        mockMvc.perform(head("/users/11").with(jwt()
+                        .authorities(new SimpleGrantedAuthority("ROLE_USER"))
+                        .jwt(j -> j.claim("userId", "10").subject("u@u"))
+                ))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+
+        verify(userService).exists(11L);
+    }
+
+    @Test
+    void exists_shouldReturn404_whenUserMissing() throws Exception {
+        when(userService.exists(99L)).thenReturn(false);
+
+        mockMvc.perform(head("/users/99").with(jwt()
+                        .authorities(new SimpleGrantedAuthority("ROLE_USER"))
+                        .jwt(j -> j.claim("userId", "10").subject("u@u"))
+                ))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void existing_shouldReturnExistingIds() throws Exception {
+        when(userService.findExistingIds(List.of(3L, 1L, 2L))).thenReturn(List.of(1L, 3L));
+
+        mockMvc.perform(post("/users/exists").with(jwt()
+                        .authorities(new SimpleGrantedAuthority("ROLE_USER"))
+                        .jwt(j -> j.claim("userId", "10").subject("u@u"))
+                )
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"ids":[3,1,2]}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.existing_ids.length()").value(2))
+                .andExpect(jsonPath("$.existing_ids[0]").value(1))
+                .andExpect(jsonPath("$.existing_ids[1]").value(3));
+    }
+
+    @Test
+    void existing_shouldReturn400_whenIdsEmpty() throws Exception {
+        mockMvc.perform(post("/users/exists").with(jwt()
+                        .authorities(new SimpleGrantedAuthority("ROLE_USER"))
+                        .jwt(j -> j.claim("userId", "10").subject("u@u"))
+                )
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"ids":[]}
+                                """))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void getById_shouldReturnJson_whenClientHasNoPreference() throws Exception {
+        when(userService.getById(10L)).thenReturn(new UserResponseDto(10L, "u@u", "U"));
+
+        mockMvc.perform(get("/users/10").accept(MediaType.ALL).with(jwt()
+                        .authorities(new SimpleGrantedAuthority("ROLE_USER"))
+                        .jwt(j -> j.claim("userId", "10").subject("u@u"))
+                ))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.id").value(10));
+    }
+
+    @Test
+    void getById_shouldReturnCbor_whenPreferredByClient() throws Exception {
+        when(userService.getById(10L)).thenReturn(new UserResponseDto(10L, "u@u", "U"));
+
+        MvcResult result = mockMvc.perform(get("/users/10")
+                        .header("Accept", "application/cbor, application/json;q=0.9")
+                        .with(jwt()
+                                .authorities(new SimpleGrantedAuthority("ROLE_USER"))
+                                .jwt(j -> j.claim("userId", "10").subject("u@u"))
+                        ))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        assertThat(new CBORMapper().readValue(result.getResponse().getContentAsByteArray(), UserResponseDto.class))
+                .isEqualTo(new UserResponseDto(10L, "u@u", "U"));
+    }
 
+    @Test
+    void existing_shouldAcceptAndReturnCbor() throws Exception {
+        when(userService.findExistingIds(List.of(3L, 1L))).thenReturn(List.of(1L));
+        CBORMapper cbor = new CBORMapper();
+
+        MvcResult result = mockMvc.perform(post("/users/exists").with(jwt()
+                        .authorities(new SimpleGrantedAuthority("ROLE_USER"))
+                        .jwt(j -> j.claim("userId", "10").subject("u@u"))
+                )
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cbor.writeValueAsBytes(new UserExistenceRequestDto(List.of(3L, 1L)))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        assertThat(cbor.readValue(result.getResponse().getContentAsByteArray(), UserExistenceResponseDto.class).existingIds())
+                .containsExactly(1L);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.userservice.integration;
+
+import com.example.userservice.UserServiceApplication;
+import com.example.userservice.config.ReplicaLagMonitor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Пара primary + streaming replica: read-only транзакции должны выполняться на реплике (pg_is_in_recovery() = true).
+ */
+@SpringBootTest(classes = UserServiceApplication.class)
+@AutoConfigureMockMvc
+@Import(ReadReplicaRoutingIntegrationTest.ReadThenWriteController.class)
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@SuppressWarnings("resource")
+class ReadReplicaRoutingIntegrationTest {
+
+    private static final Network NETWORK = Network.newNetwork();
+
+    @Container
+    static GenericContainer<?> primary = new GenericContainer<>("bitnami/postgresql:16")
+            .withNetwork(NETWORK)
+            .withNetworkAliases("pg-primary")
+            .withEnv("POSTGRESQL_REPLICATION_MODE", "master")
+            .withEnv("POSTGRESQL_REPLICATION_USER", "repl")
+            .withEnv("POSTGRESQL_REPLICATION_PASSWORD", "repl")
+            .withEnv("POSTGRESQL_USERNAME", "user")
+            .withEnv("POSTGRESQL_PASSWORD", "user")
+            .withEnv("POSTGRESQL_DATABASE", "users_test")
+            .withExposedPorts(5432)
+            .waitingFor(Wait.forLogMessage(".*database system is ready to accept connections.*", 1));
+
+    @Container
+    static GenericContainer<?> replica = new GenericContainer<>("bitnami/postgresql:16")
+            .withNetwork(NETWORK)
+            .dependsOn(primary)
+            .withEnv("POSTGRESQL_REPLICATION_MODE", "slave")
+            .withEnv("POSTGRESQL_REPLICATION_USER", "repl")
+            .withEnv("POSTGRESQL_REPLICATION_PASSWORD", "repl")
+            .withEnv("POSTGRESQL_MASTER_HOST", "pg-primary")
+            .withEnv("POSTGRESQL_MASTER_PORT_NUMBER", "5432")
+            .withEnv("POSTGRESQL_PASSWORD", "user")
+            .withExposedPorts(5432)
+            .waitingFor(Wait.forLogMessage(".*database system is ready to accept read.only connections.*", 1));
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> jdbcUrl(primary));
+        registry.add("spring.datasource.username", () -> "user");
+        registry.add("spring.datasource.password", () -> "user");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("app.datasource.replica.url", () -> jdbcUrl(replica));
+        registry.add("app.datasource.replica.check-interval", () -> "200ms");
+    }
+
+    private static String jdbcUrl(GenericContainer<?> container) {
+        return "jdbc:postgresql://" + container.getHost() + ":" + container.getMappedPort(5432) + "/users_test";
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void readOnlyTransactions_shouldRunOnReplica_andWritesOnPrimary() throws InterruptedException {
+        awaitReplicaUsable();
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        Boolean readOnRecovery = readOnly.execute(status ->
+                jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+        Boolean writeOnRecovery = readWrite.execute(status ->
+                jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+
+        assertThat(readOnRecovery).isTrue();
+        assertThat(writeOnRecovery).isFalse();
+    }
+
+    @Test
+    void writeAfterReadOnlyCall_inOneRequest_shouldRunOnPrimary() throws Exception {
+        awaitReplicaUsable();
+
+        // с open-in-view соединение первой (read-only) транзакции жило бы до конца запроса и запись ушла бы на реплику
+        mockMvc.perform(get(ReadThenWriteController.PATH).with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.read_on_replica").value(true))
+                .andExpect(jsonPath("$.write_on_replica").value(false));
+    }
+
+    @Test
+    void readOnlyTransactions_shouldFallBackToPrimary_whenReplicaIsDown() throws InterruptedException {
+        awaitReplicaUsable();
+        replica.getDockerClient().pauseContainerCmd(replica.getContainerId()).exec();
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+
+            Boolean readOnRecovery = readOnly.execute(status ->
+                    jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+
+            assertThat(readOnRecovery).isFalse();
+        } finally {
+            replica.getDockerClient().unpauseContainerCmd(replica.getContainerId()).exec();
+        }
+    }
+
+    /**
+     * Запрос как у обычного эндпоинта: сначала read-only транзакция, потом пишущая, через общий EntityManager.
+     */
+    @RestController
+    static class ReadThenWriteController {
+
+        static final String PATH = "/test/read-then-write";
+
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        @Autowired
+        private PlatformTransactionManager transactionManager;
+
+        @GetMapping(PATH)
+        Map<String, Boolean> readThenWrite() {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+            Boolean readOnReplica = readOnly.execute(status -> inRecovery());
+            Boolean writeOnReplica = readWrite.execute(status -> inRecovery());
+            return Map.of("read_on_replica", readOnReplica, "write_on_replica", writeOnReplica);
+        }
+
+        private Boolean inRecovery() {
+            return (Boolean) entityManager.createNativeQuery("SELECT pg_is_in_recovery()").getSingleResult();
+        }
+    }
+
+    private void awaitReplicaUsable() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (!replicaLagMonitor.isReplicaUsable() && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(replicaLagMonitor.isReplicaUsable()).isTrue();
+    }
+}
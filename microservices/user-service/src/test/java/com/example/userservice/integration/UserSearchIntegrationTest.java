@@ -0,0 +1,108 @@
+package com.example.userservice.integration;
+
+import com.example.userservice.UserServiceApplication;
+import com.example.userservice.dto.UserResponseDto;
+import com.example.userservice.service.UserPage;
+import com.example.userservice.service.UserService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Поиск по миллиону синтетических пользователей: план должен идти через триграммные GIN-индексы из V5,
+ * а не через последовательное чтение таблицы.
+ */
+@SpringBootTest(classes = UserServiceApplication.class)
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SuppressWarnings("resource")
+class UserSearchIntegrationTest {
+
+    private static final int USERS = 1_000_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("users_test")
+            .withUsername("user")
+            .withPassword("user");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @BeforeAll
+    void seedUsers() {
+        jdbcTemplate.update("""
+                INSERT INTO users (email, name, password_hash, role)
+                SELECT 'user' || g || '@example' || (g % 97) || '.com',
+                       'Synthetic ' || md5(g::text),
+                       'x', 'ROLE_USER'
+                FROM generate_series(1, ?) AS g
+                """, USERS);
+        jdbcTemplate.execute("ANALYZE users");
+    }
+
+    @Test
+    void search_shouldUseTrigramIndexes() {
+        List<String> plan = jdbcTemplate.queryForList("""
+                EXPLAIN SELECT id, email, name FROM users
+                WHERE (lower(name) LIKE '%c4ca42%' ESCAPE '\\' OR lower(email) LIKE '%c4ca42%' ESCAPE '\\')
+                  AND id > 0
+                ORDER BY id LIMIT 21
+                """, String.class);
+
+        assertThat(String.join("\n", plan))
+                .contains("idx_users_name_trgm")
+                .contains("idx_users_email_trgm")
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void search_shouldFindByNameFragment() {
+        var target = jdbcTemplate.queryForMap(
+                "SELECT email, substring(name from 15 for 8) AS fragment FROM users WHERE email LIKE 'user500000@%'");
+
+        UserPage page = userService.search(((String) target.get("fragment")).toUpperCase(), 0L, 20);
+
+        assertThat(page.items()).extracting(UserResponseDto::email).contains((String) target.get("email"));
+    }
+
+    @Test
+    void search_shouldPageThroughAllMatchesByAfterId() {
+        List<Long> ids = new ArrayList<>();
+        long afterId = 0;
+        do {
+            UserPage page = userService.search("user99999", afterId, 5);
+            page.items().forEach(user -> ids.add(user.id()));
+            afterId = page.nextAfterId() == null ? -1 : page.nextAfterId();
+        } while (afterId >= 0);
+
+        // user99999@... и user999990@...user999999@...
+        assertThat(ids).hasSize(11).isSorted().doesNotHaveDuplicates();
+    }
+}
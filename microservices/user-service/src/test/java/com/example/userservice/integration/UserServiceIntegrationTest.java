@@ -102,7 +102,7 @@ public class UserServiceIntegrationTest {
         userService.create(new UserDto("user3@example.com", "User 3"));
 
         // Get all users
-        List<UserResponseDto> users = userService.getAll();
+        List<UserResponseDto> users = userService.getPage(0L, 100).items();
 
         assertThat(users).hasSizeGreaterThanOrEqualTo(3);
         assertThat(users.stream().anyMatch(u -> u.email().equals("user1@example.com"))).isTrue();
@@ -0,0 +1,145 @@
+package com.example.userservice.service;
+
+import com.example.userservice.config.UserCacheConfig;
+import com.example.userservice.dto.UserDto;
+import com.example.userservice.dto.UserResponseDto;
+import com.example.userservice.entity.User;
+import com.example.userservice.exception.NotFoundException;
+import com.example.userservice.mapper.UserMapper;
+import com.example.userservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig
+@Import({UserCacheConfig.class, UserService.class, AuthService.class})
+@TestPropertySource(properties = "spring.cache.caffeine.spec=maximumSize=100,recordStats")
+class UserServiceCacheTest {
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private UserMapper userMapper;
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private JwtTokenService jwtTokenService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(UserCacheConfig.USERS).clear();
+        user = new User();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+        user.setName("Test User");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userMapper.toDto(any(User.class))).thenAnswer(inv -> {
+            User u = inv.getArgument(0);
+            return new UserResponseDto(u.getId(), u.getEmail(), u.getName());
+        });
+    }
+
+    @Test
+    void getById_shouldLoadOnce_andServeRepeatsFromCache() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(userService.getById(1L).email()).isEqualTo("test@example.com");
+        }
+
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void getById_shouldNotCacheMissingUser() {
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userService.getById(2L)).isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> userService.getById(2L)).isInstanceOf(NotFoundException.class);
+
+        verify(userRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    void update_shouldEvictCachedProfile() {
+        userService.getById(1L);
+        when(userRepository.save(user)).thenReturn(user);
+        doAnswer(inv -> {
+            user.setName("Renamed");
+            return null;
+        }).when(userMapper).updateEntityFromDto(any(UserDto.class), any(User.class));
+
+        userService.update(1L, new UserDto("test@example.com", "Renamed"));
+
+        assertThat(userService.getById(1L).name()).isEqualTo("Renamed");
+    }
+
+    @Test
+    void delete_shouldEvictCachedProfile() {
+        userService.getById(1L);
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        userService.delete(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userService.getById(1L)).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void getById_shouldRunSingleLoad_forConcurrentMisses() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findById(1L)).thenAnswer(inv -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(user);
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<UserResponseDto>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> userService.getById(1L)));
+            }
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<UserResponseDto> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).id()).isEqualTo(1L);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(userRepository, times(1)).findById(1L);
+    }
+}
@@ -12,10 +12,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -51,23 +58,60 @@ class UserServiceTest {
     }
 
     @Test
-    void getAll_shouldReturnAllUsers() {
-        // Given
-        List<User> users = List.of(testUser);
+    void getPage_shouldReturnNextAfterId_whenMoreRowsExist() {
+        List<UserResponseDto> rows = List.of(
+                new UserResponseDto(5L, "a@a", "A"),
+                new UserResponseDto(7L, "b@b", "B"),
+                new UserResponseDto(9L, "c@c", "C"));
+        when(userRepository.findPageAfterId(4L, PageRequest.ofSize(3))).thenReturn(rows);
 
-        when(userRepository.findAll()).thenReturn(users);
-        when(userMapper.toDto(any(User.class))).thenReturn(testUserDto);
+        UserPage page = userService.getPage(4L, 2);
 
-        // When
-        List<UserResponseDto> result = userService.getAll();
+        assertThat(page.items()).extracting(UserResponseDto::id).containsExactly(5L, 7L);
+        assertThat(page.nextAfterId()).isEqualTo(7L);
+    }
 
-        // Then
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).id()).isEqualTo(1L);
-        assertThat(result.get(0).email()).isEqualTo("test@example.com");
+    @Test
+    void getPage_shouldReturnNoNextAfterId_onLastPage() {
+        when(userRepository.findPageAfterId(0L, PageRequest.ofSize(3))).thenReturn(List.of(testUserDto));
 
-        verify(userRepository).findAll();
-        verify(userMapper).toDto(testUser);
+        UserPage page = userService.getPage(0L, 2);
+
+        assertThat(page.items()).containsExactly(testUserDto);
+        assertThat(page.nextAfterId()).isNull();
+        verifyNoInteractions(userMapper);
+    }
+
+    @Test
+    void streamAll_shouldEmitEveryUser_andCloseCursor() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(userRepository.streamAll()).thenReturn(Stream.of(testUserDto, new UserResponseDto(2L, "b@b", "B"))
+                .onClose(() -> closed.set(true)));
+        List<Long> emitted = new ArrayList<>();
+
+        userService.streamAll(user -> emitted.add(user.id()));
+
+        assertThat(emitted).containsExactly(1L, 2L);
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void search_shouldLowercaseAndEscapeLikeWildcards() {
+        when(userRepository.searchPageAfterId("%a\\_b\\%c%", 0L, PageRequest.ofSize(21))).thenReturn(List.of(testUserDto));
+
+        UserPage page = userService.search("  A_b%C ", 0L, 20);
+
+        assertThat(page.items()).containsExactly(testUserDto);
+        assertThat(page.nextAfterId()).isNull();
+    }
+
+    @Test
+    void search_shouldRejectTooShortQuery() {
+        assertThatThrownBy(() -> userService.search(" ab ", 0L, 20))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("at least 3");
+
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -267,4 +311,33 @@ class UserServiceTest {
         verify(userRepository).existsById(id);
         verify(userRepository, never()).deleteById(anyLong());
     }
+
+    @Test
+    void findExistingIds_shouldQueryOnceWithDistinctIds() {
+        when(userRepository.findExistingIds(new Long[]{3L, 1L})).thenReturn(List.of(1L));
+
+        List<Long> result = userService.findExistingIds(List.of(3L, 1L, 3L));
+
+        assertThat(result).containsExactly(1L);
+        verify(userRepository).findExistingIds(new Long[]{3L, 1L});
+    }
+
+    @Test
+    void findExistingIds_shouldSkipQuery_whenIdsEmpty() {
+        assertThat(userService.findExistingIds(List.of())).isEmpty();
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void existenceChecks_shouldReadFromPrimary() throws NoSuchMethodException {
+        // read-only транзакции уходят на реплику, а отставшая реплика дала бы ложный 404
+        var transactions = new AnnotationTransactionAttributeSource();
+        for (Method method : new Method[]{
+                UserService.class.getMethod("exists", Long.class),
+                UserService.class.getMethod("findExistingIds", Collection.class)}) {
+            assertThat(transactions.getTransactionAttribute(method, UserService.class).isReadOnly())
+                    .as(method.getName()).isFalse();
+        }
+    }
 }
@@ -0,0 +1,137 @@
+package com.example.wardrobeservice.client;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * DataLoader-style micro-batcher for user existence checks.
+ * <p>
+ * Lookups are collected for up to {@code window} or {@code max-size} lookups, whichever comes first,
+ * and resolved with one POST /users/exists per distinct Authorization header in the batch.
+ * Tokens are never mixed: a caller's lookup is only ever sent with its own token.
+ * A failed batch request fails every lookup that was waiting on it, and the {@code user-service} circuit breaker
+ * records it once, as one failed request rather than once per lookup in the batch.
+ */
+@Component
+public class UserExistenceBatcher {
+
+    /** user-service accepts at most this many ids per POST /users/exists. */
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private static final Sinks.EmitFailureHandler EMIT_RETRY = Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100));
+
+    private final UserServiceClient client;
+    private final CircuitBreaker circuitBreaker;
+    private final boolean enabled;
+    private final Duration timeout;
+    private final Sinks.Many<Lookup> queue = Sinks.many().unicast().onBackpressureBuffer();
+    private final Disposable pipeline;
+    private final DistributionSummary batchSize;
+    private final Timer queueDelay;
+
+    public UserExistenceBatcher(UserServiceClient client,
+                                CircuitBreakerRegistry circuitBreakerRegistry,
+                                MeterRegistry meterRegistry,
+                                @Value("${clients.user-service.batch.enabled:true}") boolean enabled,
+                                @Value("${clients.user-service.batch.timeout:5s}") Duration timeout,
+                                @Value("${clients.user-service.batch.window:2ms}") Duration window,
+                                @Value("${clients.user-service.batch.max-size:100}") int maxSize) {
+        this.client = client;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("user-service");
+        this.enabled = enabled;
+        this.timeout = timeout;
+        this.batchSize = DistributionSummary.builder("user.lookup.batch.size")
+                .description("Ids per POST /users/exists request")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueDelay = Timer.builder("user.lookup.queue.delay")
+                .description("Time a lookup waited in the batcher before its batch was sent")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.pipeline = queue.asFlux()
+                // fair variant: the plain one can drop a lookup when the window timer races with an incoming lookup
+                .bufferTimeout(Math.min(maxSize, MAX_BATCH_SIZE), window, true)
+                .flatMap(this::dispatch)
+                .subscribe();
+    }
+
+    /**
+     * Whether the user exists; resolved together with other lookups arriving in the same window.
+     * user-service errors are passed on as they are (WebClientResponseException, CallNotPermittedException
+     * while the breaker is open, etc.); a lookup left without an answer for {@code timeout} fails with TimeoutException.
+     */
+    public Mono<Boolean> exists(Long id) {
+        if (!enabled) {
+            return client.userExists(id)
+                    .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+        }
+        return currentAuthorization().flatMap(authorization -> {
+            Lookup lookup = new Lookup(authorization, id, Sinks.one(), System.nanoTime());
+            queue.emitNext(lookup, EMIT_RETRY);
+            // the caller does not wait longer than timeout, even if its batch is stuck behind others
+            return lookup.result().asMono().timeout(timeout);
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pipeline.dispose();
+    }
+
+    private Mono<Void> dispatch(List<Lookup> batch) {
+        long now = System.nanoTime();
+        batch.forEach(lookup -> queueDelay.record(now - lookup.enqueuedAt(), TimeUnit.NANOSECONDS));
+
+        Map<String, List<Lookup>> byAuthorization = batch.stream()
+                .collect(Collectors.groupingBy(Lookup::authorization));
+        return Flux.fromIterable(byAuthorization.entrySet())
+                .flatMap(group -> load(group.getKey(), group.getValue()))
+                .then();
+    }
+
+    private Mono<Void> load(String authorization, List<Lookup> lookups) {
+        List<Long> ids = lookups.stream().map(Lookup::id).distinct().toList();
+        batchSize.record(ids.size());
+        return client.findExistingIds(authorization, ids)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .doOnNext(existingIds -> {
+                    Set<Long> existing = new HashSet<>(existingIds);
+                    lookups.forEach(lookup -> lookup.result().tryEmitValue(existing.contains(lookup.id())));
+                })
+                .doOnError(ex -> lookups.forEach(lookup -> lookup.result().tryEmitError(ex)))
+                .onErrorResume(ex -> Mono.empty())
+                .then();
+    }
+
+    private static Mono<String> currentAuthorization() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(ctx -> ctx.getAuthentication())
+                .ofType(JwtAuthenticationToken.class)
+                .map(jwtAuth -> "Bearer " + jwtAuth.getToken().getTokenValue())
+                .defaultIfEmpty("");
+    }
+
+    private record Lookup(String authorization, Long id, Sinks.One<Boolean> result, long enqueuedAt) {
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.wardrobeservice.client;
 
 import com.example.wardrobeservice.dto.UserDto;
+import com.example.wardrobeservice.dto.UserExistenceRequestDto;
+import com.example.wardrobeservice.dto.UserExistenceResponseDto;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
@@ -10,6 +14,12 @@ import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
+/**
+ * Prefers CBOR on the wire ({@code Accept: application/cbor, application/json}); JSON still works
+ * if user-service does not offer CBOR.
+ */
 @Component
 public class UserServiceClient {
 
@@ -39,7 +49,46 @@ public class UserServiceClient {
     public Mono<UserDto> getUserById(Long id) {
         return webClient.get()
                 .uri("/users/{id}", id)
+                .accept(MediaType.APPLICATION_CBOR, MediaType.APPLICATION_JSON)
                 .retrieve()
                 .bodyToMono(UserDto.class);
     }
+
+    /**
+     * HEAD /users/{id}: profile is neither loaded nor serialized on the user-service side.
+     * 404 maps to {@code false}; any other non-2xx status is an error.
+     */
+    public Mono<Boolean> userExists(Long id) {
+        return webClient.head()
+                .uri("/users/{id}", id)
+                .exchangeToMono(response -> {
+                    if (response.statusCode().is2xxSuccessful()) {
+                        return response.releaseBody().thenReturn(true);
+                    }
+                    if (response.statusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
+                        return response.releaseBody().thenReturn(false);
+                    }
+                    return response.createError();
+                });
+    }
+
+    /**
+     * POST /users/exists with an explicit Authorization header: batches are sent outside
+     * the callers' reactive context, so the bearer-propagation filter has nothing to copy.
+     */
+    public Mono<List<Long>> findExistingIds(String authorization, List<Long> ids) {
+        return webClient.post()
+                .uri("/users/exists")
+                .headers(headers -> {
+                    if (!authorization.isEmpty()) {
+                        headers.set(HttpHeaders.AUTHORIZATION, authorization);
+                    }
+                })
+                .contentType(MediaType.APPLICATION_CBOR)
+                .accept(MediaType.APPLICATION_CBOR, MediaType.APPLICATION_JSON)
+                .bodyValue(new UserExistenceRequestDto(ids))
+                .retrieve()
+                .bodyToMono(UserExistenceResponseDto.class)
+                .map(UserExistenceResponseDto::existingIds);
+    }
 }
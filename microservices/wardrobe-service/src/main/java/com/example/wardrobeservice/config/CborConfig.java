@@ -0,0 +1,70 @@
+package com.example.wardrobeservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CBOR codecs for internal calls: the server answers {@code Accept: application/cbor} from outfit-service,
+ * and {@link WebClientConfig} applies the same customizer so calls to user-service can send and read CBOR.
+ * <p>
+ * Custom codecs are consulted before the default ones, and for {@code Accept: *}{@code /*} the first
+ * producible type wins. The JSON encoder is therefore registered ahead of CBOR, so requests without
+ * an explicit preference keep getting JSON.
+ * <p>
+ * The CBOR mapper is built from Boot's {@link Jackson2ObjectMapperBuilder}: same modules and features
+ * as JSON, only the wire encoding differs.
+ */
+@Configuration
+public class CborConfig {
+
+    @Bean
+    public CodecCustomizer cborCodecCustomizer(Jackson2ObjectMapperBuilder builder, ObjectMapper objectMapper) {
+        ObjectMapper cbor = builder.factory(new CBORFactory()).build();
+        return configurer -> {
+            configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+            configurer.customCodecs().register(new CborEncoder(cbor));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cbor, MediaType.APPLICATION_CBOR));
+        };
+    }
+
+    /**
+     * {@link Jackson2CborEncoder} only implements {@code encodeValue}, while the HTTP message writer always
+     * goes through {@code encode(Publisher)}. A single value is written as is, a stream as one CBOR array.
+     */
+    static final class CborEncoder extends Jackson2CborEncoder {
+
+        CborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            if (inputStream instanceof Mono<?> mono) {
+                return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+            }
+            ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+            return Flux.from(inputStream).collectList()
+                    .map(values -> encodeValue(values, bufferFactory, listType, mimeType, hints))
+                    .flux();
+        }
+    }
+}
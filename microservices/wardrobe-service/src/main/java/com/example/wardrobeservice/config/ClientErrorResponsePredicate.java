@@ -0,0 +1,17 @@
+package com.example.wardrobeservice.config;
+
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.function.Predicate;
+
+/**
+ * 4xx responses of other services are answers, not failures: circuit breakers ignore them
+ * ({@code resilience4j.circuitbreaker.configs.default.ignoreExceptionPredicate}).
+ */
+public class ClientErrorResponsePredicate implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable ex) {
+        return ex instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.wardrobeservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Every load-balanced client (the {@code @LoadBalanced} {@link org.springframework.web.reactive.function.client.WebClient.Builder}
+ * from {@link WebClientConfig}) picks instances with {@link PeakEwmaLoadBalancer} instead of round-robin.
+ * The stats are shared across the per-service load balancer contexts.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+
+    @Bean
+    public InstanceLoadStats instanceLoadStats(
+            MeterRegistry meterRegistry,
+            @Value("${clients.load-balancer.decay:10s}") Duration decay,
+            @Value("${clients.load-balancer.initial-latency:50ms}") Duration initialLatency,
+            @Value("${clients.load-balancer.failure-penalty:1s}") Duration failurePenalty) {
+        return new InstanceLoadStats(meterRegistry, decay, initialLatency, failurePenalty);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.wardrobeservice.config;
+
+import com.example.wardrobeservice.entity.WardrobeItem;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Routes owner-scoped repository calls to the owner's shard: the owner is taken from the
+ * {@code @Param("ownerId")} argument or from a {@link WardrobeItem} argument (save, insert).
+ * Calls without an owner are left to the caller's context (scatter-gather through {@link ShardRouter}).
+ */
+public class OwnerShardRoutingInterceptor implements MethodInterceptor {
+
+    private static final int NO_OWNER_PARAM = -1;
+
+    private final ShardRouter router;
+    private final Map<Method, Integer> ownerParamIndex = new ConcurrentHashMap<>();
+
+    public OwnerShardRoutingInterceptor(ShardRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        Long ownerId = ownerOf(invocation.getMethod(), invocation.getArguments());
+        if (ownerId == null) {
+            return result;
+        }
+        if (result instanceof Mono<?> mono) {
+            return mono.contextWrite(router.contextFor(ownerId));
+        }
+        if (result instanceof Flux<?> flux) {
+            return flux.contextWrite(router.contextFor(ownerId));
+        }
+        return result;
+    }
+
+    private Long ownerOf(Method method, Object[] args) {
+        int index = ownerParamIndex.computeIfAbsent(method, OwnerShardRoutingInterceptor::findOwnerParam);
+        if (index != NO_OWNER_PARAM) {
+            return (Long) args[index];
+        }
+        for (Object arg : args) {
+            if (arg instanceof WardrobeItem item) {
+                return item.getOwnerId();
+            }
+        }
+        return null;
+    }
+
+    private static int findOwnerParam(Method method) {
+        Annotation[][] annotations = method.getParameterAnnotations();
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof Param param && "ownerId".equals(param.value())
+                        && method.getParameterTypes()[i] == Long.class) {
+                    return i;
+                }
+            }
+        }
+        return NO_OWNER_PARAM;
+    }
+}
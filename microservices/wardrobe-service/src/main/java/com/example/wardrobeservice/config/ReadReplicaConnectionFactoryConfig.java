@@ -0,0 +1,86 @@
+package com.example.wardrobeservice.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas for {@code WardrobeItemService}: pipelines that put {@link ReadRoute#REPLICA} into the Reactor context
+ * get connections from replica pools, everything else (writes, change feed) from the primary.
+ * <p>
+ * Replaces the auto-configured pool, so the primary is built here from {@code spring.r2dbc.*} with the same pool settings.
+ * With sharding enabled replicas are configured per shard instead, see {@link ShardedConnectionFactoryConfig}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.r2dbc.replica", name = "enabled", havingValue = "true")
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+@EnableConfigurationProperties(ReplicaR2dbcProperties.class)
+public class ReadReplicaConnectionFactoryConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool primaryConnectionFactory(R2dbcProperties properties) {
+        return pool("primary", properties.getUrl(), properties.getUsername(), properties.getPassword(), properties.getPool());
+    }
+
+    @Bean
+    @Primary
+    public ReplicaRoutingConnectionFactory connectionFactory(ConnectionPool primaryConnectionFactory,
+                                                             R2dbcProperties primaryProperties,
+                                                             ReplicaR2dbcProperties replicaProperties) {
+        String username = StringUtils.hasText(replicaProperties.username())
+                ? replicaProperties.username() : primaryProperties.getUsername();
+        String password = StringUtils.hasText(replicaProperties.password())
+                ? replicaProperties.password() : primaryProperties.getPassword();
+
+        List<String> urls = replicaProperties.urls() == null ? List.of() : replicaProperties.urls();
+        List<ConnectionPool> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            replicas.add(replicaPool("replica-" + i, urls.get(i), username, password, replicaProperties));
+        }
+        return new ReplicaRoutingConnectionFactory(primaryConnectionFactory, replicas, replicaProperties.retryAfter());
+    }
+
+    static ConnectionPool pool(String name, String url, String username, String password, R2dbcProperties.Pool pool) {
+        ConnectionFactory factory = ConnectionFactoryBuilder.withUrl(url)
+                .username(username)
+                .password(password)
+                .build();
+        ConnectionPoolConfiguration.Builder builder = ConnectionPoolConfiguration.builder(factory)
+                .name(name)
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime());
+        if (pool.getMaxAcquireTime() != null) {
+            builder.maxAcquireTime(pool.getMaxAcquireTime());
+        }
+        if (StringUtils.hasText(pool.getValidationQuery())) {
+            builder.validationQuery(pool.getValidationQuery());
+        }
+        return new ConnectionPool(builder.build());
+    }
+
+    static ConnectionPool replicaPool(String name, String url, String username, String password,
+                                      ReplicaR2dbcProperties replicaProperties) {
+        ConnectionFactory factory = ConnectionFactoryBuilder.withUrl(url)
+                .username(username)
+                .password(password)
+                .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(factory)
+                .name(name)
+                .initialSize(0)
+                .maxSize(replicaProperties.maxSize())
+                .maxAcquireTime(replicaProperties.acquireTimeout())
+                .build());
+    }
+}
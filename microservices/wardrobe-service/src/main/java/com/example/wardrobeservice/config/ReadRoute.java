@@ -0,0 +1,12 @@
+package com.example.wardrobeservice.config;
+
+/**
+ * Where a reactive pipeline wants its R2DBC connection from. Carried in the Reactor context under
+ * {@link #CONTEXT_KEY}; pipelines without the key use the primary.
+ */
+public enum ReadRoute {
+    PRIMARY,
+    REPLICA;
+
+    public static final String CONTEXT_KEY = ReadRoute.class.getName();
+}
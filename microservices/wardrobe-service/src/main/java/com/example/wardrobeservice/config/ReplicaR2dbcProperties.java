@@ -0,0 +1,22 @@
+package com.example.wardrobeservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas for wardrobe-service. Username and password default to the primary's ({@code spring.r2dbc.*}).
+ */
+@ConfigurationProperties("app.r2dbc.replica")
+public record ReplicaR2dbcProperties(
+        boolean enabled,
+        List<String> urls,
+        String username,
+        String password,
+        @DefaultValue("10") int maxSize,
+        @DefaultValue("2s") Duration acquireTimeout,
+        @DefaultValue("5s") Duration retryAfter
+) {
+}
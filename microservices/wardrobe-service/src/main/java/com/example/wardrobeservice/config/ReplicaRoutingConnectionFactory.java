@@ -0,0 +1,118 @@
+package com.example.wardrobeservice.config;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Picks the primary or one of the replicas per {@code create()} from the {@link ReadRoute} in the Reactor context.
+ * <p>
+ * Replicas are used round-robin. A replica that fails to hand out a connection is skipped for
+ * {@code retryAfter}, and the failed acquisition is retried on the primary, so reads degrade to the primary
+ * instead of failing.
+ */
+@Slf4j
+public class ReplicaRoutingConnectionFactory extends AbstractRoutingConnectionFactory implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    private final ConnectionFactory primary;
+    private final List<ConnectionFactory> replicas;
+    private final long retryAfterNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLongArray unavailableUntil;
+
+    public ReplicaRoutingConnectionFactory(ConnectionFactory primary, List<? extends ConnectionFactory> replicas,
+                                           Duration retryAfter) {
+        this(primary, replicas, retryAfter, System::nanoTime);
+    }
+
+    ReplicaRoutingConnectionFactory(ConnectionFactory primary, List<? extends ConnectionFactory> replicas,
+                                    Duration retryAfter, LongSupplier nanoClock) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.retryAfterNanos = retryAfter.toNanos();
+        this.nanoClock = nanoClock;
+        this.unavailableUntil = new AtomicLongArray(this.replicas.size());
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targets.put(i, this.replicas.get(i));
+        }
+        setTargetConnectionFactories(targets);
+        setDefaultTargetConnectionFactory(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return Mono.deferContextual(ctx -> {
+            ReadRoute route = ctx.getOrDefault(ReadRoute.CONTEXT_KEY, ReadRoute.PRIMARY);
+            return Mono.just(route == ReadRoute.REPLICA ? nextAvailableReplica() : PRIMARY);
+        });
+    }
+
+    @Override
+    public Mono<Connection> create() {
+        return determineCurrentLookupKey().flatMap(key -> {
+            if (!(key instanceof Integer replica)) {
+                return Mono.from(primary.create());
+            }
+            return Mono.<Connection>from(replicas.get(replica).create())
+                    .onErrorResume(ex -> {
+                        markUnavailable(replica, ex);
+                        return Mono.from(primary.create());
+                    });
+        });
+    }
+
+    /**
+     * @return index of the next replica that is not cooling down after a failure, or {@link #PRIMARY}
+     */
+    private Object nextAvailableReplica() {
+        int size = replicas.size();
+        long now = nanoClock.getAsLong();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            int candidate = (start + i) % size;
+            long until = unavailableUntil.get(candidate);
+            if (until == 0 || until - now <= 0) {
+                return candidate;
+            }
+        }
+        return PRIMARY;
+    }
+
+    private void markUnavailable(int replica, Throwable ex) {
+        unavailableUntil.set(replica, nanoClock.getAsLong() + retryAfterNanos);
+        log.warn("Replica {} is unavailable, reading from primary for the next {} ms: {}",
+                replica, retryAfterNanos / 1_000_000, ex.toString());
+    }
+
+    /**
+     * Replica pools are owned by this factory; the primary is a bean of its own.
+     */
+    @Override
+    public void destroy() {
+        for (ConnectionFactory replica : replicas) {
+            if (replica instanceof Disposable disposable) {
+                disposable.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.wardrobeservice.config;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Prepares a freshly migrated shard, idempotently and in one transaction:
+ * <ul>
+ *     <li>pins the shard index and refuses a shard map older than the one the database has already served;</li>
+ *     <li>switches the id sequence to {@code INCREMENT BY idStride} starting at a value {@code ≡ shardIndex (mod idStride)},
+ *     so ids stay unique across shards and an item can move between shards with its id;</li>
+ *     <li>on the first start of the shard only, drops seed rows (ids 1..{@value #SEED_MAX_ID} written by V4) whose
+ *     owners live on other shards, so each seed item exists exactly once. Later starts never delete anything:
+ *     by then items may have moved between shards with their ids.</li>
+ * </ul>
+ */
+final class ShardBootstrap {
+
+    // V4 writes the seed with fixed ids 1..300, V5 moves the sequence past them
+    static final int SEED_MAX_ID = 300;
+
+    private ShardBootstrap() {
+    }
+
+    static void apply(DataSource dataSource, ShardMap shardMap, int shardIndex, int idStride) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource)).executeWithoutResult(status -> {
+            boolean firstStart = checkMapVersion(jdbc, shardMap, shardIndex);
+            applyIdStride(jdbc, shardIndex, idStride);
+            if (firstStart) {
+                jdbc.update("""
+                        DELETE FROM wardrobe_items
+                        WHERE id BETWEEN 1 AND ?
+                          AND NOT mod(owner_id, ?) = ANY (?::int[])
+                        """, SEED_MAX_ID, shardMap.bucketCount(), shardMap.bucketsLiteral(shardIndex));
+            }
+        });
+    }
+
+    /**
+     * @return true if the shard is pinned just now, i.e. this is its first start
+     */
+    private static boolean checkMapVersion(JdbcTemplate jdbc, ShardMap shardMap, int shardIndex) {
+        List<int[]> rows = jdbc.query("SELECT shard_index, version FROM shard_map_version WHERE id = 1 FOR UPDATE",
+                (rs, i) -> new int[]{rs.getInt("shard_index"), rs.getInt("version")});
+        if (rows.isEmpty()) {
+            jdbc.update("INSERT INTO shard_map_version (id, shard_index, version) VALUES (1, ?, ?)",
+                    shardIndex, shardMap.version());
+            return true;
+        }
+        int storedIndex = rows.get(0)[0];
+        int storedVersion = rows.get(0)[1];
+        if (storedIndex != shardIndex) {
+            throw new IllegalStateException("Database is shard #" + storedIndex
+                    + " but is configured as shard #" + shardIndex + "; shard order in app.sharding.shards must not change");
+        }
+        if (storedVersion > shardMap.version()) {
+            throw new IllegalStateException("Shard #" + shardIndex + " already serves shard map v" + storedVersion
+                    + ", refusing to start with v" + shardMap.version());
+        }
+        if (storedVersion < shardMap.version()) {
+            jdbc.update("UPDATE shard_map_version SET version = ?, updated_at = CURRENT_TIMESTAMP WHERE id = 1",
+                    shardMap.version());
+        }
+        return false;
+    }
+
+    private static void applyIdStride(JdbcTemplate jdbc, int shardIndex, int idStride) {
+        Long incrementBy = jdbc.queryForObject(
+                "SELECT increment_by FROM pg_sequences WHERE sequencename = 'wardrobe_items_id_seq'", Long.class);
+        if (incrementBy != null && incrementBy == idStride) {
+            return;
+        }
+        Long maxUsed = jdbc.queryForObject("""
+                SELECT GREATEST((SELECT COALESCE(MAX(id), 0) FROM wardrobe_items),
+                                (SELECT last_value FROM wardrobe_items_id_seq))
+                """, Long.class);
+        long from = (maxUsed == null ? 0 : maxUsed) + 1;
+        long next = from + Math.floorMod(shardIndex - from, (long) idStride);
+        jdbc.execute("ALTER SEQUENCE wardrobe_items_id_seq INCREMENT BY " + idStride);
+        jdbc.queryForObject("SELECT setval('wardrobe_items_id_seq', ?, false)", Long.class, next);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.wardrobeservice.config;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Versioned owner → shard mapping: {@code owner_id mod bucketCount} picks a bucket, buckets are assigned to shards.
+ * <p>
+ * Moving a bucket means copying its rows to the new shard and deploying the map with a higher version;
+ * instances with an older map refuse to start (see {@link ShardBootstrap}).
+ */
+public final class ShardMap {
+
+    private final int version;
+    private final int bucketCount;
+    private final List<String> shardIds;
+    private final int[] bucketToShard;
+
+    private ShardMap(int version, int bucketCount, List<String> shardIds, int[] bucketToShard) {
+        this.version = version;
+        this.bucketCount = bucketCount;
+        this.shardIds = List.copyOf(shardIds);
+        this.bucketToShard = bucketToShard;
+    }
+
+    /**
+     * Unsharded deployment: every owner lives in the only database.
+     */
+    public static ShardMap single() {
+        return new ShardMap(0, 1, List.of("default"), new int[]{0});
+    }
+
+    /**
+     * @throws IllegalArgumentException if a bucket is unassigned, assigned twice or out of range
+     */
+    public static ShardMap of(ShardingProperties properties) {
+        List<ShardingProperties.Shard> shards = properties.shards() == null ? List.of() : properties.shards();
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("app.sharding.shards must not be empty");
+        }
+        if (shards.size() > properties.idStride()) {
+            throw new IllegalArgumentException("More shards (" + shards.size() + ") than app.sharding.id-stride ("
+                    + properties.idStride() + ")");
+        }
+        int bucketCount = properties.bucketCount();
+        int[] bucketToShard = new int[bucketCount];
+        Arrays.fill(bucketToShard, -1);
+        for (int shard = 0; shard < shards.size(); shard++) {
+            for (String range : shards.get(shard).buckets().split(",")) {
+                String[] bounds = range.trim().split("-");
+                int from = Integer.parseInt(bounds[0].trim());
+                int to = bounds.length > 1 ? Integer.parseInt(bounds[1].trim()) : from;
+                if (from < 0 || to >= bucketCount || from > to) {
+                    throw new IllegalArgumentException("Invalid bucket range '" + range + "' for " + bucketCount + " buckets");
+                }
+                for (int bucket = from; bucket <= to; bucket++) {
+                    if (bucketToShard[bucket] != -1) {
+                        throw new IllegalArgumentException("Bucket " + bucket + " is assigned to more than one shard");
+                    }
+                    bucketToShard[bucket] = shard;
+                }
+            }
+        }
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            if (bucketToShard[bucket] == -1) {
+                throw new IllegalArgumentException("Bucket " + bucket + " is not assigned to any shard");
+            }
+        }
+        List<String> ids = shards.stream().map(ShardingProperties.Shard::id).toList();
+        if (ids.stream().distinct().count() != ids.size()) {
+            throw new IllegalArgumentException("Shard ids must be unique: " + ids);
+        }
+        return new ShardMap(properties.version(), bucketCount, ids, bucketToShard);
+    }
+
+    public int version() {
+        return version;
+    }
+
+    public int bucketCount() {
+        return bucketCount;
+    }
+
+    public List<String> shardIds() {
+        return shardIds;
+    }
+
+    public int bucketOf(long ownerId) {
+        return (int) Math.floorMod(ownerId, (long) bucketCount);
+    }
+
+    public int shardIndexFor(long ownerId) {
+        return bucketToShard[bucketOf(ownerId)];
+    }
+
+    public String shardFor(long ownerId) {
+        return shardIds.get(shardIndexFor(ownerId));
+    }
+
+    /**
+     * @return buckets of the shard as a Postgres int[] literal, e.g. {@code {0,1,2}}
+     */
+    String bucketsLiteral(int shardIndex) {
+        StringBuilder sb = new StringBuilder("{");
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            if (bucketToShard[bucket] == shardIndex) {
+                if (sb.length() > 1) sb.append(',');
+                sb.append(bucket);
+            }
+        }
+        return sb.append('}').toString();
+    }
+}
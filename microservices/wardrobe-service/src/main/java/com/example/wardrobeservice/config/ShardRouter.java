@@ -0,0 +1,79 @@
+package com.example.wardrobeservice.config;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Chooses the shard of a reactive pipeline through the Reactor context ({@link #CONTEXT_KEY}), which
+ * {@link ShardRoutingConnectionFactory} reads when a connection is acquired.
+ * <p>
+ * Owner-scoped repository calls are routed by {@link OwnerShardRoutingInterceptor}; queries that are not
+ * scoped to an owner go through the scatter-gather helpers below. Without sharding the helpers call the query once.
+ */
+public class ShardRouter {
+
+    public static final String CONTEXT_KEY = ShardRouter.class.getName();
+
+    private final ShardMap shardMap;
+
+    public ShardRouter(ShardMap shardMap) {
+        this.shardMap = shardMap;
+    }
+
+    public ShardMap shardMap() {
+        return shardMap;
+    }
+
+    public boolean isSharded() {
+        return shardMap.shardIds().size() > 1;
+    }
+
+    public String shardFor(Long ownerId) {
+        return shardMap.shardFor(ownerId);
+    }
+
+    public Context contextFor(Long ownerId) {
+        return Context.of(CONTEXT_KEY, shardFor(ownerId));
+    }
+
+    /**
+     * Runs the query on every shard and merges the results; each shard must return rows in {@code order},
+     * so the merge is a streaming k-way merge and {@code take(n)} downstream stops all shards early.
+     */
+    public <T> Flux<T> mergeSorted(Supplier<? extends Publisher<T>> query, Comparator<? super T> order) {
+        if (!isSharded()) {
+            return Flux.from(query.get());
+        }
+        List<Flux<T>> perShard = shardMap.shardIds().stream()
+                .map(shard -> Flux.from(query.get()).contextWrite(Context.of(CONTEXT_KEY, shard)))
+                .toList();
+        return Flux.mergeComparing(order, perShard.toArray(Flux[]::new));
+    }
+
+    /**
+     * First element found on any shard: for lookups by a globally unique key such as the item id.
+     */
+    public <T> Mono<T> findFirst(Supplier<Mono<T>> query) {
+        if (!isSharded()) {
+            return query.get();
+        }
+        return Flux.merge(Flux.fromIterable(shardMap.shardIds())
+                        .map(shard -> query.get().contextWrite(Context.of(CONTEXT_KEY, shard))))
+                .next();
+    }
+
+    public Mono<Long> sum(Supplier<Mono<Long>> query) {
+        if (!isSharded()) {
+            return query.get();
+        }
+        return Flux.merge(Flux.fromIterable(shardMap.shardIds())
+                        .map(shard -> query.get().contextWrite(Context.of(CONTEXT_KEY, shard))))
+                .reduce(0L, Long::sum);
+    }
+}
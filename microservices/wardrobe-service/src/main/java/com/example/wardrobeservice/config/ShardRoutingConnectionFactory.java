@@ -0,0 +1,54 @@
+package com.example.wardrobeservice.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections of the shard named in the Reactor context under {@link ShardRouter#CONTEXT_KEY}.
+ * <p>
+ * There is deliberately no default shard: a query that reaches the database without a shard
+ * (neither owner-scoped nor scatter-gather) fails instead of silently reading one shard only.
+ */
+public class ShardRoutingConnectionFactory extends AbstractRoutingConnectionFactory implements DisposableBean {
+
+    private final Map<String, ConnectionFactory> shards;
+    private final List<? extends Disposable> pools;
+
+    /**
+     * @param shards shard id → connection factory, in shard map order
+     * @param pools  pools behind the shard factories, disposed together with this factory
+     */
+    public ShardRoutingConnectionFactory(Map<String, ? extends ConnectionFactory> shards, List<? extends Disposable> pools) {
+        this.shards = new LinkedHashMap<>(shards);
+        this.pools = List.copyOf(pools);
+        setTargetConnectionFactories(this.shards);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return Mono.deferContextual(ctx -> Mono.justOrEmpty(ctx.<Object>getOrEmpty(ShardRouter.CONTEXT_KEY)));
+    }
+
+    /**
+     * All shards run the same Postgres version; Spring Data only needs the metadata to pick the dialect.
+     */
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return shards.values().iterator().next().getMetadata();
+    }
+
+    @Override
+    public void destroy() {
+        pools.forEach(Disposable::dispose);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.wardrobeservice.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Owner sharding: one pool per shard (plus its read replicas, if any) behind a {@link ShardRoutingConnectionFactory},
+ * repository proxies that route owner-scoped calls, and Flyway applied to every shard.
+ * <p>
+ * Shard credentials default to {@code spring.r2dbc.*}. {@code spring.datasource.*} is still required by the
+ * Flyway auto-configuration, but migrations run against each shard's {@code jdbc-url} instead.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaR2dbcProperties.class)
+public class ShardedConnectionFactoryConfig {
+
+    @Bean
+    @Primary
+    public ShardRoutingConnectionFactory connectionFactory(ShardingProperties sharding,
+                                                           R2dbcProperties defaults,
+                                                           ReplicaR2dbcProperties replicaProperties) {
+        Map<String, ConnectionFactory> shards = new LinkedHashMap<>();
+        List<ConnectionPool> pools = new ArrayList<>();
+        for (ShardingProperties.Shard shard : sharding.shards()) {
+            String username = username(shard, defaults);
+            String password = password(shard, defaults);
+            ConnectionPool primary = ReadReplicaConnectionFactoryConfig.pool(
+                    "shard-" + shard.id(), shard.r2dbcUrl(), username, password, defaults.getPool());
+            pools.add(primary);
+
+            List<String> replicaUrls = shard.replicas() == null ? List.of() : shard.replicas();
+            if (replicaUrls.isEmpty()) {
+                shards.put(shard.id(), primary);
+                continue;
+            }
+            List<ConnectionPool> replicas = new ArrayList<>(replicaUrls.size());
+            for (int i = 0; i < replicaUrls.size(); i++) {
+                replicas.add(ReadReplicaConnectionFactoryConfig.replicaPool(
+                        "shard-" + shard.id() + "-replica-" + i, replicaUrls.get(i), username, password, replicaProperties));
+            }
+            pools.addAll(replicas);
+            shards.put(shard.id(), new ReplicaRoutingConnectionFactory(primary, replicas, replicaProperties.retryAfter()));
+        }
+        return new ShardRoutingConnectionFactory(shards, pools);
+    }
+
+    /**
+     * Static so that it is registered before the repository factory beans it customizes.
+     */
+    @Bean
+    public static BeanPostProcessor ownerShardRoutingPostProcessor(ObjectProvider<ShardRouter> router) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) ->
+                                    proxyFactory.addAdvice(new OwnerShardRoutingInterceptor(router.getObject()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FlywayMigrationStrategy shardedFlywayMigrationStrategy(ShardingProperties sharding,
+                                                                  R2dbcProperties defaults,
+                                                                  ShardRouter router) {
+        return flyway -> {
+            List<ShardingProperties.Shard> shards = sharding.shards();
+            for (int index = 0; index < shards.size(); index++) {
+                ShardingProperties.Shard shard = shards.get(index);
+                Flyway shardFlyway = Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(shard.jdbcUrl(), username(shard, defaults), password(shard, defaults))
+                        .load();
+                shardFlyway.migrate();
+                ShardBootstrap.apply(shardFlyway.getConfiguration().getDataSource(),
+                        router.shardMap(), index, sharding.idStride());
+            }
+        };
+    }
+
+    private static String username(ShardingProperties.Shard shard, R2dbcProperties defaults) {
+        return StringUtils.hasText(shard.username()) ? shard.username() : defaults.getUsername();
+    }
+
+    private static String password(ShardingProperties.Shard shard, R2dbcProperties defaults) {
+        return StringUtils.hasText(shard.password()) ? shard.password() : defaults.getPassword();
+    }
+}
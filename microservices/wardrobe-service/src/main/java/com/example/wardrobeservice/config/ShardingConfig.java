@@ -0,0 +1,19 @@
+package com.example.wardrobeservice.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The router is always present: without {@code app.sharding.enabled} it serves a single-shard map
+ * and the scatter-gather helpers degrade to a plain call.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    public ShardRouter shardRouter(ShardingProperties properties) {
+        return new ShardRouter(properties.enabled() ? ShardMap.of(properties) : ShardMap.single());
+    }
+}
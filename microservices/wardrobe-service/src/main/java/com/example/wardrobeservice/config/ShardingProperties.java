@@ -0,0 +1,37 @@
+package com.example.wardrobeservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Owner sharding of wardrobe_items across several Postgres instances.
+ * <p>
+ * The position of a shard in {@code shards} is its index: it defines the id residue the shard hands out
+ * and must never change. {@code id-stride} is the upper bound on the number of shards and must never change either.
+ */
+@ConfigurationProperties("app.sharding")
+public record ShardingProperties(
+        boolean enabled,
+        @DefaultValue("1") int version,
+        @DefaultValue("1024") int bucketCount,
+        @DefaultValue("64") int idStride,
+        List<Shard> shards
+) {
+
+    /**
+     * @param buckets  buckets served by the shard, e.g. {@code 0-511} or {@code 0-99,200-299}
+     * @param replicas optional R2DBC urls of read replicas of this shard
+     */
+    public record Shard(
+            String id,
+            String r2dbcUrl,
+            String jdbcUrl,
+            String username,
+            String password,
+            String buckets,
+            List<String> replicas
+    ) {
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.wardrobeservice.config;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.codec.CodecCustomizer;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,9 +10,14 @@ import org.springframework.web.reactive.function.client.WebClient;
 @Configuration
 public class WebClientConfig {
 
+    /**
+     * Same codecs as the server side (Boot's JSON settings plus CBOR from {@link CborConfig}).
+     */
     @Bean
     @LoadBalanced
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    public WebClient.Builder webClientBuilder(ObjectProvider<CodecCustomizer> codecCustomizers) {
+        return WebClient.builder()
+                .codecs(configurer -> codecCustomizers.orderedStream()
+                        .forEach(customizer -> customizer.customize(configurer)));
     }
 }
@@ -1,8 +1,11 @@
 package com.example.wardrobeservice.controller;
 
+import com.example.wardrobeservice.dto.WardrobeItemChangeDto;
 import com.example.wardrobeservice.dto.WardrobeItemDto;
+import com.example.wardrobeservice.dto.WardrobeItemEventDto;
 import com.example.wardrobeservice.dto.WardrobeItemResponseDto;
 import com.example.wardrobeservice.service.PagedResult;
+import com.example.wardrobeservice.service.Tagged;
 import com.example.wardrobeservice.service.WardrobeItemService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,14 +14,19 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Comparator;
 import java.util.List;
 
 @RestController
@@ -27,6 +35,11 @@ import java.util.List;
 @Validated
 public class WardrobeItemController {
 
+    /**
+     * Данные пользовательские: кэшировать можно только на клиенте и только с ревалидацией по ETag.
+     */
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final WardrobeItemService itemService;
 
     @Operation(summary = "Получить вещи с пагинацией", description = "Возвращает список вещей постранично и добавляет X-Total-Count в заголовок ответа")
@@ -49,24 +62,72 @@ public class WardrobeItemController {
                 });
     }
 
-    @Operation(summary = "Получить вещи (бесконечная прокрутка)", description = "Возвращает следующую часть списка без общего количества записей")
-    @ApiResponse(responseCode = "200", description = "Часть списка успешно получена")
+    @Operation(summary = "Получить вещи (бесконечная прокрутка)", description = "Возвращает следующую часть списка без общего количества записей. "
+            + "Следующая часть запрашивается по afterId (id последней полученной вещи); offset оставлен для совместимости. "
+            + "Поддерживает If-None-Match: если страница не изменилась, отвечает 304 без тела")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Часть списка успешно получена"),
+            @ApiResponse(responseCode = "304", description = "Страница не изменилась")
+    })
     @GetMapping("/scroll")
-    public Flux<WardrobeItemResponseDto> getInfiniteScroll(
+    public Mono<ResponseEntity<List<WardrobeItemResponseDto>>> getInfiniteScroll(
+            @RequestParam(required = false) @Min(0) Long afterId,
             @RequestParam(defaultValue = "0") @Min(0) int offset,
-            @RequestParam(defaultValue = "10") @Min(1) @Max(50) int limit) {
-        return itemService.getInfiniteScroll(offset, limit);
+            @RequestParam(defaultValue = "10") @Min(1) @Max(50) int limit,
+            ServerWebExchange exchange) {
+        return itemService.getInfiniteScrollETag(afterId, offset, limit)
+                .map(versionETag -> representationETag(versionETag, exchange))
+                .flatMap(etag -> {
+                    if (exchange.checkNotModified(etag)) {
+                        return Mono.just(WardrobeItemController.<List<WardrobeItemResponseDto>>notModified(etag));
+                    }
+                    return itemService.getInfiniteScroll(afterId, offset, limit)
+                            .map(page -> ok(page, exchange));
+                });
+    }
+
+    @Operation(summary = "Лента изменений гардероба",
+            description = "Возвращает вещи текущего пользователя, созданные, изменённые или удалённые после курсора since. "
+                    + "Курсор последнего элемента передаётся в следующий запрос; пустой ответ означает, что изменений нет")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Изменения успешно получены"),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор")
+    })
+    @GetMapping(value = "/changes", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<WardrobeItemChangeDto> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") @Min(1) @Max(1000) int limit) {
+        return itemService.getChanges(since, limit);
+    }
+
+    @Operation(summary = "Подписка на изменения гардероба (SSE)",
+            description = "Держит открытым поток text/event-stream и присылает события CREATED/UPDATED/DELETED по вещам текущего пользователя. "
+                    + "Пропущенные события можно догнать через /items/changes")
+    @ApiResponse(responseCode = "200", description = "Поток событий открыт")
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<WardrobeItemEventDto>> streamChanges() {
+        return itemService.streamChanges();
     }
 
     @Operation(summary = "Получить вещь по ID", description = "Возвращает вещь по её уникальному идентификатору")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Вещь найдена"),
+            @ApiResponse(responseCode = "304", description = "Вещь не изменилась (If-None-Match)"),
             @ApiResponse(responseCode = "404", description = "Вещь не найдена")
     })
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<WardrobeItemResponseDto>> getById(@PathVariable @Min(1) Long id) {
-        return itemService.getById(id)
-                .map(ResponseEntity::ok)
+    public Mono<ResponseEntity<WardrobeItemResponseDto>> getById(@PathVariable @Min(1) Long id,
+                                                                 ServerWebExchange exchange) {
+        // сначала сверяем версию лёгким запросом: при совпадении If-None-Match строка не загружается
+        return itemService.getItemETag(id)
+                .map(versionETag -> representationETag(versionETag, exchange))
+                .flatMap(etag -> {
+                    if (exchange.checkNotModified(etag)) {
+                        return Mono.just(WardrobeItemController.<WardrobeItemResponseDto>notModified(etag));
+                    }
+                    return itemService.getById(id)
+                            .map(item -> ok(item, exchange));
+                })
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
@@ -100,4 +161,43 @@ public class WardrobeItemController {
         return itemService.delete(id)
                 .thenReturn(ResponseEntity.noContent().<Void>build());
     }
+
+    /**
+     * Запрос версии и загрузка строки идут на реплики по очереди и могут попасть на реплики с разным отставанием,
+     * поэтому ETag ответа 200 берётся у строк, из которых собрано тело, а не у предварительной проверки.
+     */
+    private static <T> ResponseEntity<T> ok(Tagged<T> tagged, ServerWebExchange exchange) {
+        return ResponseEntity.ok()
+                .eTag(representationETag(tagged.eTag(), exchange))
+                .cacheControl(CACHE_CONTROL)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(tagged.body());
+    }
+
+        private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CACHE_CONTROL)
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
+
+    /**
+     * Сильный ETag описывает конкретные байты ответа, поэтому у CBOR-представления (его запрашивают
+     * внутренние клиенты) свой ETag: валидатор от JSON не должен давать 304 на запрос CBOR и наоборот.
+     */
+    private static String representationETag(String etag, ServerWebExchange exchange) {
+        return prefersCbor(exchange.getRequest().getHeaders().getAccept())
+                ? etag.substring(0, etag.length() - 1) + "-cbor\""
+                : etag;
+    }
+
+    private static boolean prefersCbor(List<MediaType> accept) {
+        return accept.stream()
+                .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                .filter(type -> type.isCompatibleWith(MediaType.APPLICATION_CBOR) || type.isCompatibleWith(MediaType.APPLICATION_JSON))
+                .findFirst()
+                .map(type -> type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR))
+                .orElse(false);
+    }
 }
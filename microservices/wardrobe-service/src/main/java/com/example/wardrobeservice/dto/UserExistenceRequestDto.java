@@ -0,0 +1,8 @@
+package com.example.wardrobeservice.dto;
+
+import java.util.List;
+
+public record UserExistenceRequestDto(
+        List<Long> ids
+) {
+}
@@ -0,0 +1,20 @@
+package com.example.wardrobeservice.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+import java.time.Instant;
+
+/**
+ * Элемент ленты изменений гардероба. Для удалённых вещей deleted = true, item = null.
+ * cursor передаётся в следующий запрос как since.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record WardrobeItemChangeDto(
+        Long id,
+        boolean deleted,
+        Instant updatedAt,
+        WardrobeItemResponseDto item,
+        String cursor
+) {
+}
@@ -0,0 +1,19 @@
+package com.example.wardrobeservice.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+import java.time.Instant;
+
+/**
+ * Событие изменения вещи, отправляемое владельцу через SSE (GET /items/events).
+ * Для DELETED item = null.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record WardrobeItemEventDto(
+        WardrobeItemEventType type,
+        Long id,
+        Instant occurredAt,
+        WardrobeItemResponseDto item
+) {
+}
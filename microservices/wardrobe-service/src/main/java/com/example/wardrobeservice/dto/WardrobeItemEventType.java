@@ -0,0 +1,7 @@
+package com.example.wardrobeservice.dto;
+
+public enum WardrobeItemEventType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
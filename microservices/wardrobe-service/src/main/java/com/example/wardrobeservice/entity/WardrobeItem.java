@@ -7,6 +7,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
@@ -41,4 +42,16 @@ public class WardrobeItem {
 
     @Column("created_at")
     private Instant createdAt;
+
+    @Column("updated_at")
+    private Instant updatedAt;
+
+    // tombstone: удалённые вещи остаются в таблице для ленты изменений
+    @Column("deleted_at")
+    private Instant deletedAt;
+
+    // версия для optimistic locking и ETag
+    @Version
+    @Column("version")
+    private Long version;
 }
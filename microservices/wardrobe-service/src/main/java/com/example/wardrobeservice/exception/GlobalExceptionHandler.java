@@ -1,7 +1,10 @@
 package com.example.wardrobeservice.exception;
 
+import io.github.resilience4j.bulkhead.BulkheadFullException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -30,6 +33,22 @@ public class GlobalExceptionHandler {
                 .body(e.getReason() != null ? e.getReason() : "Error occurred"));
     }
 
+    /**
+     * Bulkhead к user-service заполнен: запрос отклонён без ожидания, повтор — через секунду (минимум для Retry-After).
+     */
+    @ExceptionHandler(BulkheadFullException.class)
+    public Mono<ResponseEntity<String>> handleBulkheadFullException(BulkheadFullException e) {
+        return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage()));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public Mono<ResponseEntity<String>> handleOptimisticLockingFailure(OptimisticLockingFailureException e) {
+        return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Wardrobe item was modified concurrently, reload and retry"));
+    }
+
     @ExceptionHandler({DuplicateKeyException.class, DataIntegrityViolationException.class})
     public Mono<ResponseEntity<String>> handleDataIntegrity(Exception e) {
         log.warn("Data integrity violation in wardrobe-service: {}", e.getMessage());
@@ -1,6 +1,7 @@
 package com.example.wardrobeservice.repository;
 
 import com.example.wardrobeservice.entity.WardrobeItem;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.data.repository.query.Param;
@@ -8,22 +9,105 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+
+/**
+ * wardrobe_items is hash-partitioned by owner_id: every query that knows the owner filters on
+ * {@code owner_id = :ownerId} so the planner (or, for generic plans, the executor) touches a single partition.
+ * Lookups by id alone probe the primary key of each partition and are kept for supervisors and 403/404 checks.
+ * <p>
+ * With owner sharding, methods with an {@code ownerId} parameter or an entity argument run on the owner's shard;
+ * the rest are executed by the service on every shard through {@code ShardRouter}.
+ */
 @Repository
-public interface WardrobeItemRepository extends ReactiveCrudRepository<WardrobeItem, Long> {
+public interface WardrobeItemRepository extends ReactiveCrudRepository<WardrobeItem, Long>, WardrobeItemRepositoryCustom {
+
+    @Override
+    @Query("SELECT * FROM wardrobe_items WHERE id = :id AND deleted_at IS NULL")
+    Mono<WardrobeItem> findById(@Param("id") Long id);
+
+    @Query("SELECT * FROM wardrobe_items WHERE id = :id AND owner_id = :ownerId AND deleted_at IS NULL")
+    Mono<WardrobeItem> findByIdAndOwnerId(@Param("id") Long id, @Param("ownerId") Long ownerId);
+
+    @Override
+    @Query("SELECT EXISTS(SELECT 1 FROM wardrobe_items WHERE id = :id AND deleted_at IS NULL)")
+    Mono<Boolean> existsById(@Param("id") Long id);
+
+    /**
+     * Lightweight lookup for conditional GET: only id, owner and version, without hydrating the row.
+     */
+    @Query("SELECT id, owner_id, version FROM wardrobe_items WHERE id = :id AND deleted_at IS NULL")
+    Mono<WardrobeItemVersion> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT id, owner_id, version FROM wardrobe_items WHERE id = :id AND owner_id = :ownerId AND deleted_at IS NULL")
+    Mono<WardrobeItemVersion> findVersionByIdAndOwnerId(@Param("id") Long id, @Param("ownerId") Long ownerId);
+
+    @Query("SELECT id, owner_id, version FROM wardrobe_items WHERE deleted_at IS NULL ORDER BY id LIMIT :limit OFFSET :offset")
+    Flux<WardrobeItemVersion> findVersionsWithPagination(@Param("limit") int limit, @Param("offset") int offset);
 
-    @Query("SELECT * FROM wardrobe_items ORDER BY id LIMIT :limit OFFSET :offset")
+    @Query("SELECT id, owner_id, version FROM wardrobe_items WHERE owner_id = :ownerId AND deleted_at IS NULL ORDER BY id LIMIT :limit OFFSET :offset")
+    Flux<WardrobeItemVersion> findVersionsByOwnerIdWithPagination(@Param("ownerId") Long ownerId,
+                                                                  @Param("limit") int limit,
+                                                                  @Param("offset") int offset);
+
+    @Query("SELECT * FROM wardrobe_items WHERE deleted_at IS NULL ORDER BY id LIMIT :limit OFFSET :offset")
     Flux<WardrobeItem> findAllWithPagination(@Param("limit") int limit, @Param("offset") int offset);
 
-    @Query("SELECT COUNT(*) FROM wardrobe_items")
+    /**
+     * Keyset page: unlike OFFSET it can be merged across shards without reading the skipped rows.
+     */
+    @Query("SELECT * FROM wardrobe_items WHERE id > :afterId AND deleted_at IS NULL ORDER BY id LIMIT :limit")
+    Flux<WardrobeItem> findAllAfterId(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    @Query("SELECT id, owner_id, version FROM wardrobe_items WHERE id > :afterId AND deleted_at IS NULL ORDER BY id LIMIT :limit")
+    Flux<WardrobeItemVersion> findVersionsAfterId(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    @Query("SELECT COUNT(*) FROM wardrobe_items WHERE deleted_at IS NULL")
     Mono<Long> countAll();
 
-    Flux<WardrobeItem> findAllByOwnerId(Long ownerId);
+    @Query("SELECT * FROM wardrobe_items WHERE owner_id = :ownerId AND deleted_at IS NULL")
+    Flux<WardrobeItem> findAllByOwnerId(@Param("ownerId") Long ownerId);
 
-    @Query("SELECT * FROM wardrobe_items WHERE owner_id = :ownerId ORDER BY id LIMIT :limit OFFSET :offset")
+    @Query("SELECT * FROM wardrobe_items WHERE owner_id = :ownerId AND deleted_at IS NULL ORDER BY id LIMIT :limit OFFSET :offset")
     Flux<WardrobeItem> findAllByOwnerIdWithPagination(@Param("ownerId") Long ownerId,
                                                       @Param("limit") int limit,
                                                       @Param("offset") int offset);
 
-    @Query("SELECT COUNT(*) FROM wardrobe_items WHERE owner_id = :ownerId")
+    @Query("SELECT * FROM wardrobe_items WHERE owner_id = :ownerId AND id > :afterId AND deleted_at IS NULL ORDER BY id LIMIT :limit")
+    Flux<WardrobeItem> findAllByOwnerIdAfterId(@Param("ownerId") Long ownerId,
+                                               @Param("afterId") Long afterId,
+                                               @Param("limit") int limit);
+
+    @Query("SELECT id, owner_id, version FROM wardrobe_items WHERE owner_id = :ownerId AND id > :afterId AND deleted_at IS NULL ORDER BY id LIMIT :limit")
+    Flux<WardrobeItemVersion> findVersionsByOwnerIdAfterId(@Param("ownerId") Long ownerId,
+                                                           @Param("afterId") Long afterId,
+                                                           @Param("limit") int limit);
+
+    @Query("SELECT COUNT(*) FROM wardrobe_items WHERE owner_id = :ownerId AND deleted_at IS NULL")
     Mono<Long> countByOwnerId(@Param("ownerId") Long ownerId);
+
+    /**
+     * Change feed: items (including tombstones) of the owner changed after the (updatedAt, id) cursor
+     * and not later than {@code upTo}. Served by idx_wardrobe_items_owner_changes.
+     */
+    @Query("""
+            SELECT * FROM wardrobe_items
+            WHERE owner_id = :ownerId
+              AND (updated_at, id) > (:sinceUpdatedAt, :sinceId)
+              AND updated_at <= :upTo
+            ORDER BY updated_at, id
+            LIMIT :limit
+            """)
+    Flux<WardrobeItem> findChangesByOwnerId(@Param("ownerId") Long ownerId,
+                                            @Param("sinceUpdatedAt") Instant sinceUpdatedAt,
+                                            @Param("sinceId") long sinceId,
+                                            @Param("upTo") Instant upTo,
+                                            @Param("limit") int limit);
+
+    @Modifying
+    @Query("""
+            UPDATE wardrobe_items SET deleted_at = :deletedAt, updated_at = :deletedAt, version = version + 1
+            WHERE id = :id AND owner_id = :ownerId AND deleted_at IS NULL
+            """)
+    Mono<Integer> softDeleteById(@Param("id") Long id, @Param("ownerId") Long ownerId, @Param("deletedAt") Instant deletedAt);
 }
@@ -0,0 +1,14 @@
+package com.example.wardrobeservice.repository;
+
+import com.example.wardrobeservice.entity.WardrobeItem;
+import reactor.core.publisher.Mono;
+
+public interface WardrobeItemRepositoryCustom {
+
+    /**
+     * Inserts the item with its existing id and version, as {@code save} would issue an UPDATE for it.
+     * Used when an item moves to an owner on another shard: ids are unique across shards, so it keeps its id.
+     * If the item moves back to an owner it already had, that owner's tombstone is revived in place.
+     */
+    Mono<WardrobeItem> upsertWithId(WardrobeItem item);
+}
@@ -0,0 +1,42 @@
+package com.example.wardrobeservice.repository;
+
+import com.example.wardrobeservice.entity.WardrobeItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+class WardrobeItemRepositoryCustomImpl implements WardrobeItemRepositoryCustom {
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<WardrobeItem> upsertWithId(WardrobeItem item) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("""
+                        INSERT INTO wardrobe_items
+                            (id, owner_id, type, brand, color, season, image_url, created_at, updated_at, version)
+                        VALUES (:id, :ownerId, :type, :brand, :color, :season, :imageUrl, :createdAt, :updatedAt, :version)
+                        ON CONFLICT (id, owner_id) DO UPDATE SET
+                            type = EXCLUDED.type,
+                            brand = EXCLUDED.brand,
+                            color = EXCLUDED.color,
+                            season = EXCLUDED.season,
+                            image_url = EXCLUDED.image_url,
+                            created_at = EXCLUDED.created_at,
+                            updated_at = EXCLUDED.updated_at,
+                            deleted_at = NULL,
+                            version = EXCLUDED.version
+                        """)
+                .bind("id", item.getId())
+                .bind("ownerId", item.getOwnerId())
+                .bind("type", item.getType().name())
+                .bind("season", item.getSeason().name())
+                .bind("imageUrl", item.getImageUrl())
+                .bind("createdAt", item.getCreatedAt())
+                .bind("updatedAt", item.getUpdatedAt())
+                .bind("version", item.getVersion());
+        spec = item.getBrand() == null ? spec.bindNull("brand", String.class) : spec.bind("brand", item.getBrand());
+        spec = item.getColor() == null ? spec.bindNull("color", String.class) : spec.bind("color", item.getColor());
+        return spec.then().thenReturn(item);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.wardrobeservice.repository;
+
+/**
+ * Projection of wardrobe_items used to answer conditional requests without loading the whole row.
+ */
+public record WardrobeItemVersion(Long id, Long ownerId, Long version) {
+}
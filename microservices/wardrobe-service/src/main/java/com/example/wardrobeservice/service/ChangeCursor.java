@@ -0,0 +1,40 @@
+package com.example.wardrobeservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Opaque cursor of the wardrobe change feed: position (updated_at, id) of the last change seen by the client.
+ * Timestamps are kept with microsecond precision to match PostgreSQL.
+ */
+public record ChangeCursor(Instant updatedAt, long id) {
+
+    public static final ChangeCursor START = new ChangeCursor(Instant.EPOCH, 0L);
+
+    public static ChangeCursor of(Instant updatedAt, long id) {
+        return new ChangeCursor(updatedAt.truncatedTo(ChronoUnit.MICROS), id);
+    }
+
+    public static ChangeCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            long micros = Long.parseLong(raw.substring(0, sep));
+            long id = Long.parseLong(raw.substring(sep + 1));
+            return new ChangeCursor(Instant.EPOCH.plus(micros, ChronoUnit.MICROS), id);
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid change cursor: " + value);
+        }
+    }
+
+    public String encode() {
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, updatedAt);
+        String raw = micros + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
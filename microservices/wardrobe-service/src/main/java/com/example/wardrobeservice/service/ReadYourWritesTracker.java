@@ -0,0 +1,63 @@
+package com.example.wardrobeservice.service;
+
+import com.example.wardrobeservice.config.ReadRoute;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-your-writes for replica reads: a user who has just written reads from the primary for a short window,
+ * so their own change is never hidden by replication lag. Everyone else reads from replicas.
+ * <p>
+ * State is per instance: a follow-up read that lands on another instance may still be served by a replica.
+ * The window should comfortably exceed the usual replica lag.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+    private final Map<Long, Long> lastWrites = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ReadYourWritesTracker(@Value("${app.r2dbc.replica.read-your-writes-window:5s}") Duration window) {
+        this(window, System::nanoTime);
+    }
+
+    ReadYourWritesTracker(Duration window, LongSupplier nanoClock) {
+        this.windowNanos = window.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    public void recordWrite(Long userId) {
+        if (userId == null) return;
+        long now = nanoClock.getAsLong();
+        lastWrites.put(userId, now);
+        if (lastWrites.size() > CLEANUP_THRESHOLD) {
+            lastWrites.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+        }
+    }
+
+    public ReadRoute routeFor(Long userId) {
+        Long writtenAt = userId == null ? null : lastWrites.get(userId);
+        if (writtenAt == null) return ReadRoute.REPLICA;
+        if (nanoClock.getAsLong() - writtenAt < windowNanos) return ReadRoute.PRIMARY;
+        lastWrites.remove(userId, writtenAt);
+        return ReadRoute.REPLICA;
+    }
+
+    /**
+     * Reactor context for a read pipeline of {@code userId}; apply with {@code contextWrite}.
+     */
+    public Context readContext(Long userId) {
+        return Context.of(ReadRoute.CONTEXT_KEY, routeFor(userId));
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.wardrobeservice.service;
+
+/**
+ * Тело ответа вместе с ETag, посчитанным по тем же строкам, из которых собрано тело.
+ */
+public record Tagged<T>(
+        T body,
+        String eTag
+) {
+}
@@ -1,11 +1,15 @@
 package com.example.wardrobeservice.service;
 
+import com.example.wardrobeservice.client.UserExistenceBatcher;
 import com.example.wardrobeservice.client.UserServiceClient;
 import com.example.wardrobeservice.dto.UserDto;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 
@@ -14,18 +18,52 @@ import reactor.core.publisher.Mono;
 public class UserServiceClientWrapper {
 
     private final UserServiceClient userServiceClient;
+    private final UserExistenceBatcher userExistenceBatcher;
 
+    /**
+     * Semaphore bulkhead {@code user-service} ограничивает число запросов в полёте: event loop не блокируется,
+     * но при медленном user-service ожидающие ответа запросы не копятся без предела.
+     */
     @CircuitBreaker(name = "user-service", fallbackMethod = "getUserByIdFallback")
+    @Bulkhead(name = "user-service")
     public Mono<UserDto> getUserById(Long id) {
         return userServiceClient.getUserById(id);
     }
 
+    /**
+     * Отсутствие пользователя — обычный ответ (false), а не ошибка. Запрос уходит через micro-batcher;
+     * ошибка пакета приходит каждому ожидавшему вызову. Circuit breaker здесь не навешан: батчер учитывает в нём
+     * каждый пакетный запрос один раз, а не по разу на каждого ожидавшего. Ожидание ограничено
+     * {@code clients.user-service.batch.timeout}, после него — 503.
+     */
+    @Bulkhead(name = "user-service")
+    public Mono<Boolean> userExists(Long id) {
+        return userExistenceBatcher.exists(id)
+                .onErrorMap(ex -> translate(id, ex));
+    }
+
     // Fallback метод с теми же аргументами + Throwable/Exception в конце
     private Mono<UserDto> getUserByIdFallback(Long id, Throwable ex) {
-        return Mono.error(new ResponseStatusException(
+        return Mono.error(translate(id, ex));
+    }
+
+    private static RuntimeException translate(Long id, Throwable ex) {
+        // заполненный bulkhead - 503 с Retry-After из GlobalExceptionHandler
+        if (ex instanceof BulkheadFullException full) {
+            return full;
+        }
+        // 4xx от user-service - ответ (нет пользователя, нет доступа), а не недоступность
+        if (ex instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError()) {
+            if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
+                return new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found with id: " + id, ex);
+            }
+            return new ResponseStatusException(response.getStatusCode(),
+                    "User-service returned " + response.getStatusCode().value(), ex);
+        }
+        return new ResponseStatusException(
                 HttpStatus.SERVICE_UNAVAILABLE,
                 "User service is currently unavailable. Please try again later."
-        ));
+        );
     }
 }
 
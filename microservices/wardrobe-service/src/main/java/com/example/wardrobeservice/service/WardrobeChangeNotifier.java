@@ -0,0 +1,124 @@
+package com.example.wardrobeservice.service;
+
+import com.example.wardrobeservice.dto.WardrobeItemEventDto;
+import com.example.wardrobeservice.dto.WardrobeItemEventType;
+import com.example.wardrobeservice.dto.WardrobeItemResponseDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory fan-out of wardrobe item changes to SSE subscribers, one channel per owner.
+ * <p>
+ * Each connection has its own bounded buffer; when a slow client falls behind, the oldest
+ * events are dropped (the client can always catch up through GET /items/changes).
+ * Heartbeat comments come from a single shared timer, so idle connections cost no work.
+ * Events are only delivered to subscribers connected to this instance.
+ */
+@Component
+public class WardrobeChangeNotifier {
+
+    private static final Sinks.EmitFailureHandler EMIT_RETRY = Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100));
+
+    private final Map<Long, OwnerChannel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter publishedEvents;
+    private final Counter droppedEvents;
+    private final int bufferSize;
+    private final Flux<Long> heartbeat;
+
+    public WardrobeChangeNotifier(MeterRegistry meterRegistry,
+                                  @Value("${wardrobe.sse.buffer-size:256}") int bufferSize,
+                                  @Value("${wardrobe.sse.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        this.bufferSize = bufferSize;
+        this.heartbeat = Flux.interval(heartbeatInterval).onBackpressureDrop().share();
+
+        Gauge.builder("wardrobe.sse.connections", connections, AtomicInteger::get)
+                .description("Open SSE connections on /items/events")
+                .register(meterRegistry);
+        Gauge.builder("wardrobe.sse.owners", channels, Map::size)
+                .description("Owners with at least one open SSE connection")
+                .register(meterRegistry);
+        this.publishedEvents = Counter.builder("wardrobe.sse.events.published")
+                .description("Change events delivered to owner channels")
+                .register(meterRegistry);
+        this.droppedEvents = Counter.builder("wardrobe.sse.events.dropped")
+                .description("Events dropped because a client buffer was full")
+                .register(meterRegistry);
+    }
+
+    public void publish(WardrobeItemEventType type, WardrobeItemResponseDto item) {
+        publish(item.ownerId(), new WardrobeItemEventDto(type, item.id(), Instant.now(), item));
+    }
+
+    public void publishDeleted(Long ownerId, Long itemId) {
+        publish(ownerId, new WardrobeItemEventDto(WardrobeItemEventType.DELETED, itemId, Instant.now(), null));
+    }
+
+    private void publish(Long ownerId, WardrobeItemEventDto event) {
+        OwnerChannel channel = channels.get(ownerId);
+        if (channel == null) {
+            return;
+        }
+        channel.sink().emitNext(event, EMIT_RETRY);
+        publishedEvents.increment();
+    }
+
+    public Flux<ServerSentEvent<WardrobeItemEventDto>> stream(Long ownerId) {
+        Flux<ServerSentEvent<WardrobeItemEventDto>> events = Flux.using(
+                        () -> acquire(ownerId),
+                        channel -> channel.sink().asFlux(),
+                        channel -> release(ownerId, channel))
+                .onBackpressureBuffer(bufferSize, dropped -> droppedEvents.increment(), BufferOverflowStrategy.DROP_OLDEST)
+                .map(event -> ServerSentEvent.builder(event)
+                        .event(event.type().name())
+                        .build());
+
+        Flux<ServerSentEvent<WardrobeItemEventDto>> heartbeats = heartbeat
+                .map(tick -> ServerSentEvent.<WardrobeItemEventDto>builder().comment("heartbeat").build());
+
+        // prefetch = 1: буферизация только в onBackpressureBuffer, иначе merge держал бы ещё свою очередь
+        return Flux.merge(1, events, heartbeats)
+                .doOnSubscribe(subscription -> connections.incrementAndGet())
+                .doFinally(signal -> connections.decrementAndGet());
+    }
+
+    int connectionCount() {
+        return connections.get();
+    }
+
+    private OwnerChannel acquire(Long ownerId) {
+        return channels.compute(ownerId, (id, channel) -> {
+            OwnerChannel result = channel != null ? channel : new OwnerChannel();
+            result.subscribers().incrementAndGet();
+            return result;
+        });
+    }
+
+    private void release(Long ownerId, OwnerChannel channel) {
+        channels.computeIfPresent(ownerId, (id, current) -> {
+            if (current != channel) {
+                return current;
+            }
+            return current.subscribers().decrementAndGet() == 0 ? null : current;
+        });
+    }
+
+    private record OwnerChannel(Sinks.Many<WardrobeItemEventDto> sink, AtomicInteger subscribers) {
+        OwnerChannel() {
+            this(Sinks.many().multicast().directBestEffort(), new AtomicInteger());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.wardrobeservice.service;
+
+import com.example.wardrobeservice.entity.WardrobeItem;
+import com.example.wardrobeservice.repository.WardrobeItemVersion;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Strong ETags for wardrobe items, built from the row version only.
+ */
+final class WardrobeItemETags {
+
+    private WardrobeItemETags() {
+    }
+
+    static String forItem(WardrobeItemVersion version) {
+        return "\"item-" + version.id() + "-v" + version.version() + "\"";
+    }
+
+    static String forItem(WardrobeItem item) {
+        return forItem(versionOf(item));
+    }
+
+    /**
+     * ETag of a list page: digest of the (id, version) pairs in page order plus the scope of the caller,
+     * so that an owner-scoped page never matches a supervisor page of the same URL.
+     */
+    static String forPage(String scope, List<WardrobeItemVersion> versions) {
+        StringBuilder sb = new StringBuilder(scope).append('|');
+        for (WardrobeItemVersion v : versions) {
+            sb.append(v.id()).append(':').append(v.version()).append(',');
+        }
+        return "\"items-" + DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    static String forItemPage(String scope, List<WardrobeItem> items) {
+        return forPage(scope, items.stream().map(WardrobeItemETags::versionOf).toList());
+    }
+
+    private static WardrobeItemVersion versionOf(WardrobeItem item) {
+        return new WardrobeItemVersion(item.getId(), item.getOwnerId(), item.getVersion());
+    }
+}
@@ -1,13 +1,19 @@
 package com.example.wardrobeservice.service;
 
+import com.example.wardrobeservice.config.ShardRouter;
+import com.example.wardrobeservice.dto.WardrobeItemChangeDto;
 import com.example.wardrobeservice.dto.WardrobeItemDto;
+import com.example.wardrobeservice.dto.WardrobeItemEventDto;
+import com.example.wardrobeservice.dto.WardrobeItemEventType;
 import com.example.wardrobeservice.dto.WardrobeItemResponseDto;
 import com.example.wardrobeservice.entity.WardrobeItem;
 import com.example.wardrobeservice.exception.NotFoundException;
 import com.example.wardrobeservice.mapper.WardrobeItemMapper;
 import com.example.wardrobeservice.repository.WardrobeItemRepository;
+import com.example.wardrobeservice.repository.WardrobeItemVersion;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
@@ -15,16 +21,34 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiFunction;
 
 @Service
 @RequiredArgsConstructor
 public class WardrobeItemService {
 
+    /**
+     * Изменения моложе этого окна ещё не отдаются в ленту: запись с меньшим updated_at
+     * может закоммититься позже уже выданной, и клиент пропустил бы её.
+     */
+    static final Duration CHANGE_FEED_SETTLE_WINDOW = Duration.ofSeconds(2);
+
+    private static final Comparator<WardrobeItem> ITEMS_BY_ID = Comparator.comparing(WardrobeItem::getId);
+    private static final Comparator<WardrobeItemVersion> VERSIONS_BY_ID = Comparator.comparing(WardrobeItemVersion::id);
+
     private final WardrobeItemRepository itemRepository;
     private final WardrobeItemMapper itemMapper;
     private final UserServiceClientWrapper userServiceClientWrapper;
+    private final WardrobeChangeNotifier changeNotifier;
+    private final ReadYourWritesTracker readYourWrites;
+    private final ShardRouter shardRouter;
 
     public Mono<PagedResult<WardrobeItemResponseDto>> getItemsUpTo50(int page, int size) {
         int limit = Math.min(size, 50);
@@ -32,46 +56,114 @@ public class WardrobeItemService {
 
         return currentJwt().flatMap(jwt -> {
             if (isSupervisor(jwt)) {
-                Mono<Long> countMono = itemRepository.countAll();
-                Flux<WardrobeItem> itemsFlux = itemRepository.findAllWithPagination(limit, offset);
+                Mono<Long> countMono = shardRouter.sum(itemRepository::countAll);
+                Flux<WardrobeItem> itemsFlux = acrossShards(null, offset, limit, ITEMS_BY_ID,
+                        itemRepository::findAllAfterId, itemRepository::findAllWithPagination);
                 return Mono.zip(itemsFlux.map(itemMapper::toDto).collectList(), countMono)
-                        .map(tuple -> new PagedResult<>(tuple.getT1(), tuple.getT2()));
+                        .map(tuple -> new PagedResult<>(tuple.getT1(), tuple.getT2()))
+                        .contextWrite(readContext(jwt));
             }
 
             Long userId = requireUserId(jwt);
             Mono<Long> countMono = itemRepository.countByOwnerId(userId);
             Flux<WardrobeItem> itemsFlux = itemRepository.findAllByOwnerIdWithPagination(userId, limit, offset);
             return Mono.zip(itemsFlux.map(itemMapper::toDto).collectList(), countMono)
-                    .map(tuple -> new PagedResult<>(tuple.getT1(), tuple.getT2()));
+                    .map(tuple -> new PagedResult<>(tuple.getT1(), tuple.getT2()))
+                    .contextWrite(readContext(jwt));
         });
     }
 
-    public Flux<WardrobeItemResponseDto> getInfiniteScroll(int offset, int limit) {
+    /**
+     * Лента с продолжением по afterId (id последней полученной вещи) или, для совместимости, по offset.
+     * ETag считается по версиям тех же строк, что попали в тело: отдельный запрос версий мог уйти на другую реплику.
+     */
+    public Mono<Tagged<List<WardrobeItemResponseDto>>> getInfiniteScroll(Long afterId, int offset, int limit) {
         int actualLimit = Math.min(limit, 50);
-        return currentJwt().flatMapMany(jwt -> {
+        return currentJwt().flatMap(jwt -> {
+            Flux<WardrobeItem> items;
+            if (isSupervisor(jwt)) {
+                items = acrossShards(afterId, offset, actualLimit, ITEMS_BY_ID,
+                        itemRepository::findAllAfterId, itemRepository::findAllWithPagination);
+            } else {
+                Long userId = requireUserId(jwt);
+                items = afterId != null
+                        ? itemRepository.findAllByOwnerIdAfterId(userId, afterId, actualLimit)
+                        : itemRepository.findAllByOwnerIdWithPagination(userId, actualLimit, offset);
+            }
+            return items.collectList()
+                    .map(page -> new Tagged<>(page.stream().map(itemMapper::toDto).toList(),
+                            WardrobeItemETags.forItemPage(pageScope(jwt), page)))
+                    .contextWrite(readContext(jwt));
+        });
+    }
+
+    /**
+     * ETag текущей страницы /items/scroll: считается по (id, version) без загрузки строк.
+     */
+    public Mono<String> getInfiniteScrollETag(Long afterId, int offset, int limit) {
+        int actualLimit = Math.min(limit, 50);
+        return currentJwt().flatMap(jwt -> {
             if (isSupervisor(jwt)) {
-                return itemRepository.findAllWithPagination(actualLimit, offset).map(itemMapper::toDto);
+                return acrossShards(afterId, offset, actualLimit, VERSIONS_BY_ID,
+                        itemRepository::findVersionsAfterId, itemRepository::findVersionsWithPagination)
+                        .collectList()
+                        .map(versions -> WardrobeItemETags.forPage(pageScope(jwt), versions))
+                        .contextWrite(readContext(jwt));
             }
             Long userId = requireUserId(jwt);
-            return itemRepository.findAllByOwnerIdWithPagination(userId, actualLimit, offset).map(itemMapper::toDto);
+            Flux<WardrobeItemVersion> page = afterId != null
+                    ? itemRepository.findVersionsByOwnerIdAfterId(userId, afterId, actualLimit)
+                    : itemRepository.findVersionsByOwnerIdWithPagination(userId, actualLimit, offset);
+            return page.collectList()
+                    .map(versions -> WardrobeItemETags.forPage(pageScope(jwt), versions))
+                    .contextWrite(readContext(jwt));
         });
     }
 
-    public Mono<WardrobeItemResponseDto> getById(Long id) {
+    /**
+     * ETag вещи по лёгкому запросу версии, с теми же правилами доступа, что и {@link #getById(Long)}.
+     */
+    public Mono<String> getItemETag(Long id) {
         return currentJwt().flatMap(jwt ->
-                itemRepository.findById(id)
-                        .switchIfEmpty(Mono.error(new NotFoundException("Wardrobe item not found with id: " + id)))
-                        .flatMap(item -> {
-                            if (isSupervisor(jwt)) return Mono.just(itemMapper.toDto(item));
-                            Long userId = requireUserId(jwt);
-                            if (item.getOwnerId() == null || !item.getOwnerId().equals(userId)) {
-                                return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied"));
-                            }
-                            return Mono.just(itemMapper.toDto(item));
-                        })
+                (isSupervisor(jwt)
+                        ? shardRouter.findFirst(() -> itemRepository.findVersionById(id))
+                                .switchIfEmpty(Mono.defer(() -> notFound(id)))
+                        : itemRepository.findVersionByIdAndOwnerId(id, requireUserId(jwt))
+                                .switchIfEmpty(Mono.defer(() -> accessDeniedOrNotFound(id))))
+                        .map(WardrobeItemETags::forItem)
+                        .contextWrite(readContext(jwt))
+        );
+    }
+
+    /**
+     * Вещь вместе с ETag по версии этой же строки.
+     */
+    public Mono<Tagged<WardrobeItemResponseDto>> getById(Long id) {
+        return currentJwt().flatMap(jwt ->
+                findAccessible(jwt, id)
+                        .map(item -> new Tagged<>(itemMapper.toDto(item), WardrobeItemETags.forItem(item)))
+                        .contextWrite(readContext(jwt))
         );
     }
 
+    /**
+     * Always read from the primary: a replica lagging behind the settle window would let the cursor
+     * move past rows it has not replayed yet, and the client would never see them.
+     */
+    public Flux<WardrobeItemChangeDto> getChanges(String since, int limit) {
+        ChangeCursor cursor = ChangeCursor.decode(since);
+        Instant upTo = Instant.now().minus(CHANGE_FEED_SETTLE_WINDOW);
+        return currentJwt().flatMapMany(jwt -> {
+            Long userId = requireUserId(jwt);
+            return itemRepository.findChangesByOwnerId(userId, cursor.updatedAt(), cursor.id(), upTo, limit)
+                    .map(this::toChangeDto);
+        });
+    }
+
+    public Flux<ServerSentEvent<WardrobeItemEventDto>> streamChanges() {
+        return currentJwt().flatMapMany(jwt -> changeNotifier.stream(requireUserId(jwt)));
+    }
+
     public Mono<WardrobeItemResponseDto> create(WardrobeItemDto dto) {
         return currentJwt().flatMap(jwt -> {
             if (!isSupervisor(jwt)) {
@@ -82,61 +174,167 @@ public class WardrobeItemService {
             }
 
             // Проверка существования пользователя через Wrapper с Circuit Breaker
-            return userServiceClientWrapper.getUserById(dto.ownerId())
-                    .flatMap(user -> {
+            return requireOwnerExists(dto.ownerId())
+                    .then(Mono.defer(() -> {
                         WardrobeItem item = itemMapper.toEntity(dto);
-                        return itemRepository.save(item).map(itemMapper::toDto);
-                    });
+                        item.setUpdatedAt(Instant.now());
+                        return itemRepository.save(item)
+                                .map(itemMapper::toDto)
+                                .doOnNext(saved -> {
+                                    recordWrite(jwt, saved.ownerId());
+                                    changeNotifier.publish(WardrobeItemEventType.CREATED, saved);
+                                });
+                    }));
         });
     }
 
     public Mono<WardrobeItemResponseDto> update(Long id, WardrobeItemDto dto) {
         return currentJwt().flatMap(jwt ->
-                itemRepository.findById(id)
-                        .switchIfEmpty(Mono.error(new NotFoundException("Wardrobe item not found with id: " + id)))
+                findAccessible(jwt, id)
                         .flatMap(existingItem -> {
                             if (!isSupervisor(jwt)) {
                                 Long userId = requireUserId(jwt);
-                                if (existingItem.getOwnerId() == null || !existingItem.getOwnerId().equals(userId)) {
-                                    return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied"));
-                                }
                                 if (dto.ownerId() == null || !dto.ownerId().equals(userId)) {
                                     return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "User can update items only for self"));
                                 }
                             }
 
                             // Проверка существования пользователя через Wrapper с Circuit Breaker
-                            return userServiceClientWrapper.getUserById(dto.ownerId())
-                                    .flatMap(user -> {
+                            return requireOwnerExists(dto.ownerId())
+                                    .then(Mono.defer(() -> {
+                                        Long previousOwnerId = existingItem.getOwnerId();
                                         itemMapper.updateEntityFromDto(dto, existingItem);
-                                        return itemRepository.save(existingItem).map(itemMapper::toDto);
-                                    });
+                                        existingItem.setUpdatedAt(Instant.now());
+                                        Mono<WardrobeItem> write = previousOwnerId.equals(existingItem.getOwnerId())
+                                                ? itemRepository.save(existingItem)
+                                                : moveToOwner(existingItem, previousOwnerId);
+                                        return write
+                                                .map(itemMapper::toDto)
+                                                .doOnNext(saved -> {
+                                                    recordWrite(jwt, previousOwnerId);
+                                                    recordWrite(jwt, saved.ownerId());
+                                                    publishUpdated(previousOwnerId, saved);
+                                                });
+                                    }));
                         })
         );
     }
 
     public Mono<Void> delete(Long id) {
-        return currentJwt().flatMap(jwt -> {
-            if (isSupervisor(jwt)) {
-                return itemRepository.existsById(id)
-                        .flatMap(exists -> {
-                            if (!exists) {
-                                return Mono.error(new NotFoundException("Wardrobe item not found with id: " + id));
-                            }
-                            return itemRepository.deleteById(id);
-                        });
-            }
+        return currentJwt().flatMap(jwt ->
+                findAccessible(jwt, id)
+                        .flatMap(item -> softDelete(item)
+                                .doOnSuccess(ignored -> {
+                                    recordWrite(jwt, item.getOwnerId());
+                                    changeNotifier.publishDeleted(item.getOwnerId(), id);
+                                }))
+        );
+    }
 
-            Long userId = requireUserId(jwt);
-            return itemRepository.findById(id)
-                    .switchIfEmpty(Mono.error(new NotFoundException("Wardrobe item not found with id: " + id)))
-                    .flatMap(item -> {
-                        if (item.getOwnerId() == null || !item.getOwnerId().equals(userId)) {
-                            return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied"));
-                        }
-                        return itemRepository.deleteById(id);
-                    });
-        });
+    // HEAD /users/{id} вместо загрузки профиля: нужен только факт существования
+    private Mono<Void> requireOwnerExists(Long ownerId) {
+        return userServiceClientWrapper.userExists(ownerId)
+                .flatMap(exists -> exists
+                        ? Mono.<Void>empty()
+                        : Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found with id: " + ownerId)));
+    }
+
+    /**
+     * Смена владельца: вещь вставляется строкой (id, новый owner_id) на шард нового владельца, а прежняя строка
+     * становится tombstone, чтобы лента изменений прежнего владельца сообщила об удалении. Так делается и в пределах
+     * одного шарда: обновление owner_id на месте не оставило бы следа для прежнего владельца.
+     * При возврате к прежнему владельцу его tombstone с тем же (id, owner_id) оживает.
+     * Шаги не атомарны; если второй упадёт, вещь будет видна у обоих владельцев до повторного запроса.
+     */
+    private Mono<WardrobeItem> moveToOwner(WardrobeItem item, Long previousOwnerId) {
+        item.setVersion(item.getVersion() == null ? 1 : item.getVersion() + 1);
+        return itemRepository.upsertWithId(item)
+                .flatMap(moved -> itemRepository.softDeleteById(moved.getId(), previousOwnerId, moved.getUpdatedAt())
+                        .thenReturn(moved));
+    }
+
+    // Вместо физического удаления оставляем tombstone, чтобы удаление попало в ленту изменений
+    private Mono<Void> softDelete(WardrobeItem item) {
+        return itemRepository.softDeleteById(item.getId(), item.getOwnerId(), Instant.now()).then();
+    }
+
+    /**
+     * Вещь с проверкой доступа. Для обычного пользователя запрос сразу фильтруется по owner_id
+     * и попадает в одну партицию; 403 и 404 различаются отдельным запросом только на промахе.
+     */
+    private Mono<WardrobeItem> findAccessible(Jwt jwt, Long id) {
+        if (isSupervisor(jwt)) {
+            return shardRouter.findFirst(() -> itemRepository.findById(id))
+                    .switchIfEmpty(Mono.defer(() -> notFound(id)));
+        }
+        return itemRepository.findByIdAndOwnerId(id, requireUserId(jwt))
+                .switchIfEmpty(Mono.defer(() -> accessDeniedOrNotFound(id)));
+    }
+
+    // область видимости страницы входит в ETag: страница владельца не совпадает со страницей супервизора по тому же URL
+    private String pageScope(Jwt jwt) {
+        return isSupervisor(jwt) ? "all" : "owner:" + requireUserId(jwt);
+    }
+
+        private <T> Mono<T> accessDeniedOrNotFound(Long id) {
+        return shardRouter.findFirst(() -> itemRepository.existsById(id).filter(Boolean::booleanValue))
+                .defaultIfEmpty(false)
+                .flatMap(exists -> exists
+                        ? Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied"))
+                        : notFound(id));
+    }
+
+    /**
+     * Список всех вещей по всем шардам в порядке id. Keyset-страница сливается из первых limit строк каждого шарда;
+     * OFFSET так не раскладывается, поэтому каждый шард отдаёт offset + limit строк, а лишние отбрасываются при слиянии.
+     */
+    private <T> Flux<T> acrossShards(Long afterId, int offset, int limit, Comparator<T> order,
+                                     BiFunction<Long, Integer, Flux<T>> afterIdQuery,
+                                     BiFunction<Integer, Integer, Flux<T>> offsetQuery) {
+        if (afterId != null) {
+            return shardRouter.mergeSorted(() -> afterIdQuery.apply(afterId, limit), order).take(limit);
+        }
+        if (!shardRouter.isSharded()) {
+            return offsetQuery.apply(limit, offset);
+        }
+        return shardRouter.mergeSorted(() -> offsetQuery.apply(offset + limit, 0), order).skip(offset).take(limit);
+    }
+
+    private static <T> Mono<T> notFound(Long id) {
+        return Mono.error(new NotFoundException("Wardrobe item not found with id: " + id));
+    }
+
+    private void publishUpdated(Long previousOwnerId, WardrobeItemResponseDto saved) {
+        if (previousOwnerId != null && !previousOwnerId.equals(saved.ownerId())) {
+            // вещь передана другому владельцу: у прежнего она исчезает, у нового появляется
+            changeNotifier.publishDeleted(previousOwnerId, saved.id());
+            changeNotifier.publish(WardrobeItemEventType.CREATED, saved);
+            return;
+        }
+        changeNotifier.publish(WardrobeItemEventType.UPDATED, saved);
+    }
+
+    /**
+     * Both the writer and the owner of the item read their next pages from the primary for a while.
+     */
+    private void recordWrite(Jwt jwt, Long ownerId) {
+        readYourWrites.recordWrite(optionalUserId(jwt));
+        readYourWrites.recordWrite(ownerId);
+    }
+
+    private Context readContext(Jwt jwt) {
+        return readYourWrites.readContext(optionalUserId(jwt));
+    }
+
+    private WardrobeItemChangeDto toChangeDto(WardrobeItem item) {
+        boolean deleted = item.getDeletedAt() != null;
+        return new WardrobeItemChangeDto(
+                item.getId(),
+                deleted,
+                item.getUpdatedAt(),
+                deleted ? null : itemMapper.toDto(item),
+                ChangeCursor.of(item.getUpdatedAt(), item.getId()).encode()
+        );
     }
 
     private static Mono<Jwt> currentJwt() {
@@ -159,6 +357,16 @@ public class WardrobeItemService {
         }
     }
 
+    private static Long optionalUserId(Jwt jwt) {
+        String userId = jwt.getClaimAsString("userId");
+        if (userId == null || userId.isBlank()) return null;
+        try {
+            return Long.parseLong(userId);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
     private static boolean isSupervisor(Jwt jwt) {
         Object roles = jwt.getClaims().get("roles");
         if (roles instanceof Collection<?> c) {
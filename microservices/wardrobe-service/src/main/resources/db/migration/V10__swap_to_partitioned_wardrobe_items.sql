@@ -0,0 +1,64 @@
+-- Step 3: switch to the partitioned table.
+-- The full comparison runs before the exclusive lock, while writes go on: the mirror trigger changes both
+-- tables in the same transaction, so one statement snapshot sees them consistent. Under the lock only the keys
+-- that wardrobe_items_swap_log records for transactions that snapshot did not see are compared again, each by
+-- primary key, so the lock is held for the size of that delta rather than for scans of both tables.
+
+DO $$
+DECLARE
+    -- oldest transaction the full check may not have seen; keys logged by it or any later one are the delta
+    since XID8 := pg_snapshot_xmin(pg_current_snapshot());
+    missing BIGINT;
+    ghosts BIGINT;
+BEGIN
+    SELECT COUNT(*) INTO missing
+    FROM wardrobe_items o
+    WHERE NOT EXISTS (
+        SELECT 1 FROM wardrobe_items_partitioned p
+        WHERE p.id = o.id AND p.owner_id = o.owner_id AND p.version = o.version
+    );
+    IF missing > 0 THEN
+        RAISE EXCEPTION 'wardrobe_items_partitioned is missing % rows, run CALL wardrobe_items_backfill() first', missing;
+    END IF;
+
+    -- The backfill copies a batch with ON CONFLICT DO NOTHING: a row hard-deleted while the batch was running
+    -- is deleted from the new table by the trigger and then inserted back by the batch. The old table is the
+    -- source of truth, so such rows are dropped.
+    DELETE FROM wardrobe_items_partitioned p
+    WHERE NOT EXISTS (SELECT 1 FROM wardrobe_items o WHERE o.id = p.id AND o.owner_id = p.owner_id);
+    GET DIAGNOSTICS ghosts = ROW_COUNT;
+    IF ghosts > 0 THEN
+        RAISE NOTICE 'removed % rows deleted from wardrobe_items after the backfill copied them', ghosts;
+    END IF;
+
+    -- Waits only for in-flight writes; a backfill batch still running holds a lock on wardrobe_items too.
+    LOCK TABLE wardrobe_items, wardrobe_items_partitioned IN ACCESS EXCLUSIVE MODE;
+
+    SELECT COUNT(*) INTO missing
+    FROM (SELECT DISTINCT id, owner_id FROM wardrobe_items_swap_log WHERE tx_id >= since) d
+    JOIN wardrobe_items o ON o.id = d.id AND o.owner_id = d.owner_id
+    WHERE NOT EXISTS (
+        SELECT 1 FROM wardrobe_items_partitioned p
+        WHERE p.id = o.id AND p.owner_id = o.owner_id AND p.version = o.version
+    );
+    IF missing > 0 THEN
+        RAISE EXCEPTION 'wardrobe_items_partitioned is missing % rows written during the check', missing;
+    END IF;
+
+    -- a row the backfill copied after the check while its delete was racing it
+    DELETE FROM wardrobe_items_partitioned p
+    USING (SELECT DISTINCT id, owner_id FROM wardrobe_items_swap_log WHERE tx_id >= since) d
+    WHERE p.id = d.id AND p.owner_id = d.owner_id
+      AND NOT EXISTS (SELECT 1 FROM wardrobe_items o WHERE o.id = p.id AND o.owner_id = p.owner_id);
+END $$;
+
+DROP TRIGGER trg_wardrobe_items_mirror ON wardrobe_items;
+DROP FUNCTION wardrobe_items_mirror();
+DROP TABLE wardrobe_items_swap_log;
+
+ALTER TABLE wardrobe_items RENAME TO wardrobe_items_legacy;
+ALTER TABLE wardrobe_items_partitioned RENAME TO wardrobe_items;
+
+-- The id sequence moves with the live table; the legacy table is kept for rollback and dropped in a later release.
+ALTER SEQUENCE wardrobe_items_id_seq OWNED BY wardrobe_items.id;
+ALTER TABLE wardrobe_items_legacy ALTER COLUMN id DROP DEFAULT;
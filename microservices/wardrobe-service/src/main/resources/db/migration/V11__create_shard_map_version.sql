@@ -0,0 +1,9 @@
+-- Sharding bookkeeping: which shard of the owner map this database is and which map version it has served.
+-- Filled on startup by the service when app.sharding.enabled=true; stays empty in an unsharded deployment.
+
+CREATE TABLE IF NOT EXISTS shard_map_version (
+    id INT PRIMARY KEY CHECK (id = 1),
+    shard_index INT NOT NULL,
+    version INT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
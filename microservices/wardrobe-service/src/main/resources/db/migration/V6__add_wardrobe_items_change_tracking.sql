@@ -0,0 +1,9 @@
+-- Change feed support for incremental client sync.
+-- updated_at is bumped on every write, deleted_at marks tombstones instead of physical deletes,
+-- so GET /items/changes can return everything that changed for an owner since a cursor.
+
+ALTER TABLE wardrobe_items ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
+ALTER TABLE wardrobe_items ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMPTZ;
+
+-- Keyset index for the change feed: owner_id = ? AND (updated_at, id) > (?, ?) ORDER BY updated_at, id
+CREATE INDEX IF NOT EXISTS idx_wardrobe_items_owner_changes ON wardrobe_items(owner_id, updated_at, id);
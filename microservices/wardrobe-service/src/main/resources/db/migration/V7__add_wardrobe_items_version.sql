@@ -0,0 +1,8 @@
+-- Optimistic version of a wardrobe item: incremented on every write and used as the strong ETag.
+ALTER TABLE wardrobe_items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Covering index for conditional GET on /items/scroll: the (id, version) list of an owner's page
+-- is read with an index-only scan, without touching the heap rows.
+CREATE INDEX IF NOT EXISTS idx_wardrobe_items_owner_versions
+    ON wardrobe_items(owner_id, id) INCLUDE (version)
+    WHERE deleted_at IS NULL;
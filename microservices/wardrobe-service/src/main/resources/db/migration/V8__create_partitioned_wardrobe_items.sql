@@ -0,0 +1,116 @@
+-- Step 1 of moving wardrobe_items to hash partitioning by owner_id.
+--
+-- The new table is filled while the old one keeps serving traffic:
+--   V8  - partitioned table + trigger that mirrors every write of the old table into it
+--   V9  - batched backfill of existing rows (one commit per batch, can also be run by hand ahead of the deploy)
+--   V10 - short exclusive lock, consistency check and swap of the table names
+--
+-- The primary key has to contain the partition key; id stays first so lookups by id alone
+-- are still one index probe per partition.
+
+CREATE TABLE IF NOT EXISTS wardrobe_items_partitioned (
+    id BIGINT NOT NULL DEFAULT nextval('wardrobe_items_id_seq'),
+    owner_id BIGINT NOT NULL,
+    type VARCHAR(32) NOT NULL,
+    brand VARCHAR(100),
+    color VARCHAR(40),
+    season VARCHAR(16) NOT NULL,
+    image_url VARCHAR(500) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    deleted_at TIMESTAMPTZ,
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, owner_id)
+) PARTITION BY HASH (owner_id);
+
+DO $$
+BEGIN
+    FOR i IN 0..15 LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS wardrobe_items_p%s PARTITION OF wardrobe_items_partitioned
+                 FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+            lpad(i::text, 2, '0'), i);
+    END LOOP;
+END $$;
+
+-- Indexes on the parent are created on every partition. All of them start with owner_id, so an
+-- owner-scoped query prunes to one partition and walks a small per-partition index.
+-- Owner pages and (id, version) lists for conditional GET (index-only scan)
+CREATE INDEX IF NOT EXISTS idx_wardrobe_items_part_owner_versions
+    ON wardrobe_items_partitioned(owner_id, id) INCLUDE (version)
+    WHERE deleted_at IS NULL;
+-- Change feed: owner_id = ? AND (updated_at, id) > (?, ?) ORDER BY updated_at, id
+CREATE INDEX IF NOT EXISTS idx_wardrobe_items_part_owner_changes
+    ON wardrobe_items_partitioned(owner_id, updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_wardrobe_items_part_filter
+    ON wardrobe_items_partitioned(owner_id, type, season, created_at DESC);
+-- type/season/brand/color/created_at single-column indexes are not carried over: no query uses them.
+
+-- Keys written to wardrobe_items_partitioned by the mirror trigger or the backfill, with the writing transaction.
+-- V10 re-checks only these keys under its exclusive lock instead of scanning both tables; dropped by V10.
+CREATE TABLE IF NOT EXISTS wardrobe_items_swap_log (
+    id BIGINT NOT NULL,
+    owner_id BIGINT NOT NULL,
+    tx_id XID8 NOT NULL DEFAULT pg_current_xact_id()
+);
+CREATE INDEX IF NOT EXISTS idx_wardrobe_items_swap_log_tx ON wardrobe_items_swap_log(tx_id);
+
+CREATE OR REPLACE FUNCTION wardrobe_items_mirror() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM wardrobe_items_partitioned WHERE id = OLD.id AND owner_id = OLD.owner_id;
+        INSERT INTO wardrobe_items_swap_log (id, owner_id) VALUES (OLD.id, OLD.owner_id);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO wardrobe_items_swap_log (id, owner_id) VALUES (NEW.id, NEW.owner_id);
+        INSERT INTO wardrobe_items_partitioned
+            (id, owner_id, type, brand, color, season, image_url, created_at, updated_at, deleted_at, version)
+        VALUES
+            (NEW.id, NEW.owner_id, NEW.type, NEW.brand, NEW.color, NEW.season, NEW.image_url,
+             NEW.created_at, NEW.updated_at, NEW.deleted_at, NEW.version)
+        -- the backfill may have copied an older version of the row concurrently
+        ON CONFLICT (id, owner_id) DO UPDATE SET
+            type = EXCLUDED.type,
+            brand = EXCLUDED.brand,
+            color = EXCLUDED.color,
+            season = EXCLUDED.season,
+            image_url = EXCLUDED.image_url,
+            created_at = EXCLUDED.created_at,
+            updated_at = EXCLUDED.updated_at,
+            deleted_at = EXCLUDED.deleted_at,
+            version = EXCLUDED.version;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_wardrobe_items_mirror ON wardrobe_items;
+CREATE TRIGGER trg_wardrobe_items_mirror
+    AFTER INSERT OR UPDATE OR DELETE ON wardrobe_items
+    FOR EACH ROW EXECUTE FUNCTION wardrobe_items_mirror();
+
+-- Copies rows that existed before the trigger, in id order, committing after each batch so locks and
+-- WAL stay small. Safe to re-run: rows already mirrored by the trigger are left untouched.
+CREATE OR REPLACE PROCEDURE wardrobe_items_backfill(batch_size INT DEFAULT 10000) AS $$
+DECLARE
+    last_id BIGINT := 0;
+    max_id BIGINT;
+BEGIN
+    SELECT COALESCE(MAX(id), 0) INTO max_id FROM wardrobe_items;
+    WHILE last_id < max_id LOOP
+        WITH copied AS (
+            INSERT INTO wardrobe_items_partitioned
+                (id, owner_id, type, brand, color, season, image_url, created_at, updated_at, deleted_at, version)
+            SELECT id, owner_id, type, brand, color, season, image_url, created_at, updated_at, deleted_at, version
+            FROM wardrobe_items
+            WHERE id > last_id AND id <= last_id + batch_size
+            ON CONFLICT (id, owner_id) DO NOTHING
+            RETURNING id, owner_id
+        )
+        INSERT INTO wardrobe_items_swap_log (id, owner_id) SELECT id, owner_id FROM copied;
+
+        last_id := last_id + batch_size;
+        COMMIT;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
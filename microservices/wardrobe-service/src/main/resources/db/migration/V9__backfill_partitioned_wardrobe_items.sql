@@ -0,0 +1,4 @@
+-- Step 2: copy existing rows into wardrobe_items_partitioned.
+-- Runs outside a transaction (see the .conf file) so the procedure can commit per batch.
+-- On large tables run CALL wardrobe_items_backfill(); by hand before the deploy; here it then only catches up.
+CALL wardrobe_items_backfill(10000);
@@ -0,0 +1,157 @@
+package com.example.wardrobeservice.client;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserExistenceBatcherTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final UserServiceClient client = mock(UserServiceClient.class);
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UserExistenceBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+    }
+
+    private static Mono<Boolean> existsAs(UserExistenceBatcher batcher, Long id, String token) {
+        Jwt jwt = Jwt.withTokenValue(token).header("alg", "none").claim("userId", "1").build();
+        return batcher.exists(id)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(new JwtAuthenticationToken(jwt)));
+    }
+
+    @Test
+    void exists_shouldResolveConcurrentLookupsWithOneRequest() {
+        batcher = new UserExistenceBatcher(client, circuitBreakerRegistry, meterRegistry, true, TIMEOUT, Duration.ofMillis(50), 100);
+        when(client.findExistingIds(eq("Bearer t1"), anyList())).thenReturn(Mono.just(List.of(1L, 3L)));
+
+        StepVerifier.create(Flux.merge(
+                        existsAs(batcher, 1L, "t1").map(exists -> "1:" + exists),
+                        existsAs(batcher, 2L, "t1").map(exists -> "2:" + exists),
+                        existsAs(batcher, 3L, "t1").map(exists -> "3:" + exists),
+                        existsAs(batcher, 1L, "t1").map(exists -> "1:" + exists))
+                        .collectList())
+                .assertNext(results -> assertThat(results).containsExactlyInAnyOrder("1:true", "2:false", "3:true", "1:true"))
+                .verifyComplete();
+
+        verify(client).findExistingIds("Bearer t1", List.of(1L, 2L, 3L));
+        assertThat(meterRegistry.get("user.lookup.batch.size").summary().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("user.lookup.batch.size").summary().totalAmount()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("user.lookup.queue.delay").timer().count()).isEqualTo(4);
+    }
+
+    @Test
+    void exists_shouldNeverMixTokensInOneRequest() {
+        batcher = new UserExistenceBatcher(client, circuitBreakerRegistry, meterRegistry, true, TIMEOUT, Duration.ofMillis(50), 100);
+        when(client.findExistingIds(eq("Bearer t1"), anyList())).thenReturn(Mono.just(List.of(1L)));
+        when(client.findExistingIds(eq("Bearer t2"), anyList())).thenReturn(Mono.just(List.of(2L)));
+
+        StepVerifier.create(Flux.merge(existsAs(batcher, 1L, "t1"), existsAs(batcher, 2L, "t2")).collectList())
+                .assertNext(results -> assertThat(results).containsExactly(true, true))
+                .verifyComplete();
+
+        verify(client).findExistingIds("Bearer t1", List.of(1L));
+        verify(client).findExistingIds("Bearer t2", List.of(2L));
+    }
+
+    @Test
+    void exists_shouldSendBatchAsSoonAsMaxSizeIsReached() {
+        batcher = new UserExistenceBatcher(client, circuitBreakerRegistry, meterRegistry, true, TIMEOUT, Duration.ofMinutes(1), 2);
+        when(client.findExistingIds(eq("Bearer t1"), anyList())).thenReturn(Mono.just(List.of(1L, 2L)));
+
+        StepVerifier.create(Flux.merge(existsAs(batcher, 1L, "t1"), existsAs(batcher, 2L, "t1")).collectList())
+                .assertNext(results -> assertThat(results).containsExactly(true, true))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void exists_shouldFailEveryWaitingLookup_whenBatchRequestFails() {
+        batcher = new UserExistenceBatcher(client, circuitBreakerRegistry, meterRegistry, true, TIMEOUT, Duration.ofMillis(20), 100);
+        when(client.findExistingIds(anyString(), anyList()))
+                .thenReturn(Mono.error(new IllegalStateException("user-service down")))
+                .thenReturn(Mono.just(List.of(5L)));
+
+        StepVerifier.create(Flux.merge(
+                        existsAs(batcher, 1L, "t1").map(String::valueOf).onErrorResume(ex -> Mono.just(ex.getMessage())),
+                        existsAs(batcher, 2L, "t1").map(String::valueOf).onErrorResume(ex -> Mono.just(ex.getMessage())))
+                        .collectList())
+                .assertNext(results -> assertThat(results).containsExactly("user-service down", "user-service down"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        // circuit breaker видит один неудачный запрос, а не по одному на каждую проверку из пачки
+        assertThat(circuitBreakerRegistry.circuitBreaker("user-service").getMetrics().getNumberOfFailedCalls())
+                .isEqualTo(1);
+
+        // следующий пакет не зависит от упавшего
+        StepVerifier.create(existsAs(batcher, 5L, "t1"))
+                .expectNext(true)
+                .verifyComplete();
+        verify(client, times(2)).findExistingIds(anyString(), anyList());
+    }
+
+    @Test
+    void exists_shouldFailWithTimeout_whenBatchDoesNotAnswerInTime() {
+        batcher = new UserExistenceBatcher(client, circuitBreakerRegistry, meterRegistry, true, Duration.ofMillis(100),
+                Duration.ofMillis(2), 100);
+        when(client.findExistingIds(anyString(), anyList())).thenReturn(Mono.never());
+
+        StepVerifier.create(existsAs(batcher, 1L, "t1"))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void exists_shouldNotSendBatch_whenCircuitBreakerIsOpen() {
+        batcher = new UserExistenceBatcher(client, circuitBreakerRegistry, meterRegistry, true, TIMEOUT, Duration.ofMillis(20), 100);
+        circuitBreakerRegistry.circuitBreaker("user-service").transitionToOpenState();
+        when(client.findExistingIds(anyString(), anyList())).thenReturn(Mono.just(List.of(1L)));
+
+        StepVerifier.create(existsAs(batcher, 1L, "t1"))
+                .expectError(CallNotPermittedException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void exists_shouldCallHeadDirectly_whenBatchingDisabled() {
+        batcher = new UserExistenceBatcher(client, circuitBreakerRegistry, meterRegistry, false, TIMEOUT, Duration.ofMillis(2), 100);
+        when(client.userExists(7L)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(existsAs(batcher, 7L, "t1"))
+                .expectNext(false)
+                .verifyComplete();
+
+        verify(client, never()).findExistingIds(anyString(), anyList());
+        assertThat(circuitBreakerRegistry.circuitBreaker("user-service").getMetrics().getNumberOfSuccessfulCalls())
+                .isEqualTo(1);
+    }
+}
@@ -1,16 +1,24 @@
 package com.example.wardrobeservice.client;
 
+import com.example.wardrobeservice.config.CborConfig;
 import com.example.wardrobeservice.dto.UserDto;
+import com.example.wardrobeservice.dto.UserExistenceRequestDto;
+import com.example.wardrobeservice.dto.UserExistenceResponseDto;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import okio.Buffer;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.io.IOException;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -25,7 +33,10 @@ class UserServiceClientTest {
         mockWebServer.start();
 
         String baseUrl = "http://localhost:" + mockWebServer.getPort();
-        WebClient.Builder webClientBuilder = WebClient.builder().baseUrl(baseUrl);
+        // кодеки как в WebClientConfig: JSON + CBOR
+        WebClient.Builder webClientBuilder = WebClient.builder()
+                .baseUrl(baseUrl)
+                .codecs(new CborConfig().cborCodecCustomizer(new Jackson2ObjectMapperBuilder(), new Jackson2ObjectMapperBuilder().build())::customize);
 
         // prod-конструктор + подменённый base-url
         userServiceClient = new UserServiceClient(webClientBuilder, baseUrl);
@@ -77,4 +88,69 @@ class UserServiceClientTest {
                 .expectError()
                 .verify();
     }
+
+    @Test
+    void userExists_shouldSendHeadAndReturnTrue_when200() throws InterruptedException {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+
+        StepVerifier.create(userServiceClient.userExists(1L))
+                .expectNext(true)
+                .verifyComplete();
+
+        RecordedRequest request = mockWebServer.takeRequest();
+        assertThat(request.getMethod()).isEqualTo("HEAD");
+        assertThat(request.getPath()).isEqualTo("/users/1");
+    }
+
+    @Test
+    void userExists_shouldReturnFalse_when404() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(404));
+
+        StepVerifier.create(userServiceClient.userExists(999L))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void userExists_shouldError_when500() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+
+        StepVerifier.create(userServiceClient.userExists(1L))
+                .expectError()
+                .verify();
+    }
+
+    @Test
+    void findExistingIds_shouldPostIdsWithExplicitAuthorization() throws Exception {
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .addHeader("Content-Type", "application/json")
+                .setBody("{\"existing_ids\":[1,3]}"));
+
+        StepVerifier.create(userServiceClient.findExistingIds("Bearer t", List.of(1L, 2L, 3L)))
+                .expectNext(List.of(1L, 3L))
+                .verifyComplete();
+
+        RecordedRequest request = mockWebServer.takeRequest();
+        assertThat(request.getMethod()).isEqualTo("POST");
+        assertThat(request.getPath()).isEqualTo("/users/exists");
+        assertThat(request.getHeader("Authorization")).isEqualTo("Bearer t");
+        assertThat(request.getHeader("Content-Type")).isEqualTo("application/cbor");
+        assertThat(request.getHeader("Accept")).isEqualTo("application/cbor, application/json");
+        assertThat(new CBORMapper().readValue(request.getBody().readByteArray(), UserExistenceRequestDto.class).ids())
+                .containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void findExistingIds_shouldReadCborResponse() throws IOException {
+        Buffer body = new Buffer().write(new CBORMapper().writeValueAsBytes(new UserExistenceResponseDto(List.of(2L))));
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .addHeader("Content-Type", "application/cbor")
+                .setBody(body));
+
+        StepVerifier.create(userServiceClient.findExistingIds("Bearer t", List.of(1L, 2L)))
+                .expectNext(List.of(2L))
+                .verifyComplete();
+    }
 }
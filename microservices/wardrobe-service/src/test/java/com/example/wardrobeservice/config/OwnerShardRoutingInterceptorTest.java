@@ -0,0 +1,73 @@
+package com.example.wardrobeservice.config;
+
+import com.example.wardrobeservice.entity.WardrobeItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+class OwnerShardRoutingInterceptorTest {
+
+    interface ShardProbe {
+        Mono<String> byOwner(@Param("id") Long id, @Param("ownerId") Long ownerId);
+
+        Flux<String> byItem(WardrobeItem item);
+
+        Mono<String> byId(@Param("id") Long id);
+    }
+
+    static class ContextShardProbe implements ShardProbe {
+        private static Mono<String> shard() {
+            return Mono.deferContextual(ctx -> Mono.just(ctx.getOrDefault(ShardRouter.CONTEXT_KEY, "none")));
+        }
+
+        @Override
+        public Mono<String> byOwner(Long id, Long ownerId) {
+            return shard();
+        }
+
+        @Override
+        public Flux<String> byItem(WardrobeItem item) {
+            return shard().flux();
+        }
+
+        @Override
+        public Mono<String> byId(Long id) {
+            return shard();
+        }
+    }
+
+    private final ShardProbe probe = proxy(new ShardRouter(ShardMap.of(new ShardingProperties(true, 1, 2, 64, List.of(
+            new ShardingProperties.Shard("even", null, null, null, null, "0", null),
+            new ShardingProperties.Shard("odd", null, null, null, null, "1", null))))));
+
+    private static ShardProbe proxy(ShardRouter router) {
+        ProxyFactory factory = new ProxyFactory(new ContextShardProbe());
+        factory.addInterface(ShardProbe.class);
+        factory.addAdvice(new OwnerShardRoutingInterceptor(router));
+        return (ShardProbe) factory.getProxy();
+    }
+
+    @Test
+    void invoke_shouldRouteByOwnerIdParameter() {
+        StepVerifier.create(probe.byOwner(1L, 4L)).expectNext("even").verifyComplete();
+        StepVerifier.create(probe.byOwner(4L, 1L)).expectNext("odd").verifyComplete();
+    }
+
+    @Test
+    void invoke_shouldRouteByEntityOwner() {
+        StepVerifier.create(probe.byItem(WardrobeItem.builder().ownerId(3L).build())).expectNext("odd").verifyComplete();
+    }
+
+    @Test
+    void invoke_shouldLeaveCallsWithoutOwnerToCallersContext() {
+        StepVerifier.create(probe.byId(1L)).expectNext("none").verifyComplete();
+        StepVerifier.create(probe.byId(1L).contextWrite(ctx -> ctx.put(ShardRouter.CONTEXT_KEY, "even")))
+                .expectNext("even")
+                .verifyComplete();
+    }
+}
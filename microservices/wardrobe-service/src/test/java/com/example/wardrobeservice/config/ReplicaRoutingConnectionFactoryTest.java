@@ -0,0 +1,88 @@
+package com.example.wardrobeservice.config;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingConnectionFactoryTest {
+
+    @Mock
+    private ConnectionFactory primary;
+
+    @Mock
+    private ConnectionFactory replicaA;
+
+    @Mock
+    private ConnectionFactory replicaB;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaAConnection;
+
+    @Mock
+    private Connection replicaBConnection;
+
+    private final AtomicLong now = new AtomicLong();
+    private ReplicaRoutingConnectionFactory routing;
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReplicaRoutingConnectionFactory(primary, List.of(replicaA, replicaB), Duration.ofSeconds(5), now::get);
+    }
+
+    private Mono<Connection> create(ReadRoute route) {
+        return routing.create().contextWrite(ctx -> ctx.put(ReadRoute.CONTEXT_KEY, route));
+    }
+
+    @Test
+    void create_shouldUsePrimary_withoutRouteInContext() {
+        doReturn(Mono.just(primaryConnection)).when(primary).create();
+
+        StepVerifier.create(routing.create()).expectNext(primaryConnection).verifyComplete();
+        StepVerifier.create(create(ReadRoute.PRIMARY)).expectNext(primaryConnection).verifyComplete();
+        verifyNoInteractions(replicaA, replicaB);
+    }
+
+    @Test
+    void create_shouldRoundRobinReplicas_forReplicaReads() {
+        doReturn(Mono.just(replicaAConnection)).when(replicaA).create();
+        doReturn(Mono.just(replicaBConnection)).when(replicaB).create();
+
+        StepVerifier.create(create(ReadRoute.REPLICA)).expectNext(replicaAConnection).verifyComplete();
+        StepVerifier.create(create(ReadRoute.REPLICA)).expectNext(replicaBConnection).verifyComplete();
+        StepVerifier.create(create(ReadRoute.REPLICA)).expectNext(replicaAConnection).verifyComplete();
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void create_shouldFallBackToPrimary_andSkipFailedReplicaUntilRetryAfter() {
+        doReturn(Mono.error(new IllegalStateException("connection refused"))).when(replicaA).create();
+        doReturn(Mono.just(replicaBConnection)).when(replicaB).create();
+        doReturn(Mono.just(primaryConnection)).when(primary).create();
+
+        StepVerifier.create(create(ReadRoute.REPLICA)).expectNext(primaryConnection).verifyComplete();
+        StepVerifier.create(create(ReadRoute.REPLICA)).expectNext(replicaBConnection).verifyComplete();
+        StepVerifier.create(create(ReadRoute.REPLICA)).expectNext(replicaBConnection).verifyComplete();
+        verify(replicaA, times(1)).create();
+
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+        StepVerifier.create(create(ReadRoute.REPLICA)).expectNext(replicaBConnection).verifyComplete();
+        StepVerifier.create(create(ReadRoute.REPLICA)).expectNext(primaryConnection).verifyComplete();
+        verify(replicaA, times(2)).create();
+    }
+}
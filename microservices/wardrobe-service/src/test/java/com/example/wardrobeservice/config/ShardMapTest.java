@@ -0,0 +1,51 @@
+package com.example.wardrobeservice.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardMapTest {
+
+    private static ShardingProperties properties(int bucketCount, String... buckets) {
+        List<ShardingProperties.Shard> shards = new ArrayList<>();
+        for (int i = 0; i < buckets.length; i++) {
+            shards.add(new ShardingProperties.Shard("shard-" + i, null, null, null, null, buckets[i], null));
+        }
+        return new ShardingProperties(true, 3, bucketCount, 64, shards);
+    }
+
+    @Test
+    void of_shouldMapOwnersThroughBuckets() {
+        ShardMap map = ShardMap.of(properties(8, "0-3", "4-5,7", "6"));
+
+        assertThat(map.version()).isEqualTo(3);
+        assertThat(map.shardFor(2)).isEqualTo("shard-0");
+        assertThat(map.shardFor(13)).isEqualTo("shard-1");  // bucket 5
+        assertThat(map.shardFor(15)).isEqualTo("shard-1");  // bucket 7
+        assertThat(map.shardFor(14)).isEqualTo("shard-2");  // bucket 6
+        assertThat(map.shardFor(-1)).isEqualTo("shard-1");  // floorMod: bucket 7
+        assertThat(map.bucketsLiteral(1)).isEqualTo("{4,5,7}");
+    }
+
+    @Test
+    void of_shouldRejectUnassignedOverlappingAndOutOfRangeBuckets() {
+        assertThatThrownBy(() -> ShardMap.of(properties(8, "0-3", "5-7")))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Bucket 4");
+        assertThatThrownBy(() -> ShardMap.of(properties(8, "0-4", "4-7")))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("more than one shard");
+        assertThatThrownBy(() -> ShardMap.of(properties(8, "0-3", "4-8")))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Invalid bucket range");
+    }
+
+    @Test
+    void single_shouldPutEveryOwnerOnOneShard() {
+        ShardMap map = ShardMap.single();
+
+        assertThat(map.shardIds()).containsExactly("default");
+        assertThat(map.shardFor(12345)).isEqualTo("default");
+    }
+}
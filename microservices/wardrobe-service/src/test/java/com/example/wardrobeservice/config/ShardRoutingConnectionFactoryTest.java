@@ -0,0 +1,80 @@
+package com.example.wardrobeservice.config;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShardRoutingConnectionFactoryTest {
+
+    @Mock
+    private ConnectionFactory shardA;
+
+    @Mock
+    private ConnectionFactory shardB;
+
+    @Mock
+    private Connection connectionA;
+
+    @Mock
+    private Connection connectionB;
+
+    private ShardRouter router;
+    private ShardRoutingConnectionFactory routing;
+
+    @BeforeEach
+    void setUp() {
+        router = new ShardRouter(ShardMap.of(new ShardingProperties(true, 1, 4, 64, List.of(
+                new ShardingProperties.Shard("a", null, null, null, null, "0-1", null),
+                new ShardingProperties.Shard("b", null, null, null, null, "2-3", null)))));
+        Map<String, ConnectionFactory> shards = new LinkedHashMap<>();
+        shards.put("a", shardA);
+        shards.put("b", shardB);
+        routing = new ShardRoutingConnectionFactory(shards, List.of());
+    }
+
+    @Test
+    void create_shouldUseOwnersShard() {
+        doReturn(Mono.just(connectionA)).when(shardA).create();
+        doReturn(Mono.just(connectionB)).when(shardB).create();
+
+        StepVerifier.create(routing.create().contextWrite(router.contextFor(5L))).expectNext(connectionA).verifyComplete();
+        StepVerifier.create(routing.create().contextWrite(router.contextFor(6L))).expectNext(connectionB).verifyComplete();
+    }
+
+    @Test
+    void create_shouldFail_withoutShardInContext() {
+        StepVerifier.create(routing.create()).expectError(IllegalStateException.class).verify();
+        verifyNoInteractions(shardA, shardB);
+    }
+
+    @Test
+    void mergeSorted_shouldQueryEveryShardAndMergeInOrder() {
+        Flux<Integer> merged = router.mergeSorted(() -> Flux.deferContextual(ctx ->
+                "a".equals(ctx.get(ShardRouter.CONTEXT_KEY)) ? Flux.just(1, 4, 9) : Flux.just(2, 3, 10)), Integer::compare);
+
+        StepVerifier.create(merged.take(4)).expectNext(1, 2, 3, 4).verifyComplete();
+    }
+
+    @Test
+    void findFirstAndSum_shouldCoverEveryShard() {
+        StepVerifier.create(router.findFirst(() -> Mono.deferContextual(ctx ->
+                        "b".equals(ctx.get(ShardRouter.CONTEXT_KEY)) ? Mono.just("found") : Mono.empty())))
+                .expectNext("found")
+                .verifyComplete();
+        StepVerifier.create(router.sum(() -> Mono.just(3L))).expectNext(6L).verifyComplete();
+    }
+}
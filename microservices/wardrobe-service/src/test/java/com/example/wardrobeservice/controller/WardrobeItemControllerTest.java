@@ -1,25 +1,37 @@
 package com.example.wardrobeservice.controller;
 
+import com.example.wardrobeservice.dto.WardrobeItemChangeDto;
+import com.example.wardrobeservice.dto.WardrobeItemEventDto;
+import com.example.wardrobeservice.dto.WardrobeItemEventType;
 import com.example.wardrobeservice.dto.WardrobeItemResponseDto;
 import com.example.wardrobeservice.entity.enums.ItemType;
 import com.example.wardrobeservice.entity.enums.Season;
 import com.example.wardrobeservice.service.PagedResult;
+import com.example.wardrobeservice.service.Tagged;
 import com.example.wardrobeservice.service.WardrobeItemService;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.time.Instant;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockJwt;
 
@@ -46,21 +58,109 @@ class WardrobeItemControllerTest {
                 10L
         );
 
-        when(itemService.getById(1L)).thenReturn(Mono.just(dto));
+        when(itemService.getItemETag(1L)).thenReturn(Mono.just("\"item-1-v3\""));
+        when(itemService.getById(1L)).thenReturn(Mono.just(new Tagged<>(dto, "\"item-1-v3\"")));
 
         webTestClient.mutateWith(mockJwt())
                 .get().uri("/items/1")
                 .exchange()
                 .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"item-1-v3\"")
+                .expectHeader().valueEquals("Cache-Control", "no-cache, private")
                 .expectBody()
                 .jsonPath("$.id").isEqualTo(1)
                 .jsonPath("$.type").isEqualTo("SHIRT")
                 .jsonPath("$.owner_id").isEqualTo(10);
     }
 
+    @Test
+    void getById_shouldReturn304_whenETagMatches_withoutLoadingItem() {
+        when(itemService.getItemETag(1L)).thenReturn(Mono.just("\"item-1-v3\""));
+
+        webTestClient.mutateWith(mockJwt())
+                .get().uri("/items/1")
+                .header("If-None-Match", "\"item-1-v3\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals("ETag", "\"item-1-v3\"")
+                .expectBody().isEmpty();
+
+        verify(itemService, never()).getById(any());
+    }
+
+    @Test
+    void getById_shouldReturnCborWithItsOwnETag_whenPreferredByClient() throws Exception {
+        WardrobeItemResponseDto dto = new WardrobeItemResponseDto(
+                1L, ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "img.jpg", 10L
+        );
+        when(itemService.getItemETag(1L)).thenReturn(Mono.just("\"item-1-v3\""));
+        when(itemService.getById(1L)).thenReturn(Mono.just(new Tagged<>(dto, "\"item-1-v3\"")));
+
+        byte[] body = webTestClient.mutateWith(mockJwt())
+                .get().uri("/items/1")
+                .accept(MediaType.APPLICATION_CBOR, MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectHeader().valueEquals("ETag", "\"item-1-v3-cbor\"")
+                .expectHeader().valueEquals("Vary", "Accept")
+                .expectBody(byte[].class).returnResult().getResponseBody();
+
+        assertThat(new CBORMapper().readValue(body, WardrobeItemResponseDto.class)).isEqualTo(dto);
+    }
+
+    @Test
+    void getById_shouldNotReturn304ForCbor_whenIfNoneMatchHoldsJsonETag() {
+        WardrobeItemResponseDto dto = new WardrobeItemResponseDto(
+                1L, ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "img.jpg", 10L
+        );
+        when(itemService.getItemETag(1L)).thenReturn(Mono.just("\"item-1-v3\""));
+        when(itemService.getById(1L)).thenReturn(Mono.just(new Tagged<>(dto, "\"item-1-v3\"")));
+
+        webTestClient.mutateWith(mockJwt())
+                .get().uri("/items/1")
+                .accept(MediaType.APPLICATION_CBOR)
+                .header("If-None-Match", "\"item-1-v3\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"item-1-v3-cbor\"");
+    }
+
+    @Test
+    void getById_shouldTagBodyWithVersionOfLoadedRow_whenVersionLookupSawAnotherReplica() {
+        WardrobeItemResponseDto dto = new WardrobeItemResponseDto(
+                1L, ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "img.jpg", 10L
+        );
+        // проверка версии увидела v4, а строка прочитана с отстающей реплики в версии v3
+        when(itemService.getItemETag(1L)).thenReturn(Mono.just("\"item-1-v4\""));
+        when(itemService.getById(1L)).thenReturn(Mono.just(new Tagged<>(dto, "\"item-1-v3\"")));
+
+        webTestClient.mutateWith(mockJwt())
+                .get().uri("/items/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"item-1-v3\"");
+    }
+
+    @Test
+    void getInfiniteScroll_shouldTagPageWithVersionsOfLoadedRows() {
+        WardrobeItemResponseDto dto = new WardrobeItemResponseDto(
+                1L, ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "img.jpg", 10L
+        );
+        when(itemService.getInfiniteScrollETag(null, 0, 10)).thenReturn(Mono.just("\"items-new\""));
+        when(itemService.getInfiniteScroll(null, 0, 10)).thenReturn(Mono.just(new Tagged<>(List.of(dto), "\"items-old\"")));
+
+        webTestClient.mutateWith(mockJwt())
+                .get().uri("/items/scroll?offset=0&limit=10")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"items-old-cbor\"");
+    }
+
     @Test
     void getById_shouldReturn404_whenNotFound() {
-        when(itemService.getById(999L)).thenReturn(Mono.empty());
+        when(itemService.getItemETag(999L)).thenReturn(Mono.empty());
 
         webTestClient.mutateWith(mockJwt())
                 .get().uri("/items/999")
@@ -85,20 +185,99 @@ class WardrobeItemControllerTest {
     }
 
     @Test
-    void getInfiniteScroll_shouldReturnFlux() {
+    void getInfiniteScroll_shouldReturnPageWithETag() {
         WardrobeItemResponseDto dto = new WardrobeItemResponseDto(
                 1L, ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "img.jpg", 10L
         );
-        when(itemService.getInfiniteScroll(0, 10)).thenReturn(Flux.just(dto));
+        when(itemService.getInfiniteScrollETag(null, 0, 10)).thenReturn(Mono.just("\"items-abc\""));
+        when(itemService.getInfiniteScroll(null, 0, 10)).thenReturn(Mono.just(new Tagged<>(List.of(dto), "\"items-abc\"")));
 
         webTestClient.mutateWith(mockJwt())
                 .get().uri("/items/scroll?offset=0&limit=10")
                 .exchange()
                 .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"items-abc\"")
                 .expectBody()
                 .jsonPath("$[0].id").isEqualTo(1);
     }
 
+    @Test
+    void getInfiniteScroll_shouldReturnCborArray_whenPreferredByClient() throws Exception {
+        WardrobeItemResponseDto dto = new WardrobeItemResponseDto(
+                1L, ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "img.jpg", 10L
+        );
+        when(itemService.getInfiniteScrollETag(null, 0, 10)).thenReturn(Mono.just("\"items-abc\""));
+        when(itemService.getInfiniteScroll(null, 0, 10)).thenReturn(Mono.just(new Tagged<>(List.of(dto, dto), "\"items-abc\"")));
+
+        byte[] body = webTestClient.mutateWith(mockJwt())
+                .get().uri("/items/scroll?offset=0&limit=10")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectHeader().valueEquals("ETag", "\"items-abc-cbor\"")
+                .expectBody(byte[].class).returnResult().getResponseBody();
+
+        assertThat(new CBORMapper().readValue(body, WardrobeItemResponseDto[].class)).containsExactly(dto, dto);
+    }
+
+    @Test
+    void getInfiniteScroll_shouldReturn304_whenPageUnchanged() {
+        when(itemService.getInfiniteScrollETag(null, 0, 10)).thenReturn(Mono.just("\"items-abc\""));
+
+        webTestClient.mutateWith(mockJwt())
+                .get().uri("/items/scroll?offset=0&limit=10")
+                .header("If-None-Match", "\"items-abc\"")
+                .exchange()
+                .expectStatus().isNotModified();
+
+        verify(itemService, never()).getInfiniteScroll(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getChanges_shouldStreamChangesAsNdjson() {
+        WardrobeItemResponseDto dto = new WardrobeItemResponseDto(
+                1L, ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "img.jpg", 10L
+        );
+        Instant updatedAt = Instant.parse("2024-05-01T10:00:00Z");
+        when(itemService.getChanges("abc", 500)).thenReturn(Flux.just(
+                new WardrobeItemChangeDto(1L, false, updatedAt, dto, "c1"),
+                new WardrobeItemChangeDto(2L, true, updatedAt, null, "c2")
+        ));
+
+        Flux<WardrobeItemChangeDto> body = webTestClient.mutateWith(mockJwt())
+                .get().uri("/items/changes?since=abc")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(WardrobeItemChangeDto.class)
+                .getResponseBody();
+
+        StepVerifier.create(body)
+                .assertNext(change -> assertThat(change.item().id()).isEqualTo(1L))
+                .assertNext(change -> assertThat(change.deleted()).isTrue())
+                .verifyComplete();
+    }
+
+    @Test
+    void streamChanges_shouldReturnEventStream() {
+        WardrobeItemResponseDto dto = new WardrobeItemResponseDto(
+                1L, ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "img.jpg", 10L
+        );
+        WardrobeItemEventDto event = new WardrobeItemEventDto(WardrobeItemEventType.CREATED, 1L, Instant.now(), dto);
+        when(itemService.streamChanges()).thenReturn(Flux.just(ServerSentEvent.builder(event).event("CREATED").build()));
+
+        webTestClient.mutateWith(mockJwt())
+                .get().uri("/items/events")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                .expectBody(String.class)
+                .value(body -> assertThat(body).contains("event:CREATED").contains("\"owner_id\":10"));
+    }
+
     @Test
     void create_shouldReturn201() {
         WardrobeItemResponseDto created = new WardrobeItemResponseDto(
@@ -1,6 +1,10 @@
 package com.example.wardrobeservice.exception;
 
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import reactor.test.StepVerifier;
@@ -28,6 +32,24 @@ class GlobalExceptionHandlerTest {
                 .verifyComplete();
     }
 
+    @Test
+    void handleBulkheadFullException_shouldReturn503WithRetryAfter() {
+        // Given
+        BulkheadFullException exception = BulkheadFullException.createBulkheadFullException(Bulkhead.ofDefaults("user-service"));
+
+        // When
+        var responseMono = handler.handleBulkheadFullException(exception);
+
+        // Then
+        StepVerifier.create(responseMono)
+                .assertNext(response -> {
+                    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                    assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+                    assertThat(response.getBody()).contains("user-service");
+                })
+                .verifyComplete();
+    }
+
     @Test
     void handleIllegalArgumentException_shouldReturn400() {
         // Given
@@ -45,6 +67,16 @@ class GlobalExceptionHandlerTest {
                 .verifyComplete();
     }
 
+    @Test
+    void handleOptimisticLockingFailure_shouldReturn409() {
+        var responseMono = handler.handleOptimisticLockingFailure(
+                new OptimisticLockingFailureException("Failed to update table [wardrobe_items]; Version does not match"));
+
+        StepVerifier.create(responseMono)
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT))
+                .verifyComplete();
+    }
+
     @Test
     void handleGenericException_shouldReturn500() {
         // Given
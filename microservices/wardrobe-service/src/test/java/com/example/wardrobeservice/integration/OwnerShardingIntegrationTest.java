@@ -0,0 +1,157 @@
+package com.example.wardrobeservice.integration;
+
+import com.example.wardrobeservice.config.ReplicaR2dbcProperties;
+import com.example.wardrobeservice.config.ShardMap;
+import com.example.wardrobeservice.config.ShardRouter;
+import com.example.wardrobeservice.config.ShardRoutingConnectionFactory;
+import com.example.wardrobeservice.config.ShardedConnectionFactoryConfig;
+import com.example.wardrobeservice.config.ShardingProperties;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two shards in separate Postgres containers: Flyway and bootstrap on each shard, owner routing
+ * and the keyset scatter-gather used by supervisor listings.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class OwnerShardingIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> shard0 = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("wardrobe_db").withUsername("wardrobe").withPassword("wardrobe");
+
+    @Container
+    static PostgreSQLContainer<?> shard1 = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("wardrobe_db").withUsername("wardrobe").withPassword("wardrobe");
+
+    private ShardingProperties sharding;
+    private ShardRouter router;
+    private ShardRoutingConnectionFactory routing;
+    private DatabaseClient client;
+
+    @BeforeEach
+    void setUp() {
+        sharding = properties(1);
+        router = new ShardRouter(ShardMap.of(sharding));
+        ShardedConnectionFactoryConfig config = new ShardedConnectionFactoryConfig();
+        config.shardedFlywayMigrationStrategy(sharding, defaults(), router).migrate(baseFlyway());
+        routing = config.connectionFactory(sharding, defaults(),
+                new ReplicaR2dbcProperties(false, null, null, null, 4, Duration.ofSeconds(2), Duration.ofSeconds(5)));
+        client = DatabaseClient.create(routing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        routing.destroy();
+    }
+
+    @Test
+    void bootstrap_shouldSplitSeedByOwner_andInterleaveIds() {
+        Long onShard0 = count("even");
+        Long onShard1 = count("odd");
+        assertThat(onShard0 + onShard1).isEqualTo(300);
+        assertThat(client.sql("SELECT COUNT(*) FROM wardrobe_items WHERE mod(owner_id, 2) <> 0")
+                .map(row -> row.get(0, Long.class)).one().contextWrite(router.contextFor(2L)).block()).isZero();
+
+        Long evenId = insert(2L);
+        Long oddId = insert(3L);
+        assertThat(evenId % 64).isZero();
+        assertThat(oddId % 64).isEqualTo(1);
+
+        // an odd owner's seed-range row on the even shard, e.g. waiting to be copied after a bucket move
+        client.sql("INSERT INTO wardrobe_items (id, owner_id, type, season, image_url) VALUES (7, 3, 'SHIRT', 'WINTER', 'x.jpg')")
+                .then()
+                .contextWrite(ctx -> ctx.put(ShardRouter.CONTEXT_KEY, "even"))
+                .block();
+
+        // a second start must not move the sequences again and must not delete anything
+        new ShardedConnectionFactoryConfig().shardedFlywayMigrationStrategy(sharding, defaults(), router)
+                .migrate(baseFlyway());
+        assertThat(insert(2L)).isEqualTo(evenId + 64);
+        assertThat(count("even")).isEqualTo(onShard0 + 3);
+    }
+
+    @Test
+    void mergeSorted_shouldReturnGlobalKeysetPage() {
+        List<Long> ids = router.mergeSorted(() -> client
+                                .sql("SELECT id FROM wardrobe_items WHERE id > :afterId AND deleted_at IS NULL ORDER BY id LIMIT :limit")
+                                .bind("afterId", 10L)
+                                .bind("limit", 6)
+                                .map(row -> row.get("id", Long.class))
+                                .all(),
+                        Long::compare)
+                .take(6)
+                .collectList()
+                .block();
+
+        assertThat(ids).containsExactly(11L, 12L, 13L, 14L, 15L, 16L);
+    }
+
+    @Test
+    void bootstrap_shouldRefuseOlderShardMap() {
+        ShardingProperties older = properties(0);
+        ShardedConnectionFactoryConfig config = new ShardedConnectionFactoryConfig();
+
+        assertThatThrownBy(() -> config.shardedFlywayMigrationStrategy(older, defaults(), new ShardRouter(ShardMap.of(older)))
+                .migrate(baseFlyway()))
+                .hasMessageContaining("already serves shard map v1");
+    }
+
+    private Long count(String shard) {
+        return client.sql("SELECT COUNT(*) FROM wardrobe_items")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .contextWrite(ctx -> ctx.put(ShardRouter.CONTEXT_KEY, shard))
+                .block();
+    }
+
+    private Long insert(long ownerId) {
+        return client.sql("INSERT INTO wardrobe_items (owner_id, type, season, image_url) VALUES (:ownerId, 'SHIRT', 'WINTER', 'x.jpg') RETURNING id")
+                .bind("ownerId", ownerId)
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .contextWrite(router.contextFor(ownerId))
+                .block();
+    }
+
+    /**
+     * Owners are split by parity: seed owners 1..100 land on both shards.
+     */
+    private static ShardingProperties properties(int version) {
+        return new ShardingProperties(true, version, 2, 64, List.of(
+                shard("even", shard0, "0"),
+                shard("odd", shard1, "1")));
+    }
+
+    private static ShardingProperties.Shard shard(String id, PostgreSQLContainer<?> container, String buckets) {
+        String r2dbcUrl = "r2dbc:postgresql://" + container.getHost() + ":" + container.getMappedPort(5432) + "/"
+                + container.getDatabaseName();
+        return new ShardingProperties.Shard(id, r2dbcUrl, container.getJdbcUrl(), null, null, buckets, null);
+    }
+
+    private static R2dbcProperties defaults() {
+        R2dbcProperties defaults = new R2dbcProperties();
+        defaults.setUsername("wardrobe");
+        defaults.setPassword("wardrobe");
+        return defaults;
+    }
+
+    private static Flyway baseFlyway() {
+        return Flyway.configure()
+                .dataSource(shard0.getJdbcUrl(), shard0.getUsername(), shard0.getPassword())
+                .load();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.wardrobeservice.integration;
+
+import com.example.wardrobeservice.config.ReadReplicaConnectionFactoryConfig;
+import com.example.wardrobeservice.config.ReadRoute;
+import com.example.wardrobeservice.config.ReplicaR2dbcProperties;
+import com.example.wardrobeservice.config.ReplicaRoutingConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Routing against a real primary + streaming replica pair: replica reads see pg_is_in_recovery() = true.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SuppressWarnings("resource")
+class ReplicaRoutingIntegrationTest {
+
+    private static final Network NETWORK = Network.newNetwork();
+
+    @Container
+    static GenericContainer<?> primary = new GenericContainer<>("bitnami/postgresql:16")
+            .withNetwork(NETWORK)
+            .withNetworkAliases("pg-primary")
+            .withEnv("POSTGRESQL_REPLICATION_MODE", "master")
+            .withEnv("POSTGRESQL_REPLICATION_USER", "repl")
+            .withEnv("POSTGRESQL_REPLICATION_PASSWORD", "repl")
+            .withEnv("POSTGRESQL_USERNAME", "wardrobe")
+            .withEnv("POSTGRESQL_PASSWORD", "wardrobe")
+            .withEnv("POSTGRESQL_DATABASE", "wardrobe_db")
+            .withExposedPorts(5432)
+            .waitingFor(Wait.forLogMessage(".*database system is ready to accept connections.*", 1));
+
+    @Container
+    static GenericContainer<?> replica = new GenericContainer<>("bitnami/postgresql:16")
+            .withNetwork(NETWORK)
+            .dependsOn(primary)
+            .withEnv("POSTGRESQL_REPLICATION_MODE", "slave")
+            .withEnv("POSTGRESQL_REPLICATION_USER", "repl")
+            .withEnv("POSTGRESQL_REPLICATION_PASSWORD", "repl")
+            .withEnv("POSTGRESQL_MASTER_HOST", "pg-primary")
+            .withEnv("POSTGRESQL_MASTER_PORT_NUMBER", "5432")
+            .withEnv("POSTGRESQL_PASSWORD", "wardrobe")
+            .withExposedPorts(5432)
+            .waitingFor(Wait.forLogMessage(".*database system is ready to accept read.only connections.*", 1));
+
+    private ConnectionPool primaryPool;
+    private ReplicaRoutingConnectionFactory routing;
+    private DatabaseClient client;
+
+    @BeforeEach
+    void setUp() {
+        R2dbcProperties properties = new R2dbcProperties();
+        properties.setUrl(r2dbcUrl(primary));
+        properties.setUsername("wardrobe");
+        properties.setPassword("wardrobe");
+        ReplicaR2dbcProperties replicaProperties = new ReplicaR2dbcProperties(
+                true, List.of(r2dbcUrl(replica)), null, null, 4, Duration.ofSeconds(2), Duration.ofSeconds(5));
+
+        ReadReplicaConnectionFactoryConfig config = new ReadReplicaConnectionFactoryConfig();
+        primaryPool = config.primaryConnectionFactory(properties);
+        routing = config.connectionFactory(primaryPool, properties, replicaProperties);
+        client = DatabaseClient.create(routing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        routing.destroy();
+        primaryPool.dispose();
+    }
+
+    private static String r2dbcUrl(GenericContainer<?> container) {
+        return "r2dbc:postgresql://" + container.getHost() + ":" + container.getMappedPort(5432) + "/wardrobe_db";
+    }
+
+    private Mono<Boolean> inRecovery(ReadRoute route) {
+        return client.sql("SELECT pg_is_in_recovery()")
+                .map(row -> row.get(0, Boolean.class))
+                .one()
+                .contextWrite(ctx -> ctx.put(ReadRoute.CONTEXT_KEY, route));
+    }
+
+    @Test
+    void replicaReads_shouldRunOnReplica_andEverythingElseOnPrimary() {
+        StepVerifier.create(inRecovery(ReadRoute.REPLICA)).expectNext(true).verifyComplete();
+        StepVerifier.create(inRecovery(ReadRoute.PRIMARY)).expectNext(false).verifyComplete();
+        StepVerifier.create(client.sql("SELECT pg_is_in_recovery()").map(row -> row.get(0, Boolean.class)).one())
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void replicaReads_shouldFallBackToPrimary_whenReplicaIsDown() {
+        replica.getDockerClient().pauseContainerCmd(replica.getContainerId()).exec();
+        try {
+            StepVerifier.create(inRecovery(ReadRoute.REPLICA))
+                    .expectNext(false)
+                    .verifyComplete();
+        } finally {
+            replica.getDockerClient().unpauseContainerCmd(replica.getContainerId()).exec();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.wardrobeservice.integration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Migration of wardrobe_items to hash partitioning: writes made between V8 and V10 reach the new table,
+ * V10 reconciles both directions before the swap, and owner-scoped queries of WardrobeItemRepository
+ * are pruned to a single partition.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class WardrobeItemsPartitioningIntegrationTest {
+
+    private static final Pattern PARTITION = Pattern.compile("\"Relation Name\": \"(wardrobe_items_p\\d+)\"");
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("wardrobe_test")
+            .withUsername("wardrobe")
+            .withPassword("wardrobe");
+
+    @BeforeEach
+    void cleanDatabase() {
+        flyway(null).clean();
+    }
+
+    @Test
+    void migration_shouldKeepConcurrentWrites_andPruneOwnerScopedQueries() throws SQLException {
+        flyway("8").migrate();
+        try (Connection connection = connection(); Statement st = connection.createStatement()) {
+            // writes to the old table while the new one is being filled
+            st.execute("UPDATE wardrobe_items SET brand = 'moved', owner_id = 7, version = version + 1 WHERE id = 1");
+            st.execute("INSERT INTO wardrobe_items (owner_id, type, season, image_url) VALUES (42, 'SHIRT', 'WINTER', 'new.jpg')");
+            // V10 re-checks under its lock only the keys logged here: old and new owner of item 1, the new item
+            assertThat(queryLong(st, "SELECT COUNT(DISTINCT (id, owner_id)) FROM wardrobe_items_swap_log")).isEqualTo(3);
+        }
+
+        flyway(null).migrate();
+
+        try (Connection connection = connection(); Statement st = connection.createStatement()) {
+            assertThat(queryString(st, "SELECT relkind::text FROM pg_class WHERE relname = 'wardrobe_items'")).isEqualTo("p");
+            assertThat(queryString(st, "SELECT to_regclass('wardrobe_items_swap_log') IS NULL")).isEqualTo("t");
+            assertThat(queryLong(st, "SELECT COUNT(*) FROM wardrobe_items")).isEqualTo(301);
+            assertThat(queryString(st, "SELECT brand FROM wardrobe_items WHERE id = 1 AND owner_id = 7")).isEqualTo("moved");
+            assertThat(queryLong(st, "SELECT COUNT(*) FROM wardrobe_items WHERE owner_id = 42 AND image_url = 'new.jpg'")).isEqualTo(1);
+
+            // synthetic load: 200k items over 5k owners
+            st.execute("""
+                    INSERT INTO wardrobe_items (owner_id, type, season, image_url)
+                    SELECT (gs % 5000) + 1, 'SHIRT', 'WINTER', 'https://img.example.com/' || gs || '.jpg'
+                    FROM generate_series(1, 200000) AS gs
+                    """);
+            st.execute("ANALYZE wardrobe_items");
+
+            long newId = queryLong(st, "SELECT MAX(id) FROM wardrobe_items");
+            assertThat(newId).isGreaterThan(300);
+
+            assertSinglePartition(st, "SELECT * FROM wardrobe_items WHERE owner_id = 42 AND deleted_at IS NULL ORDER BY id LIMIT 20 OFFSET 0");
+            assertSinglePartition(st, "SELECT COUNT(*) FROM wardrobe_items WHERE owner_id = 42 AND deleted_at IS NULL");
+            assertSinglePartition(st, "SELECT id, owner_id, version FROM wardrobe_items WHERE owner_id = 42 AND deleted_at IS NULL ORDER BY id LIMIT 20 OFFSET 0");
+            assertSinglePartition(st, "SELECT * FROM wardrobe_items WHERE id = 1 AND owner_id = 7 AND deleted_at IS NULL");
+            assertSinglePartition(st, """
+                    SELECT * FROM wardrobe_items WHERE owner_id = 42
+                      AND (updated_at, id) > ('1970-01-01T00:00:00Z'::timestamptz, 0) AND updated_at <= now()
+                    ORDER BY updated_at, id LIMIT 100
+                    """);
+
+            // generic plans (prepared statements after a few executions) are pruned at executor startup
+            st.execute("SET plan_cache_mode = force_generic_plan");
+            st.execute("PREPARE owner_page(bigint) AS SELECT * FROM wardrobe_items WHERE owner_id = $1 AND deleted_at IS NULL ORDER BY id LIMIT 20");
+            String plan = explain(st, "EXPLAIN (ANALYZE, FORMAT JSON) EXECUTE owner_page(42)");
+            assertThat(plan).contains("\"Subplans Removed\": 15");
+        }
+    }
+
+    @Test
+    void migration_shouldDropRowsDeletedAfterTheBackfillCopiedThem() throws SQLException {
+        flyway("9").migrate();
+        try (Connection connection = connection(); Statement st = connection.createStatement()) {
+            // the outcome of a hard delete racing a backfill batch: the row is gone from the old table only
+            st.execute("ALTER TABLE wardrobe_items DISABLE TRIGGER trg_wardrobe_items_mirror");
+            st.execute("DELETE FROM wardrobe_items WHERE id = 5");
+            st.execute("ALTER TABLE wardrobe_items ENABLE TRIGGER trg_wardrobe_items_mirror");
+        }
+
+        flyway(null).migrate();
+
+        try (Connection connection = connection(); Statement st = connection.createStatement()) {
+            assertThat(queryLong(st, "SELECT COUNT(*) FROM wardrobe_items WHERE id = 5")).isZero();
+            assertThat(queryLong(st, "SELECT COUNT(*) FROM wardrobe_items"))
+                    .isEqualTo(queryLong(st, "SELECT COUNT(*) FROM wardrobe_items_legacy"));
+        }
+    }
+
+    @Test
+    void migration_shouldFail_whenNewTableMissesRows() throws SQLException {
+        flyway("9").migrate();
+        try (Connection connection = connection(); Statement st = connection.createStatement()) {
+            st.execute("DELETE FROM wardrobe_items_partitioned WHERE id = 5");
+        }
+
+        assertThatThrownBy(() -> flyway(null).migrate())
+                .hasStackTraceContaining("wardrobe_items_partitioned is missing 1 rows");
+        try (Connection connection = connection(); Statement st = connection.createStatement()) {
+            assertThat(queryString(st, "SELECT relkind::text FROM pg_class WHERE relname = 'wardrobe_items'")).isEqualTo("r");
+        }
+    }
+
+    private static void assertSinglePartition(Statement st, String sql) throws SQLException {
+        Set<String> partitions = new HashSet<>();
+        Matcher matcher = PARTITION.matcher(explain(st, "EXPLAIN (FORMAT JSON) " + sql));
+        while (matcher.find()) {
+            partitions.add(matcher.group(1));
+        }
+        assertThat(partitions).as(sql).hasSize(1);
+    }
+
+    private static String explain(Statement st, String sql) throws SQLException {
+        return queryString(st, sql);
+    }
+
+    private static Flyway flyway(String target) {
+        var config = Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .cleanDisabled(false);
+        if (target != null) {
+            config.target(target);
+        }
+        return config.load();
+    }
+
+    private static Connection connection() throws SQLException {
+        return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+
+    private static String queryString(Statement st, String sql) throws SQLException {
+        try (ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private static long queryLong(Statement st, String sql) throws SQLException {
+        try (ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.wardrobeservice.repository;
+
+import com.example.wardrobeservice.entity.WardrobeItem;
+import com.example.wardrobeservice.entity.enums.ItemType;
+import com.example.wardrobeservice.entity.enums.Season;
+import io.r2dbc.spi.ConnectionFactories;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * An item moving A -> B -> A lands on A's shard a second time, where the (id, owner_id) tombstone of the first move is waiting.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class WardrobeItemRepositoryCustomImplTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("wardrobe_db")
+            .withUsername("wardrobe")
+            .withPassword("wardrobe");
+
+    private DatabaseClient client;
+    private WardrobeItemRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+        client = DatabaseClient.create(ConnectionFactories.get("r2dbc:postgresql://wardrobe:wardrobe@"
+                + postgres.getHost() + ":" + postgres.getMappedPort(5432) + "/wardrobe_db"));
+        repository = new WardrobeItemRepositoryCustomImpl(client);
+    }
+
+    @Test
+    void upsertWithId_shouldReviveTombstone_whenItemMovesBackToPreviousOwner() {
+        Instant movedAway = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        // A -> B: the item leaves a tombstone on A's shard
+        client.sql("UPDATE wardrobe_items SET deleted_at = :at, updated_at = :at, version = 2 WHERE id = 1 AND owner_id = 1")
+                .bind("at", movedAway)
+                .then()
+                .block();
+
+        // B -> A: the item comes back with its id and a newer version
+        WardrobeItem back = WardrobeItem.builder()
+                .id(1L).ownerId(1L).type(ItemType.JACKET).brand("Returned").season(Season.WINTER)
+                .imageUrl("back.jpg").createdAt(movedAway).updatedAt(movedAway.plusSeconds(1)).version(3L)
+                .build();
+        repository.upsertWithId(back).block();
+
+        Map<String, Object> row = client.sql("SELECT COUNT(*) OVER () AS copies, brand, deleted_at, version FROM wardrobe_items WHERE id = 1 AND owner_id = 1")
+                .fetch()
+                .one()
+                .block();
+        assertThat(row).containsEntry("copies", 1L)
+                .containsEntry("brand", "Returned")
+                .containsEntry("version", 3L);
+        assertThat(row.get("deleted_at")).isNull();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.wardrobeservice.service;
+
+import com.example.wardrobeservice.config.ReadRoute;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesTrackerTest {
+
+    private final AtomicLong now = new AtomicLong(-1_000);
+    private final ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofSeconds(5), now::get);
+
+    @Test
+    void routeFor_shouldStickToPrimary_onlyWithinWindowAfterWrite() {
+        assertThat(tracker.routeFor(1L)).isEqualTo(ReadRoute.REPLICA);
+
+        tracker.recordWrite(1L);
+        now.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertThat(tracker.routeFor(1L)).isEqualTo(ReadRoute.PRIMARY);
+        assertThat(tracker.routeFor(2L)).isEqualTo(ReadRoute.REPLICA);
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(tracker.routeFor(1L)).isEqualTo(ReadRoute.REPLICA);
+    }
+
+    @Test
+    void readContext_shouldCarryRoute_andTreatAnonymousReadsAsReplicaReads() {
+        tracker.recordWrite(null);
+
+        assertThat(tracker.readContext(null).<ReadRoute>get(ReadRoute.CONTEXT_KEY)).isEqualTo(ReadRoute.REPLICA);
+        tracker.recordWrite(7L);
+        assertThat(tracker.readContext(7L).<ReadRoute>get(ReadRoute.CONTEXT_KEY)).isEqualTo(ReadRoute.PRIMARY);
+    }
+}
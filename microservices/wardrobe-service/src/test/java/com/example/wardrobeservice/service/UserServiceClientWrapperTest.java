@@ -1,21 +1,44 @@
 package com.example.wardrobeservice.service;
 
+import com.example.wardrobeservice.client.UserExistenceBatcher;
 import com.example.wardrobeservice.client.UserServiceClient;
+import com.example.wardrobeservice.config.ClientErrorResponsePredicate;
 import com.example.wardrobeservice.dto.UserDto;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.springboot3.bulkhead.autoconfigure.BulkheadAutoConfiguration;
+import io.github.resilience4j.springboot3.bulkhead.autoconfigure.BulkheadMetricsAutoConfiguration;
+import io.github.resilience4j.springboot3.circuitbreaker.autoconfigure.CircuitBreakerAutoConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,9 +47,32 @@ class UserServiceClientWrapperTest {
     @Mock
     private UserServiceClient userServiceClient;
 
+    @Mock
+    private UserExistenceBatcher userExistenceBatcher;
+
     @InjectMocks
     private UserServiceClientWrapper wrapper;
 
+    /** Обёртка с aspect'ами resilience4j и настройками breaker'ов и bulkhead'ов из application.yml. */
+    private static ApplicationContextRunner resilienceContext(UserServiceClient client) {
+        return new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(AopAutoConfiguration.class,
+                        CircuitBreakerAutoConfiguration.class, BulkheadAutoConfiguration.class,
+                        BulkheadMetricsAutoConfiguration.class))
+                .withInitializer(context -> {
+                    try {
+                        new YamlPropertySourceLoader().load("application.yml", new ClassPathResource("application.yml"))
+                                .forEach(context.getEnvironment().getPropertySources()::addLast);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                })
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withBean(UserServiceClient.class, () -> client)
+                .withBean(UserExistenceBatcher.class, () -> mock(UserExistenceBatcher.class))
+                .withBean(UserServiceClientWrapper.class);
+    }
+
     @Test
     void getUserById_shouldReturnUser_whenClientSucceeds() {
         UserDto user = new UserDto(1L, "a@a", "A");
@@ -52,6 +98,34 @@ class UserServiceClientWrapperTest {
                 .verify();
     }
 
+    @Test
+    void fallback_shouldKeepNotFound_asNotFound() throws Exception {
+        Method m = UserServiceClientWrapper.class.getDeclaredMethod("getUserByIdFallback", Long.class, Throwable.class);
+        m.setAccessible(true);
+        WebClientResponseException notFound = WebClientResponseException.create(
+                HttpStatus.NOT_FOUND.value(), "Not Found", HttpHeaders.EMPTY, new byte[0], null);
+
+        @SuppressWarnings("unchecked")
+        Mono<UserDto> fallback = (Mono<UserDto>) m.invoke(wrapper, 1L, notFound);
+
+        StepVerifier.create(fallback)
+                .expectErrorMatches(t ->
+                        t instanceof ResponseStatusException rse
+                                && rse.getStatusCode().value() == HttpStatus.NOT_FOUND.value())
+                .verify();
+    }
+
+    @Test
+    void clientErrorPredicate_shouldIgnoreOnly4xx() {
+        ClientErrorResponsePredicate predicate = new ClientErrorResponsePredicate();
+
+        assertThat(predicate.test(WebClientResponseException.create(
+                404, "Not Found", HttpHeaders.EMPTY, new byte[0], null))).isTrue();
+        assertThat(predicate.test(WebClientResponseException.create(
+                503, "Service Unavailable", HttpHeaders.EMPTY, new byte[0], null))).isFalse();
+        assertThat(predicate.test(new RuntimeException("boom"))).isFalse();
+    }
+
     @Test
     void getUserById_shouldPropagateError_whenClientErrors_directly() {
         when(userServiceClient.getUserById(anyLong())).thenReturn(Mono.error(new RuntimeException("boom")));
@@ -60,4 +134,98 @@ class UserServiceClientWrapperTest {
                 .expectError(RuntimeException.class)
                 .verify();
     }
+
+    @Test
+    void userExists_shouldMapBatcherTimeoutAndOpenBreakerTo503() {
+        when(userExistenceBatcher.exists(1L)).thenReturn(Mono.error(new TimeoutException()));
+        when(userExistenceBatcher.exists(2L)).thenReturn(Mono.error(
+                CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("user-service"))));
+
+        for (long id = 1; id <= 2; id++) {
+            StepVerifier.create(wrapper.userExists(id))
+                    .expectErrorMatches(t ->
+                            t instanceof ResponseStatusException rse
+                                    && rse.getStatusCode().value() == HttpStatus.SERVICE_UNAVAILABLE.value())
+                    .verify();
+        }
+    }
+
+    @Test
+    void userExists_shouldNotRecordBreakerCallPerWaiter_withProductionConfig() {
+        resilienceContext(mock(UserServiceClient.class)).run(context -> {
+            UserExistenceBatcher batcher = context.getBean(UserExistenceBatcher.class);
+            when(batcher.exists(anyLong())).thenReturn(Mono.error(WebClientResponseException.create(
+                    HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable", HttpHeaders.EMPTY, new byte[0], null)));
+            UserServiceClientWrapper proxied = context.getBean(UserServiceClientWrapper.class);
+
+            for (long id = 1; id <= 10; id++) {
+                StepVerifier.create(proxied.userExists(id))
+                        .expectErrorMatches(t -> t instanceof ResponseStatusException rse
+                                && rse.getStatusCode().value() == HttpStatus.SERVICE_UNAVAILABLE.value())
+                        .verify(Duration.ofSeconds(5));
+            }
+
+            // неудачные пачки учитывает сам батчер, по одной на запрос к user-service
+            var breaker = context.getBean(CircuitBreakerRegistry.class).circuitBreaker("user-service");
+            assertThat(breaker.getMetrics().getNumberOfFailedCalls()).isZero();
+            assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        });
+    }
+
+    @Test
+    void userExists_shouldGoThroughBatcher() {
+        when(userExistenceBatcher.exists(3L)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(wrapper.userExists(3L))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void getUserById_shouldRejectImmediately_whenBulkheadIsFull_withoutTrippingCircuitBreaker() {
+        UserServiceClient client = mock(UserServiceClient.class);
+        when(client.getUserById(anyLong())).thenReturn(Mono.never());
+
+        resilienceContext(client)
+                .withPropertyValues("resilience4j.bulkhead.instances.user-service.maxConcurrentCalls=1")
+                .run(context -> {
+                    UserServiceClientWrapper proxied = context.getBean(UserServiceClientWrapper.class);
+                    var inFlight = proxied.getUserById(1L).subscribe();
+
+                    StepVerifier.create(proxied.getUserById(2L))
+                            .expectError(BulkheadFullException.class)
+                            .verify(Duration.ofSeconds(5));
+
+                    MeterRegistry registry = context.getBean(MeterRegistry.class);
+                    assertThat(registry.get("resilience4j.bulkhead.available.concurrent.calls")
+                            .tag("name", "user-service").gauge().value()).isZero();
+                    assertThat(context.getBean(CircuitBreakerRegistry.class).circuitBreaker("user-service")
+                            .getMetrics().getNumberOfFailedCalls()).isZero();
+
+                    inFlight.dispose();
+                    assertThat(registry.get("resilience4j.bulkhead.available.concurrent.calls")
+                            .tag("name", "user-service").gauge().value()).isEqualTo(1);
+                });
+    }
+
+    @Test
+    void getUserById_shouldNotOpenCircuitBreaker_onClientErrors_withProductionConfig() {
+        UserServiceClient client = mock(UserServiceClient.class);
+        when(client.getUserById(anyLong())).thenReturn(Mono.error(WebClientResponseException.create(
+                HttpStatus.NOT_FOUND.value(), "Not Found", HttpHeaders.EMPTY, new byte[0], null)));
+
+        resilienceContext(client).run(context -> {
+            UserServiceClientWrapper proxied = context.getBean(UserServiceClientWrapper.class);
+            for (long id = 1; id <= 10; id++) {
+                StepVerifier.create(proxied.getUserById(id))
+                        .expectErrorMatches(t -> t instanceof ResponseStatusException rse
+                                && rse.getStatusCode().value() == HttpStatus.NOT_FOUND.value())
+                        .verify(Duration.ofSeconds(5));
+            }
+
+            var breaker = context.getBean(CircuitBreakerRegistry.class).circuitBreaker("user-service");
+            assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+            assertThat(breaker.getMetrics().getNumberOfFailedCalls()).isZero();
+        });
+    }
 }
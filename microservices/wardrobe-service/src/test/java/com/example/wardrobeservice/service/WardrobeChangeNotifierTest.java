@@ -0,0 +1,92 @@
+package com.example.wardrobeservice.service;
+
+import com.example.wardrobeservice.dto.WardrobeItemEventDto;
+import com.example.wardrobeservice.dto.WardrobeItemEventType;
+import com.example.wardrobeservice.dto.WardrobeItemResponseDto;
+import com.example.wardrobeservice.entity.enums.ItemType;
+import com.example.wardrobeservice.entity.enums.Season;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WardrobeChangeNotifierTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private WardrobeChangeNotifier notifier;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        notifier = new WardrobeChangeNotifier(meterRegistry, 2, Duration.ofHours(1));
+    }
+
+    private static WardrobeItemResponseDto item(long id, long ownerId) {
+        return new WardrobeItemResponseDto(id, ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "img.jpg", ownerId);
+    }
+
+    @Test
+    void stream_shouldDeliverOnlyOwnersEvents_andTrackConnections() {
+        StepVerifier.create(notifier.stream(1L))
+                .then(() -> {
+                    assertThat(meterRegistry.get("wardrobe.sse.connections").gauge().value()).isEqualTo(1.0);
+                    notifier.publish(WardrobeItemEventType.CREATED, item(10L, 2L));
+                    notifier.publish(WardrobeItemEventType.CREATED, item(11L, 1L));
+                    notifier.publishDeleted(1L, 12L);
+                })
+                .assertNext(sse -> {
+                    assertThat(sse.event()).isEqualTo("CREATED");
+                    assertThat(sse.data().id()).isEqualTo(11L);
+                })
+                .assertNext(sse -> {
+                    assertThat(sse.data().type()).isEqualTo(WardrobeItemEventType.DELETED);
+                    assertThat(sse.data().item()).isNull();
+                })
+                .thenCancel()
+                .verify();
+
+        assertThat(notifier.connectionCount()).isZero();
+        assertThat(meterRegistry.get("wardrobe.sse.owners").gauge().value()).isZero();
+    }
+
+    @Test
+    void stream_shouldDropOldestEvents_whenClientIsSlow() {
+        StepVerifier.create(notifier.stream(1L), 0)
+                .then(() -> {
+                    for (long id = 1; id <= 40; id++) {
+                        notifier.publish(WardrobeItemEventType.UPDATED, item(id, 1L));
+                    }
+                })
+                .thenRequest(3)
+                // первое событие уже забрал merge (prefetch = 1), в буфере на 2 элемента остались самые свежие
+                .assertNext(sse -> assertThat(sse.data().id()).isEqualTo(1L))
+                .assertNext(sse -> assertThat(sse.data().id()).isEqualTo(39L))
+                .assertNext(sse -> assertThat(sse.data().id()).isEqualTo(40L))
+                .thenCancel()
+                .verify();
+
+        assertThat(meterRegistry.get("wardrobe.sse.events.dropped").counter().count()).isEqualTo(37.0);
+    }
+
+    @Test
+    void stream_shouldEmitHeartbeatComments() {
+        WardrobeChangeNotifier fastHeartbeat = new WardrobeChangeNotifier(new SimpleMeterRegistry(), 16, Duration.ofMillis(10));
+
+        StepVerifier.create(fastHeartbeat.stream(1L).map(ServerSentEvent::comment))
+                .expectNext("heartbeat")
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void publish_shouldBeNoop_whenOwnerHasNoSubscribers() {
+        notifier.publish(WardrobeItemEventType.CREATED, item(1L, 1L));
+
+        assertThat(meterRegistry.get("wardrobe.sse.events.published").counter().count()).isZero();
+    }
+}
@@ -1,7 +1,12 @@
 package com.example.wardrobeservice.service;
 
-import com.example.wardrobeservice.dto.UserDto;
+import com.example.wardrobeservice.config.ReadRoute;
+import com.example.wardrobeservice.config.ShardMap;
+import com.example.wardrobeservice.config.ShardRouter;
+import com.example.wardrobeservice.config.ShardingProperties;
+import com.example.wardrobeservice.dto.WardrobeItemChangeDto;
 import com.example.wardrobeservice.dto.WardrobeItemDto;
+import com.example.wardrobeservice.dto.WardrobeItemEventType;
 import com.example.wardrobeservice.dto.WardrobeItemResponseDto;
 import com.example.wardrobeservice.entity.WardrobeItem;
 import com.example.wardrobeservice.entity.enums.ItemType;
@@ -9,11 +14,14 @@ import com.example.wardrobeservice.entity.enums.Season;
 import com.example.wardrobeservice.exception.NotFoundException;
 import com.example.wardrobeservice.mapper.WardrobeItemMapper;
 import com.example.wardrobeservice.repository.WardrobeItemRepository;
+import com.example.wardrobeservice.repository.WardrobeItemVersion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
@@ -23,14 +31,19 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,12 +58,20 @@ class WardrobeItemServiceTest {
     @Mock
     private UserServiceClientWrapper userServiceClientWrapper;
 
+    @Mock
+    private WardrobeChangeNotifier changeNotifier;
+
+    @Spy
+    private ReadYourWritesTracker readYourWrites = new ReadYourWritesTracker(Duration.ofSeconds(5));
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(ShardMap.single());
+
     @InjectMocks
     private WardrobeItemService wardrobeItemService;
 
     private WardrobeItem testItem;
     private WardrobeItemResponseDto testItemDto;
-    private UserDto testUser;
 
     @BeforeEach
     void setUp() {
@@ -68,8 +89,6 @@ class WardrobeItemServiceTest {
         testItemDto = new WardrobeItemResponseDto(
                 1L, ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "image.jpg", 1L
         );
-
-        testUser = new UserDto(1L, "test@example.com", "Test User");
     }
 
     private JwtAuthenticationToken supervisorAuth() {
@@ -193,23 +212,27 @@ class WardrobeItemServiceTest {
     }
 
     @Test
-    void getInfiniteScroll_shouldReturnFluxOfDtos() {
+    void getInfiniteScroll_shouldReturnDtosTaggedWithVersionsOfSameRows() {
         // Given
         int offset = 0;
         int limit = 10;
+        testItem.setVersion(3L);
         List<WardrobeItem> items = List.of(testItem);
 
         when(itemRepository.findAllWithPagination(10, 0)).thenReturn(Flux.fromIterable(items));
         when(itemMapper.toDto(any(WardrobeItem.class))).thenReturn(testItemDto);
 
         // When
-        Flux<WardrobeItemResponseDto> result = wardrobeItemService.getInfiniteScroll(offset, limit);
+        Mono<Tagged<List<WardrobeItemResponseDto>>> result = wardrobeItemService.getInfiniteScroll(null, offset, limit);
 
         // Then
         StepVerifier.create(result.contextWrite(ReactiveSecurityContextHolder.withAuthentication(supervisorAuth())))
-                .assertNext(dto -> {
-                    assertThat(dto.id()).isEqualTo(1L);
-                    assertThat(dto.type()).isEqualTo(ItemType.SHIRT);
+                .assertNext(page -> {
+                    assertThat(page.body()).singleElement().satisfies(dto -> {
+                        assertThat(dto.id()).isEqualTo(1L);
+                        assertThat(dto.type()).isEqualTo(ItemType.SHIRT);
+                    });
+                    assertThat(page.eTag()).isEqualTo(WardrobeItemETags.forPage("all", List.of(new WardrobeItemVersion(1L, 1L, 3L))));
                 })
                 .verifyComplete();
 
@@ -224,51 +247,232 @@ class WardrobeItemServiceTest {
         when(itemRepository.findAllWithPagination(50, 0)).thenReturn(Flux.empty());
 
         // When
-        wardrobeItemService.getInfiniteScroll(offset, limit)
+        wardrobeItemService.getInfiniteScroll(null, offset, limit)
                 .contextWrite(ReactiveSecurityContextHolder.withAuthentication(supervisorAuth()))
-                .blockLast();
+                .block();
 
         // Then
         verify(itemRepository).findAllWithPagination(50, 0); // должно быть ограничено до 50
     }
 
+    @Test
+    void getInfiniteScroll_shouldContinueAfterId_forOwner() {
+        when(itemRepository.findAllByOwnerIdAfterId(1L, 40L, 10)).thenReturn(Flux.just(testItem));
+        when(itemMapper.toDto(testItem)).thenReturn(testItemDto);
+
+        StepVerifier.create(wardrobeItemService.getInfiniteScroll(40L, 0, 10)
+                        .map(Tagged::body)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(userAuth(1L))))
+                .expectNext(List.of(testItemDto))
+                .verifyComplete();
+
+        verify(itemRepository, never()).findAllByOwnerIdWithPagination(anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getInfiniteScroll_shouldMergeShardsInIdOrder_forSupervisor() {
+        WardrobeItemService sharded = shardedService();
+        when(itemRepository.findAllAfterId(2L, 3)).thenReturn(Flux.deferContextual(ctx ->
+                "a".equals(ctx.get(ShardRouter.CONTEXT_KEY))
+                        ? Flux.just(itemWithId(4L), itemWithId(6L), itemWithId(8L))
+                        : Flux.just(itemWithId(3L), itemWithId(5L), itemWithId(7L))));
+        when(itemMapper.toDto(any(WardrobeItem.class))).thenAnswer(inv -> {
+            WardrobeItem item = inv.getArgument(0);
+            return new WardrobeItemResponseDto(item.getId(), item.getType(), item.getBrand(), item.getColor(),
+                    item.getSeason(), item.getImageUrl(), item.getOwnerId());
+        });
+
+        StepVerifier.create(sharded.getInfiniteScroll(2L, 0, 3)
+                        .map(page -> page.body().stream().map(WardrobeItemResponseDto::id).toList())
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(supervisorAuth())))
+                .expectNext(List.of(3L, 4L, 5L))
+                .verifyComplete();
+
+        verify(itemRepository, times(2)).findAllAfterId(2L, 3);
+    }
+
+    @Test
+    void getItemsUpTo50_shouldSumCountsAndSkipOffsetAcrossShards_forSupervisor() {
+        WardrobeItemService sharded = shardedService();
+        when(itemRepository.countAll()).thenReturn(Mono.just(5L));
+        when(itemRepository.findAllWithPagination(4, 0)).thenReturn(Flux.deferContextual(ctx ->
+                "a".equals(ctx.get(ShardRouter.CONTEXT_KEY))
+                        ? Flux.just(itemWithId(2L), itemWithId(4L))
+                        : Flux.just(itemWithId(1L), itemWithId(3L), itemWithId(5L))));
+        when(itemMapper.toDto(any(WardrobeItem.class))).thenAnswer(inv -> {
+            WardrobeItem item = inv.getArgument(0);
+            return new WardrobeItemResponseDto(item.getId(), item.getType(), item.getBrand(), item.getColor(),
+                    item.getSeason(), item.getImageUrl(), item.getOwnerId());
+        });
+
+        PagedResult<WardrobeItemResponseDto> page = sharded.getItemsUpTo50(1, 2)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(supervisorAuth()))
+                .block();
+
+        assertThat(page.totalElements()).isEqualTo(10L);
+        assertThat(page.content()).extracting(WardrobeItemResponseDto::id).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void update_shouldMoveItemToNewOwnersShard_whenOwnerChangesShard() {
+        WardrobeItemService sharded = shardedService();
+        testItem.setVersion(2L);
+        WardrobeItemDto updateDto = new WardrobeItemDto(
+                ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "image.jpg", 2L
+        );
+        WardrobeItemResponseDto movedDto = new WardrobeItemResponseDto(
+                1L, ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "image.jpg", 2L
+        );
+        when(itemRepository.findById(1L)).thenReturn(Mono.just(testItem));
+        when(userServiceClientWrapper.userExists(2L)).thenReturn(Mono.just(true));
+        doAnswer(inv -> {
+            inv.<WardrobeItem>getArgument(1).setOwnerId(2L);
+            return null;
+        }).when(itemMapper).updateEntityFromDto(eq(updateDto), any(WardrobeItem.class));
+        when(itemRepository.upsertWithId(testItem)).thenReturn(Mono.just(testItem));
+        when(itemRepository.softDeleteById(eq(1L), eq(1L), any(Instant.class))).thenReturn(Mono.just(1));
+        when(itemMapper.toDto(testItem)).thenReturn(movedDto);
+
+        StepVerifier.create(sharded.update(1L, updateDto)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(supervisorAuth())))
+                .expectNext(movedDto)
+                .verifyComplete();
+
+        assertThat(testItem.getVersion()).isEqualTo(3L);
+        verify(itemRepository, never()).save(any());
+        verify(changeNotifier).publishDeleted(1L, 1L);
+        verify(changeNotifier).publish(WardrobeItemEventType.CREATED, movedDto);
+    }
+
+    @Test
+    void update_shouldLeaveTombstoneInPreviousOwnersChanges_whenOwnerChangesWithinShard() {
+        testItem.setVersion(2L);
+        WardrobeItemDto updateDto = new WardrobeItemDto(
+                ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "image.jpg", 2L
+        );
+        WardrobeItemResponseDto movedDto = new WardrobeItemResponseDto(
+                1L, ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "image.jpg", 2L
+        );
+        when(itemRepository.findById(1L)).thenReturn(Mono.just(testItem));
+        when(userServiceClientWrapper.userExists(2L)).thenReturn(Mono.just(true));
+        doAnswer(inv -> {
+            inv.<WardrobeItem>getArgument(1).setOwnerId(2L);
+            return null;
+        }).when(itemMapper).updateEntityFromDto(eq(updateDto), any(WardrobeItem.class));
+        when(itemRepository.upsertWithId(testItem)).thenReturn(Mono.just(testItem));
+        ArgumentCaptor<Instant> deletedAt = ArgumentCaptor.forClass(Instant.class);
+        when(itemRepository.softDeleteById(eq(1L), eq(1L), deletedAt.capture())).thenReturn(Mono.just(1));
+        when(itemMapper.toDto(testItem)).thenReturn(movedDto);
+
+        StepVerifier.create(wardrobeItemService.update(1L, updateDto)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(supervisorAuth())))
+                .expectNext(movedDto)
+                .verifyComplete();
+
+        verify(itemRepository, never()).save(any());
+
+        // строка прежнего владельца после переноса: tombstone с тем же id
+        WardrobeItem tombstone = WardrobeItem.builder()
+                .id(1L)
+                .ownerId(1L)
+                .type(ItemType.SHIRT)
+                .season(Season.SUMMER)
+                .imageUrl("image.jpg")
+                .updatedAt(deletedAt.getValue())
+                .deletedAt(deletedAt.getValue())
+                .build();
+        when(itemRepository.findChangesByOwnerId(eq(1L), eq(Instant.EPOCH), eq(0L), any(Instant.class), eq(500)))
+                .thenReturn(Flux.just(tombstone));
+
+        StepVerifier.create(wardrobeItemService.getChanges(null, 500)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(userAuth(1L))))
+                .assertNext(change -> {
+                    assertThat(change.id()).isEqualTo(1L);
+                    assertThat(change.deleted()).isTrue();
+                })
+                .verifyComplete();
+    }
+
+    /**
+     * Two shards: even owners on "a", odd owners on "b".
+     */
+    private WardrobeItemService shardedService() {
+        ShardingProperties properties = new ShardingProperties(true, 1, 2, 64, List.of(
+                new ShardingProperties.Shard("a", null, null, null, null, "0", null),
+                new ShardingProperties.Shard("b", null, null, null, null, "1", null)));
+        return new WardrobeItemService(itemRepository, itemMapper, userServiceClientWrapper, changeNotifier,
+                readYourWrites, new ShardRouter(ShardMap.of(properties)));
+    }
+
+    private static WardrobeItem itemWithId(long id) {
+        return WardrobeItem.builder().id(id).ownerId(id).type(ItemType.SHIRT).season(Season.SUMMER)
+                .imageUrl("item-" + id + ".jpg").build();
+    }
+
     @Test
     void getById_shouldReturnItem_whenExists() {
         // Given
         Long id = 1L;
-        when(itemRepository.findById(id)).thenReturn(Mono.just(testItem));
+        testItem.setVersion(3L);
+        when(itemRepository.findByIdAndOwnerId(id, 1L)).thenReturn(Mono.just(testItem));
         when(itemMapper.toDto(testItem)).thenReturn(testItemDto);
 
         // When
-        Mono<WardrobeItemResponseDto> result = wardrobeItemService.getById(id);
+        Mono<Tagged<WardrobeItemResponseDto>> result = wardrobeItemService.getById(id);
 
         // Then
         StepVerifier.create(result.contextWrite(ReactiveSecurityContextHolder.withAuthentication(userAuth(1L))))
-                .assertNext(dto -> {
-                    assertThat(dto.id()).isEqualTo(1L);
-                    assertThat(dto.type()).isEqualTo(ItemType.SHIRT);
+                .assertNext(tagged -> {
+                    assertThat(tagged.body().id()).isEqualTo(1L);
+                    assertThat(tagged.body().type()).isEqualTo(ItemType.SHIRT);
+                    assertThat(tagged.eTag()).isEqualTo("\"item-1-v3\"");
                 })
                 .verifyComplete();
 
-        verify(itemRepository).findById(id);
+        verify(itemRepository).findByIdAndOwnerId(id, 1L);
+        verify(itemRepository, never()).findById(anyLong());
         verify(itemMapper).toDto(testItem);
     }
 
+    @Test
+    void getById_shouldReadFromReplica_whenUserHasNotWrittenRecently() {
+        when(itemRepository.findByIdAndOwnerId(1L, 1L)).thenReturn(itemSeenOn(ReadRoute.REPLICA));
+        when(itemMapper.toDto(testItem)).thenReturn(testItemDto);
+
+        StepVerifier.create(wardrobeItemService.getById(1L)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(userAuth(1L))))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void getById_shouldReadFromPrimary_rightAfterOwnersWrite() {
+        readYourWrites.recordWrite(1L);
+        when(itemRepository.findByIdAndOwnerId(1L, 1L)).thenReturn(itemSeenOn(ReadRoute.PRIMARY));
+        when(itemMapper.toDto(testItem)).thenReturn(testItemDto);
+
+        StepVerifier.create(wardrobeItemService.getById(1L)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(userAuth(1L))))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    /**
+     * Emits {@code testItem} only if the pipeline is routed as expected, like the routing ConnectionFactory would see it.
+     */
+    private Mono<WardrobeItem> itemSeenOn(ReadRoute expected) {
+        return Mono.deferContextual(ctx -> {
+            assertThat(ctx.<ReadRoute>getOrDefault(ReadRoute.CONTEXT_KEY, ReadRoute.PRIMARY)).isEqualTo(expected);
+            return Mono.just(testItem);
+        });
+    }
+
     @Test
     void getById_shouldReturn403_whenUserRequestsOtherOwnersItem() {
         Long id = 1L;
-        WardrobeItem otherOwners = WardrobeItem.builder()
-                .id(id)
-                .ownerId(2L)
-                .type(ItemType.SHIRT)
-                .brand("Nike")
-                .color("Blue")
-                .season(Season.SUMMER)
-                .imageUrl("image.jpg")
-                .createdAt(Instant.now())
-                .build();
 
-        when(itemRepository.findById(id)).thenReturn(Mono.just(otherOwners));
+        when(itemRepository.findByIdAndOwnerId(id, 1L)).thenReturn(Mono.empty());
+        when(itemRepository.existsById(id)).thenReturn(Mono.just(true));
 
         StepVerifier.create(wardrobeItemService.getById(id)
                         .contextWrite(ReactiveSecurityContextHolder.withAuthentication(userAuth(1L))))
@@ -278,6 +482,48 @@ class WardrobeItemServiceTest {
                 .verify();
     }
 
+    @Test
+    void getItemETag_shouldUseVersionLookup_withoutLoadingItem() {
+        when(itemRepository.findVersionByIdAndOwnerId(1L, 1L)).thenReturn(Mono.just(new WardrobeItemVersion(1L, 1L, 3L)));
+
+        StepVerifier.create(wardrobeItemService.getItemETag(1L)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(userAuth(1L))))
+                .expectNext("\"item-1-v3\"")
+                .verifyComplete();
+
+        verify(itemRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getItemETag_shouldReturn403_whenUserRequestsOtherOwnersItem() {
+        when(itemRepository.findVersionByIdAndOwnerId(1L, 1L)).thenReturn(Mono.empty());
+        when(itemRepository.existsById(1L)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(wardrobeItemService.getItemETag(1L)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(userAuth(1L))))
+                .expectErrorMatches(t ->
+                        t instanceof org.springframework.web.server.ResponseStatusException rse
+                                && rse.getStatusCode().value() == FORBIDDEN.value())
+                .verify();
+    }
+
+    @Test
+    void getInfiniteScrollETag_shouldChange_whenAnyVersionChanges() {
+        when(itemRepository.findVersionsByOwnerIdWithPagination(1L, 10, 0))
+                .thenReturn(Flux.just(new WardrobeItemVersion(1L, 1L, 0L), new WardrobeItemVersion(2L, 1L, 0L)))
+                .thenReturn(Flux.just(new WardrobeItemVersion(1L, 1L, 0L), new WardrobeItemVersion(2L, 1L, 1L)));
+
+        String before = wardrobeItemService.getInfiniteScrollETag(null, 0, 10)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(userAuth(1L)))
+                .block();
+        String after = wardrobeItemService.getInfiniteScrollETag(null, 0, 10)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(userAuth(1L)))
+                .block();
+
+        assertThat(before).startsWith("\"items-").isNotEqualTo(after);
+        verify(itemRepository, never()).findAllByOwnerIdWithPagination(anyLong(), anyInt(), anyInt());
+    }
+
     @Test
     void getById_shouldReturn401_whenNoJwtInContext() {
         StepVerifier.create(wardrobeItemService.getById(1L))
@@ -291,10 +537,11 @@ class WardrobeItemServiceTest {
     void getById_shouldThrowNotFoundException_whenNotExists() {
         // Given
         Long id = 999L;
-        when(itemRepository.findById(id)).thenReturn(Mono.empty());
+        when(itemRepository.findByIdAndOwnerId(id, 1L)).thenReturn(Mono.empty());
+        when(itemRepository.existsById(id)).thenReturn(Mono.just(false));
 
         // When
-        Mono<WardrobeItemResponseDto> result = wardrobeItemService.getById(id);
+        Mono<Tagged<WardrobeItemResponseDto>> result = wardrobeItemService.getById(id);
 
         // Then
         StepVerifier.create(result.contextWrite(ReactiveSecurityContextHolder.withAuthentication(userAuth(1L))))
@@ -303,7 +550,7 @@ class WardrobeItemServiceTest {
                         throwable.getMessage().contains("Wardrobe item not found with id: 999"))
                 .verify();
 
-        verify(itemRepository).findById(id);
+        verify(itemRepository).findByIdAndOwnerId(id, 1L);
         verify(itemMapper, never()).toDto(any());
     }
 
@@ -332,7 +579,7 @@ class WardrobeItemServiceTest {
                 .createdAt(Instant.now())
                 .build();
 
-        when(userServiceClientWrapper.getUserById(1L)).thenReturn(Mono.just(testUser));
+        when(userServiceClientWrapper.userExists(1L)).thenReturn(Mono.just(true));
         when(itemMapper.toEntity(createDto)).thenReturn(newItem);
         when(itemRepository.save(any(WardrobeItem.class))).thenReturn(Mono.just(savedItem));
         when(itemMapper.toDto(savedItem)).thenReturn(testItemDto);
@@ -348,9 +595,30 @@ class WardrobeItemServiceTest {
                 })
                 .verifyComplete();
 
-        verify(userServiceClientWrapper).getUserById(1L);
+        verify(userServiceClientWrapper).userExists(1L);
         verify(itemMapper).toEntity(createDto);
         verify(itemRepository).save(any(WardrobeItem.class));
+        verify(changeNotifier).publish(WardrobeItemEventType.CREATED, testItemDto);
+    }
+
+    @Test
+    void create_shouldPinOwnerReadsToPrimary() {
+        WardrobeItemDto createDto = new WardrobeItemDto(
+                ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "image.jpg", 1L
+        );
+        when(userServiceClientWrapper.userExists(1L)).thenReturn(Mono.just(true));
+        when(itemMapper.toEntity(createDto)).thenReturn(testItem);
+        when(itemRepository.save(any(WardrobeItem.class))).thenReturn(Mono.just(testItem));
+        when(itemMapper.toDto(testItem)).thenReturn(testItemDto);
+        assertThat(readYourWrites.routeFor(1L)).isEqualTo(ReadRoute.REPLICA);
+
+        StepVerifier.create(wardrobeItemService.create(createDto)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(userAuth(1L))))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertThat(readYourWrites.routeFor(1L)).isEqualTo(ReadRoute.PRIMARY);
+        assertThat(readYourWrites.routeFor(2L)).isEqualTo(ReadRoute.REPLICA);
     }
 
     @Test
@@ -366,7 +634,7 @@ class WardrobeItemServiceTest {
                                 && rse.getStatusCode().value() == FORBIDDEN.value())
                 .verify();
 
-        verify(userServiceClientWrapper, never()).getUserById(anyLong());
+        verify(userServiceClientWrapper, never()).userExists(anyLong());
         verify(itemRepository, never()).save(any());
     }
 
@@ -383,7 +651,7 @@ class WardrobeItemServiceTest {
                                 && rse.getStatusCode().value() == FORBIDDEN.value())
                 .verify();
 
-        verify(userServiceClientWrapper, never()).getUserById(anyLong());
+        verify(userServiceClientWrapper, never()).userExists(anyLong());
         verify(itemRepository, never()).save(any());
     }
 
@@ -393,7 +661,7 @@ class WardrobeItemServiceTest {
                 ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "image.jpg", 999L
         );
 
-        when(userServiceClientWrapper.getUserById(999L)).thenReturn(Mono.just(new UserDto(999L, "x@x", "X")));
+        when(userServiceClientWrapper.userExists(999L)).thenReturn(Mono.just(true));
         when(itemMapper.toEntity(createDto)).thenReturn(WardrobeItem.builder().ownerId(999L).build());
         when(itemRepository.save(any(WardrobeItem.class))).thenReturn(Mono.just(testItem));
         when(itemMapper.toDto(testItem)).thenReturn(testItemDto);
@@ -410,7 +678,7 @@ class WardrobeItemServiceTest {
         WardrobeItemDto createDto = new WardrobeItemDto(
                 ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "image.jpg", 999L
         );
-        when(userServiceClientWrapper.getUserById(999L)).thenReturn(Mono.error(new IllegalArgumentException("User does not exist: 999")));
+        when(userServiceClientWrapper.userExists(999L)).thenReturn(Mono.error(new IllegalArgumentException("User does not exist: 999")));
 
         // When
         Mono<WardrobeItemResponseDto> result = wardrobeItemService.create(createDto);
@@ -422,7 +690,26 @@ class WardrobeItemServiceTest {
                         throwable.getMessage().contains("User does not exist: 999"))
                 .verify();
 
-        verify(userServiceClientWrapper).getUserById(999L);
+        verify(userServiceClientWrapper).userExists(999L);
+        verify(itemMapper, never()).toEntity(any());
+        verify(itemRepository, never()).save(any());
+    }
+
+    @Test
+    void create_shouldReturn404_whenOwnerDoesNotExist() {
+        WardrobeItemDto createDto = new WardrobeItemDto(
+                ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "image.jpg", 999L
+        );
+        when(userServiceClientWrapper.userExists(999L)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(wardrobeItemService.create(createDto)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(supervisorAuth())))
+                .expectErrorMatches(throwable ->
+                        throwable instanceof org.springframework.web.server.ResponseStatusException rse
+                                && rse.getStatusCode().value() == NOT_FOUND.value()
+                                && rse.getReason().contains("User not found with id: 999"))
+                .verify();
+
         verify(itemMapper, never()).toEntity(any());
         verify(itemRepository, never()).save(any());
     }
@@ -438,8 +725,8 @@ class WardrobeItemServiceTest {
                 1L, ItemType.JACKET, "Adidas", "Red", Season.WINTER, "new-image.jpg", 1L
         );
 
-        when(itemRepository.findById(id)).thenReturn(Mono.just(testItem));
-        when(userServiceClientWrapper.getUserById(1L)).thenReturn(Mono.just(testUser));
+        when(itemRepository.findByIdAndOwnerId(id, 1L)).thenReturn(Mono.just(testItem));
+        when(userServiceClientWrapper.userExists(1L)).thenReturn(Mono.just(true));
         when(itemRepository.save(any(WardrobeItem.class))).thenReturn(Mono.just(testItem));
         when(itemMapper.toDto(any(WardrobeItem.class))).thenReturn(updatedDto);
 
@@ -454,30 +741,22 @@ class WardrobeItemServiceTest {
                 })
                 .verifyComplete();
 
-        verify(itemRepository).findById(id);
-        verify(userServiceClientWrapper).getUserById(1L);
+        verify(itemRepository).findByIdAndOwnerId(id, 1L);
+        verify(userServiceClientWrapper).userExists(1L);
         verify(itemMapper).updateEntityFromDto(updateDto, testItem);
         verify(itemRepository).save(testItem);
+        verify(changeNotifier).publish(WardrobeItemEventType.UPDATED, updatedDto);
     }
 
     @Test
     void update_shouldReturn403_whenRoleUserUpdatesOtherOwnersItem() {
         Long id = 1L;
-        WardrobeItem otherOwners = WardrobeItem.builder()
-                .id(id)
-                .ownerId(999L)
-                .type(ItemType.SHIRT)
-                .brand("Nike")
-                .color("Blue")
-                .season(Season.SUMMER)
-                .imageUrl("image.jpg")
-                .createdAt(Instant.now())
-                .build();
         WardrobeItemDto updateDto = new WardrobeItemDto(
                 ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "image.jpg", 999L
         );
 
-        when(itemRepository.findById(id)).thenReturn(Mono.just(otherOwners));
+        when(itemRepository.findByIdAndOwnerId(id, 1L)).thenReturn(Mono.empty());
+        when(itemRepository.existsById(id)).thenReturn(Mono.just(true));
 
         StepVerifier.create(wardrobeItemService.update(id, updateDto)
                         .contextWrite(ReactiveSecurityContextHolder.withAuthentication(userAuth(1L))))
@@ -486,14 +765,14 @@ class WardrobeItemServiceTest {
                                 && rse.getStatusCode().value() == FORBIDDEN.value())
                 .verify();
 
-        verify(userServiceClientWrapper, never()).getUserById(anyLong());
+        verify(userServiceClientWrapper, never()).userExists(anyLong());
         verify(itemRepository, never()).save(any());
     }
 
     @Test
     void update_shouldReturn403_whenRoleUserChangesOwnerIdAwayFromSelf() {
         Long id = 1L;
-        when(itemRepository.findById(id)).thenReturn(Mono.just(testItem));
+        when(itemRepository.findByIdAndOwnerId(id, 1L)).thenReturn(Mono.just(testItem));
 
         WardrobeItemDto updateDto = new WardrobeItemDto(
                 ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "image.jpg", 999L
@@ -506,7 +785,7 @@ class WardrobeItemServiceTest {
                                 && rse.getStatusCode().value() == FORBIDDEN.value())
                 .verify();
 
-        verify(userServiceClientWrapper, never()).getUserById(anyLong());
+        verify(userServiceClientWrapper, never()).userExists(anyLong());
         verify(itemRepository, never()).save(any());
     }
 
@@ -529,7 +808,7 @@ class WardrobeItemServiceTest {
                 .verify();
 
         verify(itemRepository).findById(id);
-        verify(userServiceClientWrapper, never()).getUserById(anyLong());
+        verify(userServiceClientWrapper, never()).userExists(anyLong());
         verify(itemRepository, never()).save(any());
     }
 
@@ -541,7 +820,7 @@ class WardrobeItemServiceTest {
                 ItemType.SHIRT, "Nike", "Blue", Season.SUMMER, "image.jpg", 999L
         );
         when(itemRepository.findById(id)).thenReturn(Mono.just(testItem));
-        when(userServiceClientWrapper.getUserById(999L)).thenReturn(Mono.error(new IllegalArgumentException("User does not exist: 999")));
+        when(userServiceClientWrapper.userExists(999L)).thenReturn(Mono.error(new IllegalArgumentException("User does not exist: 999")));
 
         // When
         Mono<WardrobeItemResponseDto> result = wardrobeItemService.update(id, updateDto);
@@ -554,7 +833,7 @@ class WardrobeItemServiceTest {
                 .verify();
 
         verify(itemRepository).findById(id);
-        verify(userServiceClientWrapper).getUserById(999L);
+        verify(userServiceClientWrapper).userExists(999L);
         verify(itemRepository, never()).save(any());
     }
 
@@ -562,8 +841,8 @@ class WardrobeItemServiceTest {
     void delete_shouldDeleteItem_whenExists() {
         // Given
         Long id = 1L;
-        when(itemRepository.existsById(id)).thenReturn(Mono.just(true));
-        when(itemRepository.deleteById(id)).thenReturn(Mono.empty());
+        when(itemRepository.findById(id)).thenReturn(Mono.just(testItem));
+        when(itemRepository.softDeleteById(eq(id), eq(1L), any(Instant.class))).thenReturn(Mono.just(1));
 
         // When
         Mono<Void> result = wardrobeItemService.delete(id);
@@ -572,24 +851,17 @@ class WardrobeItemServiceTest {
         StepVerifier.create(result.contextWrite(ReactiveSecurityContextHolder.withAuthentication(supervisorAuth())))
                 .verifyComplete();
 
-        verify(itemRepository).existsById(id);
-        verify(itemRepository).deleteById(id);
+        verify(itemRepository).findById(id);
+        verify(itemRepository).softDeleteById(eq(id), eq(1L), any(Instant.class));
+        verify(itemRepository, never()).deleteById(anyLong());
+        verify(changeNotifier).publishDeleted(1L, id);
     }
 
     @Test
     void delete_shouldReturn403_whenRoleUserDeletesOtherOwnersItem() {
         Long id = 1L;
-        WardrobeItem otherOwners = WardrobeItem.builder()
-                .id(id)
-                .ownerId(999L)
-                .type(ItemType.SHIRT)
-                .brand("Nike")
-                .color("Blue")
-                .season(Season.SUMMER)
-                .imageUrl("image.jpg")
-                .createdAt(Instant.now())
-                .build();
-        when(itemRepository.findById(id)).thenReturn(Mono.just(otherOwners));
+        when(itemRepository.findByIdAndOwnerId(id, 1L)).thenReturn(Mono.empty());
+        when(itemRepository.existsById(id)).thenReturn(Mono.just(true));
 
         StepVerifier.create(wardrobeItemService.delete(id)
                         .contextWrite(ReactiveSecurityContextHolder.withAuthentication(userAuth(1L))))
@@ -603,7 +875,7 @@ class WardrobeItemServiceTest {
     void delete_shouldThrowNotFoundException_whenNotExists() {
         // Given
         Long id = 999L;
-        when(itemRepository.existsById(id)).thenReturn(Mono.just(false));
+        when(itemRepository.findById(id)).thenReturn(Mono.empty());
 
         // When
         Mono<Void> result = wardrobeItemService.delete(id);
@@ -615,7 +887,65 @@ class WardrobeItemServiceTest {
                         throwable.getMessage().contains("Wardrobe item not found with id: 999"))
                 .verify();
 
-        verify(itemRepository).existsById(id);
-        verify(itemRepository, never()).deleteById(anyLong());
+        verify(itemRepository).findById(id);
+        verify(itemRepository, never()).softDeleteById(anyLong(), anyLong(), any());
+        verifyNoInteractions(changeNotifier);
+    }
+
+    @Test
+    void getChanges_shouldReturnUpdatesAndTombstones_forCurrentOwner() {
+        // Given
+        Instant updatedAt = Instant.parse("2024-05-01T10:00:00.123456Z");
+        testItem.setUpdatedAt(updatedAt);
+        WardrobeItem deletedItem = WardrobeItem.builder()
+                .id(2L)
+                .ownerId(1L)
+                .type(ItemType.SHOES)
+                .season(Season.WINTER)
+                .imageUrl("shoes.jpg")
+                .updatedAt(updatedAt.plusSeconds(1))
+                .deletedAt(updatedAt.plusSeconds(1))
+                .build();
+        when(itemRepository.findChangesByOwnerId(eq(1L), eq(Instant.EPOCH), eq(0L), any(Instant.class), eq(500)))
+                .thenReturn(Flux.just(testItem, deletedItem));
+        when(itemMapper.toDto(testItem)).thenReturn(testItemDto);
+
+        // When
+        Flux<WardrobeItemChangeDto> result = wardrobeItemService.getChanges(null, 500);
+
+        // Then
+        StepVerifier.create(result.contextWrite(ReactiveSecurityContextHolder.withAuthentication(userAuth(1L))))
+                .assertNext(change -> {
+                    assertThat(change.deleted()).isFalse();
+                    assertThat(change.item()).isEqualTo(testItemDto);
+                    assertThat(ChangeCursor.decode(change.cursor())).isEqualTo(new ChangeCursor(updatedAt, 1L));
+                })
+                .assertNext(change -> {
+                    assertThat(change.id()).isEqualTo(2L);
+                    assertThat(change.deleted()).isTrue();
+                    assertThat(change.item()).isNull();
+                })
+                .verifyComplete();
+
+        verify(itemMapper, never()).toDto(deletedItem);
+    }
+
+    @Test
+    void getChanges_shouldContinueFromCursor() {
+        Instant updatedAt = Instant.parse("2024-05-01T10:00:00Z");
+        String since = ChangeCursor.of(updatedAt, 42L).encode();
+        when(itemRepository.findChangesByOwnerId(eq(1L), eq(updatedAt), eq(42L), any(Instant.class), eq(100)))
+                .thenReturn(Flux.empty());
+
+        StepVerifier.create(wardrobeItemService.getChanges(since, 100)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(userAuth(1L))))
+                .verifyComplete();
+    }
+
+    @Test
+    void getChanges_shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> wardrobeItemService.getChanges("not-a-cursor", 100))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(itemRepository);
     }
 }
\ No newline at end of file